@@ -34,7 +34,7 @@ if [ ! -f "$TOKEN_FILE" ]; then
 fi
 
 # Refresh Token 추출
-REFRESH_TOKEN=$(cat "$TOKEN_FILE" | grep -o '"refresh_token":"[^"]*"' | cut -d'"' -f4)
+REFRESH_TOKEN=$(cat "$TOKEN_FILE" | grep -o '"refresh_token": *"[^"]*"' | cut -d'"' -f4)
 
 if [ -z "$REFRESH_TOKEN" ]; then
     echo -e "${RED}❌ Refresh Token을 찾을 수 없습니다.${NC}"
@@ -64,10 +64,11 @@ if echo "$RESPONSE" | grep -q "access_token"; then
     echo -e "${BLUE}만료 시간:${NC} ${EXPIRES_IN}초 (약 $(($EXPIRES_IN / 3600))시간)"
 
     # 토큰 파일 업데이트
+    # 서버가 파일 변경을 감시하므로 임시 파일에 쓴 뒤 mv로 한 번에 교체 (쓰는 도중의 파일을 읽지 않도록)
     # Refresh Token이 새로 발급될 수도 있음
     if echo "$RESPONSE" | grep -q "refresh_token"; then
         NEW_REFRESH_TOKEN=$(echo "$RESPONSE" | grep -o '"refresh_token":"[^"]*"' | cut -d'"' -f4)
-        cat > "$TOKEN_FILE" <<EOF
+        cat > "$TOKEN_FILE.tmp" <<EOF
 {
   "access_token": "$NEW_ACCESS_TOKEN",
   "refresh_token": "$NEW_REFRESH_TOKEN",
@@ -77,7 +78,7 @@ if echo "$RESPONSE" | grep -q "access_token"; then
 EOF
     else
         # Refresh Token은 그대로 유지
-        cat > "$TOKEN_FILE" <<EOF
+        cat > "$TOKEN_FILE.tmp" <<EOF
 {
   "access_token": "$NEW_ACCESS_TOKEN",
   "refresh_token": "$REFRESH_TOKEN",
@@ -86,6 +87,7 @@ EOF
 }
 EOF
     fi
+    mv -f "$TOKEN_FILE.tmp" "$TOKEN_FILE"
 
     echo ""
     echo -e "${GREEN}✓ 토큰 파일 업데이트 완료: $TOKEN_FILE${NC}"
@@ -0,0 +1,72 @@
+package jy.demo.api;
+
+import jy.demo.util.JsonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebClientImpl 헤더/폼 데이터 변환 벤치마크
+ * post(String, String, String) 경로: 헤더 JSON 파싱 -> toStringMap, 본문 JSON -> form 본문
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WebClientImplBenchmark {
+
+    private final JsonUtil jsonUtil = new JsonUtil();
+
+    private String headersJson;
+    private Map<String, Object> headers;
+    private String text;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        headersJson = JsonUtil.toJson(Map.of(
+            ApiClient.CONTENT_TYPE, ApiClient.APP_TYPE_URL_ENCODED,
+            "Authorization", "Bearer sample-access-token"
+        ));
+        headers = JsonUtil.toMap(headersJson);
+        text = "오늘의 테크 인사이트: " + "가".repeat(150);
+        body = jsonUtil.createKakaoSendMsgJson(text);
+    }
+
+    @Benchmark
+    public Map<String, String> toStringMap() {
+        return WebClientImpl.toStringMap(headers);
+    }
+
+    /**
+     * JSON 본문 -> form 본문 (토큰 단위 변환)
+     */
+    @Benchmark
+    public String jsonToFormBody() {
+        return JsonUtil.toFormBody(body);
+    }
+
+    /**
+     * 카카오 전송 form 본문을 DTO에서 바로 기록
+     */
+    @Benchmark
+    public String createKakaoSendMsgForm() {
+        return jsonUtil.createKakaoSendMsgForm(text);
+    }
+
+    /**
+     * post(String, String, String) 에서 요청 전까지 수행되는 변환 전체
+     */
+    @Benchmark
+    public void stringHeadersPostPath(Blackhole blackhole) {
+        blackhole.consume(WebClientImpl.toStringMap(JsonUtil.toMap(headersJson)));
+        blackhole.consume(JsonUtil.toFormBody(body));
+    }
+}
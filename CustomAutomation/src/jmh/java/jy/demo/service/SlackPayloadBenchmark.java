@@ -0,0 +1,53 @@
+package jy.demo.service;
+
+import jy.demo.dto.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slack 페이로드 생성 벤치마크
+ * 페이로드는 JsonGenerator로 바로 바이트에 기록되므로 생성 = 직렬화 비용이다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlackPayloadBenchmark {
+
+    private String theme;
+    private String content;
+    private List<Message> digest;
+
+    @Setup
+    public void setUp() {
+        theme = "🚀 Tech Insight";
+        content = "*오늘의 기술 동향*\n" + "• 인공지능 에이전트와 검색 결합 사례\n".repeat(40);
+        digest = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            digest.add(new Message(theme, content));
+        }
+    }
+
+    @Benchmark
+    public byte[] buildTextPayload() {
+        return SlackMsgService.buildTextPayload(content);
+    }
+
+    @Benchmark
+    public byte[] buildRichPayload() {
+        return SlackMsgService.buildRichPayload(theme, content);
+    }
+
+    @Benchmark
+    public byte[] buildDigestPayload() {
+        return SlackMsgService.buildDigestPayload(digest);
+    }
+}
@@ -0,0 +1,38 @@
+package jy.demo.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 응답 파싱 벤치마크 ("answer :" 프리픽스, <end> 태그 제거)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AiResponseParserBenchmark {
+
+    // 응답 본문 길이 (문자 수)
+    @Param({"200", "4000"})
+    private int length;
+
+    private String rawResponse;
+
+    @Setup
+    public void setUp() {
+        String body = "인공지능 기술 동향에 대한 요약입니다. ".repeat(length / 20 + 1).substring(0, length);
+        rawResponse = "answer : " + body + "<end> [stop]";
+    }
+
+    @Benchmark
+    public String parse() {
+        return AiResponseParser.parse(rawResponse);
+    }
+}
@@ -0,0 +1,89 @@
+package jy.demo.util;
+
+import jy.demo.dto.KakaoMsgDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 카카오 메시지 전송 시 거치는 JSON 변환 경로 벤치마크
+ * DTO -> Map -> JSON 문자열 -> URL 인코딩
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonUtilBenchmark {
+
+    private final JsonUtil jsonUtil = new JsonUtil();
+
+    private KakaoMsgDto dto;
+    private String text;
+    private String dtoJson;
+    private String kakaoResponse;
+
+    @Setup
+    public void setUp() {
+        text = "오늘의 테크 인사이트: " + "가".repeat(150);
+        dto = new KakaoMsgDto(text);
+        dtoJson = JsonUtil.toJson(dto);
+        kakaoResponse = "{\"result_code\":0,\"msg\":\"success\",\"extra\":{\"items\":[1,2,3]}}";
+    }
+
+    @Benchmark
+    public String toJsonFromDto() {
+        return JsonUtil.toJson(dto);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMapFromJson() {
+        return JsonUtil.toMap(dtoJson);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMapFromDto() {
+        return JsonUtil.toMap(dto);
+    }
+
+    /**
+     * toMap(dto) 후 다시 toJson: 전송 경로의 왕복 변환
+     */
+    @Benchmark
+    public String roundTrip() {
+        return JsonUtil.toJson(JsonUtil.toMap(dto));
+    }
+
+    @Benchmark
+    public String toEncodedUrl() {
+        return JsonUtil.toEncodedUrl(dto);
+    }
+
+    @Benchmark
+    public byte[] toJsonBytesFromDto() {
+        return JsonUtil.toJsonBytes(dto);
+    }
+
+    @Benchmark
+    public String toFormBodyFromDto() {
+        return JsonUtil.toFormBody(dto);
+    }
+
+    /**
+     * 카카오 전송 응답에서 result_code만 읽기 (나머지 건너뜀)
+     */
+    @Benchmark
+    public Map<String, String> readResultCode() {
+        return JsonUtil.readFields(kakaoResponse, "result_code", "msg");
+    }
+
+    @Benchmark
+    public String createKakaoSendMsgJson() {
+        return jsonUtil.createKakaoSendMsgJson(text);
+    }
+}
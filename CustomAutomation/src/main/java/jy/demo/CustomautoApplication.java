@@ -1,5 +1,7 @@
 package jy.demo;
 
+import java.util.Map;
+
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -11,7 +13,15 @@ import org.springframework.context.annotation.Bean;
 public class CustomautoApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(CustomautoApplication.class, args);
+		SpringApplication app = new SpringApplication(CustomautoApplication.class);
+		// application.yml에서 덮어쓸 수 있는 기본값
+		// - virtual thread: Java 21 이상에서 실행될 때만 적용되고 Java 17에서는 무시된다.
+		// - metrics/prometheus: 파이프라인, OpenAI 호출 메트릭 조회용 (/actuator/prometheus)
+		app.setDefaultProperties(Map.of(
+			"spring.threads.virtual.enabled", "true",
+			"management.endpoints.web.exposure.include", "health,metrics,prometheus"
+		));
+		app.run(args);
 	}
 
 	@Bean
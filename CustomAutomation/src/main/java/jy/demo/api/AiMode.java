@@ -0,0 +1,20 @@
+package jy.demo.api;
+
+/**
+ * AI 호출 모드
+ * - PLAIN: 프롬프트만 전달
+ * - SEARCH: 웹 검색 결과를 포함해서 응답
+ * - AGENT: 자율 에이전트가 검색 전략을 결정해서 응답 (가장 오래 걸림)
+ */
+public enum AiMode {
+    PLAIN,
+    SEARCH,
+    AGENT;
+
+    public static AiMode of(boolean search, boolean agent) {
+        if (agent) {
+            return AGENT;
+        }
+        return search ? SEARCH : PLAIN;
+    }
+}
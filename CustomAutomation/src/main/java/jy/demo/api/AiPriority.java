@@ -0,0 +1,13 @@
+package jy.demo.api;
+
+/**
+ * AI 호출 우선순위 (선언 순서가 높은 순)
+ * - SCHEDULED: 정기/수신자 일정 전송
+ * - MANUAL: 수동 실행 (/scheduled/manual)
+ * - ADHOC: 즉석 요청 (/ai 등)
+ */
+public enum AiPriority {
+    SCHEDULED,
+    MANUAL,
+    ADHOC
+}
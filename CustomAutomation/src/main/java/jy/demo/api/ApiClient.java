@@ -3,6 +3,8 @@ package jy.demo.api;
 import java.util.HashMap;
 import java.util.Map;
 
+import reactor.core.publisher.Mono;
+
 public interface ApiClient {
 
     final String CONTENT_TYPE = "Content-Type";
@@ -11,6 +13,11 @@ public interface ApiClient {
 
     String post(String uri, String body, String headers);
 
+    /**
+     * 블로킹 없이 응답을 받는 버전 (구독할 때 요청을 보낸다)
+     */
+    Mono<String> postMono(String uri, String body, String headers);
+
     default Map<String, Object> generateUrlEncodedHeader(){
         Map<String, Object> headers = new HashMap<>();
         headers.put(CONTENT_TYPE, APP_TYPE_URL_ENCODED);
@@ -1,24 +1,58 @@
 package jy.demo.api;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.entity.EntityBuilder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
 import org.springframework.beans.factory.annotation.Value;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import org.springframework.web.client.RestClientResponseException;
+
+import jy.demo.dto.ChatCompletionRequest;
+import jy.demo.service.AiResponseCache;
+import jy.demo.util.JsonUtil;
+import jy.demo.util.SingleFlight;
+import jy.demo.util.UpstreamGuard;
 
 
+/**
+ * OpenAI Chat Completions 클라이언트
+ * 커넥션 풀(keep-alive)을 공유하므로 호출마다 TCP/TLS 연결을 새로 맺지 않는다.
+ * 같은 프롬프트의 일반 요청이 진행 중이면 새로 호출하지 않고 그 응답을 함께 받는다. (스트리밍 요청은 제외)
+ */
 @Component
 public class ChatGPTClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChatGPTClient.class);
+
     @Value("${openai.apiKey}")
     private String apiKey;
     @Value("${openai.apiUrl}")
@@ -26,73 +60,199 @@ public class ChatGPTClient {
     @Value("${openai.model}")
 	private String model;
 
-    public String sendRequest(String userPrompt, String systemPrompt) {
-        JSONArray jsonArr = new JSONArray();
-        JSONObject system = new JSONObject();
-        system.put("role", "system");
-        system.put("content", systemPrompt);
-
-        jsonArr.put(system);
-
-        JSONObject user = new JSONObject();
-        user.put("role", "user");
-
-        JSONArray userJsonArr = new JSONArray();
-        if (!userPrompt.isEmpty()) {
-            JSONObject textContent = new JSONObject();
-            textContent.put("type", "text");
-            textContent.put("text", userPrompt);
-            userJsonArr.put(textContent);
-        }
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final long totalTimeoutMs;
+    // 재시도를 포함한 일반 요청 제한 시간 (호출자가 포기한 뒤에는 재시도하지 않음)
+    private final Duration deadline;
+    // total timeout이 지나면 요청을 abort 시키기 위한 스케줄러
+    private final ScheduledExecutorService timeoutScheduler =
+        Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("openai-timeout-"));
+    private final MeterRegistry meterRegistry;
+    private final UpstreamGuard upstreamGuard;
+    private final SingleFlight<String, String> inFlight;
+
+    public ChatGPTClient(
+            MeterRegistry meterRegistry,
+            UpstreamGuard upstreamGuard,
+            @Value("${openai.http.max-total:20}") int maxTotal,
+            @Value("${openai.http.max-per-route:10}") int maxPerRoute,
+            @Value("${openai.http.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${openai.http.read-timeout-ms:120000}") int readTimeoutMs,
+            @Value("${openai.http.total-timeout-ms:180000}") long totalTimeoutMs,
+            @Value("${openai.http.idle-timeout-ms:60000}") long idleTimeoutMs,
+            @Value("${openai.http.deadline-ms:190000}") long deadlineMs) {
+        this.meterRegistry = meterRegistry;
+        this.upstreamGuard = upstreamGuard;
+        this.inFlight = new SingleFlight<>("openai", meterRegistry);
+        this.totalTimeoutMs = totalTimeoutMs;
+        this.deadline = Duration.ofMillis(deadlineMs);
+
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(connectTimeoutMs)
+            .setConnectionRequestTimeout(connectTimeoutMs)
+            .setSocketTimeout(readTimeoutMs)
+            .build();
+
+        this.httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+            .setDefaultRequestConfig(requestConfig)
+            .evictExpiredConnections()
+            .evictIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS)
+            .build();
+    }
 
-        JSONObject detail = new JSONObject();
-        detail.put("detail", "high");
+    @PreDestroy
+    public void close() throws IOException {
+        timeoutScheduler.shutdownNow();
+        httpClient.close();
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank() && apiUrl != null && !apiUrl.isBlank();
+    }
 
-        user.put("content", userJsonArr);
-        jsonArr.put(user);
+    public String sendRequest(String userPrompt, String systemPrompt) {
+        String key = AiResponseCache.key(systemPrompt + "\u0000" + userPrompt, AiMode.PLAIN, model);
+        return inFlight.call(key, () -> complete(userPrompt, systemPrompt));
+    }
 
-        JSONObject reqJson = new JSONObject();
-        reqJson.put("model", model);
-        reqJson.put("messages", jsonArr);
-        reqJson.put("max_tokens", 4096);
-        reqJson.put("temperature", 0);
-        reqJson.put("seed", 2024);
-        String requestData = reqJson.toString();
-        System.out.println("input >>>> " + requestData);
+    private String complete(String userPrompt, String systemPrompt) {
+        byte[] requestData = JsonUtil.toJsonBytes(new ChatCompletionRequest(model, systemPrompt, userPrompt, false));
+        if (logger.isDebugEnabled()) {
+            logger.debug("input >>>> {}", new String(requestData, StandardCharsets.UTF_8));
+        }
+
+        // 응답 스트림에서 choices[0].message.content만 읽고 나머지는 건너뜀
+        String content = callAPI(requestData, false,
+            reader -> JsonUtil.readPath(reader, "choices", "0", "message", "content"));
+        if (content == null) {
+            throw new IllegalStateException("OpenAI API 응답에 content가 없습니다.");
+        }
+        return content;
+    }
 
-        String result = callAPI(requestData);
+    /**
+     * 스트리밍 모드(stream: true)로 요청하고 토큰이 도착할 때마다 onToken을 호출
+     *
+     * @return 전체 응답 텍스트
+     */
+    public String streamRequest(String userPrompt, String systemPrompt, Consumer<String> onToken) {
+        byte[] requestData = JsonUtil.toJsonBytes(new ChatCompletionRequest(model, systemPrompt, userPrompt, true));
+        if (logger.isDebugEnabled()) {
+            logger.debug("input(stream) >>>> {}", new String(requestData, StandardCharsets.UTF_8));
+        }
 
-        JSONObject output = new JSONObject(result);
-        return output.getJSONArray("choices").getJSONObject(0).getJSONObject("message").getString("content");
+        return callAPI(requestData, true, reader -> {
+            StringBuilder content = new StringBuilder();
+            BufferedReader lines = new BufferedReader(reader);
+            String line;
+            // SSE 형식: "data: {json}" ... "data: [DONE]"
+            while ((line = lines.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring(5).trim();
+                if ("[DONE]".equals(data)) {
+                    break;
+                }
+                String token = JsonUtil.readPath(data, "choices", "0", "delta", "content");
+                if (token != null) {
+                    content.append(token);
+                    onToken.accept(token);
+                }
+            }
+            return content.toString();
+        });
     }
 
+    /**
+     * 일반 요청은 재시도(지수 백오프)까지 적용하고,
+     * 스트리밍 요청은 이미 전달한 토큰이 중복되지 않도록 재시도하지 않는다.
+     */
+    private <T> T callAPI(byte[] requestData, boolean stream, BodyReader<T> bodyReader) {
+        if (stream) {
+            return upstreamGuard.call(UpstreamGuard.OPENAI, () -> execute(requestData, true, bodyReader));
+        }
+        return upstreamGuard.callWithRetry(UpstreamGuard.OPENAI, deadline, () -> execute(requestData, false, bodyReader));
+    }
 
-    private String callAPI(String requestData) {
-        StringBuilder response = new StringBuilder();
-        HttpClient httpClient = HttpClients.createDefault();
+    private <T> T execute(byte[] requestData, boolean stream, BodyReader<T> bodyReader) {
         HttpPost httpPost = new HttpPost(apiUrl);
         httpPost.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
         httpPost.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey);
+        httpPost.setEntity(new ByteArrayEntity(requestData, ContentType.APPLICATION_JSON));
 
-        httpPost.setEntity(EntityBuilder.create().setText(requestData).build());
-        try {
-            HttpResponse httpResponse = httpClient.execute(httpPost);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        ScheduledFuture<?> abortTask = timeoutScheduler.schedule(httpPost::abort, totalTimeoutMs, TimeUnit.MILLISECONDS);
+        try (CloseableHttpResponse httpResponse = httpClient.execute(httpPost)) {
+            int status = httpResponse.getStatusLine().getStatusCode();
             HttpEntity entity = httpResponse.getEntity();
-            if (entity != null) {
-                try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(entity.getContent()))) {
-                    String line;
-                    System.out.print("output >>>> ");
-                    while ((line = bufferedReader.readLine()) != null) {
-                        System.out.println(line);
-                        response.append(line);
-                    }
-                }
+
+            if (status / 100 != 2) {
+                byte[] body = entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
+                outcome = String.valueOf(status);
+                // 상태 코드로 재시도 여부(429, 5xx)와 서킷 브레이커 실패 여부(4xx 제외)를 판정한다.
+                throw new RestClientResponseException(
+                    "OpenAI API 호출 실패 (status=" + status + "): " + new String(body, StandardCharsets.UTF_8),
+                    status, httpResponse.getStatusLine().getReasonPhrase(), null, body, StandardCharsets.UTF_8);
+            }
+            if (entity == null) {
+                throw new IllegalStateException("OpenAI API 응답이 비어있습니다.");
+            }
+
+            try (Reader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+                T output = readBody(bodyReader, reader);
+                outcome = "success";
+                return output;
+            }
+        } catch (ClientAbortedException e) {
+            // SSE 클라이언트가 연결을 끊음: OpenAI 실패가 아니므로 감싸지 않고 그대로 전달
+            outcome = "client_aborted";
+            throw e;
+        } catch (IOException e) {
+            if (httpPost.isAborted()) {
+                outcome = "timeout";
+                throw new IllegalStateException("OpenAI API 호출 시간 초과 (" + totalTimeoutMs + "ms)", e);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "";
+            throw new IllegalStateException("OpenAI API 호출 실패: " + e.getMessage(), e);
+        } finally {
+            abortTask.cancel(false);
+            sample.stop(Timer.builder("openai.request")
+                .description("OpenAI API 호출 소요시간")
+                .tag("model", model)
+                .tag("stream", String.valueOf(stream))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
         }
+    }
+
+    /**
+     * JsonUtil이 감싼 UncheckedIOException을 IOException으로 되돌려 abort(시간 초과) 판정에 포함시킨다.
+     * 토큰 콜백의 ClientAbortedException은 RuntimeException이므로 그대로 통과한다.
+     */
+    private static <T> T readBody(BodyReader<T> bodyReader, Reader reader) throws IOException {
+        try {
+            return bodyReader.read(reader);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        return response.toString();
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(Reader reader) throws IOException;
     }
 }
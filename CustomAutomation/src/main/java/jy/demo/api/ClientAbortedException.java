@@ -0,0 +1,12 @@
+package jy.demo.api;
+
+/**
+ * 스트리밍 응답을 받던 클라이언트가 연결을 끊음
+ * 업스트림(OpenAI, Dalai) 장애가 아니므로 서킷 브레이커 실패율과 재시도 판정에 넣지 않는다.
+ */
+public class ClientAbortedException extends RuntimeException {
+
+    public ClientAbortedException(Throwable cause) {
+        super("클라이언트 연결이 끊어졌습니다.", cause);
+    }
+}
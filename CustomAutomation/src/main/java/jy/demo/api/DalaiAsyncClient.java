@@ -0,0 +1,186 @@
+package jy.demo.api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jy.demo.service.AiResponseCache;
+import jy.demo.util.PipelineMetrics;
+import jy.demo.util.RetryClassifier;
+import jy.demo.util.SingleFlight;
+import jy.demo.util.UpstreamGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * DalaiClient(Feign)를 비동기로 호출하는 클라이언트
+ * Feign 호출은 시도마다 DalaiGateway에 넘긴다. 게이트웨이가 동시 호출 한도/우선순위 대기열을 거쳐
+ * 차례가 온 호출을 dalaiExecutor에서 실행하므로, 에이전트 모드처럼 수 분이 걸리는 호출이 Tomcat 요청 스레드를 점유하지 않는다.
+ * 같은 프롬프트/모드의 응답은 AiResponseCache에서 바로 반환하고,
+ * 같은 요청이 아직 생성 중이면 새로 호출하지 않고 그 결과를 함께 받는다. (로컬 Dalai 인스턴스 하나에 부하가 몰리지 않도록)
+ * 재시도(백오프 대기 포함)는 게이트웨이 바깥에서 하므로 대기 중에는 게이트웨이 자리를 차지하지 않는다.
+ */
+@Component
+public class DalaiAsyncClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(DalaiAsyncClient.class);
+
+    public static final String MODEL = "dalai";
+
+    private final DalaiClient dalaiClient;
+    private final DalaiGateway gateway;
+    private final AiResponseCache responseCache;
+    private final PipelineMetrics metrics;
+    private final UpstreamGuard upstreamGuard;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<String, String> inFlight;
+    // 실제 Dalai 요청(재시도 포함)이 끝날 때마다 (응답 시간 ms, 오류 또는 null)
+    private final List<BiConsumer<Long, Throwable>> callListeners = new CopyOnWriteArrayList<>();
+    // 재시도를 포함한 호출 제한 시간 (MVC 비동기 요청 제한 시간이 지난 뒤에는 재시도하지 않음)
+    private final Duration requestTimeout;
+
+    public DalaiAsyncClient(
+            DalaiClient dalaiClient,
+            DalaiGateway gateway,
+            AiResponseCache responseCache,
+            PipelineMetrics metrics,
+            UpstreamGuard upstreamGuard,
+            MeterRegistry meterRegistry,
+            @Value("${dalai.async.request-timeout-ms:190000}") long requestTimeoutMs) {
+        this.dalaiClient = dalaiClient;
+        this.gateway = gateway;
+        this.responseCache = responseCache;
+        this.metrics = metrics;
+        this.upstreamGuard = upstreamGuard;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new SingleFlight<>(MODEL, meterRegistry);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    public CompletableFuture<String> sendPrompt(String q) {
+        return request(q, AiMode.PLAIN);
+    }
+
+    public CompletableFuture<String> sendPromptWithSearchAgent(String q, boolean search, boolean agent) {
+        return request(q, AiMode.of(search, agent));
+    }
+
+    /**
+     * 즉석 요청 (우선순위 ADHOC)
+     */
+    public CompletableFuture<String> request(String prompt, AiMode mode) {
+        return request(prompt, mode, AiPriority.ADHOC);
+    }
+
+    public CompletableFuture<String> request(String prompt, AiMode mode, AiPriority priority) {
+        return request(prompt, mode, priority, responseCache.ttlFor(mode));
+    }
+
+    /**
+     * @param priority Dalai 대기열 우선순위 (대기열이 가득 차면 DalaiOverloadedException)
+     * @param cacheTtl 응답을 캐시에 보관할 시간 (0이면 캐시에 저장하지 않음)
+     */
+    public CompletableFuture<String> request(String prompt, AiMode mode, AiPriority priority, Duration cacheTtl) {
+        String key = AiResponseCache.key(prompt, mode, MODEL);
+        // 캐시 저장까지 한 흐름 안에서 끝내야 완료 직후 들어온 요청이 캐시도 진행 중 호출도 못 보고 다시 호출하지 않는다.
+        // TTL/우선순위가 다른 요청이 붙으면 먼저 시작한 요청의 값을 따른다.
+        return inFlight.execute(key, () -> responseCache.getOrLoadAsync(key, cacheTtl,
+            () -> call(prompt, mode, priority)));
+    }
+
+    /**
+     * 실제 Dalai 요청이 끝날 때마다 호출 (캐시 적중, 진행 중인 같은 요청에 합류한 호출은 제외)
+     */
+    public void addCallListener(BiConsumer<Long, Throwable> listener) {
+        callListeners.add(listener);
+    }
+
+    public CompletableFuture<String> performWebSearch(String query, String source) {
+        return gateway.submit(AiPriority.ADHOC, AiMode.SEARCH.name(),
+            () -> upstreamGuard.call(UpstreamGuard.DALAI, () -> dalaiClient.performWebSearch(query, source)));
+    }
+
+    /**
+     * 시도마다 게이트웨이를 다시 거친다. (지연 표본/과부하 신호가 서버 호출 한 번 단위가 되도록)
+     * 시간 초과/5xx/429는 지수 백오프로 재시도하되, 재시도 예산과 제한 시간(request-timeout-ms) 안에서만 한다.
+     * 백오프 중에는 게이트웨이 자리도 스레드도 차지하지 않는다.
+     */
+    private CompletableFuture<String> call(String prompt, AiMode mode, AiPriority priority) {
+        Timer.Sample sample = metrics.start();
+        upstreamGuard.recordAttempt(UpstreamGuard.DALAI);
+        long startedAt = System.currentTimeMillis();
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        return attempt(prompt, mode, priority, 1, deadline)
+            .whenComplete((value, error) -> {
+                Throwable cause = unwrap(error);
+                metrics.recordAiCall(sample, mode, PipelineMetrics.outcomeOf(cause));
+                notifyListeners(System.currentTimeMillis() - startedAt, cause);
+            });
+    }
+
+    private void notifyListeners(long latencyMs, Throwable error) {
+        callListeners.forEach(listener -> {
+            try {
+                listener.accept(latencyMs, error);
+            } catch (RuntimeException e) {
+                logger.warn("Dalai 호출 리스너 실패: {}", e.getMessage());
+            }
+        });
+    }
+
+    private CompletableFuture<String> attempt(String prompt, AiMode mode, AiPriority priority, int attempt, long deadline) {
+        // Dalai 서버가 멈추면 서킷이 열려 read timeout(180s)을 기다리지 않고 바로 실패
+        CompletableFuture<String> response = gateway.submit(priority, mode.name(),
+            () -> upstreamGuard.call(UpstreamGuard.DALAI, () -> callDalai(prompt, mode)));
+        return response.handle((value, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            Throwable cause = unwrap(error);
+            // 게이트웨이 대기열 거절은 Retry-After와 함께 호출자에게 바로 알린다
+            if (cause instanceof DalaiOverloadedException
+                    || !RetryClassifier.isRetryable(cause)
+                    || attempt >= upstreamGuard.maxAttempts(UpstreamGuard.DALAI)) {
+                return CompletableFuture.<String>failedFuture(cause);
+            }
+            long delayMs = upstreamGuard.retryDelayMs(UpstreamGuard.DALAI, attempt);
+            if (deadline - System.nanoTime() <= TimeUnit.MILLISECONDS.toNanos(delayMs)) {
+                meterRegistry.counter("upstream.retry.deadline.skipped", "name", UpstreamGuard.DALAI).increment();
+                return CompletableFuture.<String>failedFuture(cause);
+            }
+            if (!upstreamGuard.tryRetry(UpstreamGuard.DALAI)) {
+                return CompletableFuture.<String>failedFuture(cause);
+            }
+            logger.warn("Dalai 호출 실패, {}ms 후 재시도 ({}/{}): {}",
+                delayMs, attempt + 1, upstreamGuard.maxAttempts(UpstreamGuard.DALAI), cause.getMessage());
+            Executor delayed = CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS);
+            return CompletableFuture.runAsync(() -> { }, delayed)
+                .thenCompose(ignored -> attempt(prompt, mode, priority, attempt + 1, deadline));
+        }).thenCompose(Function.identity());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private String callDalai(String prompt, AiMode mode) {
+        switch (mode) {
+            case AGENT:
+                return dalaiClient.sendPromptWithSearchAgent(prompt, true, true);
+            case SEARCH:
+                return dalaiClient.sendPromptWithSearch(prompt, true);
+            default:
+                return dalaiClient.sendPrompt(prompt);
+        }
+    }
+}
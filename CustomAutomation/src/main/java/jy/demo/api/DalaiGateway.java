@@ -0,0 +1,402 @@
+package jy.demo.api;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jy.demo.util.GradientLimit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 로컬 Dalai 서버 앞단의 동시 호출 제한 + 우선순위 대기열
+ *
+ * - 동시 호출 한도는 GradientLimit이 응답 지연을 보고 조정한다. (서버에 대기열이 쌓이기 시작하면 줄임)
+ * - 한도를 넘는 요청은 우선순위(SCHEDULED > MANUAL > ADHOC)별 대기열에서 기다리고,
+ *   호출이 끝날 때마다 높은 우선순위부터 꺼내 실행한다. 같은 우선순위는 먼저 온 순서.
+ * - 대기열이 max-queue에 차면 가장 낮은 우선순위의 가장 최근 요청을 밀어내고,
+ *   밀어낼 요청이 없으면 DalaiOverloadedException(429 + Retry-After)으로 바로 거절한다.
+ * - 지연 표본과 과부하 신호는 서버 호출 한 번 단위로 기록한다. 재시도는 호출자가 시도마다 다시 submit한다.
+ *   과부하 신호는 시간 초과와 5xx만 본다.
+ * - 스트리밍 호출(stream)도 같은 한도를 쓰고, 스트림이 끝날 때까지 자리를 차지한다.
+ *
+ * 메트릭: dalai.gateway.limit, dalai.gateway.inflight, dalai.gateway.queued{priority},
+ *        dalai.gateway.rejected{priority}, dalai.gateway.queue.wait{priority}
+ */
+@Component
+public class DalaiGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(DalaiGateway.class);
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final GradientLimit limit;
+    private final Executor dalaiExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int maxQueue;
+    private final Duration defaultRetryAfter;
+
+    // 아래 상태는 this로 보호
+    private final Map<AiPriority, ArrayDeque<Ticket>> queues = new EnumMap<>(AiPriority.class);
+    private int queued;
+    private int inFlight;
+
+    public DalaiGateway(
+            @Qualifier("dalaiExecutor") Executor dalaiExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${dalai.gateway.initial-limit:2}") int initialLimit,
+            @Value("${dalai.gateway.min-limit:1}") int minLimit,
+            @Value("${dalai.gateway.max-limit:8}") int maxLimit,
+            @Value("${dalai.gateway.smoothing:0.2}") double smoothing,
+            @Value("${dalai.gateway.tolerance:1.5}") double tolerance,
+            @Value("${dalai.gateway.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${dalai.gateway.long-window:100}") int longWindow,
+            @Value("${dalai.gateway.max-queue:32}") int maxQueue,
+            @Value("${dalai.gateway.default-retry-after-ms:30000}") long defaultRetryAfterMs) {
+        this.limit = new GradientLimit(initialLimit, minLimit, maxLimit, smoothing, tolerance, backoffRatio, longWindow);
+        this.dalaiExecutor = dalaiExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxQueue = maxQueue;
+        this.defaultRetryAfter = Duration.ofMillis(defaultRetryAfterMs);
+
+        for (AiPriority priority : AiPriority.values()) {
+            ArrayDeque<Ticket> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            Gauge.builder("dalai.gateway.queued", this, gateway -> gateway.queuedCount(priority))
+                .tag("priority", priority.name())
+                .register(meterRegistry);
+        }
+        Gauge.builder("dalai.gateway.limit", limit, GradientLimit::getLimit)
+            .description("Dalai 동시 호출 한도 (지연 기반 자동 조정)")
+            .register(meterRegistry);
+        Gauge.builder("dalai.gateway.inflight", this, DalaiGateway::inFlightCount)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 한도 안이면 바로, 아니면 우선순위 대기열에서 차례가 오면 dalaiExecutor에서 call을 실행
+     * call 하나가 Dalai 서버 호출 한 번이어야 한다. (재시도/백오프는 바깥에서, 시도마다 다시 submit)
+     *
+     * 반환한 future를 취소하면 대기열에서 빼고, 이미 자리를 받았으면 call을 실행하지 않고 반환한다.
+     *
+     * @param category 지연을 따로 재는 요청 종류 (예: AI 모드)
+     */
+    public <T> CompletableFuture<T> submit(AiPriority priority, String category, Supplier<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<Permit> admitted = acquire(priority, category);
+        future.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                admitted.cancel(false);
+            }
+        });
+        admitted.whenComplete((permit, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            try {
+                dalaiExecutor.execute(() -> run(permit, call, future));
+            } catch (TaskRejectedException e) {
+                permit.abandon();
+                future.completeExceptionally(overloaded("Dalai 호출 Executor가 가득 찼습니다."));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 스트리밍 호출도 같은 한도/대기열을 거친다.
+     * 차례가 오면 구독하고, 스트림이 끝나면 지연을 기록하며 자리를 반환한다. (대기 중 취소하면 대기열에서 뺀다)
+     */
+    public <T> Flux<T> stream(AiPriority priority, String category, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> Mono.fromFuture(acquire(priority, category))
+            .flatMapMany(permit -> Flux.defer(call)
+                .doOnError(permit::finish)
+                .doOnComplete(() -> permit.finish(null))
+                .doOnCancel(permit::abandon)));
+    }
+
+    private <T> void run(Permit permit, Supplier<T> call, CompletableFuture<T> future) {
+        if (future.isDone()) {
+            // Executor 대기 중에 취소됨
+            permit.abandon();
+            return;
+        }
+        permit.begin();
+        T value = null;
+        Throwable error = null;
+        try {
+            value = call.get();
+        } catch (RuntimeException | Error e) {
+            error = e;
+        }
+        permit.finish(error);
+
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(value);
+        }
+    }
+
+    /**
+     * 자리 하나를 받는다. 받은 Permit은 반드시 finish 또는 abandon으로 반환해야 한다.
+     */
+    private CompletableFuture<Permit> acquire(AiPriority priority, String category) {
+        Ticket ticket = new Ticket(priority, category);
+        Ticket evicted = null;
+        boolean runNow = false;
+        boolean rejected = false;
+
+        synchronized (this) {
+            if (queued == 0 && inFlight < limit.getLimit()) {
+                inFlight++;
+                runNow = true;
+            } else if (queued < maxQueue) {
+                enqueue(ticket);
+            } else {
+                evicted = evictLowerThan(priority);
+                if (evicted != null) {
+                    enqueue(ticket);
+                } else {
+                    rejected = true;
+                }
+            }
+        }
+
+        if (runNow) {
+            start(ticket);
+        } else if (evicted != null) {
+            reject(evicted);
+        } else if (rejected) {
+            reject(ticket);
+        }
+        // 대기 중에 취소되면 자리를 차지하지 않도록 대기열에서 뺀다 (이미 시작됐다면 start에서 반환)
+        ticket.future.whenComplete((permit, error) -> {
+            if (error instanceof CancellationException) {
+                dequeue(ticket);
+            }
+        });
+        return ticket.future;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("limit", limit.getLimit());
+        status.put("inFlight", inFlight);
+        Map<String, Integer> byPriority = new LinkedHashMap<>();
+        queues.forEach((priority, queue) -> byPriority.put(priority.name(), queue.size()));
+        status.put("queued", byPriority);
+        return status;
+    }
+
+    private void enqueue(Ticket ticket) {
+        queues.get(ticket.priority).addLast(ticket);
+        queued++;
+    }
+
+    private synchronized void dequeue(Ticket ticket) {
+        if (queues.get(ticket.priority).remove(ticket)) {
+            queued--;
+        }
+    }
+
+    /**
+     * priority보다 낮은 우선순위 중 가장 낮은 대기열의 가장 최근 요청을 꺼냄 (없으면 null)
+     */
+    private Ticket evictLowerThan(AiPriority priority) {
+        AiPriority[] priorities = AiPriority.values();
+        for (int i = priorities.length - 1; i > priority.ordinal(); i--) {
+            Ticket lowest = queues.get(priorities[i]).pollLast();
+            if (lowest != null) {
+                queued--;
+                return lowest;
+            }
+        }
+        return null;
+    }
+
+    private void start(Ticket ticket) {
+        long waited = System.nanoTime() - ticket.createdAt;
+        meterRegistry.timer("dalai.gateway.queue.wait", "priority", ticket.priority.name())
+            .record(waited, TimeUnit.NANOSECONDS);
+
+        int inFlightAtStart;
+        synchronized (this) {
+            inFlightAtStart = inFlight;
+        }
+        Permit permit = new Permit(ticket.category, inFlightAtStart);
+        if (!ticket.future.complete(permit)) {
+            // 기다리던 쪽이 이미 취소함
+            permit.abandon();
+        }
+    }
+
+    /**
+     * 서버 과부하 신호인지 (시간 초과, 5xx)
+     * 벌크헤드/대기열 포화, 서킷 OPEN 같은 이 인스턴스 안의 거절이나 4xx는 서버 지연과 무관하므로 반영하지 않는다.
+     */
+    private static boolean isOverloadSignal(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkheadFullException
+                    || cause instanceof DalaiOverloadedException
+                    || cause instanceof CallNotPermittedException) {
+                return false;
+            }
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+            if (cause instanceof FeignException feignError && feignError.status() > 0) {
+                return feignError.status() >= 500;
+            }
+            if (cause instanceof WebClientResponseException webClientError) {
+                return webClientError.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof RestClientResponseException restError) {
+                return restError.getStatusCode().is5xxServerError();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 자리를 반환하고 한도가 허락하는 만큼 대기 중인 요청을 높은 우선순위부터 시작
+     */
+    private void release() {
+        List<Ticket> next = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            int currentLimit = limit.getLimit();
+            while (queued > 0 && inFlight < currentLimit) {
+                Ticket ticket = pollHighest();
+                inFlight++;
+                next.add(ticket);
+            }
+        }
+        next.forEach(this::start);
+    }
+
+    private Ticket pollHighest() {
+        for (ArrayDeque<Ticket> queue : queues.values()) {
+            Ticket ticket = queue.pollFirst();
+            if (ticket != null) {
+                queued--;
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    private void reject(Ticket ticket) {
+        meterRegistry.counter("dalai.gateway.rejected", "priority", ticket.priority.name()).increment();
+        logger.warn("Dalai 대기열이 가득 차서 {} 요청을 거절합니다.", ticket.priority);
+        ticket.future.completeExceptionally(overloaded("Dalai 서버가 처리할 수 있는 요청 수를 넘었습니다."));
+    }
+
+    /**
+     * Retry-After: 대기열이 한 바퀴 도는 데 걸리는 예상 시간 (지연 표본이 없으면 기본값)
+     */
+    private DalaiOverloadedException overloaded(String message) {
+        long rttNanos = limit.getMaxLongRttNanos();
+        Duration retryAfter = defaultRetryAfter;
+        if (rttNanos > 0) {
+            int rounds;
+            synchronized (this) {
+                rounds = queued / Math.max(1, limit.getLimit()) + 1;
+            }
+            retryAfter = Duration.ofNanos(rttNanos * rounds);
+        }
+        if (retryAfter.compareTo(MIN_RETRY_AFTER) < 0) {
+            retryAfter = MIN_RETRY_AFTER;
+        }
+        return new DalaiOverloadedException(message, retryAfter);
+    }
+
+    private synchronized int queuedCount(AiPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    private synchronized int inFlightCount() {
+        return inFlight;
+    }
+
+    private static final class Ticket {
+        private final AiPriority priority;
+        private final String category;
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+        private final long createdAt = System.nanoTime();
+
+        private Ticket(AiPriority priority, String category) {
+            this.priority = priority;
+            this.category = category;
+        }
+    }
+
+    /**
+     * 받은 자리 하나 (finish/abandon 중 처음 한 번만 반영)
+     */
+    private final class Permit {
+        private final String category;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long startedAt = System.nanoTime();
+
+        private Permit(String category, int inFlightAtStart) {
+            this.category = category;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * 실제 호출 시작 시각 (Executor 대기 시간은 서버 지연이 아니므로 뺀다)
+         */
+        private void begin() {
+            startedAt = System.nanoTime();
+        }
+
+        private void finish(Throwable error) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (error == null) {
+                limit.onSample(category, System.nanoTime() - startedAt, inFlightAtStart);
+            } else if (isOverloadSignal(error)) {
+                limit.onDropped();
+            }
+            release();
+        }
+
+        /**
+         * 지연을 기록하지 않고 자리만 반환 (취소, Executor 거절)
+         */
+        private void abandon() {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package jy.demo.api;
+
+import java.time.Duration;
+
+/**
+ * Dalai 대기열이 가득 차서 요청을 받지 않음 (HTTP 429 + Retry-After로 응답)
+ */
+public class DalaiOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public DalaiOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
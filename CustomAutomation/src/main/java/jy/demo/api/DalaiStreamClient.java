@@ -0,0 +1,76 @@
+package jy.demo.api;
+
+import jy.demo.util.UpstreamGuard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Dalai 서버 응답을 도착하는 대로 받아오는 스트리밍 클라이언트
+ * 서버가 chunked로 응답하면 줄 단위로 바로 전달되고, 한 번에 응답하면 전체가 한 번에 전달된다.
+ */
+@Component
+public class DalaiStreamClient {
+
+    private final WebClient webClient;
+    private final String dalaiUrl;
+    private final Duration timeout;
+    private final UpstreamGuard upstreamGuard;
+    private final DalaiGateway gateway;
+
+    public DalaiStreamClient(
+            WebClient webClient,
+            UpstreamGuard upstreamGuard,
+            DalaiGateway gateway,
+            @Value("${dalai.url:http://localhost:3000}") String dalaiUrl,
+            @Value("${dalai.stream.timeout-ms:180000}") long timeoutMs) {
+        this.webClient = webClient;
+        this.upstreamGuard = upstreamGuard;
+        this.gateway = gateway;
+        this.dalaiUrl = dalaiUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * 즉석 요청 (우선순위 ADHOC)
+     */
+    public Flux<String> stream(String prompt, AiMode mode) {
+        return stream(prompt, mode, AiPriority.ADHOC);
+    }
+
+    /**
+     * 응답 조각 스트림 (원본 그대로, 줄바꿈 포함)
+     * 일반 호출과 같은 DalaiGateway 한도/대기열을 거치고, 스트림이 끝날 때까지 자리를 차지한다.
+     */
+    public Flux<String> stream(String prompt, AiMode mode, AiPriority priority) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(dalaiUrl)
+            .path("/users")
+            .queryParam("q", prompt)
+            .queryParam("search", mode != AiMode.PLAIN)
+            .queryParam("agent", mode == AiMode.AGENT)
+            .encode()
+            .build()
+            .toUri();
+
+        // String으로 디코딩하면 줄 단위로 나뉘어 들어오므로 줄 사이에만 줄바꿈을 다시 붙인다.
+        // (마지막 줄 뒤에 붙이면 스트리밍 응답이 일반 응답과 달라짐)
+        Flux<String> response = webClient.get()
+            .uri(uri)
+            .accept(MediaType.TEXT_PLAIN, MediaType.ALL)
+            // 첫 응답까지 오래 걸릴 수 있으므로 공유 클라이언트의 응답 타임아웃 대신 스트림 타임아웃을 사용
+            .httpRequest(request -> WebClientImpl.applyResponseTimeout(request, timeout))
+            .retrieve()
+            .bodyToFlux(String.class)
+            .index()
+            .map(line -> line.getT1() == 0 ? line.getT2() : "\n" + line.getT2())
+            .timeout(timeout);
+        return gateway.stream(priority, mode.name() + "_STREAM", () -> upstreamGuard.stream(UpstreamGuard.DALAI, response));
+    }
+}
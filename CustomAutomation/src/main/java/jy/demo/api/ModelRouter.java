@@ -0,0 +1,322 @@
+package jy.demo.api;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jy.demo.config.ModelRouterProperties;
+import jy.demo.service.AiResponseCache;
+import jy.demo.util.RollingStats;
+import jy.demo.util.UpstreamGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 백엔드(로컬 Dalai / OpenAI) 라우터
+ *
+ * - 백엔드별 최근 window건의 응답 시간(p90)과 오류율을 기록하고, 정책(ai.router.policy)에 따라 요청마다 순서를 정한다.
+ *   표본은 실제 백엔드 호출마다 한 번 기록한다. (캐시 적중이나 진행 중인 같은 요청에 합류한 호출자는 기록하지 않음)
+ * - 서킷이 열렸거나 오류율이 max-error-rate를 넘은 백엔드는 순서의 맨 뒤로 미룬다.
+ *   표본은 sample-ttl-ms가 지나면 빠지므로, 밀려나 트래픽을 못 받던 백엔드도 그 뒤에는 다시 시도된다.
+ * - 첫 백엔드가 실패하면 다음 백엔드로 바로 대체 호출한다.
+ * - hedge-delay-ms가 있으면 첫 백엔드가 그 시간 안에 답하지 않을 때 다음 백엔드를 함께 호출하고 먼저 온 응답을 사용한다.
+ *   (늦은 쪽 호출은 취소하지 않고 끝까지 실행되며 응답은 캐시에만 남는다)
+ * - OpenAI는 웹 검색/에이전트를 지원하지 않으므로 SEARCH/AGENT 요청도 일반 답변으로 대신한다.
+ *
+ * 메트릭: ai.router.route{backend}, ai.router.result{backend, outcome}, ai.router.fallback, ai.router.hedge{result=started|won}
+ */
+@Component
+public class ModelRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelRouter.class);
+
+    public static final String DALAI = UpstreamGuard.DALAI;
+    public static final String OPENAI = UpstreamGuard.OPENAI;
+
+    private final DalaiAsyncClient dalaiClient;
+    private final ChatGPTClient chatGPTClient;
+    private final AiResponseCache responseCache;
+    private final UpstreamGuard upstreamGuard;
+    private final Executor openAiExecutor;
+    private final ModelRouterProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RollingStats> stats = new LinkedHashMap<>();
+    private final ScheduledExecutorService hedgeScheduler;
+
+    public ModelRouter(
+            DalaiAsyncClient dalaiClient,
+            ChatGPTClient chatGPTClient,
+            AiResponseCache responseCache,
+            UpstreamGuard upstreamGuard,
+            @Qualifier("openAiExecutor") Executor openAiExecutor,
+            ModelRouterProperties properties,
+            MeterRegistry meterRegistry) {
+        this.dalaiClient = dalaiClient;
+        this.chatGPTClient = chatGPTClient;
+        this.responseCache = responseCache;
+        this.upstreamGuard = upstreamGuard;
+        this.openAiExecutor = openAiExecutor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        stats.put(DALAI, new RollingStats(properties.getWindow(), properties.getSampleTtlMs()));
+        stats.put(OPENAI, new RollingStats(properties.getWindow(), properties.getSampleTtlMs()));
+        dalaiClient.addCallListener((latencyMs, error) -> record(DALAI, latencyMs, error));
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("router-hedge-");
+        threadFactory.setDaemon(true);
+        this.hedgeScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    public void close() {
+        hedgeScheduler.shutdownNow();
+    }
+
+    public CompletableFuture<String> generate(String prompt, AiMode mode, AiPriority priority) {
+        return generate(prompt, mode, priority, responseCache.ttlFor(mode));
+    }
+
+    /**
+     * 정책에 따라 고른 백엔드로 응답 생성 (실패 시 다음 백엔드, 설정 시 헤징)
+     */
+    public CompletableFuture<String> generate(String prompt, AiMode mode, AiPriority priority, Duration cacheTtl) {
+        List<String> candidates = route();
+        if (candidates.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("사용할 수 있는 AI 백엔드가 없습니다."));
+        }
+        meterRegistry.counter("ai.router.route", "backend", candidates.get(0)).increment();
+
+        Attempt attempt = new Attempt(candidates, new Request(prompt, mode, priority, cacheTtl));
+        attempt.launchNext();
+
+        long hedgeDelayMs = properties.getHedgeDelayMs();
+        if (hedgeDelayMs > 0 && candidates.size() > 1) {
+            hedgeScheduler.schedule(() -> {
+                if (!attempt.result.isDone() && attempt.launchNext()) {
+                    meterRegistry.counter("ai.router.hedge", "result", "started").increment();
+                    logger.info("{}ms 안에 응답이 없어 다음 백엔드를 함께 호출합니다.", hedgeDelayMs);
+                }
+            }, hedgeDelayMs, TimeUnit.MILLISECONDS);
+        }
+        return attempt.result;
+    }
+
+    /**
+     * 정책에 따른 백엔드 순서 (건강하지 않은 백엔드는 맨 뒤)
+     */
+    public List<String> route() {
+        List<String> healthy = new ArrayList<>();
+        List<String> degraded = new ArrayList<>();
+        for (String backend : stats.keySet()) {
+            if (!isAvailable(backend)) {
+                continue;
+            }
+            (isHealthy(backend) ? healthy : degraded).add(backend);
+        }
+        healthy.sort(policyOrder());
+        degraded.sort(Comparator.comparingDouble(this::errorRate));
+        healthy.addAll(degraded);
+        return healthy;
+    }
+
+    /**
+     * 백엔드별 최근 p90 응답 시간, 오류율, 표본 수
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("policy", properties.getPolicy());
+        status.put("route", route());
+        long now = System.currentTimeMillis();
+        stats.forEach((backend, rolling) -> {
+            Map<String, Object> backendStatus = new LinkedHashMap<>();
+            backendStatus.put("available", isAvailable(backend));
+            backendStatus.put("healthy", isHealthy(backend));
+            backendStatus.put("p90Ms", rolling.latencyPercentile(0.9, now));
+            backendStatus.put("errorRate", rolling.errorRate(now));
+            backendStatus.put("samples", rolling.count(now));
+            status.put(backend, backendStatus);
+        });
+        return status;
+    }
+
+    private Comparator<String> policyOrder() {
+        Comparator<String> byCost = Comparator.comparingDouble(this::cost);
+        Comparator<String> byLatency = Comparator.comparingLong(this::p90);
+        switch (properties.getPolicy()) {
+            case FASTEST:
+                return byLatency.thenComparing(byCost);
+            case CHEAPEST_WITHIN_SLO:
+                // SLO를 지키는 백엔드를 비용 순으로 먼저, 나머지는 빠른 순으로
+                Comparator<String> withinSloFirst = Comparator.comparing(backend -> !isWithinSlo(backend));
+                return withinSloFirst.thenComparing((a, b) -> isWithinSlo(a)
+                    ? byCost.thenComparing(byLatency).compare(a, b)
+                    : byLatency.compare(a, b));
+            default:
+                Comparator<String> localFirst = Comparator.comparing(backend -> !DALAI.equals(backend));
+                return localFirst.thenComparing(byCost);
+        }
+    }
+
+    private boolean isAvailable(String backend) {
+        ModelRouterProperties.Backend config = properties.getBackends().get(backend);
+        if (config != null && !config.isEnabled()) {
+            return false;
+        }
+        return !OPENAI.equals(backend) || chatGPTClient.isConfigured();
+    }
+
+    private boolean isHealthy(String backend) {
+        if (upstreamGuard.circuitBreaker(backend).getState() == CircuitBreaker.State.OPEN) {
+            return false;
+        }
+        RollingStats rolling = stats.get(backend);
+        long now = System.currentTimeMillis();
+        return rolling.count(now) < properties.getMinSamples() || rolling.errorRate(now) <= properties.getMaxErrorRate();
+    }
+
+    private boolean isWithinSlo(String backend) {
+        // 표본이 없으면 SLO 안으로 보고 한 번 시도해본다
+        return p90(backend) <= properties.getSloMs();
+    }
+
+    private double cost(String backend) {
+        ModelRouterProperties.Backend config = properties.getBackends().get(backend);
+        return config != null ? config.getCost() : 0;
+    }
+
+    /**
+     * 최근 호출이 모두 실패했으면 (바로 거절되어 빨랐더라도) 가장 느린 것으로 본다.
+     */
+    private long p90(String backend) {
+        RollingStats rolling = stats.get(backend);
+        long now = System.currentTimeMillis();
+        if (rolling.count(now) > 0 && rolling.errorRate(now) >= 1.0) {
+            return Long.MAX_VALUE;
+        }
+        return rolling.latencyPercentile(0.9, now);
+    }
+
+    private double errorRate(String backend) {
+        return stats.get(backend).errorRate(System.currentTimeMillis());
+    }
+
+    /**
+     * 통계는 여기서 기록하지 않는다. Dalai는 DalaiAsyncClient 리스너가, OpenAI는 캐시 loader가 실제 호출마다 기록한다.
+     */
+    private CompletableFuture<String> call(String backend, Request request) {
+        if (DALAI.equals(backend)) {
+            return dalaiClient.request(request.prompt, request.mode, request.priority, request.cacheTtl);
+        }
+        String systemPrompt = properties.getOpenaiSystemPrompt();
+        String key = AiResponseCache.key(systemPrompt + "\u0000" + request.prompt, request.mode, chatGPTClient.getModel());
+        return responseCache.getOrLoadAsync(key, request.cacheTtl, () -> {
+            long startedAt = System.currentTimeMillis();
+            return CompletableFuture.supplyAsync(() -> chatGPTClient.sendRequest(request.prompt, systemPrompt), openAiExecutor)
+                .whenComplete((value, error) -> record(OPENAI, System.currentTimeMillis() - startedAt, error));
+        });
+    }
+
+    private void record(String backend, long latencyMs, Throwable error) {
+        stats.get(backend).record(latencyMs, error != null, System.currentTimeMillis());
+        meterRegistry.counter("ai.router.result", "backend", backend, "outcome", error == null ? "success" : "error")
+            .increment();
+    }
+
+    /**
+     * 한 요청에 대한 백엔드 호출 진행 상태 (대체 호출/헤징 공용)
+     */
+    private final class Attempt {
+        private final List<String> candidates;
+        private final Request request;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        // 아래 상태는 this로 보호
+        private int next;
+        private int running;
+        private Throwable lastError;
+
+        private Attempt(List<String> candidates, Request request) {
+            this.candidates = candidates;
+            this.request = request;
+        }
+
+        /**
+         * 다음 백엔드 호출을 시작 (이미 끝났거나 남은 백엔드가 없으면 false)
+         */
+        private boolean launchNext() {
+            String backend;
+            boolean first;
+            synchronized (this) {
+                if (result.isDone() || next >= candidates.size()) {
+                    return false;
+                }
+                first = next == 0;
+                backend = candidates.get(next++);
+                running++;
+            }
+            CompletableFuture<String> response;
+            try {
+                response = call(backend, request);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((value, error) -> onComplete(backend, first, value, error));
+            return true;
+        }
+
+        private void onComplete(String backend, boolean first, String value, Throwable error) {
+            if (error == null) {
+                if (result.complete(value) && !first) {
+                    meterRegistry.counter("ai.router.hedge", "result", "won").increment();
+                }
+                return;
+            }
+
+            logger.warn("{} 응답 실패: {}", backend, error.getMessage());
+            synchronized (this) {
+                running--;
+                lastError = error;
+            }
+            if (launchNext()) {
+                meterRegistry.counter("ai.router.fallback").increment();
+                return;
+            }
+            Throwable finalError;
+            synchronized (this) {
+                if (running > 0) {
+                    // 헤징으로 시작한 다른 호출이 아직 진행 중
+                    return;
+                }
+                finalError = lastError;
+            }
+            result.completeExceptionally(finalError);
+        }
+    }
+
+    private static final class Request {
+        private final String prompt;
+        private final AiMode mode;
+        private final AiPriority priority;
+        private final Duration cacheTtl;
+
+        private Request(String prompt, AiMode mode, AiPriority priority, Duration cacheTtl) {
+            this.prompt = prompt;
+            this.mode = mode;
+            this.priority = priority;
+            this.cacheTtl = cacheTtl;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package jy.demo.api;
+
+/**
+ * AI 백엔드 선택 정책
+ * - LOCAL_FIRST: 로컬 Dalai를 먼저, 장애/오류율 초과 시 OpenAI
+ * - FASTEST: 최근 p90 응답 시간이 가장 짧은 백엔드
+ * - CHEAPEST_WITHIN_SLO: p90이 SLO 안인 백엔드 중 비용이 가장 낮은 백엔드 (없으면 가장 빠른 백엔드)
+ */
+public enum RoutingPolicy {
+    LOCAL_FIRST,
+    FASTEST,
+    CHEAPEST_WITHIN_SLO
+}
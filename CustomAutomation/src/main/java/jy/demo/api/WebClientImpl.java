@@ -1,19 +1,24 @@
 package jy.demo.api;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClient.RequestBodySpec;
 
 import jy.demo.dto.JsonConvertible;
 import jy.demo.util.JsonUtil;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 
 
+/**
+ * 공유 WebClient 위의 POST 클라이언트
+ * *Mono 메서드는 블로킹 없이 응답을 돌려주고, 나머지는 같은 요청을 block()으로 기다리는 동기 버전이다.
+ */
 @Component
 public class WebClientImpl implements ApiClient {
 
@@ -23,33 +28,70 @@ public class WebClientImpl implements ApiClient {
         this.webClient = webClient;
     }
 
+    /**
+     * Content-Type이 url-encoded면 JSON 본문을 form 본문으로 변환해 전송
+     */
     public String post(String uri, String body, Map<String, String> headers) {
-        RequestBodySpec headersSpec = webClient.post()
-            .uri(uri)
-            .headers(httpHeaders -> {
-                httpHeaders.setAll(headers);
-            });
+        return postMono(uri, body, headers).block();
+    }
 
-        headersSpec = setRequestSpec(body, headers, headersSpec);
+    public Mono<String> postMono(String uri, String body, Map<String, String> headers) {
+        return Mono.defer(() -> {
+            Object payload = isFormEncoded(headers) ? JsonUtil.toFormBody(body) : body;
+            return exchange(uri, payload, headers);
+        });
+    }
 
-        return headersSpec
+    /**
+     * 이미 인코딩된 form 본문 전송
+     */
+    public String postForm(String uri, String formBody, Map<String, String> headers) {
+        return postFormMono(uri, formBody, headers).block();
+    }
+
+    public Mono<String> postFormMono(String uri, String formBody, Map<String, String> headers) {
+        return exchange(uri, formBody, headers);
+    }
+
+    /**
+     * 이미 직렬화된 JSON 바이트 전송
+     *
+     * @param timeout 이 요청의 응답 타임아웃
+     */
+    public Mono<String> postJsonMono(String uri, byte[] body, Duration timeout) {
+        return webClient.post()
+            .uri(uri)
+            .contentType(MediaType.APPLICATION_JSON)
+            .httpRequest(request -> applyResponseTimeout(request, timeout))
+            .bodyValue(body)
             .retrieve()
-            .bodyToMono(new ParameterizedTypeReference<String>() {}) 
-            .block();
+            .bodyToMono(String.class);
     }
 
-    private RequestBodySpec setRequestSpec(String body, Map<String, String> headers, WebClient.RequestBodySpec headersSpec) {
+    private Mono<String> exchange(String uri, Object payload, Map<String, String> headers) {
+        return webClient.post()
+            .uri(uri)
+            .headers(httpHeaders -> {
+                httpHeaders.setAll(headers);
+            })
+            .bodyValue(payload)
+            .retrieve()
+            .bodyToMono(String.class);
+    }
 
-        if (headers.containsKey(CONTENT_TYPE) && headers.get(CONTENT_TYPE).equals(APP_TYPE_URL_ENCODED)) {
-            // URL encoded form data 처리
-            MultiValueMap<String, String> formData = convertToMultiValueMap(JsonUtil.toMap(body));
-            headersSpec.bodyValue(formData);
-        } else {
-            // 기본적으로 JSON으로 처리
-            headersSpec.bodyValue(body);
+    /**
+     * Reactor Netty 요청에 응답 타임아웃 지정
+     * 공유 클라이언트 기본값(http.client.response-timeout-ms)보다 오래 기다려야 하는 요청에서 사용
+     */
+    static void applyResponseTimeout(ClientHttpRequest request, Duration timeout) {
+        Object nativeRequest = request.getNativeRequest();
+        if (nativeRequest instanceof HttpClientRequest reactorRequest) {
+            reactorRequest.responseTimeout(timeout);
         }
+    }
 
-        return headersSpec;
+    private boolean isFormEncoded(Map<String, String> headers) {
+        return APP_TYPE_URL_ENCODED.equals(headers.get(CONTENT_TYPE));
     }
 
     public String postWithObjectHeaders(String uri, String body, Map<String, Object> headers) {
@@ -57,32 +99,42 @@ public class WebClientImpl implements ApiClient {
         return post(uri, body, headersStr);
     }
 
+    /**
+     * DTO를 한 번에 form 본문 또는 JSON 바이트로 기록해 전송 (Map/문자열 왕복 없음)
+     */
     public String post(String uri, JsonConvertible body, Map<String, Object> headers) {
-        return postWithObjectHeaders(uri, JsonUtil.toJson(body), headers);
+        return postMono(uri, body, headers).block();
+    }
+
+    public Mono<String> postMono(String uri, JsonConvertible body, Map<String, Object> headers) {
+        return Mono.defer(() -> {
+            Map<String, String> headersStr = toStringMap(headers);
+            Object payload = isFormEncoded(headersStr) ? JsonUtil.toFormBody(body) : JsonUtil.toJsonBytes(body);
+            return exchange(uri, payload, headersStr);
+        });
+    }
+
+    @Override
+    public String post(String uri, String body, String headers) {
+        return postMono(uri, body, headers).block();
     }
 
     @Override
-    public String post(String uri, String body, String headers) { 
-        return postWithObjectHeaders(uri, body, JsonUtil.toMap(headers));
+    public Mono<String> postMono(String uri, String body, String headers) {
+        return Mono.defer(() -> postMono(uri, body, toStringMap(JsonUtil.toMap(headers))));
     }
 
-    private Map<String, String> toStringMap(Map<String, Object> headers) {
+    // JMH 벤치마크(src/jmh)에서 호출할 수 있도록 package-private
+    static Map<String, String> toStringMap(Map<String, Object> headers) {
         Map<String, String> headersStr = new HashMap<>();
 
-        headers.entrySet().stream()
-        .forEach(entry -> {
-            if (entry.getValue() instanceof String) {
-                headersStr.put(entry.getKey(), (String) entry.getValue());
-            } else if(entry.getValue() instanceof Map) {
-                headersStr.put(entry.getKey(), JsonUtil.toJson((Map<String, Object>) entry.getValue()));
+        headers.forEach((key, value) -> {
+            if (value instanceof String) {
+                headersStr.put(key, (String) value);
+            } else if (value instanceof Map) {
+                headersStr.put(key, JsonUtil.toJson((Map<String, Object>) value));
             }
         });
         return headersStr;
     }
-
-    private MultiValueMap<String, String> convertToMultiValueMap(Map<String, Object> map) {
-        MultiValueMap<String, String> multiValueMap = new LinkedMultiValueMap<>();
-        toStringMap(map).forEach(multiValueMap::add);
-        return multiValueMap;
-    }
 }
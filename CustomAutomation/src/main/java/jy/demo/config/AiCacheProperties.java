@@ -0,0 +1,49 @@
+package jy.demo.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * AI 응답 캐시 설정 (ai.cache.*)
+ *
+ * application.yml 예시:
+ * ai:
+ *   cache:
+ *     max-size: 500
+ *     default-ttl-minutes: 60
+ *     search-ttl-minutes: 15
+ *     theme-ttl-minutes:
+ *       "[💡 오늘의 명언]": 360
+ *     snapshot:
+ *       enabled: true
+ *       path: data/ai-cache.json
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "ai.cache")
+public class AiCacheProperties {
+
+    private boolean enabled = true;
+    private long maxSize = 500;
+    // PLAIN 모드 기본 TTL
+    private long defaultTtlMinutes = 60;
+    // SEARCH/AGENT 모드 기본 TTL (웹 검색 결과는 빨리 낡는다)
+    private long searchTtlMinutes = 15;
+    // 테마명 -> TTL(분). 설정된 테마는 모드와 관계없이 이 값을 사용
+    private Map<String, Long> themeTtlMinutes = new HashMap<>();
+    private Snapshot snapshot = new Snapshot();
+
+    @Getter
+    @Setter
+    public static class Snapshot {
+        private boolean enabled = false;
+        private String path = "data/ai-cache.json";
+    }
+}
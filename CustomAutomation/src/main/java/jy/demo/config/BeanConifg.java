@@ -1,14 +1,40 @@
 package jy.demo.config;
 
+import java.time.Duration;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class BeanConifg {
-    
+
+    /**
+     * 카카오/Dalai 등이 함께 쓰는 WebClient
+     * 연결 풀을 재사용해 요청마다 TCP/TLS 연결을 새로 맺지 않는다.
+     */
     @Bean
-    public WebClient webClient(){
-        return WebClient.create();
+    public WebClient webClient(HttpClientProperties properties){
+        ConnectionProvider provider = ConnectionProvider.builder("shared")
+            .maxConnections(properties.getMaxConnections())
+            .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(Duration.ofMillis(properties.getPendingAcquireTimeoutMs()))
+            .maxIdleTime(Duration.ofMillis(properties.getMaxIdleTimeMs()))
+            .maxLifeTime(Duration.ofMillis(properties.getMaxLifeTimeMs()))
+            .evictInBackground(Duration.ofMillis(properties.getEvictInBackgroundMs()))
+            .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeoutMs())
+            .responseTimeout(Duration.ofMillis(properties.getResponseTimeoutMs()));
+
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
     }
 }
@@ -0,0 +1,59 @@
+package jy.demo.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 다이제스트(묶음 전송) 설정 (digest.*)
+ * enabled가 false이거나 설정이 없는 채널은 메시지를 바로 전송한다.
+ *
+ * application.yml 예시:
+ * digest:
+ *   enabled: true
+ *   channels:
+ *     slack:
+ *       window-ms: 300000
+ *       max-messages: 10
+ *     kakao:
+ *       window-ms: 300000
+ *       max-messages: 3
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "digest")
+public class DigestProperties {
+
+    private boolean enabled = false;
+    private Map<String, Policy> channels = new HashMap<>();
+
+    public DigestProperties() {
+        // Slack 블록은 메시지당 최대 3개, 한 번에 50개까지 -> 최대 16건
+        channels.put("slack", new Policy(300000, 10));
+        // 카카오 리스트 템플릿은 항목 2~3개
+        channels.put("kakao", new Policy(300000, 3));
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        // 첫 메시지가 들어온 뒤 이 시간이 지나면 모인 메시지를 전송
+        private long windowMs = 300000;
+        // 이 건수가 모이면 window를 기다리지 않고 바로 전송
+        private int maxMessages = 10;
+
+        public Policy() {
+        }
+
+        public Policy(long windowMs, int maxMessages) {
+            this.windowMs = windowMs;
+            this.maxMessages = maxMessages;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package jy.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 비동기 작업용 Executor 설정
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 채널별 메시지 전송용 Executor
+     * 채널(Slack, 카카오톡 등)을 동시에 호출하기 위해 사용
+     */
+    @Bean
+    public ThreadPoolTaskExecutor deliveryExecutor(
+            @Value("${delivery.executor.core-size:4}") int coreSize,
+            @Value("${delivery.executor.max-size:8}") int maxSize,
+            @Value("${delivery.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("delivery-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Dalai(로컬 LLM) 호출용 Executor
+     * Feign 호출은 블로킹이므로 요청 스레드 대신 이 Executor에서 대기한다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dalaiExecutor(
+            @Value("${dalai.executor.core-size:4}") int coreSize,
+            @Value("${dalai.executor.max-size:16}") int maxSize,
+            @Value("${dalai.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dalai-");
+        return executor;
+    }
+
+    /**
+     * OpenAI(ChatGPT) 호출용 Executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor openAiExecutor(
+            @Value("${openai.executor.core-size:2}") int coreSize,
+            @Value("${openai.executor.max-size:8}") int maxSize,
+            @Value("${openai.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("openai-");
+        return executor;
+    }
+
+    /**
+     * 수신자별 일정 실행용 Executor
+     * 타이밍 휠 스레드는 만기된 일정을 여기에 넘기기만 하므로 느린 작업이 다른 일정을 늦추지 않는다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor scheduleExecutor(
+            @Value("${scheduler.executor.core-size:4}") int coreSize,
+            @Value("${scheduler.executor.max-size:16}") int maxSize,
+            @Value("${scheduler.executor.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("schedule-");
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package jy.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 공유 WebClient(Reactor Netty) 연결 풀/타임아웃 설정 (http.client.*)
+ *
+ * application.yml 예시:
+ * http:
+ *   client:
+ *     max-connections: 100
+ *     pending-acquire-max-count: 500
+ *     pending-acquire-timeout-ms: 5000
+ *     max-idle-time-ms: 30000
+ *     connect-timeout-ms: 3000
+ *     response-timeout-ms: 10000
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "http.client")
+public class HttpClientProperties {
+
+    // 호스트(원격 주소)별 최대 연결 수
+    private int maxConnections = 100;
+    // 연결을 기다리는 요청 수 상한 (넘으면 바로 실패)
+    private int pendingAcquireMaxCount = 500;
+    private long pendingAcquireTimeoutMs = 5000;
+    // 쉬고 있는 연결을 닫는 시간 (서버/로드밸런서 keep-alive보다 짧게)
+    private long maxIdleTimeMs = 30000;
+    // 연결 최대 수명 (DNS 변경 반영)
+    private long maxLifeTimeMs = 300000;
+    // 백그라운드에서 만료 연결을 정리하는 주기 (0이면 꺼냈을 때만 검사)
+    private long evictInBackgroundMs = 60000;
+    private int connectTimeoutMs = 3000;
+    // 요청별 응답 타임아웃 기본값 (스트리밍 등은 요청마다 따로 지정)
+    private long responseTimeoutMs = 10000;
+}
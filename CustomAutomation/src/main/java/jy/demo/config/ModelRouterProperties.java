@@ -0,0 +1,70 @@
+package jy.demo.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import jy.demo.api.RoutingPolicy;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * AI 백엔드(dalai, openai) 라우팅 설정 (ai.router.*)
+ *
+ * application.yml 예시:
+ * ai:
+ *   router:
+ *     policy: cheapest-within-slo
+ *     slo-ms: 60000
+ *     hedge-delay-ms: 90000
+ *     sample-ttl-ms: 300000
+ *     backends:
+ *       dalai:
+ *         cost: 0
+ *       openai:
+ *         cost: 1
+ *         enabled: true
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "ai.router")
+public class ModelRouterProperties {
+
+    private RoutingPolicy policy = RoutingPolicy.LOCAL_FIRST;
+    // CHEAPEST_WITHIN_SLO에서 허용하는 p90 응답 시간
+    private long sloMs = 120000;
+    // 첫 백엔드가 이 시간 안에 답하지 않으면 다음 백엔드를 함께 호출 (0: 헤징 안 함, 실패 시 대체 호출만)
+    private long hedgeDelayMs = 0;
+    // 최근 window건 중 오류율이 max-error-rate를 넘으면 뒤로 미룸 (min-samples건 이상일 때)
+    private int window = 50;
+    private int minSamples = 5;
+    private double maxErrorRate = 0.5;
+    // 이보다 오래된 표본은 통계에서 뺀다 (뒤로 밀린 백엔드도 이 시간이 지나면 다시 시도됨, 0: 만료 없음)
+    private long sampleTtlMs = 300000;
+    // OpenAI로 보낼 때 사용할 system 프롬프트
+    private String openaiSystemPrompt = "Answer the user's request directly. Reply in the language of the request.";
+    private Map<String, Backend> backends = new LinkedHashMap<>();
+
+    public ModelRouterProperties() {
+        backends.put("dalai", new Backend(0));
+        backends.put("openai", new Backend(1));
+    }
+
+    @Getter
+    @Setter
+    public static class Backend {
+        // 상대 비용 (작을수록 우선)
+        private double cost;
+        private boolean enabled = true;
+
+        public Backend() {
+        }
+
+        public Backend(double cost) {
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package jy.demo.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 채널별 전송 속도 제한 설정 (ratelimit.*)
+ * 설정이 없는 채널은 제한하지 않는다.
+ *
+ * application.yml 예시:
+ * ratelimit:
+ *   channels:
+ *     slack:
+ *       capacity: 1
+ *       refill-per-second: 1.0
+ *     kakao:
+ *       capacity: 5
+ *       refill-per-second: 2.0
+ *       daily-quota: 30000
+ *       max-wait-ms: 20000
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    // Retry-After 헤더 없이 429를 받았을 때 멈출 시간
+    private long defaultRetryAfterMs = 1000;
+    private Map<String, Limit> channels = new HashMap<>();
+
+    public RateLimitProperties() {
+        // Slack Incoming Webhook: 초당 1건
+        channels.put("slack", new Limit(1, 1.0, 0));
+        // 카카오 나에게 보내기: 일일 쿼터
+        channels.put("kakao", new Limit(5, 2.0, 30000));
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        // 한 번에 보낼 수 있는 최대 건수 (버킷 크기)
+        private int capacity = 1;
+        // 초당 채워지는 토큰 수
+        private double refillPerSecond = 1.0;
+        // 일일 최대 건수 (0: 제한 없음, 자정에 초기화)
+        private long dailyQuota = 0;
+        // 대기열에서 기다릴 수 있는 최대 시간. 넘으면 바로 실패 처리
+        // (delivery.timeout-ms 보다 짧아야 타임아웃 처리된 전송이 나중에 나가지 않는다)
+        private long maxWaitMs = 20000;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond, long dailyQuota) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.dailyQuota = dailyQuota;
+        }
+    }
+}
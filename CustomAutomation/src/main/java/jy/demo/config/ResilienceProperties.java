@@ -0,0 +1,85 @@
+package jy.demo.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 외부 서비스별 서킷 브레이커 / 벌크헤드 / 재시도 설정 (resilience.upstreams.*)
+ * kakao, slack의 재시도 설정은 채널 전송 재시도에도 사용한다.
+ *
+ * application.yml 예시:
+ * resilience:
+ *   upstreams:
+ *     dalai:
+ *       failure-rate-threshold: 50
+ *       minimum-calls: 5
+ *       open-wait-ms: 30000
+ *       slow-call-ms: 90000
+ *       max-concurrent: 8
+ *       retry-max-attempts: 3
+ *       retry-initial-backoff-ms: 1000
+ *       retry-budget-ratio: 0.2
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "resilience")
+public class ResilienceProperties {
+
+    private Map<String, Upstream> upstreams = new HashMap<>();
+
+    public ResilienceProperties() {
+        // 로컬 Dalai는 에이전트 모드가 수십 초씩 걸리므로 느린 호출 기준을 길게 잡는다. (read timeout 180초)
+        upstreams.put("dalai", new Upstream(8, 90000));
+        upstreams.put("openai", new Upstream(8, 30000));
+        upstreams.put("kakao", new Upstream(8, 5000));
+        upstreams.put("slack", new Upstream(4, 5000));
+    }
+
+    @Getter
+    @Setter
+    public static class Upstream {
+        // 실패율(%)이 이 값 이상이면 OPEN
+        private float failureRateThreshold = 50;
+        // 최근 N건 기준으로 실패율 계산
+        private int slidingWindowSize = 20;
+        // 실패율을 계산하기 위한 최소 호출 수
+        private int minimumCalls = 5;
+        // OPEN 상태 유지 시간. 지나면 HALF_OPEN으로 시험 호출
+        private long openWaitMs = 30000;
+        private int halfOpenCalls = 2;
+        // 이보다 오래 걸린 호출은 느린 호출로 집계하고, 그 비율(%)이 임계값 이상이면 OPEN
+        private long slowCallMs = 60000;
+        private float slowCallRateThreshold = 80;
+        // 동시에 진행할 수 있는 최대 호출 수 (벌크헤드)
+        private int maxConcurrent = 8;
+        // 벌크헤드가 가득 찼을 때 기다릴 시간 (0: 바로 거절)
+        private long maxWaitMs = 0;
+
+        // 최초 시도를 포함한 최대 시도 횟수 (1: 재시도 안 함)
+        private int retryMaxAttempts = 3;
+        // 대기시간: initial * multiplier^(n-1), 최대 max, ±jitter 비율만큼 무작위
+        private long retryInitialBackoffMs = 1000;
+        private double retryMultiplier = 2.0;
+        private long retryMaxBackoffMs = 30000;
+        private double retryJitter = 0.5;
+        // 재시도 예산: 호출 1건당 적립 비율, 최대 잔액, 분당 기본 적립량
+        private double retryBudgetRatio = 0.2;
+        private int retryBudgetMax = 10;
+        private double retryBudgetRefillPerMinute = 6;
+
+        public Upstream() {
+        }
+
+        public Upstream(int maxConcurrent, long slowCallMs) {
+            this.maxConcurrent = maxConcurrent;
+            this.slowCallMs = slowCallMs;
+        }
+    }
+}
@@ -1,9 +1,29 @@
 package jy.demo.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+/**
+ * @Scheduled 실행 설정
+ * 기본 스케줄러는 스레드가 1개라 정기 메시지, 토큰 갱신, 미리 생성 작업이 서로를 기다린다. 전용 풀을 사용한다.
+ */
 @Configuration
 @EnableScheduling
 public class SchedulerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerConfig.class);
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduler.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-");
+        scheduler.setErrorHandler(error -> logger.error("스케줄 작업 실패: {}", error.getMessage(), error));
+        return scheduler;
+    }
 }
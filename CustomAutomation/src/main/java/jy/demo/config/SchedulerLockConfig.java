@@ -0,0 +1,60 @@
+package jy.demo.config;
+
+import java.nio.file.Paths;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jy.demo.util.FileSchedulerLock;
+import jy.demo.util.JdbcSchedulerLock;
+import jy.demo.util.LocalSchedulerLock;
+import jy.demo.util.SchedulerLock;
+
+/**
+ * 스케줄 잠금 저장소 선택 (scheduler.lock.type)
+ * - local(기본): 인스턴스 하나
+ * - file: 같은 호스트의 여러 인스턴스 (scheduler.lock.dir 공유)
+ * - jdbc: 여러 호스트 (spring.datasource.* 로 H2 파일 DB 또는 PostgreSQL 지정)
+ *
+ * application.yml 예시:
+ * scheduler:
+ *   lock:
+ *     type: jdbc
+ * spring:
+ *   datasource:
+ *     url: jdbc:postgresql://localhost:5432/automation
+ */
+@Configuration
+public class SchedulerLockConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "scheduler.lock.type", havingValue = "local", matchIfMissing = true)
+    public SchedulerLock localSchedulerLock() {
+        return new LocalSchedulerLock();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "scheduler.lock.type", havingValue = "file")
+    public SchedulerLock fileSchedulerLock(@Value("${scheduler.lock.dir:locks}") String directory) {
+        return new FileSchedulerLock(Paths.get(directory));
+    }
+
+    /**
+     * spring.datasource.url이 없으면 노드마다 자체 메모리 H2가 뜨고 모든 노드가 리더가 되므로 기동을 막는다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "scheduler.lock.type", havingValue = "jdbc")
+    public SchedulerLock jdbcSchedulerLock(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        if (EmbeddedDatabaseConnection.isEmbedded(dataSource)) {
+            throw new IllegalStateException(
+                "scheduler.lock.type=jdbc는 노드 간 공유 DB가 필요합니다. spring.datasource.url을 지정하세요. (현재 메모리 DB)");
+        }
+        return new JdbcSchedulerLock(jdbcTemplate);
+    }
+}
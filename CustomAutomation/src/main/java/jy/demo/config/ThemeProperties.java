@@ -0,0 +1,67 @@
+package jy.demo.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import jy.demo.dto.ThemePrompt;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 테마 레지스트리 설정 (themes.*)
+ * definitions, slots가 비어있으면 기본 테마/시간대를 사용한다.
+ *
+ * application.yml 예시:
+ * themes:
+ *   file: themes.json
+ *   definitions:
+ *     - theme: "🚀 Tech Insight"
+ *       prompt: "..."
+ *       requires-web-search: true
+ *   slots:
+ *     morning:
+ *       start-hour: 6
+ *       end-hour: 12
+ *       weights:
+ *         "[💡 오늘의 명언]": 2
+ *         "[🏃 건강 라이프]": 1
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "themes")
+public class ThemeProperties {
+
+    // 런타임에 추가한 테마와 가중치를 보관하는 파일
+    private String file = "themes.json";
+    private List<ThemePrompt> definitions = new ArrayList<>();
+    private Map<String, Slot> slots = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Slot {
+        // [startHour, endHour) 구간 (0~24)
+        private int startHour;
+        private int endHour;
+        // 테마명 -> 가중치 (클수록 자주 선택)
+        private Map<String, Integer> weights = new LinkedHashMap<>();
+
+        public Slot() {
+        }
+
+        public Slot(int startHour, int endHour, Map<String, Integer> weights) {
+            this.startHour = startHour;
+            this.endHour = endHour;
+            this.weights = new LinkedHashMap<>(weights);
+        }
+
+        public boolean contains(int hour) {
+            return hour >= startHour && hour < endHour;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package jy.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 비동기 응답(CompletableFuture, SseEmitter) 설정
+ * 기본 타임아웃(Tomcat 30초)으로는 자율 에이전트 응답을 기다릴 수 없으므로
+ * Feign readTimeout(180초)보다 길게 설정한다.
+ */
+@Configuration
+public class WebMvcAsyncConfig implements WebMvcConfigurer {
+
+    @Value("${dalai.async.request-timeout-ms:190000}")
+    private long requestTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(requestTimeoutMs);
+    }
+}
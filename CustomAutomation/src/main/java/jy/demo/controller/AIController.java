@@ -3,16 +3,40 @@ package jy.demo.controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jy.demo.api.AiMode;
+import jy.demo.api.AiPriority;
 import jy.demo.api.ChatGPTClient;
-import jy.demo.api.DalaiClient;
+import jy.demo.api.ClientAbortedException;
+import jy.demo.api.DalaiAsyncClient;
+import jy.demo.api.DalaiOverloadedException;
+import jy.demo.api.DalaiStreamClient;
+import jy.demo.api.ModelRouter;
+import jy.demo.dto.Message;
+import jy.demo.service.AiResponseCache;
+import jy.demo.service.DeliveryFanoutService;
 import jy.demo.service.SlackMsgService;
+import jy.demo.util.AiResponseParser;
+import jy.demo.util.AiStreamParser;
 
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.cache.CacheStats;
+
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @RestController
 public class AIController {
@@ -20,13 +44,31 @@ public class AIController {
 	private static final Logger logger = LoggerFactory.getLogger(AIController.class);
 
 	private final ChatGPTClient chatGPTClient;
-	private final DalaiClient dalaiClient;
-	private final SlackMsgService slackMsgService;
-
-	public AIController(ChatGPTClient chatGPTClient, DalaiClient dalaiClient, SlackMsgService slackMsgService) {
+	private final DalaiAsyncClient dalaiClient;
+	private final DeliveryFanoutService deliveryFanoutService;
+	private final AiResponseCache responseCache;
+	private final DalaiStreamClient dalaiStreamClient;
+	private final Executor openAiExecutor;
+	private final ModelRouter modelRouter;
+
+	@Value("${dalai.async.request-timeout-ms:190000}")
+	private long streamTimeoutMs;
+
+	public AIController(
+			ChatGPTClient chatGPTClient,
+			DalaiAsyncClient dalaiClient,
+			DeliveryFanoutService deliveryFanoutService,
+			AiResponseCache responseCache,
+			DalaiStreamClient dalaiStreamClient,
+			@Qualifier("openAiExecutor") Executor openAiExecutor,
+			ModelRouter modelRouter) {
 		this.chatGPTClient = chatGPTClient;
 		this.dalaiClient = dalaiClient;
-		this.slackMsgService = slackMsgService;
+		this.deliveryFanoutService = deliveryFanoutService;
+		this.responseCache = responseCache;
+		this.dalaiStreamClient = dalaiStreamClient;
+		this.openAiExecutor = openAiExecutor;
+		this.modelRouter = modelRouter;
 	}
 
 	private final String SYS_PROMPT =  
@@ -39,85 +81,173 @@ public class AIController {
 
 	@GetMapping("/refactoring")
 	public String doRefactoring(@RequestParam("prompt") String prompt) {
-		return chatGPTClient.sendRequest(prompt, SYS_PROMPT);
+		return refactor(prompt);
 	}
 
 	@PostMapping("/refactoring")
 	public String doRefactoring(@RequestBody Map<String, String> prompt) {
-		return chatGPTClient.sendRequest(prompt.get("prompt"), SYS_PROMPT);
+		return refactor(prompt.get("prompt"));
 	}
 
-	@GetMapping("/ai")
-	public String doAI(@RequestParam("prompt") String prompt) {
-		return dalaiClient.sendPrompt(prompt);
+	private String refactor(String prompt) {
+		String key = AiResponseCache.key(SYS_PROMPT + "\u0000" + prompt, AiMode.PLAIN, chatGPTClient.getModel());
+		return responseCache.getOrLoad(key, responseCache.ttlFor(AiMode.PLAIN),
+			() -> chatGPTClient.sendRequest(prompt, SYS_PROMPT));
 	}
 
 	/**
-	 * 웹 검색 + AI 응답 + Slack 전송
-	 * 자동으로 웹 검색을 수행하고 최신 정보를 기반으로 AI 응답 생성 후 Slack으로 전송
-	 * 기본값: 자율 에이전트 사용 (agent=true)
+	 * ChatGPT 리팩토링 결과를 토큰 단위로 전송 (Server-Sent Events)
+	 * event: token (응답 조각), done (전체 응답)
 	 */
-	@GetMapping("/ai/search")
-	public String doAIWithSearch(
-			@RequestParam("prompt") String prompt,
-			@RequestParam(value = "agent", defaultValue = "true") boolean useAgent) {
-		try {
-			logger.info("=== AI 웹 검색 요청 ===");
-			logger.info("질문: {}", prompt);
-			logger.info("자율 에이전트 사용: {}", useAgent);
-
-			long startTime = System.currentTimeMillis();
-
-			// 웹 검색 모드로 AI 호출 (agent 파라미터 추가)
-			String rawResponse = dalaiClient.sendPromptWithSearchAgent(prompt, true, useAgent);
-
-			long endTime = System.currentTimeMillis();
-			logger.info("AI 응답 완료 (소요시간: {}ms)", endTime - startTime);
-
-			// 응답 파싱 (answer : 프리픽스와 <end> 태그 제거)
-			String cleanedResponse = parseAIResponse(rawResponse);
-
-			logger.info("정제된 응답 길이: {} 자", cleanedResponse.length());
-
-			// Slack으로 전송
-			logger.info("Slack 메시지 전송 중...");
-			String emoji = useAgent ? "🤖" : "🔍";
-			String slackResult = slackMsgService.sendRichMessage(
-				emoji + " AI 웹 검색 결과: " + prompt,
-				cleanedResponse
-			);
-			logger.info("Slack 전송 결과: {}", slackResult);
-
-			return cleanedResponse;
-
-		} catch (Exception e) {
-			logger.error("AI 웹 검색 실패: {}", e.getMessage(), e);
-			return "AI 응답 생성 중 오류가 발생했습니다: " + e.getMessage();
-		}
+	@GetMapping(value = "/refactoring/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamRefactoring(@RequestParam("prompt") String prompt) {
+		SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+		CompletableFuture
+			.supplyAsync(() -> chatGPTClient.streamRequest(prompt, SYS_PROMPT, token -> sendEvent(emitter, "token", token)), openAiExecutor)
+			.whenComplete((content, error) -> {
+				if (error != null && error.getCause() instanceof ClientAbortedException) {
+					logger.info("클라이언트 연결이 끊어져 ChatGPT 스트리밍을 중단했습니다.");
+					return;
+				}
+				if (error != null) {
+					logger.error("ChatGPT 스트리밍 실패: {}", error.getMessage(), error);
+					emitter.completeWithError(error);
+					return;
+				}
+				sendEvent(emitter, "done", content);
+				emitter.complete();
+			});
+
+		return emitter;
 	}
 
 	/**
-	 * AI 응답 파싱: "answer : " 프리픽스 제거 및 정제
+	 * Dalai 응답을 도착하는 대로 전송 (Server-Sent Events)
+	 * event: token (정제된 응답 조각), done (전체 응답)
+	 * deliver=true면 완성된 응답을 등록된 모든 채널로도 전송한다.
 	 */
-	private String parseAIResponse(String rawResponse) {
-		if (rawResponse == null || rawResponse.trim().isEmpty()) {
-			return "AI 응답을 받지 못했습니다.";
-		}
+	@GetMapping(value = "/ai/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamAI(
+			@RequestParam("prompt") String prompt,
+			@RequestParam(value = "mode", defaultValue = "PLAIN") AiMode mode,
+			@RequestParam(value = "deliver", defaultValue = "false") boolean deliver) {
+		SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+		AiStreamParser parser = new AiStreamParser();
+
+		Disposable subscription = dalaiStreamClient.stream(prompt, mode).subscribe(
+			chunk -> sendEvent(emitter, "token", parser.accept(chunk)),
+			error -> {
+				if (error instanceof ClientAbortedException) {
+					logger.info("클라이언트 연결이 끊어져 AI 스트리밍을 중단했습니다.");
+					return;
+				}
+				logger.error("AI 스트리밍 실패: {}", error.getMessage(), error);
+				emitter.completeWithError(error);
+			},
+			() -> {
+				sendEvent(emitter, "token", parser.finish());
+				String content = parser.getContent();
+				sendEvent(emitter, "done", content);
+
+				if (!deliver) {
+					emitter.complete();
+					return;
+				}
+				deliveryFanoutService.dispatchAsync(new Message("AI 응답: " + prompt, content))
+					.whenComplete((results, error) -> {
+						if (results != null) {
+							sendEvent(emitter, "delivery", results.values().toString());
+						}
+						emitter.complete();
+					});
+			});
+
+		emitter.onTimeout(subscription::dispose);
+		emitter.onError(error -> subscription.dispose());
+		return emitter;
+	}
 
-		// "answer : " 프리픽스 제거
-		String cleaned = rawResponse.trim();
-		if (cleaned.startsWith("answer :") || cleaned.startsWith("answer:")) {
-			cleaned = cleaned.replaceFirst("^answer\\s*:\\s*", "");
+	private void sendEvent(SseEmitter emitter, String name, String data) {
+		if (data == null || data.isEmpty()) {
+			return;
+		}
+		try {
+			emitter.send(SseEmitter.event().name(name).data(data));
+		} catch (IOException e) {
+			// 클라이언트 연결 종료: 업스트림 실패로 집계되지 않도록 전용 예외로 중단
+			throw new ClientAbortedException(e);
 		}
+	}
 
-		// <end> 태그 제거
-		cleaned = cleaned.replaceAll("<end>.*$", "").trim();
+	/**
+	 * AI 응답 캐시 적중률 조회
+	 */
+	@GetMapping("/ai/cache/stats")
+	public Map<String, Object> getCacheStats() {
+		CacheStats stats = responseCache.stats();
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("size", responseCache.size());
+		result.put("hitCount", stats.hitCount());
+		result.put("missCount", stats.missCount());
+		result.put("hitRate", stats.hitRate());
+		result.put("evictionCount", stats.evictionCount());
+		return result;
+	}
 
-		// 빈 응답 체크
-		if (cleaned.isEmpty()) {
-			return "AI가 유효한 응답을 생성하지 못했습니다.";
-		}
+	/**
+	 * 라우팅 정책(ai.router.policy)에 따라 Dalai/OpenAI 중 골라 응답 (실패 시 다른 백엔드로 대체)
+	 */
+	@GetMapping("/ai")
+	public CompletableFuture<String> doAI(@RequestParam("prompt") String prompt) {
+		return modelRouter.generate(prompt, AiMode.PLAIN, AiPriority.ADHOC);
+	}
 
-		return cleaned;
+	/**
+	 * 웹 검색 + AI 응답 + Slack 전송
+	 * 자동으로 웹 검색을 수행하고 최신 정보를 기반으로 AI 응답 생성 후 Slack으로 전송
+	 * 기본값: 자율 에이전트 사용 (agent=true)
+	 */
+	@GetMapping("/ai/search")
+	public CompletableFuture<String> doAIWithSearch(
+			@RequestParam("prompt") String prompt,
+			@RequestParam(value = "agent", defaultValue = "true") boolean useAgent) {
+		logger.info("=== AI 웹 검색 요청 ===");
+		logger.info("질문: {}", prompt);
+		logger.info("자율 에이전트 사용: {}", useAgent);
+
+		long startTime = System.currentTimeMillis();
+
+		// 웹 검색 모드로 AI 호출 (agent 파라미터 추가)
+		return dalaiClient.sendPromptWithSearchAgent(prompt, true, useAgent)
+			.thenCompose(rawResponse -> {
+				long endTime = System.currentTimeMillis();
+				logger.info("AI 응답 완료 (소요시간: {}ms)", endTime - startTime);
+
+				// 응답 파싱 (answer : 프리픽스와 <end> 태그 제거)
+				String cleanedResponse = AiResponseParser.parse(rawResponse);
+
+				logger.info("정제된 응답 길이: {} 자", cleanedResponse.length());
+
+				// Slack으로 전송
+				logger.info("Slack 메시지 전송 중...");
+				String emoji = useAgent ? "🤖" : "🔍";
+				return deliveryFanoutService.deliverAsync(
+					SlackMsgService.CHANNEL_NAME,
+					new Message(emoji + " AI 웹 검색 결과: " + prompt, cleanedResponse)
+				).thenApply(slackResult -> {
+					logger.info("Slack 전송 결과: {}", slackResult);
+					return cleanedResponse;
+				});
+			})
+			.exceptionally(e -> {
+				Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+				if (cause instanceof DalaiOverloadedException overloaded) {
+					// 대기열 포화는 ApiExceptionHandler에서 429 + Retry-After로 응답
+					throw overloaded;
+				}
+				logger.error("AI 웹 검색 실패: {}", e.getMessage(), e);
+				return "AI 응답 생성 중 오류가 발생했습니다: " + e.getMessage();
+			});
 	}
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package jy.demo.controller;
+
+import jy.demo.api.DalaiOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 컨트롤러 공통 예외 응답
+ * CompletableFuture를 반환하는 핸들러도 CompletionException을 벗긴 원인 예외로 여기까지 전달된다.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Dalai 대기열 포화: 429 + Retry-After(초)
+     */
+    @ExceptionHandler(DalaiOverloadedException.class)
+    public ResponseEntity<String> handleDalaiOverloaded(DalaiOverloadedException e) {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+            .body(e.getMessage());
+    }
+}
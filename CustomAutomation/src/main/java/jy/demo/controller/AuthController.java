@@ -6,9 +6,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jy.demo.dto.KakaoTokenDto;
 import jy.demo.service.KakaoMsgServiceImpl;
+import jy.demo.util.KakaoTokenFileManager;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.web.bind.annotation.GetMapping;
 
@@ -19,11 +24,13 @@ public class AuthController {
 
     // TODO : 테스트로 사용하고 나중에 정리하자
     KakaoMsgServiceImpl kakaoMsgServiceImpl;
+    private final KakaoTokenFileManager tokenFileManager;
 
     // public AuthController(MessageService messageService, KakaoMsgServiceImpl kakaoMsgServiceImpl) {
-    public AuthController(KakaoMsgServiceImpl kakaoMsgServiceImpl) {
+    public AuthController(KakaoMsgServiceImpl kakaoMsgServiceImpl, KakaoTokenFileManager tokenFileManager) {
         // this.messageService = messageService;
         this.kakaoMsgServiceImpl = kakaoMsgServiceImpl;
+        this.tokenFileManager = tokenFileManager;
     }
 
     @GetMapping("/kakao/callback")
@@ -34,6 +41,33 @@ public class AuthController {
         return "kakao";
     }
 
+    /**
+     * 저장된 토큰 버전 목록 (토큰 값은 노출하지 않음)
+     */
+    @GetMapping("/kakao/token/history")
+    public List<Map<String, Object>> tokenHistory() {
+        return tokenFileManager.getHistory().stream()
+            .map(this::toSummary)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 토큰 롤백 (version 미지정 시 직전 버전)
+     */
+    @PostMapping("/kakao/token/rollback")
+    public Map<String, Object> rollbackToken(@RequestParam(value = "version", required = false) Long version) {
+        boolean success = version != null ? tokenFileManager.rollback(version) : tokenFileManager.rollback();
+        return Map.of("success", success);
+    }
+
+    private Map<String, Object> toSummary(KakaoTokenDto token) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("version", token.getVersion());
+        summary.put("updatedAt", token.getUpdatedAt());
+        summary.put("expiresIn", token.getExpiresIn());
+        return summary;
+    }
+
     @PostMapping("/test")
     public String test(@RequestHeader Map<String, String> header, @RequestBody Map<String, String> body) {
         return "kakao";
@@ -6,29 +6,38 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import jy.demo.api.DalaiClient;
+import jy.demo.api.AiMode;
+import jy.demo.api.AiPriority;
+import jy.demo.api.ModelRouter;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import jy.demo.service.DeliveryFanoutService;
 import jy.demo.service.KakaoMsgServiceImpl;
+
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/message")
 public class MessageController {
 
-    private final KakaoMsgServiceImpl kakaoMsgService;
-	private final DalaiClient dalaiClient;
+    private final DeliveryFanoutService deliveryFanoutService;
+	private final ModelRouter modelRouter;
 
     @Autowired
-    public MessageController(KakaoMsgServiceImpl kakaoMsgService, DalaiClient dalaiClient) {
-        this.kakaoMsgService = kakaoMsgService;
-		this.dalaiClient = dalaiClient;
+    public MessageController(DeliveryFanoutService deliveryFanoutService, ModelRouter modelRouter) {
+        this.deliveryFanoutService = deliveryFanoutService;
+		this.modelRouter = modelRouter;
     }
 
     @GetMapping("/send/kakaoMsg")
     public String sendMessage(@RequestParam("text") String text) {
-        return kakaoMsgService.sendMessage(text); 
+        return deliveryFanoutService.deliver(KakaoMsgServiceImpl.CHANNEL_NAME, new Message(text)).getDetail();
     }
 
     @GetMapping("/ai-chat")
-    public String chatAi(@RequestParam("text") String prompt) {
-		String text = dalaiClient.sendPrompt(prompt);
-        return kakaoMsgService.sendMessage(text); 
+    public CompletableFuture<String> chatAi(@RequestParam("text") String prompt) {
+		return modelRouter.generate(prompt, AiMode.PLAIN, AiPriority.ADHOC)
+			.thenCompose(text -> deliveryFanoutService.deliverAsync(KakaoMsgServiceImpl.CHANNEL_NAME, new Message(text)))
+			.thenApply(DeliveryResult::getDetail);
     }
 }
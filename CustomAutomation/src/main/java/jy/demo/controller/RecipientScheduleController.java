@@ -0,0 +1,68 @@
+package jy.demo.controller;
+
+import jy.demo.dto.RecipientSchedule;
+import jy.demo.service.RecipientScheduler;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/schedules")
+public class RecipientScheduleController {
+
+    private final RecipientScheduler recipientScheduler;
+
+    public RecipientScheduleController(RecipientScheduler recipientScheduler) {
+        this.recipientScheduler = recipientScheduler;
+    }
+
+    @GetMapping
+    public List<RecipientSchedule> getSchedules() {
+        return recipientScheduler.getSchedules();
+    }
+
+    @GetMapping("/{id}")
+    public RecipientSchedule getSchedule(@PathVariable("id") String id) {
+        return recipientScheduler.find(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "일정을 찾을 수 없습니다: " + id));
+    }
+
+    /**
+     * 수신자 일정 등록/교체
+     * 예: {"channels": ["slack"], "intervalMinutes": 120, "quietStartHour": 22, "quietEndHour": 8, "zoneId": "Asia/Seoul"}
+     */
+    @PostMapping
+    public RecipientSchedule register(@RequestBody RecipientSchedule schedule) {
+        try {
+            return recipientScheduler.register(schedule);
+        } catch (IllegalArgumentException e) {
+            // 잘못된 시간대/시각/주기
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            // 리더 노드가 아님 (클러스터 배포 시)
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public String remove(@PathVariable("id") String id) {
+        boolean removed;
+        try {
+            removed = recipientScheduler.remove(id);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        if (!removed) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "일정을 찾을 수 없습니다: " + id);
+        }
+        return "일정 삭제 완료: " + id;
+    }
+}
@@ -1,12 +1,17 @@
 package jy.demo.controller;
 
+import jy.demo.config.ThemeProperties;
+import jy.demo.dto.AiMessageJob;
 import jy.demo.dto.ThemePrompt;
 import jy.demo.service.ScheduledMessageService;
 import jy.demo.service.ThemePromptService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/scheduled")
@@ -34,10 +39,24 @@ public class ScheduledMessageController {
 
     /**
      * 커스텀 프롬프트로 수동 전송
+     * 작업 큐에 등록하고 작업 정보(id, 상태)를 바로 반환
      */
     @GetMapping("/manual")
-    public String sendManualMessage(@RequestParam("prompt") String prompt) {
-        return scheduledMessageService.sendManualMessage(prompt);
+    public AiMessageJob sendManualMessage(@RequestParam("prompt") String prompt) {
+        try {
+            return scheduledMessageService.sendManualMessage(prompt);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * 작업 상태 조회
+     */
+    @GetMapping("/jobs/{jobId}")
+    public AiMessageJob getJob(@PathVariable("jobId") String jobId) {
+        return scheduledMessageService.findJob(jobId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "작업을 찾을 수 없습니다: " + jobId));
     }
 
     /**
@@ -70,8 +89,35 @@ public class ScheduledMessageController {
     @PostMapping("/theme/add")
     public String addTheme(
             @RequestParam("theme") String theme,
-            @RequestParam("prompt") String prompt) {
-        themePromptService.addTheme(theme, prompt);
+            @RequestParam("prompt") String prompt,
+            @RequestParam(value = "requiresWebSearch", defaultValue = "false") boolean requiresWebSearch) {
+        themePromptService.addTheme(new ThemePrompt(theme, prompt, requiresWebSearch));
         return "테마 추가 완료: " + theme;
     }
+
+    /**
+     * 시간대별 테마 가중치 조회
+     */
+    @GetMapping("/theme/slots")
+    public Map<String, ThemeProperties.Slot> getSlots() {
+        return themePromptService.getSlots();
+    }
+
+    /**
+     * 시간대의 테마 가중치 지정 (0~100, 0이면 시간대에서 제외)
+     */
+    @PostMapping("/theme/weight")
+    public String setWeight(
+            @RequestParam("slot") String slot,
+            @RequestParam("theme") String theme,
+            @RequestParam("weight") int weight) {
+        try {
+            themePromptService.setWeight(slot, theme, weight);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+        return "가중치 변경 완료: " + slot + " / " + theme + " = " + weight;
+    }
 }
@@ -0,0 +1,52 @@
+package jy.demo.controller;
+
+import jy.demo.api.DalaiGateway;
+import jy.demo.api.ModelRouter;
+import jy.demo.util.UpstreamGuard;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/upstreams")
+public class UpstreamController {
+
+    private final UpstreamGuard upstreamGuard;
+    private final DalaiGateway dalaiGateway;
+    private final ModelRouter modelRouter;
+
+    public UpstreamController(UpstreamGuard upstreamGuard, DalaiGateway dalaiGateway, ModelRouter modelRouter) {
+        this.upstreamGuard = upstreamGuard;
+        this.dalaiGateway = dalaiGateway;
+        this.modelRouter = modelRouter;
+    }
+
+    /**
+     * 외부 서비스별 서킷 상태, 실패율, 거절 건수, 남은 동시 호출 수
+     * GET /upstreams/status
+     */
+    @GetMapping("/status")
+    public Map<String, Object> status() {
+        return upstreamGuard.status();
+    }
+
+    /**
+     * Dalai 동시 호출 한도(자동 조정값), 진행 중 호출 수, 우선순위별 대기 수
+     * GET /upstreams/dalai/gateway
+     */
+    @GetMapping("/dalai/gateway")
+    public Map<String, Object> dalaiGateway() {
+        return dalaiGateway.status();
+    }
+
+    /**
+     * AI 라우팅 정책, 현재 백엔드 순서, 백엔드별 최근 p90 응답 시간/오류율
+     * GET /upstreams/router
+     */
+    @GetMapping("/router")
+    public Map<String, Object> router() {
+        return modelRouter.status();
+    }
+}
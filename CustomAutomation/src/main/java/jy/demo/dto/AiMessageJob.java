@@ -0,0 +1,63 @@
+package jy.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jy.demo.api.AiMode;
+import jy.demo.api.AiPriority;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AI 메시지 생성/전송 작업 (프롬프트 -> AI 응답 -> 파싱 -> 채널 전송)
+ * 작업 큐 저널에 JSON 한 줄로 기록된다. (JsonUtil.MAPPER, 이전 형식의 카멜 케이스 키도 읽음)
+ */
+@Data
+@NoArgsConstructor
+public class AiMessageJob {
+
+    public enum Status { PENDING, RUNNING, SUCCEEDED, FAILED }
+
+    private String id;
+    private String title;
+    private String prompt;
+    private AiMode mode = AiMode.PLAIN;
+    // Dalai 대기열 우선순위 (정기 전송이 기본)
+    private AiPriority priority = AiPriority.SCHEDULED;
+    // 비어있으면 등록된 모든 채널로 전송
+    private List<String> channels = new ArrayList<>();
+    // 파싱된 AI 응답. 생성된 후에는 재시도 시 다시 생성하지 않는다.
+    private String content;
+    // 전송에 성공한 채널. 재시도 시 이 채널로는 다시 보내지 않는다.
+    @JsonAlias("deliveredChannels")
+    private List<String> deliveredChannels = new ArrayList<>();
+    private Status status = Status.PENDING;
+    private int attempts;
+    @JsonAlias("lastError")
+    private String lastError;
+    @JsonAlias("createdAt")
+    private long createdAt;
+    @JsonAlias("updatedAt")
+    private long updatedAt;
+
+    public static AiMessageJob create(String title, String prompt, AiMode mode, List<String> channels) {
+        AiMessageJob job = new AiMessageJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setTitle(title);
+        job.setPrompt(prompt);
+        job.setMode(mode);
+        job.setChannels(channels == null ? new ArrayList<>() : new ArrayList<>(channels));
+        job.setCreatedAt(System.currentTimeMillis());
+        job.setUpdatedAt(job.getCreatedAt());
+        return job;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
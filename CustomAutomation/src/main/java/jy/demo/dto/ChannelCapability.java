@@ -0,0 +1,28 @@
+package jy.demo.dto;
+
+import lombok.Getter;
+
+/**
+ * 채널이 지원하는 메시지 형식
+ * - richBlocks: 제목/본문을 구분한 블록 형식 지원 여부
+ * - maxLength: 본문 최대 길이 (이보다 길면 잘라서 전송)
+ */
+@Getter
+public class ChannelCapability {
+    private static final String ELLIPSIS = "...";
+
+    private final boolean richBlocks;
+    private final int maxLength;
+
+    public ChannelCapability(boolean richBlocks, int maxLength) {
+        this.richBlocks = richBlocks;
+        this.maxLength = maxLength;
+    }
+
+    public String fit(String text) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, Math.max(0, maxLength - ELLIPSIS.length())) + ELLIPSIS;
+    }
+}
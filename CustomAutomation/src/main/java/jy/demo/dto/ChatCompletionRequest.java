@@ -0,0 +1,54 @@
+package jy.demo.dto;
+
+import java.util.List;
+
+/**
+ * OpenAI Chat Completions 요청 DTO
+ * {
+ *   "model": "...",
+ *   "messages": [
+ *     {"role": "system", "content": "..."},
+ *     {"role": "user", "content": [{"type": "text", "text": "..."}]}
+ *   ],
+ *   "max_tokens": 4096, "temperature": 0, "seed": 2024, "stream": true
+ * }
+ */
+public class ChatCompletionRequest implements JsonConvertible {
+
+    private final String model;
+    private final List<ChatMessage> messages;
+    private final int maxTokens = 4096;
+    private final int temperature = 0;
+    private final int seed = 2024;
+    // 스트리밍이 아니면 필드 자체를 생략 (null)
+    private final Boolean stream;
+
+    public ChatCompletionRequest(String model, String systemPrompt, String userPrompt, boolean stream) {
+        this.model = model;
+        this.messages = List.of(
+            new ChatMessage("system", systemPrompt),
+            new ChatMessage("user", userPrompt.isEmpty() ? List.of() : List.of(new TextPart(userPrompt)))
+        );
+        this.stream = stream ? Boolean.TRUE : null;
+    }
+
+    static class ChatMessage {
+        private final String role;
+        // system: 문자열, user: TextPart 목록
+        private final Object content;
+
+        ChatMessage(String role, Object content) {
+            this.role = role;
+            this.content = content;
+        }
+    }
+
+    static class TextPart {
+        private final String type = "text";
+        private final String text;
+
+        TextPart(String text) {
+            this.text = text;
+        }
+    }
+}
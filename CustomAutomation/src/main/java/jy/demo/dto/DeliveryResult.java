@@ -0,0 +1,44 @@
+package jy.demo.dto;
+
+import lombok.Getter;
+
+/**
+ * 채널별 메시지 전송 결과
+ */
+@Getter
+public class DeliveryResult {
+
+    public enum Status { SUCCESS, FAILED, TIMEOUT }
+
+    private final String channel;
+    private final Status status;
+    private final String detail;
+    private final long elapsedMs;
+    // 일시적인 실패(5xx, 429 등)라서 같은 내용으로 다시 보내볼 만한지 (채널이 판정)
+    private final boolean retryable;
+
+    /**
+     * 재시도하지 않는 결과
+     * TIMEOUT도 재시도하지 않는다. 기다리기를 그만뒀을 뿐 요청은 이미 나갔을 수 있어 다시 보내면 중복 전송이 된다.
+     */
+    public DeliveryResult(String channel, Status status, String detail, long elapsedMs) {
+        this(channel, status, detail, elapsedMs, false);
+    }
+
+    public DeliveryResult(String channel, Status status, String detail, long elapsedMs, boolean retryable) {
+        this.channel = channel;
+        this.status = status;
+        this.detail = detail;
+        this.elapsedMs = elapsedMs;
+        this.retryable = !isSuccess() && retryable;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s=%s (%dms) %s", channel, status, elapsedMs, detail);
+    }
+}
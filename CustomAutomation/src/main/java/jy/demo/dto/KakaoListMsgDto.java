@@ -0,0 +1,50 @@
+package jy.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jy.demo.util.KakaoConstants;
+import lombok.Data;
+
+/**
+ * 카카오 리스트 템플릿 DTO (다이제스트 전송용)
+ * "object_type": "list",
+ * "header_title": "AI 메시지 3건",
+ * "header_link": { "web_url": ..., "mobile_web_url": ... },
+ * "contents": [
+ *      { "title": ..., "description": ..., "image_url": ..., "link": { ... } }
+ * ],
+ * "button_title": "바로 확인"
+ *
+ * contents는 2~3개만 허용되며 image_url은 필수이다.
+ */
+@Data
+public class KakaoListMsgDto implements JsonConvertible {
+    public static final int MIN_CONTENTS = 2;
+    public static final int MAX_CONTENTS = 3;
+
+    private String objectType = KakaoConstants.MSG_LIST_OBJECT_TYPE;
+    private String headerTitle;
+    private Map<String, String> headerLink = KakaoConstants.MSG_LINK;
+    private List<Content> contents = new ArrayList<>();
+    private String buttonTitle = KakaoConstants.MSG_BUTTON_TITLE;
+
+    public KakaoListMsgDto(String headerTitle) {
+        this.headerTitle = headerTitle;
+    }
+
+    @Data
+    public static class Content {
+        private String title;
+        private String description;
+        private String imageUrl;
+        private Map<String, String> link = KakaoConstants.MSG_LINK;
+
+        public Content(String title, String description, String imageUrl) {
+            this.title = title;
+            this.description = description;
+            this.imageUrl = imageUrl;
+        }
+    }
+}
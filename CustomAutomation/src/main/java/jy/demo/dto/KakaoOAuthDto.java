@@ -7,7 +7,8 @@ public class KakaoOAuthDto implements JsonConvertible {
         private String code = "";
         private String grantType = HTTPStatic.KAKAO_OAUTH_GRANT_TYPE;
         private String clientId = "";
-        private String redirectUrl = HTTPStatic.KAKAO_REDIRECT_URL;
+        // form 필드명: redirect_uri (카카오 OAuth 규격)
+        private String redirectUri = HTTPStatic.KAKAO_REDIRECT_URL;
 
         public KakaoOAuthDto(String code, String clientId) {
             this.code = code;
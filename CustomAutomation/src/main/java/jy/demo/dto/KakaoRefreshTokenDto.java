@@ -0,0 +1,17 @@
+package jy.demo.dto;
+
+/**
+ * 카카오 토큰 갱신 요청 DTO (form 본문)
+ * grant_type=refresh_token&client_id=...&refresh_token=...
+ */
+public class KakaoRefreshTokenDto implements JsonConvertible {
+
+        private String grantType = "refresh_token";
+        private String clientId = "";
+        private String refreshToken = "";
+
+        public KakaoRefreshTokenDto(String clientId, String refreshToken) {
+            this.clientId = clientId;
+            this.refreshToken = refreshToken;
+        }
+}
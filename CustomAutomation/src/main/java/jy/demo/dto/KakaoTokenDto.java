@@ -1,5 +1,6 @@
 package jy.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class KakaoTokenDto {
@@ -18,6 +19,11 @@ public class KakaoTokenDto {
     @JsonProperty("updated_at")
     private String updatedAt;
 
+    // 토큰 저장소 버전 (외부 스크립트가 쓴 파일에는 없음)
+    @JsonProperty("version")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
     public KakaoTokenDto() {
     }
 
@@ -60,4 +66,12 @@ public class KakaoTokenDto {
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
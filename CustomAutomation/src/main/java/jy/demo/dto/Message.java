@@ -0,0 +1,33 @@
+package jy.demo.dto;
+
+import lombok.Getter;
+
+/**
+ * 채널에 전달할 메시지
+ * title은 없을 수 있으며, Rich 포맷을 지원하지 않는 채널은 "[title]\nbody" 형태의 텍스트로 전송한다.
+ */
+@Getter
+public class Message {
+    private final String title;
+    private final String body;
+
+    public Message(String title, String body) {
+        this.title = title;
+        this.body = body;
+    }
+
+    public Message(String body) {
+        this(null, body);
+    }
+
+    public boolean hasTitle() {
+        return title != null && !title.isEmpty();
+    }
+
+    /**
+     * 제목을 포함한 일반 텍스트 형태로 변환
+     */
+    public String toPlainText() {
+        return hasTitle() ? String.format("[%s]\n%s", title, body) : body;
+    }
+}
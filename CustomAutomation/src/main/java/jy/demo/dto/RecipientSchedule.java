@@ -0,0 +1,103 @@
+package jy.demo.dto;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 수신자별 전송 일정
+ * - intervalMinutes 주기로 전송하되, 수신자 시간대(zoneId) 기준 방해 금지 시간(quietStartHour ~ quietEndHour)은 건너뛴다.
+ * - 방해 금지 시간은 자정을 넘길 수 있다. (예: 21시 ~ 9시)
+ *
+ * 일정 파일은 JsonUtil.MAPPER(스네이크 케이스)로 저장하고, 이전 형식(카멜 케이스) 키도 읽는다.
+ */
+@Data
+@NoArgsConstructor
+public class RecipientSchedule {
+
+    private String id;
+    // 전송할 채널 (비어있으면 등록된 모든 채널)
+    private List<String> channels = new ArrayList<>();
+    @JsonAlias("intervalMinutes")
+    private int intervalMinutes = 60;
+    @JsonAlias("quietStartHour")
+    private int quietStartHour = 21;
+    @JsonAlias("quietEndHour")
+    private int quietEndHour = 9;
+    @JsonAlias("zoneId")
+    private String zoneId = "Asia/Seoul";
+    private boolean enabled = true;
+    // 다음 전송 예정 시각 / 마지막 전송 시각 (epoch ms)
+    @JsonAlias("nextRunAt")
+    private long nextRunAt;
+    @JsonAlias("lastRunAt")
+    private long lastRunAt;
+
+    /**
+     * 실행 시각만 바꾼 사본 (스케줄러는 공유 중인 일정을 고치지 않고 사본으로 교체한다)
+     */
+    public RecipientSchedule withRun(long lastRunAt, long nextRunAt) {
+        RecipientSchedule copy = copy();
+        copy.setLastRunAt(lastRunAt);
+        copy.setNextRunAt(nextRunAt);
+        return copy;
+    }
+
+    public RecipientSchedule copy() {
+        RecipientSchedule copy = new RecipientSchedule();
+        copy.setId(id);
+        copy.setChannels(channels == null ? new ArrayList<>() : new ArrayList<>(channels));
+        copy.setIntervalMinutes(intervalMinutes);
+        copy.setQuietStartHour(quietStartHour);
+        copy.setQuietEndHour(quietEndHour);
+        copy.setZoneId(zoneId);
+        copy.setEnabled(enabled);
+        copy.setNextRunAt(nextRunAt);
+        copy.setLastRunAt(lastRunAt);
+        return copy;
+    }
+
+    @JsonIgnore
+    public boolean isQuiet(int hour) {
+        if (quietStartHour == quietEndHour) {
+            return false;
+        }
+        if (quietStartHour < quietEndHour) {
+            return hour >= quietStartHour && hour < quietEndHour;
+        }
+        return hour >= quietStartHour || hour < quietEndHour;
+    }
+
+    /**
+     * from 이후 첫 전송 시각 (주기를 더하고 방해 금지 시간이면 해제 시각 정각으로 미룸)
+     */
+    public long nextRunAfter(long from) {
+        ZoneId zone = ZoneId.of(zoneId);
+        ZonedDateTime next = ZonedDateTime.ofInstant(Instant.ofEpochMilli(from), zone)
+            .truncatedTo(ChronoUnit.MINUTES)
+            .plusMinutes(Math.max(1, intervalMinutes));
+        if (isQuiet(next.getHour())) {
+            // 현지 날짜 기준으로 해제 시각을 잡는다. (자정 + N시간으로 더하면 서머타임 전환일에 한 시간 어긋남)
+            ZonedDateTime resume = next.toLocalDate().atTime(quietEndHour, 0).atZone(zone);
+            next = resume.isAfter(next) ? resume : next.toLocalDate().plusDays(1).atTime(quietEndHour, 0).atZone(zone);
+        }
+        return next.toInstant().toEpochMilli();
+    }
+
+    /**
+     * 전송 시점의 수신자 현지 시각 (테마 선택용)
+     */
+    @JsonIgnore
+    public int localHour(long at) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(at), ZoneId.of(zoneId)).getHour();
+    }
+}
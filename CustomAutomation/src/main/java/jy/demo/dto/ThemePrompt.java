@@ -1,9 +1,13 @@
 package jy.demo.dto;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.AllArgsConstructor;
 
 @Getter
+@Setter
+@NoArgsConstructor
 @AllArgsConstructor
 public class ThemePrompt {
     private String theme;
@@ -0,0 +1,99 @@
+package jy.demo.service;
+
+import io.micrometer.core.instrument.Timer;
+import jy.demo.api.ModelRouter;
+import jy.demo.dto.AiMessageJob;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import jy.demo.util.AiResponseParser;
+import jy.demo.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AI 메시지 작업의 실제 처리 단계
+ * 1. generate: 프롬프트 -> AI 응답 -> 파싱
+ * 2. deliver: 채널 전송 (다이제스트 채널은 묶음 전송 버퍼로)
+ */
+@Service
+public class AiMessageJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiMessageJobProcessor.class);
+
+    private final ModelRouter modelRouter;
+    private final MessageDigestService digestService;
+    private final MessageChannelRegistry channelRegistry;
+    private final AiResponseCache responseCache;
+    private final PipelineMetrics metrics;
+
+    public AiMessageJobProcessor(
+            ModelRouter modelRouter,
+            MessageDigestService digestService,
+            MessageChannelRegistry channelRegistry,
+            AiResponseCache responseCache,
+            PipelineMetrics metrics) {
+        this.modelRouter = modelRouter;
+        this.digestService = digestService;
+        this.channelRegistry = channelRegistry;
+        this.responseCache = responseCache;
+        this.metrics = metrics;
+    }
+
+    public String generate(AiMessageJob job) {
+        return generateAsync(job).join();
+    }
+
+    /**
+     * 호출 스레드를 점유하지 않고 AI 응답을 생성 (미리 생성용)
+     */
+    public CompletableFuture<String> generateAsync(AiMessageJob job) {
+        logger.info("AI 응답 요청 중... (jobId={}, mode={})", job.getId(), job.getMode());
+        logger.debug("프롬프트: {}", job.getPrompt());
+
+        long startTime = System.currentTimeMillis();
+        // 테마별 TTL로 캐시 (같은 테마 프롬프트는 TTL 동안 다시 생성하지 않음)
+        return modelRouter.generate(job.getPrompt(), job.getMode(), job.getPriority(),
+                responseCache.ttlFor(job.getTitle(), job.getMode()))
+            .thenApply(rawResponse -> {
+                long endTime = System.currentTimeMillis();
+
+                logger.info("AI 응답 수신 완료 (소요시간: {}ms)", endTime - startTime);
+                logger.debug("AI 원본 응답: {}", rawResponse);
+
+                Timer.Sample parseSample = metrics.start();
+                String aiResponse = AiResponseParser.parse(rawResponse);
+                metrics.recordParse(parseSample);
+                logger.info("AI 파싱 응답: {}", aiResponse);
+                return aiResponse;
+            });
+    }
+
+    /**
+     * 아직 전송하지 못한 채널로만 전송하고, 성공한 채널은 작업에 기록한다.
+     * (재시도 시 이미 받은 채널로 중복 전송하지 않음)
+     * 다이제스트 채널은 묶음 전송 결과가 나올 때 완료된다. (그 전에는 작업이 끝나지 않음)
+     */
+    public CompletableFuture<Map<String, DeliveryResult>> deliverAsync(AiMessageJob job) {
+        Message message = new Message(job.getTitle(), job.getContent());
+        Collection<String> targets = job.getChannels().isEmpty() ? channelRegistry.getChannelNames() : job.getChannels();
+        List<String> remaining = targets.stream()
+            .filter(channel -> !job.getDeliveredChannels().contains(channel))
+            .toList();
+
+        return digestService.dispatchAsync(message, remaining).thenApply(results -> {
+            results.values().forEach(result -> {
+                metrics.recordThemeDelivery(job.getTitle(), result);
+                if (result.isSuccess()) {
+                    job.getDeliveredChannels().add(result.getChannel());
+                }
+            });
+            return results;
+        });
+    }
+}
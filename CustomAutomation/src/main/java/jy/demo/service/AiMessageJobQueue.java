@@ -0,0 +1,256 @@
+package jy.demo.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jy.demo.api.AiMode;
+import jy.demo.dto.AiMessageJob;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.util.AiJobJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 메시지 작업 큐
+ *
+ * 작업은 저널(AiJobJournal)에 기록된 뒤 큐에 들어가므로 처리 중 서버가 종료되어도 재시작 시 다시 처리된다.
+ * 고정 개수의 워커가 큐를 비우며, 실패한 작업은 max-attempts까지 재시도한다.
+ * 재시도 간격은 retry-delay-ms부터 두 배씩 늘어나고(최대 retry-max-delay-ms) jitter를 더해 한꺼번에 몰리지 않게 한다.
+ * 재시도할 때 이미 생성한 AI 응답은 다시 만들지 않고, 일시적 오류로 실패한 채널로만 다시 보낸다.
+ */
+@Service
+public class AiMessageJobQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiMessageJobQueue.class);
+
+    private final AiJobJournal journal;
+    private final AiMessageJobProcessor processor;
+    private final int workerCount;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final long retryMaxDelayMs;
+
+    private final BlockingDeque<AiMessageJob> queue;
+    private final Map<String, AiMessageJob> activeJobs = new ConcurrentHashMap<>();
+    private final Cache<String, AiMessageJob> finishedJobs = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+
+    public AiMessageJobQueue(
+            AiJobJournal journal,
+            AiMessageJobProcessor processor,
+            @Value("${jobs.workers:2}") int workerCount,
+            @Value("${jobs.queue.capacity:1000}") int capacity,
+            @Value("${jobs.max-attempts:3}") int maxAttempts,
+            @Value("${jobs.retry-delay-ms:30000}") long retryDelayMs,
+            @Value("${jobs.retry-max-delay-ms:600000}") long retryMaxDelayMs) {
+        this.journal = journal;
+        this.processor = processor;
+        this.workerCount = workerCount;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+        this.queue = new LinkedBlockingDeque<>(capacity);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        for (AiMessageJob job : journal.recover()) {
+            job.setStatus(AiMessageJob.Status.PENDING);
+            activeJobs.put(job.getId(), job);
+            if (!queue.offer(job)) {
+                logger.warn("작업 큐가 가득 차서 복구된 작업을 처리하지 못했습니다: {}", job.getId());
+            }
+        }
+
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ai-job-retry-"));
+        workers = Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("ai-job-"));
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workLoop);
+        }
+        logger.info("AI 메시지 작업 큐 시작 (워커 {}개, 대기 작업 {}건)", workerCount, queue.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 처리 중이던 작업은 저널에 RUNNING으로 남아 재시작 시 다시 처리된다.
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 작업 등록. 저널에 기록한 뒤 바로 반환한다.
+     * 내용이 이미 생성된 작업(미리 생성된 콘텐츠)은 전송만 하면 되므로 큐 맨 앞에 넣는다.
+     *
+     * @throws IllegalStateException 큐가 가득 찬 경우
+     */
+    public AiMessageJob enqueue(String title, String prompt, AiMode mode, List<String> channels) {
+        AiMessageJob job = AiMessageJob.create(title, prompt, mode, channels);
+        return enqueue(job);
+    }
+
+    public AiMessageJob enqueue(AiMessageJob job) {
+        if (queue.remainingCapacity() == 0) {
+            throw new IllegalStateException("작업 큐가 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        journal.append(job);
+        activeJobs.put(job.getId(), job);
+        boolean offered = job.getContent() != null ? queue.offerFirst(job) : queue.offer(job);
+        if (!offered) {
+            fail(job, "작업 큐가 가득 찼습니다.");
+            throw new IllegalStateException("작업 큐가 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        logger.info("작업 등록: {} [{}] (대기 {}건)", job.getId(), job.getTitle(), queue.size());
+        return job;
+    }
+
+    public Optional<AiMessageJob> find(String jobId) {
+        AiMessageJob job = activeJobs.get(jobId);
+        if (job == null) {
+            job = finishedJobs.getIfPresent(jobId);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                process(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("작업 처리 중 예상하지 못한 오류: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * AI 응답 생성 후 전송을 시작하고 바로 반환한다. (워커가 다이제스트 묶음 전송을 기다리지 않음)
+     * 작업은 모든 채널의 전송 결과가 나온 뒤에 끝나므로, 그 전에 서버가 종료되면 저널에서 복구되어 다시 전송된다.
+     */
+    private void process(AiMessageJob job) {
+        job.setStatus(AiMessageJob.Status.RUNNING);
+        job.setAttempts(job.getAttempts() + 1);
+        touch(job);
+        logger.info("=== 작업 처리 시작: {} [{}] (시도 {}/{}) ===", job.getId(), job.getTitle(), job.getAttempts(), maxAttempts);
+
+        try {
+            // 이미 생성된 응답이 있으면(재시도) AI를 다시 호출하지 않는다.
+            if (job.getContent() == null) {
+                job.setContent(processor.generate(job));
+                touch(job);
+            }
+
+            processor.deliverAsync(job).whenComplete((results, error) -> {
+                if (error != null) {
+                    onError(job, error);
+                } else {
+                    onDelivered(job, results);
+                }
+            });
+        } catch (Exception e) {
+            onError(job, e);
+        }
+    }
+
+    private void onDelivered(AiMessageJob job, Map<String, DeliveryResult> results) {
+        List<DeliveryResult> failures = results.values().stream()
+            .filter(result -> !result.isSuccess())
+            .toList();
+
+        // 일시적 오류(5xx, 429 등)로 실패한 채널만 같은 내용으로 다시 보낸다.
+        boolean retryable = failures.stream().anyMatch(DeliveryResult::isRetryable);
+        if (retryable && job.getAttempts() < maxAttempts) {
+            retryLater(job, "채널 전송 실패: " + failures);
+            return;
+        }
+        if (job.getDeliveredChannels().isEmpty()) {
+            fail(job, "모든 채널 전송 실패: " + failures);
+            logger.error("작업 최종 실패: {} ({})", job.getId(), failures);
+            return;
+        }
+
+        job.setStatus(AiMessageJob.Status.SUCCEEDED);
+        job.setLastError(failures.isEmpty() ? null : "일부 채널 전송 실패: " + failures);
+        finish(job);
+        logger.info("=== 작업 처리 완료: {} === {}", job.getId(), results.values());
+    }
+
+    private void onError(AiMessageJob job, Throwable error) {
+        if (job.getAttempts() < maxAttempts) {
+            retryLater(job, error.getMessage());
+        } else {
+            fail(job, error.getMessage());
+            logger.error("작업 최종 실패: {} ({})", job.getId(), error.getMessage(), error);
+        }
+    }
+
+    private void retryLater(AiMessageJob job, String reason) {
+        long delayMs = retryDelay(job.getAttempts());
+        job.setLastError(reason);
+        job.setStatus(AiMessageJob.Status.PENDING);
+        touch(job);
+        logger.warn("작업 실패, {}ms 후 재시도: {} ({})", delayMs, job.getId(), reason);
+        retryScheduler.schedule(() -> requeue(job), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 지수 백오프 + jitter: retry-delay * 2^(attempts-1) 를 상한으로, 그 절반~전체 구간에서 무작위로 선택
+     */
+    private long retryDelay(int attempts) {
+        long backoff = Math.min(retryMaxDelayMs, retryDelayMs << Math.min(attempts - 1, 20));
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+
+    private void requeue(AiMessageJob job) {
+        if (!queue.offer(job)) {
+            fail(job, "재시도 시점에 작업 큐가 가득 찼습니다.");
+        }
+    }
+
+    private void fail(AiMessageJob job, String reason) {
+        job.setStatus(AiMessageJob.Status.FAILED);
+        job.setLastError(reason);
+        finish(job);
+    }
+
+    private void finish(AiMessageJob job) {
+        touch(job);
+        activeJobs.remove(job.getId());
+        finishedJobs.put(job.getId(), job);
+    }
+
+    private void touch(AiMessageJob job) {
+        job.setUpdatedAt(System.currentTimeMillis());
+        journal.append(job);
+    }
+}
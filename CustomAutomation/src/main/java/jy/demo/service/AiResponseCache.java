@@ -0,0 +1,220 @@
+package jy.demo.service;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jy.demo.api.AiMode;
+import jy.demo.config.AiCacheProperties;
+import jy.demo.util.AtomicFiles;
+import jy.demo.util.JsonUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * AI 응답 캐시
+ *
+ * 키: 프롬프트 해시(SHA-256) + 모드 + 모델
+ * 크기 제한(max-size)을 넘으면 가장 오래 사용되지 않은 항목부터 제거하고,
+ * 항목마다 테마/모드에 따른 TTL이 지나면 만료된다.
+ */
+@Component
+public class AiResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseCache.class);
+
+    private final AiCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private Cache<String, Entry> cache;
+
+    public AiResponseCache(AiCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .recordStats()
+            .build();
+        // cache.gets{result=hit|miss}, cache.size, cache.evictions 등
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "ai.response");
+        loadSnapshot();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        saveSnapshot();
+    }
+
+    public static String key(String prompt, AiMode mode, String model) {
+        String hash = Hashing.sha256().hashString(prompt, StandardCharsets.UTF_8).toString();
+        return hash + ":" + mode + ":" + model;
+    }
+
+    /**
+     * 테마별 TTL이 설정되어 있으면 그 값을, 아니면 모드별 기본 TTL을 반환
+     */
+    public Duration ttlFor(String theme, AiMode mode) {
+        Long themeTtl = theme == null ? null : properties.getThemeTtlMinutes().get(theme);
+        if (themeTtl != null) {
+            return Duration.ofMinutes(themeTtl);
+        }
+        return ttlFor(mode);
+    }
+
+    public Duration ttlFor(AiMode mode) {
+        return Duration.ofMinutes(mode == AiMode.PLAIN ? properties.getDefaultTtlMinutes() : properties.getSearchTtlMinutes());
+    }
+
+    public String get(String key) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        // 만료된 항목은 통계를 남기지 않는 asMap()으로 먼저 확인해 지운다.
+        // (getIfPresent로 꺼낸 뒤 지우면 만료 항목이 적중으로 집계되어 적중률이 부풀려짐)
+        Entry stale = cache.asMap().get(key);
+        if (stale != null && stale.isExpired()) {
+            cache.asMap().remove(key, stale);
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || entry.isExpired()) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(String key, String value, Duration ttl) {
+        if (!properties.isEnabled() || value == null || value.isBlank() || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        cache.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    public String getOrLoad(String key, Duration ttl, Supplier<String> loader) {
+        String cached = get(key);
+        if (cached != null) {
+            logger.info("AI 응답 캐시 적중: {}", key);
+            return cached;
+        }
+        String value = loader.get();
+        put(key, value, ttl);
+        return value;
+    }
+
+    public CompletableFuture<String> getOrLoadAsync(String key, Duration ttl, Supplier<CompletableFuture<String>> loader) {
+        String cached = get(key);
+        if (cached != null) {
+            logger.info("AI 응답 캐시 적중: {}", key);
+            return CompletableFuture.completedFuture(cached);
+        }
+        return loader.get().thenApply(value -> {
+            put(key, value, ttl);
+            return value;
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private void loadSnapshot() {
+        if (!properties.getSnapshot().isEnabled()) {
+            return;
+        }
+        Path path = Paths.get(properties.getSnapshot().getPath());
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            List<SnapshotEntry> entries = JsonUtil.MAPPER.readValue(path.toFile(), new TypeReference<List<SnapshotEntry>>() {});
+            long now = System.currentTimeMillis();
+            entries.stream()
+                .filter(e -> e.expiresAt > now)
+                .forEach(e -> cache.put(e.key, new Entry(e.value, e.expiresAt)));
+            logger.info("AI 응답 캐시 스냅샷 로드: {}건", cache.size());
+        } catch (IOException e) {
+            logger.warn("AI 응답 캐시 스냅샷 로드 실패: {}", e.getMessage());
+        }
+    }
+
+    private void saveSnapshot() {
+        if (!properties.getSnapshot().isEnabled()) {
+            return;
+        }
+        Path path = Paths.get(properties.getSnapshot().getPath()).toAbsolutePath();
+        List<SnapshotEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : cache.asMap().entrySet()) {
+            if (!e.getValue().isExpired()) {
+                entries.add(new SnapshotEntry(e.getKey(), e.getValue().value, e.getValue().expiresAt));
+            }
+        }
+        try {
+            AtomicFiles.write(path, JsonUtil.MAPPER.writeValueAsBytes(entries));
+            logger.info("AI 응답 캐시 스냅샷 저장: {}건", entries.size());
+        } catch (IOException e) {
+            logger.warn("AI 응답 캐시 스냅샷 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    static class Entry {
+        final String value;
+        final long expiresAt;
+
+        Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    /**
+     * 스냅샷 한 건 (JsonUtil.MAPPER 규약에 따라 expires_at으로 기록, 이전 형식의 expiresAt도 읽음)
+     */
+    static class SnapshotEntry {
+        public String key;
+        public String value;
+        @JsonAlias("expiresAt")
+        public long expiresAt;
+
+        public SnapshotEntry() {
+        }
+
+        SnapshotEntry(String key, String value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
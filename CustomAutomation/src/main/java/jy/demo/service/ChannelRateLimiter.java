@@ -0,0 +1,210 @@
+package jy.demo.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jy.demo.config.RateLimitProperties;
+import jy.demo.util.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 채널별 전송 속도 제한 (토큰 버킷)
+ *
+ * 허용량을 넘는 전송은 실패시키지 않고 대기열에 넣어 토큰이 채워지는 시점에 내보낸다.
+ * 대기 중에는 스레드를 점유하지 않는다. (스케줄러가 예약 시각에 future를 완료)
+ * 429 응답의 Retry-After 동안은 해당 채널의 토큰을 채우지 않는다.
+ *
+ * 메트릭: ratelimit.tokens.available, ratelimit.quota.remaining, ratelimit.queued,
+ *        ratelimit.rejected, ratelimit.retry.after (모두 channel 태그)
+ */
+@Component
+public class ChannelRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChannelRateLimiter.class);
+
+    private final Map<String, Channel> channels = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Duration defaultRetryAfter;
+    private final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ratelimit-"));
+
+    public ChannelRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.defaultRetryAfter = Duration.ofMillis(properties.getDefaultRetryAfterMs());
+
+        long now = System.nanoTime();
+        properties.getChannels().forEach((name, limit) -> {
+            TokenBucket bucket = new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), limit.getDailyQuota(), now);
+            Channel channel = new Channel(bucket, TimeUnit.MILLISECONDS.toNanos(limit.getMaxWaitMs()));
+            channels.put(name, channel);
+
+            Gauge.builder("ratelimit.tokens.available", bucket, b -> b.available(System.nanoTime()))
+                .tag("channel", name)
+                .register(meterRegistry);
+            Gauge.builder("ratelimit.queued", channel.queued, AtomicInteger::get)
+                .tag("channel", name)
+                .register(meterRegistry);
+            if (limit.getDailyQuota() > 0) {
+                Gauge.builder("ratelimit.quota.remaining", bucket, b -> b.remainingToday(LocalDate.now()))
+                    .tag("channel", name)
+                    .register(meterRegistry);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 전송 허가 대기
+     * 바로 보낼 수 있으면 완료된 future를, 아니면 토큰이 채워지는 시점에 완료되는 future를 반환한다.
+     * 일일 쿼터 초과 또는 max-wait-ms 이상 기다려야 하면 IllegalStateException으로 실패한다.
+     */
+    public CompletableFuture<Void> acquire(String channelName) {
+        Channel channel = channels.get(channelName);
+        if (channel == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long wait = channel.bucket.reserve(System.nanoTime(), LocalDate.now(), channel.maxWaitNanos);
+        if (wait == TokenBucket.REJECTED) {
+            meterRegistry.counter("ratelimit.rejected", "channel", channelName).increment();
+            return CompletableFuture.failedFuture(
+                new IllegalStateException(channelName + " 전송 한도를 초과했습니다. (일일 쿼터 또는 최대 대기시간)"));
+        }
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        logger.debug("{} 전송 대기: {}ms", channelName, TimeUnit.NANOSECONDS.toMillis(wait));
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        channel.queued.incrementAndGet();
+        scheduler.schedule(() -> {
+            channel.queued.decrementAndGet();
+            permit.complete(null);
+        }, wait, TimeUnit.NANOSECONDS);
+        return permit;
+    }
+
+    /**
+     * 허가를 기다린 뒤 호출 (동기 전송 경로용)
+     */
+    public void acquireAndWait(String channelName) {
+        try {
+            acquire(channelName).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 429 응답을 받으면 Retry-After 동안 채널을 멈추고, 허가를 다시 받아 한 번 재시도
+     */
+    public <T> T execute(String channelName, Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            Optional<Duration> retryAfter = retryAfterOf(e);
+            if (retryAfter.isEmpty()) {
+                throw e;
+            }
+            onRetryAfter(channelName, retryAfter.get());
+            acquireAndWait(channelName);
+            return call.get();
+        }
+    }
+
+    /**
+     * execute의 논블로킹 버전: 429면 Retry-After 동안 채널을 멈추고, 허가가 나면 한 번 재시도
+     */
+    public <T> Mono<T> executeMono(String channelName, Supplier<Mono<T>> call) {
+        return Mono.defer(call).onErrorResume(RuntimeException.class, e -> {
+            Optional<Duration> retryAfter = retryAfterOf(e);
+            if (retryAfter.isEmpty()) {
+                return Mono.error(e);
+            }
+            onRetryAfter(channelName, retryAfter.get());
+            return Mono.fromFuture(() -> acquire(channelName)).then(Mono.defer(call));
+        });
+    }
+
+    public void onRetryAfter(String channelName, Duration retryAfter) {
+        meterRegistry.counter("ratelimit.retry.after", "channel", channelName).increment();
+        Channel channel = channels.get(channelName);
+        if (channel == null) {
+            return;
+        }
+        logger.warn("{} 요청 한도 초과 응답(429): {}ms 동안 전송 중지", channelName, retryAfter.toMillis());
+        long now = System.nanoTime();
+        channel.bucket.pauseUntil(now, now + retryAfter.toNanos());
+    }
+
+    private Optional<Duration> retryAfterOf(RuntimeException e) {
+        HttpHeaders headers;
+        if (e instanceof WebClientResponseException webClientError && webClientError.getStatusCode().value() == 429) {
+            headers = webClientError.getHeaders();
+        } else if (e instanceof RestClientResponseException restError && restError.getStatusCode().value() == 429) {
+            headers = restError.getResponseHeaders();
+        } else {
+            return Optional.empty();
+        }
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        return Optional.of(parseRetryAfter(value).orElse(defaultRetryAfter));
+    }
+
+    /**
+     * Retry-After: 초 단위 숫자 또는 HTTP-date
+     */
+    static Optional<Duration> parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration remaining = Duration.between(ZonedDateTime.now(), until);
+                return Optional.of(remaining.isNegative() ? Duration.ZERO : remaining);
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static final class Channel {
+        private final TokenBucket bucket;
+        private final long maxWaitNanos;
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private Channel(TokenBucket bucket, long maxWaitNanos) {
+            this.bucket = bucket;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package jy.demo.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jy.demo.util.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 여러 인스턴스 중 한 노드만 정기 작업을 실행하도록 조정
+ *
+ * - 리더 lease: renew-ms마다 "leader" 잠금을 lease-ms 동안 잡거나 연장한다.
+ *   리더가 죽으면 lease가 만료되는 즉시(최대 lease-ms) 다른 노드가 리더가 된다.
+ * - 작업 잠금: 리더라도 틱마다 작업 이름으로 잠금을 잡아야 실행한다. (리더 교체 순간 두 노드가 같은 틱을 실행하지 않도록)
+ *   작업이 끝나도 최소 at-least 동안은 잠금을 유지해 노드 간 시계 차이로 같은 틱이 다시 실행되지 않게 한다.
+ *
+ * 메트릭: scheduler.leader (1: 리더)
+ */
+@Service
+public class ClusterCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+    private static final String LEADER_LOCK = "leader";
+
+    private final SchedulerLock lock;
+    private final String nodeId;
+    private final Duration lease;
+    private final List<Runnable> leadershipListeners = new CopyOnWriteArrayList<>();
+
+    // 리더 lease 만료 시각 (epoch ms, 리더가 아니면 0)
+    private volatile long leaseUntil;
+
+    public ClusterCoordinator(
+            SchedulerLock lock,
+            MeterRegistry meterRegistry,
+            @Value("${scheduler.lock.node-id:}") String nodeId,
+            @Value("${scheduler.lock.lease-ms:10000}") long leaseMs) {
+        this.lock = lock;
+        this.nodeId = nodeId.isEmpty() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.lease = Duration.ofMillis(leaseMs);
+
+        Gauge.builder("scheduler.leader", this, coordinator -> coordinator.isLeader() ? 1 : 0)
+            .description("이 노드가 정기 작업 리더인지")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 시작하자마자 리더 lease를 시도 (인스턴스가 하나면 바로 리더)
+     */
+    @PostConstruct
+    public void init() {
+        renew();
+    }
+
+    /**
+     * 종료 시 lease를 바로 풀어 다른 노드가 기다리지 않고 이어받게 한다.
+     */
+    @PreDestroy
+    public void resign() {
+        if (isLeader()) {
+            leaseUntil = 0;
+            releaseQuietly(LEADER_LOCK, Instant.now());
+            logger.info("리더 lease 반납: {}", nodeId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.lock.renew-ms:3000}")
+    public void renew() {
+        boolean wasLeader = isLeader();
+        long now = System.currentTimeMillis();
+        boolean acquired;
+        try {
+            acquired = lock.tryAcquire(LEADER_LOCK, nodeId, Instant.ofEpochMilli(now + lease.toMillis()));
+        } catch (RuntimeException e) {
+            // 저장소 장애 시에는 이미 잡은 lease가 끝날 때까지만 리더로 남는다.
+            logger.warn("리더 lease 갱신 실패: {}", e.getMessage());
+            return;
+        }
+
+        leaseUntil = acquired ? now + lease.toMillis() : 0;
+        if (acquired && !wasLeader) {
+            logger.info("정기 작업 리더가 되었습니다: {}", nodeId);
+            leadershipListeners.forEach(listener -> {
+                try {
+                    listener.run();
+                } catch (Exception e) {
+                    logger.error("리더 전환 처리 실패: {}", e.getMessage(), e);
+                }
+            });
+        } else if (!acquired && wasLeader) {
+            logger.warn("리더 lease를 잃었습니다: {}", nodeId);
+        }
+    }
+
+    public boolean isLeader() {
+        return leaseUntil > System.currentTimeMillis();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 리더가 될 때마다 호출 (예: 공유 저장소에서 일정을 다시 읽기)
+     */
+    public void addLeadershipListener(Runnable listener) {
+        leadershipListeners.add(listener);
+    }
+
+    /**
+     * 리더이고 작업 잠금을 잡은 경우에만 실행
+     *
+     * @param atMost  실행 중 노드가 죽었을 때 잠금이 풀리는 시간
+     * @param atLeast 실행이 끝나도 잠금을 유지할 최소 시간
+     * @return 실행했으면 true
+     */
+    public boolean runExclusively(String name, Duration atMost, Duration atLeast, Runnable task) {
+        if (!isLeader()) {
+            logger.debug("리더가 아니므로 {} 작업을 건너뜁니다.", name);
+            return false;
+        }
+        Instant startedAt = Instant.now();
+        if (!lock.tryAcquire(name, nodeId, startedAt.plus(atMost))) {
+            logger.info("{} 작업은 다른 노드가 실행 중입니다.", name);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            Instant minimum = startedAt.plus(atLeast);
+            Instant now = Instant.now();
+            releaseQuietly(name, minimum.isAfter(now) ? minimum : now);
+        }
+    }
+
+    private void releaseQuietly(String name, Instant until) {
+        try {
+            lock.release(name, nodeId, until);
+        } catch (RuntimeException e) {
+            logger.warn("{} 잠금 해제 실패: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package jy.demo.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jy.demo.api.AiMode;
+import jy.demo.dto.AiMessageJob;
+import jy.demo.dto.ThemePrompt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 정기 메시지 콘텐츠 미리 생성
+ *
+ * 매시 pregen.cron(기본 5분)에 다음 정각 슬롯의 테마를 고르고 AI 응답을 생성해 ready-buffer에 보관한다.
+ * 정각에는 보관된 콘텐츠를 꺼내 전송만 하므로 에이전트 모드처럼 생성이 몇 분 걸려도 정각에 도착한다.
+ * ready-buffer는 슬롯 시각 기준으로 최대 pregen.buffer-size개까지만 보관하고, 지난 슬롯은 버린다.
+ *
+ * 메트릭: pregen.slot{result=ready|pending|missing|failed}, pregen.buffer.size
+ */
+@Service
+public class ContentPreGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentPreGenerator.class);
+
+    private final ThemePromptService themePromptService;
+    private final AiMessageJobProcessor processor;
+    private final MeterRegistry meterRegistry;
+    private final ClusterCoordinator coordinator;
+    private final boolean enabled;
+    private final int bufferSize;
+
+    // 슬롯(정각 시각) -> 생성 중이거나 생성된 콘텐츠
+    private final NavigableMap<LocalDateTime, CompletableFuture<AiMessageJob>> slots = new ConcurrentSkipListMap<>();
+
+    public ContentPreGenerator(
+            ThemePromptService themePromptService,
+            AiMessageJobProcessor processor,
+            MeterRegistry meterRegistry,
+            ClusterCoordinator coordinator,
+            @Value("${pregen.enabled:true}") boolean enabled,
+            @Value("${pregen.buffer-size:2}") int bufferSize) {
+        this.themePromptService = themePromptService;
+        this.processor = processor;
+        this.meterRegistry = meterRegistry;
+        this.coordinator = coordinator;
+        this.enabled = enabled;
+        this.bufferSize = bufferSize;
+
+        Gauge.builder("pregen.buffer.size", slots, Map::size)
+            .description("미리 생성 중이거나 생성된 슬롯 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 다음 정각 슬롯의 콘텐츠를 미리 생성 (전송 시간대가 아니면 건너뜀)
+     * 정각 전송과 같은 리더 노드에서만 생성한다. 리더가 바뀌면 새 리더는 정각에 바로 생성한다.
+     */
+    @Scheduled(cron = "${pregen.cron:0 5 * * * *}")
+    public void prepareNextSlot() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime slot = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        if (ScheduledMessageService.isSendHour(slot.getHour())) {
+            coordinator.runExclusively("pregen", Duration.ofMinutes(50), Duration.ofMinutes(5), () -> prepare(slot));
+        }
+    }
+
+    /**
+     * 슬롯 콘텐츠 생성 시작 (이미 생성 중이거나 생성됐으면 그대로 반환)
+     */
+    public CompletableFuture<AiMessageJob> prepare(LocalDateTime slot) {
+        CompletableFuture<AiMessageJob> existing = slots.get(slot);
+        if (existing != null) {
+            return existing;
+        }
+        evictExpired();
+        return slots.computeIfAbsent(slot, this::generate);
+    }
+
+    /**
+     * 정각에 슬롯 콘텐츠를 꺼낸다. 생성 중이면 완료될 future를, 준비된 적이 없으면 null을 반환
+     */
+    public CompletableFuture<AiMessageJob> take(LocalDateTime slot) {
+        CompletableFuture<AiMessageJob> ready = slots.remove(slot);
+        String result = ready == null ? "missing"
+            : !ready.isDone() ? "pending"
+            : ready.isCompletedExceptionally() ? "failed"
+            : "ready";
+        meterRegistry.counter("pregen.slot", "result", result).increment();
+        return ready;
+    }
+
+    private CompletableFuture<AiMessageJob> generate(LocalDateTime slot) {
+        ThemePrompt theme = themePromptService.getThemeByTime(slot.getHour());
+        AiMode mode = theme.isRequiresWebSearch() ? AiMode.AGENT : AiMode.PLAIN;
+        AiMessageJob job = AiMessageJob.create(theme.getTheme(), theme.getPrompt(), mode, List.of());
+        logger.info("{} 슬롯 콘텐츠 미리 생성 시작: {} ({})", slot, theme.getTheme(), mode);
+
+        return processor.generateAsync(job)
+            .thenApply(content -> {
+                job.setContent(content);
+                logger.info("{} 슬롯 콘텐츠 준비 완료: {}", slot, theme.getTheme());
+                return job;
+            })
+            .whenComplete((ignored, error) -> {
+                if (error != null) {
+                    logger.warn("{} 슬롯 콘텐츠 미리 생성 실패: {}", slot, error.getMessage());
+                }
+            });
+    }
+
+    /**
+     * 지난 슬롯을 버리고, 보관 개수를 넘으면 가장 먼 슬롯부터 버린다.
+     */
+    private void evictExpired() {
+        LocalDateTime current = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        slots.headMap(current).clear();
+        while (slots.size() >= bufferSize && !slots.isEmpty()) {
+            Map.Entry<LocalDateTime, CompletableFuture<AiMessageJob>> last = slots.pollLastEntry();
+            logger.info("ready-buffer가 가득 차서 {} 슬롯 콘텐츠를 버립니다.", last.getKey());
+        }
+    }
+}
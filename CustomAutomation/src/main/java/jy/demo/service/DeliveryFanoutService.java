@@ -0,0 +1,169 @@
+package jy.demo.service;
+
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import jy.demo.util.PipelineMetrics;
+import jy.demo.util.UpstreamGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 여러 채널로 메시지를 동시에 전송하는 서비스
+ * 전체 소요시간은 채널별 소요시간의 합이 아니라 가장 느린 채널의 소요시간(최대 timeout)이 된다.
+ *
+ * 채널이 재시도할 만하다고 판정한 실패(5xx, 429 등)는 그 채널만 지수 백오프 + jitter 후 다시 보낸다.
+ * 재시도 횟수/간격/예산은 resilience.upstreams.<채널명> 설정을 따른다.
+ * delivery.timeout-ms가 지나 TIMEOUT이 된 전송은 재시도하지 않는다. (첫 요청이 아직 진행 중이거나 이미 전달됐을 수 있어 중복 전송 위험)
+ */
+@Service
+public class DeliveryFanoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryFanoutService.class);
+
+    private final MessageChannelRegistry channelRegistry;
+    private final PipelineMetrics metrics;
+    private final UpstreamGuard upstreamGuard;
+
+    @Value("${delivery.timeout-ms:30000}")
+    private long timeoutMs;
+
+    public DeliveryFanoutService(MessageChannelRegistry channelRegistry, PipelineMetrics metrics, UpstreamGuard upstreamGuard) {
+        this.channelRegistry = channelRegistry;
+        this.metrics = metrics;
+        this.upstreamGuard = upstreamGuard;
+    }
+
+    /**
+     * 등록된 모든 채널로 동시 전송
+     */
+    public Map<String, DeliveryResult> dispatch(Message message) {
+        return dispatch(message, channelRegistry.getChannelNames());
+    }
+
+    /**
+     * 지정한 채널로 동시 전송하고 채널별 결과를 반환
+     * 타임아웃이 지난 채널은 TIMEOUT으로 기록되며 다른 채널의 결과를 기다리게 하지 않는다.
+     */
+    public Map<String, DeliveryResult> dispatch(Message message, Collection<String> channelNames) {
+        return dispatchAsync(message, channelNames).join();
+    }
+
+    public CompletableFuture<Map<String, DeliveryResult>> dispatchAsync(Message message) {
+        return dispatchAsync(message, channelRegistry.getChannelNames());
+    }
+
+    public CompletableFuture<Map<String, DeliveryResult>> dispatchAsync(Message message, Collection<String> channelNames) {
+        List<CompletableFuture<DeliveryResult>> futures = new ArrayList<>();
+        channelNames.forEach(channel -> futures.add(deliverAsync(channel, message)));
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                Map<String, DeliveryResult> results = new LinkedHashMap<>();
+                futures.forEach(future -> {
+                    DeliveryResult result = future.join();
+                    results.put(result.getChannel(), result);
+                });
+                return results;
+            });
+    }
+
+    /**
+     * 단일 채널 전송
+     */
+    public DeliveryResult deliver(String channelName, Message message) {
+        return deliverAsync(channelName, message).join();
+    }
+
+    public CompletableFuture<DeliveryResult> deliverAsync(String channelName, Message message) {
+        return deliverAsync(channelName, channel -> channel.deliver(message));
+    }
+
+    /**
+     * 여러 메시지를 한 번의 호출로 묶어서 전송 (다이제스트)
+     * 재시도 시에도 같은 묶음을 그대로 다시 보낸다.
+     */
+    public CompletableFuture<DeliveryResult> deliverDigestAsync(String channelName, List<Message> messages) {
+        if (messages.size() == 1) {
+            return deliverAsync(channelName, messages.get(0));
+        }
+        return deliverAsync(channelName, channel -> channel.deliverDigest(messages));
+    }
+
+    private CompletableFuture<DeliveryResult> deliverAsync(
+            String channelName, Function<MessageService, CompletableFuture<DeliveryResult>> send) {
+        MessageService channel = channelRegistry.getChannel(channelName);
+        if (channel == null) {
+            return CompletableFuture.completedFuture(
+                new DeliveryResult(channelName, DeliveryResult.Status.FAILED, "등록되지 않은 채널입니다.", 0));
+        }
+        if (!channel.isAvailable()) {
+            return CompletableFuture.completedFuture(
+                new DeliveryResult(channelName, DeliveryResult.Status.FAILED, "채널이 설정되지 않았습니다.", 0));
+        }
+
+        upstreamGuard.recordAttempt(channelName);
+        return attempt(channel, send, 1);
+    }
+
+    /**
+     * 한 번 전송하고, 재시도할 만한 실패면 백오프 후 같은 채널로만 다시 전송
+     * 대기 중에는 스레드를 점유하지 않는다.
+     */
+    private CompletableFuture<DeliveryResult> attempt(
+            MessageService channel, Function<MessageService, CompletableFuture<DeliveryResult>> send, int attempt) {
+        String channelName = channel.getChannelName();
+        long startTime = System.currentTimeMillis();
+
+        CompletableFuture<DeliveryResult> delivery;
+        try {
+            delivery = send.apply(channel);
+        } catch (Exception e) {
+            delivery = CompletableFuture.failedFuture(e);
+        }
+
+        return delivery
+            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+            .handle((result, error) -> {
+                long elapsed = System.currentTimeMillis() - startTime;
+                DeliveryResult finalResult = error == null ? result : toFailure(channelName, error, elapsed);
+                logger.info("{} 전송 결과 (시도 {}): {}", channelName, attempt, finalResult);
+                metrics.recordDelivery(finalResult);
+                return finalResult;
+            })
+            .thenCompose(result -> {
+                if (!result.isRetryable()
+                        || attempt >= upstreamGuard.maxAttempts(channelName)
+                        || !upstreamGuard.tryRetry(channelName)) {
+                    return CompletableFuture.completedFuture(result);
+                }
+                long delayMs = upstreamGuard.retryDelayMs(channelName, attempt);
+                logger.warn("{} 전송 실패, {}ms 후 재시도 ({}/{})",
+                    channelName, delayMs, attempt + 1, upstreamGuard.maxAttempts(channelName));
+                Executor delayed = CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS);
+                return CompletableFuture.runAsync(() -> { }, delayed)
+                    .thenCompose(ignored -> attempt(channel, send, attempt + 1));
+            });
+    }
+
+    private DeliveryResult toFailure(String channel, Throwable error, long elapsed) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return new DeliveryResult(channel, DeliveryResult.Status.TIMEOUT, "전송 시간 초과 (" + timeoutMs + "ms)", elapsed);
+        }
+        return new DeliveryResult(channel, DeliveryResult.Status.FAILED, cause.getMessage(), elapsed);
+    }
+}
@@ -1,22 +1,36 @@
 package jy.demo.service;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import static jy.demo.api.ApiClient.APP_TYPE_URL_ENCODED;
 import jy.demo.api.WebClientImpl;
-import jy.demo.dto.KakaoOAuthDto;
+import jy.demo.dto.ChannelCapability;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.KakaoListMsgDto;
+import jy.demo.dto.Message;
 import jy.demo.util.JsonUtil;
+import jy.demo.util.RetryClassifier;
+import jy.demo.util.UpstreamGuard;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 
 @Service
 public class KakaoMsgServiceImpl implements MessageService{
-	// TODO - bean 생성 시점에(생성자에서) 토큰 받아오도록 수정하기
-    // private Logger logger = LoggerFactory.getLogger(this.getClass());
+    private static final Logger logger = LoggerFactory.getLogger(KakaoMsgServiceImpl.class);
 
-    private static final String AUTH_URL = "https://kauth.kakao.com/oauth/token";
+    public static final String CHANNEL_NAME = "kakao";
 
     private final WebClientImpl apiClient;
 	private final JsonUtil jsonUtil;
@@ -26,77 +40,197 @@ public class KakaoMsgServiceImpl implements MessageService{
 	private static final String SEND_FAIL_MSG = "메시지 전송에 실패했습니다.";
 	private static final String SUCCESS_CODE = "0"; //kakao api에서 return해주는 success code 값
 
-	public String accessToken = "";
-	public String refrashToken = "";
-	@Value("${kakao.api.key}")
-	private String clientId;
-
-	public KakaoMsgServiceImpl(WebClientImpl apiClient, JsonUtil jsonUtil) {
+	private final KakaoTokenManager tokenManager;
+	private final ChannelRateLimiter rateLimiter;
+	private final UpstreamGuard upstreamGuard;
+	private final ChannelCapability capability;
+	// 리스트 템플릿 항목 이미지 (비어있으면 다이제스트를 쓰지 않고 메시지마다 바로 전송)
+	private final String listImageUrl;
+
+	private static final ChannelCapability LIST_TITLE = new ChannelCapability(false, 50);
+	private static final ChannelCapability LIST_DESCRIPTION = new ChannelCapability(false, 100);
+
+	public KakaoMsgServiceImpl(
+			WebClientImpl apiClient,
+			JsonUtil jsonUtil,
+			KakaoTokenManager tokenManager,
+			ChannelRateLimiter rateLimiter,
+			UpstreamGuard upstreamGuard,
+			@Value("${kakao.message.max-length:200}") int maxLength,
+			@Value("${kakao.message.list-image-url:}") String listImageUrl) {
         this.apiClient = apiClient;
 		this.jsonUtil = jsonUtil;
+		this.tokenManager = tokenManager;
+		this.rateLimiter = rateLimiter;
+		this.upstreamGuard = upstreamGuard;
+		this.capability = new ChannelCapability(false, maxLength);
+		this.listImageUrl = listImageUrl;
     }
 
+	@Override
+	public String getChannelName() {
+		return CHANNEL_NAME;
+	}
+
+	@Override
+	public ChannelCapability getCapability() {
+		return capability;
+	}
+
+	/**
+	 * 인가 코드로 토큰 발급 (로그인 콜백)
+	 */
 	public boolean requestAccessToken(String code)  {
-		KakaoOAuthDto body = new KakaoOAuthDto(code, clientId);
-		Map<String, Object> result;
-		try {
-			String response = apiClient.post(AUTH_URL, JsonUtil.toJson(JsonUtil.toMap(body)), JsonUtil.toJson(apiClient.generateUrlEncodedHeader()));
-			result = JsonUtil.toMap(response);
-		} catch(Exception e) {
-			// logger.error("토큰 발급에 실패했습니다.");
-			return false;
-		}
+		return tokenManager.issue(code);
+	}
 
-		accessToken = result.get("access_token").toString();
-		refrashToken = result.get("refresh_token").toString();
+	/**
+	 * 전송 한도(토큰 버킷)를 기다린 뒤 전송. 한도 대기와 응답 대기 모두 스레드를 점유하지 않는다.
+	 */
+	@Override
+	public CompletableFuture<DeliveryResult> deliver(Message message) {
+		return deliverMono(message).toFuture();
+	}
 
-		if (accessToken.isEmpty() || refrashToken.isEmpty()) {
-			// throw new Exception("토큰 발급에 실패했습니다.");
-			return false;
+	/**
+	 * 허가 대기 -> 전송을 하나의 Mono로 (여러 건을 조합해 동시에 보낼 수 있음)
+	 * 텍스트 템플릿은 kakao.message.max-length(기본 200자, 카카오 텍스트 템플릿의 text 한도)까지만 보낸다.
+	 * 넘는 부분은 "..."로 잘라서 보내고 경고 로그를 남긴다. (더 긴 본문이 필요하면 설정값을 늘린다)
+	 */
+	public Mono<DeliveryResult> deliverMono(Message message) {
+		String plainText = message.toPlainText();
+		String text = capability.fit(plainText);
+		if (text != null && text.length() < plainText.length()) {
+			logger.warn("카카오 메시지가 {}자를 넘어 잘라서 전송합니다. ({}자 -> {}자, 제목: {})",
+				capability.getMaxLength(), plainText.length(), text.length(), message.getTitle());
 		}
+		return deliverMono(() -> jsonUtil.createKakaoSendMsgForm(text));
+	}
 
-		return true;
+	private Mono<DeliveryResult> deliverMono(Supplier<String> form) {
+		long startTime = System.currentTimeMillis();
+		return Mono.fromFuture(() -> rateLimiter.acquire(CHANNEL_NAME))
+			.then(Mono.defer(() -> sendMono(form.get())))
+			.onErrorResume(e -> Mono.just(failure(SEND_FAIL_MSG + " (" + rootMessage(e) + ")", startTime,
+				RetryClassifier.isRetryable(e))));
 	}
 
 	@Override
 	public String sendMessage(String text) {
-		if (accessToken == null || accessToken.isEmpty()) {
-			return "액세스 토큰이 없습니다. 먼저 인증을 완료해주세요.";
+		long startTime = System.currentTimeMillis();
+		try {
+			rateLimiter.acquireAndWait(CHANNEL_NAME);
+		} catch (RuntimeException e) {
+			return failure(SEND_FAIL_MSG + " (" + e.getMessage() + ")", startTime).getDetail();
 		}
+		return send(jsonUtil.createKakaoSendMsgForm(text)).getDetail();
+	}
 
-		// 요청 헤더 설정
-		Map<String, String> headers = Map.of(
-			"Content-Type", APP_TYPE_URL_ENCODED,
-			"Authorization", "Bearer " + accessToken
-		);
+	/**
+	 * 묶음 전송은 리스트 템플릿(항목 이미지 필요)으로만 한다.
+	 * 텍스트로 이어 붙이면 max-length(200자)에서 잘려 두 번째 메시지부터 사라지므로 지원하지 않는다.
+	 */
+	@Override
+	public int getMaxDigestMessages() {
+		return listImageUrl.isEmpty() ? 1 : KakaoListMsgDto.MAX_CONTENTS;
+	}
 
-		String result = "";
-		try {
-			result = apiClient.post(MSG_SEND_SERVICE_URL, jsonUtil.createKakaoSendMsgJson(text), headers);
-		} catch (Exception e) {
-			e.printStackTrace();
+	/**
+	 * 2~3건을 리스트 템플릿 하나로 전송
+	 */
+	@Override
+	public CompletableFuture<DeliveryResult> deliverDigest(List<Message> messages) {
+		if (listImageUrl.isEmpty()
+				|| messages.size() < KakaoListMsgDto.MIN_CONTENTS || messages.size() > KakaoListMsgDto.MAX_CONTENTS) {
+			// MessageDigestService가 getMaxDigestMessages()만큼만 묶으므로 여기로 오지 않는다.
+			return CompletableFuture.completedFuture(failure(
+				"리스트 템플릿으로 보낼 수 없는 묶음입니다. (" + messages.size() + "건)", System.currentTimeMillis()));
 		}
 
-		if (result == null || result.isEmpty()) {
-			return SEND_FAIL_MSG + " (응답이 비어있습니다)";
+		KakaoListMsgDto list = new KakaoListMsgDto("AI 메시지 " + messages.size() + "건");
+		messages.forEach(message -> list.getContents().add(new KakaoListMsgDto.Content(
+			LIST_TITLE.fit(message.hasTitle() ? message.getTitle() : message.getBody()),
+			LIST_DESCRIPTION.fit(message.getBody()),
+			listImageUrl)));
+
+		return deliverMono(() -> jsonUtil.createKakaoSendListForm(list)).toFuture();
+	}
+
+	private DeliveryResult send(String form) {
+		return sendMono(form).block();
+	}
+
+	private Mono<DeliveryResult> sendMono(String form) {
+		long startTime = System.currentTimeMillis();
+		// 만료된 토큰이면 getAccessToken이 갱신을 기다리므로 전송 한도 스케줄러/이벤트 루프 스레드에서 호출하지 않는다.
+		return Mono.fromCallable(() -> Optional.ofNullable(tokenManager.getAccessToken()))
+			.subscribeOn(Schedulers.boundedElastic())
+			.flatMap(accessToken -> accessToken.isPresent()
+				? sendMono(form, accessToken.get(), startTime)
+				: Mono.just(failure("액세스 토큰이 없습니다. 먼저 인증을 완료해주세요.", startTime)));
+	}
+
+	private Mono<DeliveryResult> sendMono(String form, String accessToken, long startTime) {
+		return rateLimiter.executeMono(CHANNEL_NAME, () -> post(form, accessToken))
+			// 만료/폐기된 토큰: 한 번만 갱신 후 재시도 (동시 요청은 같은 갱신 결과를 공유)
+			// 갱신은 동기 호출이므로 Netty 이벤트 루프가 아닌 boundedElastic에서 기다린다.
+			.onErrorResume(WebClientResponseException.Unauthorized.class, e ->
+				Mono.fromCallable(() -> tokenManager.refreshAfterRejection(accessToken))
+					.subscribeOn(Schedulers.boundedElastic())
+					.flatMap(refreshed -> rateLimiter.executeMono(CHANNEL_NAME, () -> post(form, refreshed))))
+			.map(result -> toResult(result, startTime))
+			.switchIfEmpty(Mono.fromSupplier(() -> failure(SEND_FAIL_MSG + " (응답이 비어있습니다)", startTime, true)))
+			// 시간 초과/5xx/429만 재시도 대상. 토큰 오류 등 4xx는 다시 보내도 실패한다.
+			.onErrorResume(e -> Mono.just(failure(SEND_FAIL_MSG + " (" + e.getMessage() + ")", startTime,
+				RetryClassifier.isRetryable(e))));
+	}
+
+	private DeliveryResult toResult(String result, long startTime) {
+		if (result.isEmpty()) {
+			return failure(SEND_FAIL_MSG + " (응답이 비어있습니다)", startTime, true);
 		}
 
 		try {
-			Map<String, Object> response = JsonUtil.toMap(result);
-			Object resultCode = response.get("result_code");
+			// result_code, msg만 읽고 나머지 응답은 파싱하지 않음
+			Map<String, String> response = JsonUtil.readFields(result, "result_code", "msg");
+			String resultCode = response.get("result_code");
 
-			if (resultCode != null && "0.0".equals(resultCode.toString())) {
-				return SEND_SUCCESS_MSG;
+			if (resultCode != null && successCheck(resultCode)) {
+				return new DeliveryResult(CHANNEL_NAME, DeliveryResult.Status.SUCCESS, SEND_SUCCESS_MSG,
+					System.currentTimeMillis() - startTime);
 			} else {
-				Object errorMsg = response.get("msg");
-				return SEND_FAIL_MSG + " (Error: " + (errorMsg != null ? errorMsg.toString() : "알 수 없는 오류") + ")";
+				String errorMsg = response.get("msg");
+				return failure(SEND_FAIL_MSG + " (Error: " + (errorMsg != null ? errorMsg : "알 수 없는 오류") + ")", startTime);
 			}
 		} catch (Exception e) {
-			e.printStackTrace();
-			return SEND_FAIL_MSG + " (응답 파싱 실패: " + result + ")";
+			logger.error("카카오 응답 파싱 실패: {}", e.getMessage(), e);
+			return failure(SEND_FAIL_MSG + " (응답 파싱 실패: " + result + ")", startTime);
 		}
 	}
 
+	private Mono<String> post(String form, String accessToken) {
+		// 요청 헤더 설정
+		Map<String, String> headers = Map.of(
+			"Content-Type", APP_TYPE_URL_ENCODED,
+			"Authorization", "Bearer " + accessToken
+		);
+		return upstreamGuard.mono(UpstreamGuard.KAKAO, apiClient.postFormMono(MSG_SEND_SERVICE_URL, form, headers));
+	}
+
+	private static String rootMessage(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		return cause.getMessage();
+	}
+
+	private DeliveryResult failure(String detail, long startTime) {
+		return failure(detail, startTime, false);
+	}
+
+	private DeliveryResult failure(String detail, long startTime, boolean retryable) {
+		return new DeliveryResult(CHANNEL_NAME, DeliveryResult.Status.FAILED, detail,
+			System.currentTimeMillis() - startTime, retryable);
+	}
+
 	public boolean successCheck(String resultCode) {
 		if(resultCode.equals(SUCCESS_CODE)) {
 			// logger.info(SEND_SUCCESS_MSG);
@@ -0,0 +1,306 @@
+package jy.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jy.demo.api.WebClientImpl;
+import jy.demo.dto.KakaoOAuthDto;
+import jy.demo.dto.KakaoRefreshTokenDto;
+import jy.demo.dto.KakaoTokenDto;
+import jy.demo.util.JsonUtil;
+import jy.demo.util.KakaoTokenFileManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 카카오 토큰 보관/갱신
+ *
+ * - 현재 토큰은 AtomicReference에 불변 객체로 보관하므로 전송 경로의 조회는 락이 없다.
+ * - 기동 시 KakaoTokenFileManager에서 토큰을 읽고, 만료 시각 refresh-before-ms 전에 refresh_token으로 갱신한다.
+ * - 동시에 여러 전송이 만료된 토큰을 만나도 갱신 요청은 한 번만 나간다. (single-flight)
+ * - 갱신은 리더 노드만 한다. 다른 노드는 리더가 갱신해 파일에 쓴 토큰을 follower-wait-ms까지 기다린다.
+ */
+@Component
+public class KakaoTokenManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(KakaoTokenManager.class);
+
+    private static final String TOKEN_URL = "https://kauth.kakao.com/oauth/token";
+    private static final long FOLLOWER_POLL_MS = 200;
+
+    private final WebClientImpl apiClient;
+    private final KakaoTokenFileManager tokenFileManager;
+    private final ClusterCoordinator coordinator;
+    private final String clientId;
+    private final Duration refreshBefore;
+    private final Duration followerWait;
+
+    private final AtomicReference<KakaoToken> current = new AtomicReference<>();
+    // 진행 중인 갱신 요청 (없으면 null)
+    private final AtomicReference<CompletableFuture<KakaoToken>> inflight = new AtomicReference<>();
+
+    public KakaoTokenManager(
+            WebClientImpl apiClient,
+            KakaoTokenFileManager tokenFileManager,
+            ClusterCoordinator coordinator,
+            @Value("${kakao.api.key}") String clientId,
+            @Value("${kakao.token.refresh-before-ms:600000}") long refreshBeforeMs,
+            @Value("${kakao.token.follower-wait-ms:5000}") long followerWaitMs) {
+        this.apiClient = apiClient;
+        this.tokenFileManager = tokenFileManager;
+        this.coordinator = coordinator;
+        this.clientId = clientId;
+        this.refreshBefore = Duration.ofMillis(refreshBeforeMs);
+        this.followerWait = Duration.ofMillis(followerWaitMs);
+    }
+
+    @PostConstruct
+    public void load() {
+        KakaoTokenDto saved = tokenFileManager.loadToken();
+        if (saved != null) {
+            apply(saved);
+        }
+        // 갱신 스크립트가 파일을 바꾸거나 롤백하면 메모리 토큰도 교체
+        tokenFileManager.addListener(this::apply);
+    }
+
+    private void apply(KakaoTokenDto saved) {
+        KakaoToken token = KakaoToken.of(saved, parseInstant(saved.getUpdatedAt()));
+        current.set(token);
+        logger.info("카카오 토큰 로드 완료 (만료: {})", token.expiresAt);
+    }
+
+    public boolean hasToken() {
+        return current.get() != null;
+    }
+
+    /**
+     * 전송에 사용할 액세스 토큰
+     * 만료된 경우에만 호출 스레드에서 갱신을 기다린다. (만료 전 갱신은 스케줄러가 담당)
+     *
+     * @return 토큰이 없으면 null
+     */
+    public String getAccessToken() {
+        KakaoToken token = current.get();
+        if (token == null) {
+            return null;
+        }
+        if (token.isExpiredAt(Instant.now())) {
+            token = refresh(token);
+        }
+        return token.accessToken;
+    }
+
+    /**
+     * 카카오 API가 토큰을 거부(401)했을 때 호출
+     * 그 사이 다른 스레드가 이미 갱신했다면 새 토큰을 그대로 반환한다.
+     */
+    public String refreshAfterRejection(String rejectedAccessToken) {
+        KakaoToken token = current.get();
+        if (token == null) {
+            return null;
+        }
+        if (!token.accessToken.equals(rejectedAccessToken)) {
+            return token.accessToken;
+        }
+        return refresh(token).accessToken;
+    }
+
+    /**
+     * 만료 시각 refresh-before-ms 전에 미리 갱신
+     * 여러 인스턴스가 토큰 파일을 공유하면 리더만 갱신한다. (refresh_token이 교체되므로 동시에 갱신하면 안 됨)
+     * 다른 노드는 파일 변경 감시로 새 토큰을 받는다.
+     */
+    @Scheduled(fixedDelayString = "${kakao.token.check-interval-ms:60000}")
+    public void refreshIfExpiring() {
+        if (!coordinator.isLeader()) {
+            return;
+        }
+        KakaoToken token = current.get();
+        if (token == null || !token.isExpiredAt(Instant.now().plus(refreshBefore))) {
+            return;
+        }
+        try {
+            refresh(token);
+        } catch (Exception e) {
+            logger.error("카카오 토큰 사전 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 인가 코드로 토큰 발급 (로그인 콜백)
+     */
+    public boolean issue(String code) {
+        try {
+            String response = apiClient.post(TOKEN_URL, new KakaoOAuthDto(code, clientId), apiClient.generateUrlEncodedHeader());
+            KakaoTokenDto issued = JsonUtil.fromJson(response, KakaoTokenDto.class);
+            if (isBlank(issued.getAccessToken()) || isBlank(issued.getRefreshToken())) {
+                logger.error("카카오 토큰 발급 응답에 토큰이 없습니다.");
+                return false;
+            }
+            store(KakaoToken.of(issued, Instant.now()));
+            return true;
+        } catch (Exception e) {
+            logger.error("카카오 토큰 발급에 실패했습니다: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * stale 토큰을 기준으로 갱신 (single-flight)
+     * 이미 다른 스레드가 갱신을 마쳤으면 요청 없이 현재 토큰을 반환하고,
+     * 진행 중이면 그 결과를 함께 기다린다.
+     */
+    private KakaoToken refresh(KakaoToken stale) {
+        while (true) {
+            KakaoToken latest = current.get();
+            if (latest != stale) {
+                return latest;
+            }
+            if (!coordinator.isLeader()) {
+                return awaitLeaderRefresh(stale);
+            }
+            CompletableFuture<KakaoToken> running = inflight.get();
+            if (running != null) {
+                return await(running);
+            }
+            CompletableFuture<KakaoToken> mine = new CompletableFuture<>();
+            if (!inflight.compareAndSet(null, mine)) {
+                continue;
+            }
+            try {
+                // 경쟁 중에 갱신이 끝났을 수 있으므로 한 번 더 확인
+                if (current.get() != stale) {
+                    mine.complete(current.get());
+                } else {
+                    KakaoToken refreshed = requestRefresh(stale);
+                    store(refreshed);
+                    mine.complete(refreshed);
+                }
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+            } finally {
+                inflight.compareAndSet(mine, null);
+            }
+            return await(mine);
+        }
+    }
+
+    /**
+     * 리더가 아닌 노드는 refresh_token을 직접 쓰지 않고 파일 변경 감시로 새 토큰이 들어오기를 기다린다.
+     * (refresh_token이 교체되므로 두 노드가 동시에 갱신하면 한쪽 토큰이 무효가 된다)
+     * 시간 안에 오지 않으면 재시도 가능한 오류(원인 TimeoutException)로 실패한다.
+     */
+    private KakaoToken awaitLeaderRefresh(KakaoToken stale) {
+        long deadline = System.currentTimeMillis() + followerWait.toMillis();
+        while (current.get() == stale && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(FOLLOWER_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        KakaoToken latest = current.get();
+        if (latest != stale) {
+            return latest;
+        }
+        throw new IllegalStateException("리더 노드의 카카오 토큰 갱신을 기다리다 시간이 초과되었습니다.",
+            new TimeoutException(coordinator.getNodeId() + "는 리더가 아닙니다."));
+    }
+
+    private KakaoToken requestRefresh(KakaoToken stale) {
+        logger.info("카카오 액세스 토큰 갱신 요청");
+        String response = apiClient.post(TOKEN_URL, new KakaoRefreshTokenDto(clientId, stale.refreshToken),
+            apiClient.generateUrlEncodedHeader());
+        KakaoTokenDto refreshed = JsonUtil.fromJson(response, KakaoTokenDto.class);
+        if (isBlank(refreshed.getAccessToken())) {
+            throw new IllegalStateException("카카오 토큰 갱신 응답에 access_token이 없습니다.");
+        }
+        // refresh_token은 만료가 가까울 때만 새로 내려오므로 없으면 기존 값을 유지
+        if (isBlank(refreshed.getRefreshToken())) {
+            refreshed.setRefreshToken(stale.refreshToken);
+            refreshed.setRefreshTokenExpiresIn(null);
+        }
+        logger.info("카카오 액세스 토큰 갱신 완료");
+        return KakaoToken.of(refreshed, Instant.now());
+    }
+
+    private void store(KakaoToken token) {
+        current.set(token);
+        tokenFileManager.saveToken(token.toDto());
+    }
+
+    private static KakaoToken await(CompletableFuture<KakaoToken> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value == null) {
+            return Instant.now();
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return Instant.now();
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    /**
+     * 불변 토큰 스냅샷 (교체는 AtomicReference로만)
+     */
+    private static final class KakaoToken {
+        private final String accessToken;
+        private final String refreshToken;
+        private final Long expiresIn;
+        private final Long refreshTokenExpiresIn;
+        private final Instant issuedAt;
+        // expires_in을 모르면 null (401 응답 시에만 갱신)
+        private final Instant expiresAt;
+
+        private KakaoToken(String accessToken, String refreshToken, Long expiresIn, Long refreshTokenExpiresIn, Instant issuedAt) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            this.expiresIn = expiresIn;
+            this.refreshTokenExpiresIn = refreshTokenExpiresIn;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresIn != null ? issuedAt.plusSeconds(expiresIn) : null;
+        }
+
+        static KakaoToken of(KakaoTokenDto dto, Instant issuedAt) {
+            return new KakaoToken(dto.getAccessToken(), dto.getRefreshToken(),
+                dto.getExpiresIn(), dto.getRefreshTokenExpiresIn(), issuedAt);
+        }
+
+        boolean isExpiredAt(Instant time) {
+            return expiresAt != null && !time.isBefore(expiresAt);
+        }
+
+        KakaoTokenDto toDto() {
+            KakaoTokenDto dto = new KakaoTokenDto();
+            dto.setAccessToken(accessToken);
+            dto.setRefreshToken(refreshToken);
+            dto.setExpiresIn(expiresIn);
+            dto.setRefreshTokenExpiresIn(refreshTokenExpiresIn);
+            dto.setUpdatedAt(issuedAt.toString());
+            return dto;
+        }
+    }
+}
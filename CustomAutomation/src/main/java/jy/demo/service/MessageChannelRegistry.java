@@ -0,0 +1,46 @@
+package jy.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메시지 전송 채널 레지스트리
+ * MessageService 구현 Bean을 채널명으로 관리한다. 읽기가 대부분이므로 등록 시에만 Map을 새로 만든다.
+ */
+@Component
+public class MessageChannelRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageChannelRegistry.class);
+
+    private volatile Map<String, MessageService> channels = Collections.emptyMap();
+
+    public MessageChannelRegistry(List<MessageService> services) {
+        services.forEach(this::register);
+    }
+
+    public synchronized void register(MessageService service) {
+        Map<String, MessageService> updated = new LinkedHashMap<>(channels);
+        updated.put(service.getChannelName(), service);
+        channels = Collections.unmodifiableMap(updated);
+        logger.info("메시지 채널 등록: {}", service.getChannelName());
+    }
+
+    public MessageService getChannel(String name) {
+        return channels.get(name);
+    }
+
+    public List<MessageService> getChannels() {
+        return new ArrayList<>(channels.values());
+    }
+
+    public List<String> getChannelNames() {
+        return new ArrayList<>(channels.keySet());
+    }
+}
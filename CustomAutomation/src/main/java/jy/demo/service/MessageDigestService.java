@@ -0,0 +1,228 @@
+package jy.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jy.demo.config.DigestProperties;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다이제스트(묶음 전송) 단계
+ *
+ * 채널별로 메시지를 모았다가 window-ms가 지나거나 max-messages건이 모이면 한 번의 호출로 전송한다.
+ * (Slack: 여러 섹션의 Blocks 하나, 카카오: 리스트 템플릿 하나, 그 외: 이어 붙인 텍스트)
+ * 한 번에 묶는 건수는 max-messages와 채널의 getMaxDigestMessages() 중 작은 값이다.
+ * 채널이 묶음 전송을 지원하지 않으면(1 이하) 설정이 있어도 바로 전송한다.
+ * 버퍼에 담긴 메시지의 결과는 그 묶음의 전송 결과가 나올 때 완료된다. (호출 스레드는 기다리지 않음)
+ * 작업 큐는 이 결과가 나올 때까지 작업을 끝내지 않으므로, window 안에 서버가 재시작되거나
+ * 묶음 전송이 실패해도 저널에 남은 작업이 그 채널로 다시 전송한다.
+ * 묶음 전송 실패 시 재시도는 DeliveryFanoutService의 채널 재시도를 따른다.
+ *
+ * 메트릭: digest.batch.size (channel 태그)
+ */
+@Service
+public class MessageDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageDigestService.class);
+
+    private final DeliveryFanoutService deliveryFanoutService;
+    private final MessageChannelRegistry channelRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Buffer> buffers = new HashMap<>();
+    private final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("digest-"));
+
+    public MessageDigestService(
+            DigestProperties properties,
+            DeliveryFanoutService deliveryFanoutService,
+            MessageChannelRegistry channelRegistry,
+            MeterRegistry meterRegistry) {
+        this.deliveryFanoutService = deliveryFanoutService;
+        this.channelRegistry = channelRegistry;
+        this.meterRegistry = meterRegistry;
+        if (properties.isEnabled()) {
+            properties.getChannels().forEach((name, policy) -> buffers.put(name, new Buffer(name, policy)));
+        }
+    }
+
+    /**
+     * 등록된 모든 채널로 전송 (다이제스트 채널은 버퍼에 담는다)
+     */
+    public CompletableFuture<Map<String, DeliveryResult>> dispatchAsync(Message message) {
+        return dispatchAsync(message, channelRegistry.getChannelNames());
+    }
+
+    /**
+     * 다이제스트 채널은 버퍼에 담고, 나머지 채널은 바로 전송
+     * 모든 채널의 결과(다이제스트 채널은 묶음 전송 결과)가 나오면 완료된다.
+     */
+    public CompletableFuture<Map<String, DeliveryResult>> dispatchAsync(Message message, Collection<String> channelNames) {
+        List<String> immediate = new ArrayList<>();
+        Map<String, CompletableFuture<DeliveryResult>> digests = new LinkedHashMap<>();
+        for (String channelName : channelNames) {
+            Buffer buffer = buffers.get(channelName);
+            int maxMessages = buffer == null ? 0 : maxMessages(buffer, channelName);
+            if (maxMessages <= 1) {
+                immediate.add(channelName);
+            } else {
+                digests.put(channelName, buffer.add(message, maxMessages));
+            }
+        }
+
+        CompletableFuture<Map<String, DeliveryResult>> sent = immediate.isEmpty()
+            ? CompletableFuture.completedFuture(Map.of())
+            : deliveryFanoutService.dispatchAsync(message, immediate);
+        CompletableFuture<?>[] all = new CompletableFuture[digests.size() + 1];
+        digests.values().toArray(all);
+        all[digests.size()] = sent;
+
+        return CompletableFuture.allOf(all).thenApply(ignored -> {
+            Map<String, DeliveryResult> results = new LinkedHashMap<>(sent.join());
+            digests.forEach((channelName, digest) -> results.put(channelName, digest.join()));
+            return results;
+        });
+    }
+
+    public boolean isDigestChannel(String channelName) {
+        return buffers.containsKey(channelName);
+    }
+
+    /**
+     * 모든 채널의 버퍼를 바로 전송
+     */
+    public void flushAll() {
+        buffers.values().forEach(Buffer::flush);
+    }
+
+    @PreDestroy
+    public void close() {
+        // 종료 전에 모아둔 메시지를 보낸다.
+        List<CompletableFuture<DeliveryResult>> pending = new ArrayList<>();
+        buffers.values().forEach(buffer -> pending.add(buffer.flush()));
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("종료 전 다이제스트 전송을 마치지 못했습니다: {}", e.getMessage());
+        }
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 한 번에 묶을 건수 (채널이 없거나 전송할 수 없으면 0)
+     */
+    private int maxMessages(Buffer buffer, String channelName) {
+        MessageService channel = channelRegistry.getChannel(channelName);
+        if (channel == null || !channel.isAvailable()) {
+            return 0;
+        }
+        return Math.min(buffer.policy.getMaxMessages(), channel.getMaxDigestMessages());
+    }
+
+    private final class Buffer {
+        private final String channel;
+        private final DigestProperties.Policy policy;
+        private List<Message> messages = new ArrayList<>();
+        // 지금 모으는 묶음의 전송 결과 (묶음에 담긴 메시지가 함께 기다림)
+        private CompletableFuture<DeliveryResult> pending;
+        private ScheduledFuture<?> flushTask;
+
+        private Buffer(String channel, DigestProperties.Policy policy) {
+            this.channel = channel;
+            this.policy = policy;
+        }
+
+        /**
+         * @return 메시지가 담긴 묶음의 전송 결과
+         */
+        private CompletableFuture<DeliveryResult> add(Message message, int maxMessages) {
+            CompletableFuture<DeliveryResult> result;
+            Batch full = null;
+            synchronized (this) {
+                messages.add(message);
+                if (messages.size() == 1) {
+                    pending = new CompletableFuture<>();
+                    flushTask = scheduler.schedule(this::flush, policy.getWindowMs(), TimeUnit.MILLISECONDS);
+                }
+                result = pending;
+                // 동시에 들어온 메시지로 묶음이 maxMessages를 넘지 않도록 잠금 안에서 떼어낸다.
+                if (messages.size() >= maxMessages) {
+                    full = detach();
+                }
+            }
+            if (full != null) {
+                send(full);
+            }
+            return result;
+        }
+
+        private CompletableFuture<DeliveryResult> flush() {
+            Batch batch;
+            synchronized (this) {
+                batch = detach();
+            }
+            if (batch == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return send(batch);
+        }
+
+        /**
+         * 모인 메시지를 버퍼에서 꺼냄 (없으면 null, this 잠금 안에서 호출)
+         */
+        private Batch detach() {
+            if (messages.isEmpty()) {
+                return null;
+            }
+            Batch batch = new Batch(messages, pending);
+            messages = new ArrayList<>();
+            pending = null;
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            return batch;
+        }
+
+        private CompletableFuture<DeliveryResult> send(Batch batch) {
+            int size = batch.messages.size();
+            meterRegistry.summary("digest.batch.size", "channel", channel).record(size);
+            logger.info("{} 다이제스트 전송: {}건", channel, size);
+            deliveryFanoutService.deliverDigestAsync(channel, batch.messages)
+                .whenComplete((result, error) -> {
+                    if (error != null || !result.isSuccess()) {
+                        logger.error("{} 다이제스트 전송 실패 ({}건): {}", channel, size,
+                            error != null ? error.getMessage() : result.getDetail());
+                    }
+                    batch.result.complete(error == null ? result
+                        : new DeliveryResult(channel, DeliveryResult.Status.FAILED, error.getMessage(), 0));
+                });
+            return batch.result;
+        }
+    }
+
+    private static final class Batch {
+        private final List<Message> messages;
+        private final CompletableFuture<DeliveryResult> result;
+
+        private Batch(List<Message> messages, CompletableFuture<DeliveryResult> result) {
+            this.messages = messages;
+            this.result = result;
+        }
+    }
+}
@@ -1,6 +1,59 @@
 package jy.demo.service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+import jy.demo.dto.ChannelCapability;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+
+/**
+ * 메시지 전송 채널 (Slack, 카카오톡 등)
+ * 구현체를 Bean으로 등록하면 MessageChannelRegistry에 자동으로 등록된다.
+ */
 public interface MessageService {
-	String sendMessage(String text);
-}
\ No newline at end of file
+
+	/**
+	 * 채널 식별자 (예: "slack", "kakao")
+	 */
+	String getChannelName();
+
+	ChannelCapability getCapability();
+
+	/**
+	 * 메시지를 비동기로 전송
+	 * 전송 실패도 예외가 아닌 FAILED 상태의 DeliveryResult로 완료한다.
+	 */
+	CompletableFuture<DeliveryResult> deliver(Message message);
+
+	/**
+	 * 여러 메시지를 한 번의 호출로 묶어서 전송 (다이제스트)
+	 * 기본 구현은 메시지를 이어 붙인 텍스트 하나로 전송한다. 묶음 형식을 지원하는 채널은 재정의한다.
+	 */
+	default CompletableFuture<DeliveryResult> deliverDigest(List<Message> messages) {
+		String text = messages.stream()
+			.map(Message::toPlainText)
+			.collect(Collectors.joining("\n\n"));
+		return deliver(new Message(text));
+	}
+
+	/**
+	 * 한 번의 묶음 전송에 담을 수 있는 최대 메시지 수
+	 * 1 이하면 다이제스트를 지원하지 않는 것으로 보고 메시지를 바로 전송한다.
+	 */
+	default int getMaxDigestMessages() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * 현재 전송 가능한 상태인지 (설정 누락 등)
+	 */
+	default boolean isAvailable() {
+		return true;
+	}
+
+	default String sendMessage(String text) {
+		return deliver(new Message(text)).join().getDetail();
+	}
+}
@@ -0,0 +1,345 @@
+package jy.demo.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jy.demo.api.AiMode;
+import jy.demo.dto.RecipientSchedule;
+import jy.demo.dto.ThemePrompt;
+import jy.demo.util.AtomicFiles;
+import jy.demo.util.JsonUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 수신자별 일정 스케줄러 (해시 타이밍 휠)
+ *
+ * - 일정마다 타이머를 하나씩 휠에 걸어두므로 수천 개의 일정도 스레드 1개와 적은 메모리로 관리한다.
+ *   (틱 단위 정밀도: scheduler.wheel.tick-ms)
+ * - 휠 스레드는 만기된 일정을 작업 Executor(scheduleExecutor)에 넘기고 다음 일정을 거는 일만 한다.
+ *   느린 작업이 있어도 다른 일정의 실행 시각이 밀리지 않는다.
+ * - 일정과 마지막 실행 시각은 scheduler.file에 주기적으로 저장한다. 서버가 멈춘 동안 놓친 일정은
+ *   missed-grace-ms 이내면 시작 직후 한 번만 실행하고, 그보다 오래됐으면 건너뛰고 다음 주기부터 실행한다.
+ * - 여러 인스턴스가 scheduler.file을 공유하면 리더 노드만 일정을 실행/저장/변경한다.
+ *   리더가 바뀌면 새 리더가 파일을 다시 읽어 놓친 일정부터 이어서 실행한다.
+ * - 휠에 건 일정 객체는 고치지 않는다. 실행 시각이 바뀌면 사본으로 교체하므로
+ *   저장(flush)과 조회가 휠 스레드와 동시에 일어나도 반쯤 바뀐 일정을 보지 않는다.
+ *
+ * 메트릭: scheduler.recipients, scheduler.fired{result=dispatched|rejected|recovered|skipped|follower}, scheduler.fire.lag
+ */
+@Service
+public class RecipientScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipientScheduler.class);
+
+    private static final TypeReference<List<RecipientSchedule>> SCHEDULES_TYPE = new TypeReference<>() {};
+
+    private final ThemePromptService themePromptService;
+    private final AiMessageJobQueue jobQueue;
+    private final ClusterCoordinator coordinator;
+    private final ThreadPoolTaskExecutor scheduleExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Path file;
+    private final long missedGraceMs;
+    private final HashedWheelTimer wheel;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public RecipientScheduler(
+            ThemePromptService themePromptService,
+            AiMessageJobQueue jobQueue,
+            ClusterCoordinator coordinator,
+            @Qualifier("scheduleExecutor") ThreadPoolTaskExecutor scheduleExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${scheduler.file:schedules.json}") String file,
+            @Value("${scheduler.missed-grace-ms:3600000}") long missedGraceMs,
+            @Value("${scheduler.wheel.tick-ms:100}") long tickMs,
+            @Value("${scheduler.wheel.ticks-per-wheel:1024}") int ticksPerWheel) {
+        this.themePromptService = themePromptService;
+        this.jobQueue = jobQueue;
+        this.coordinator = coordinator;
+        this.scheduleExecutor = scheduleExecutor;
+        this.meterRegistry = meterRegistry;
+        this.file = Paths.get(file).toAbsolutePath();
+        this.missedGraceMs = missedGraceMs;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("schedule-wheel-");
+        threadFactory.setDaemon(true);
+        this.wheel = new HashedWheelTimer(threadFactory, tickMs, TimeUnit.MILLISECONDS, ticksPerWheel);
+
+        Gauge.builder("scheduler.recipients", entries, Map::size)
+            .description("등록된 수신자 일정 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 저장된 일정을 읽어 휠에 건다. 놓친 일정은 복구 정책에 따라 한 번 실행하거나 건너뛴다.
+     */
+    @PostConstruct
+    public void start() {
+        load();
+        coordinator.addLeadershipListener(this::reload);
+    }
+
+    /**
+     * 리더가 되면 다른 노드가 저장한 최신 일정으로 다시 건다.
+     */
+    public synchronized void reload() {
+        entries.keySet().forEach(this::cancel);
+        load();
+    }
+
+    private synchronized void load() {
+        long now = System.currentTimeMillis();
+        for (RecipientSchedule schedule : readFile()) {
+            try {
+                validate(schedule);
+            } catch (IllegalArgumentException e) {
+                logger.warn("잘못된 수신자 일정을 건너뜁니다: {} ({})", schedule.getId(), e.getMessage());
+                continue;
+            }
+            if (!schedule.isEnabled()) {
+                entries.put(schedule.getId(), new Entry(schedule));
+                continue;
+            }
+            if (schedule.getNextRunAt() > 0 && schedule.getNextRunAt() <= now) {
+                if (now - schedule.getNextRunAt() <= missedGraceMs) {
+                    meterRegistry.counter("scheduler.fired", "result", "recovered").increment();
+                    logger.info("놓친 일정 복구 실행: {} (예정 {}ms 전)", schedule.getId(), now - schedule.getNextRunAt());
+                    schedule.setNextRunAt(now);
+                } else {
+                    meterRegistry.counter("scheduler.fired", "result", "skipped").increment();
+                    schedule.setNextRunAt(schedule.nextRunAfter(now));
+                }
+            }
+            arm(new Entry(schedule));
+        }
+        logger.info("수신자 일정 {}개 로드", entries.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+        flush();
+    }
+
+    /**
+     * 일정 등록 (id가 같으면 교체). 다음 실행 시각이 없으면 지금부터 한 주기 뒤로 잡는다.
+     *
+     * @throws IllegalArgumentException 시간대(zoneId), 방해 금지 시각(0~23), 주기(1분 이상)가 잘못된 경우
+     * @throws IllegalStateException 리더 노드가 아닌 경우
+     */
+    public synchronized RecipientSchedule register(RecipientSchedule schedule) {
+        validate(schedule);
+        requireLeader();
+        if (schedule.getId() == null || schedule.getId().isEmpty()) {
+            schedule.setId(UUID.randomUUID().toString());
+        }
+        if (schedule.getNextRunAt() <= System.currentTimeMillis()) {
+            schedule.setNextRunAt(schedule.nextRunAfter(System.currentTimeMillis()));
+        }
+        cancel(schedule.getId());
+
+        // 호출자가 넘긴 객체를 나중에 고쳐도 휠에 건 일정은 바뀌지 않도록 사본을 건다
+        Entry entry = new Entry(schedule.copy());
+        if (schedule.isEnabled()) {
+            arm(entry);
+        } else {
+            entries.put(schedule.getId(), entry);
+        }
+        dirty.set(true);
+        return entry.schedule.copy();
+    }
+
+    public synchronized boolean remove(String id) {
+        requireLeader();
+        boolean removed = cancel(id);
+        dirty.set(true);
+        return removed;
+    }
+
+    public Optional<RecipientSchedule> find(String id) {
+        Entry entry = entries.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.schedule.copy());
+    }
+
+    /**
+     * 현재 일정의 사본 목록 (반환값을 고쳐도 스케줄러에는 반영되지 않는다)
+     */
+    public List<RecipientSchedule> getSchedules() {
+        List<RecipientSchedule> schedules = new ArrayList<>();
+        entries.values().forEach(entry -> schedules.add(entry.schedule.copy()));
+        return schedules;
+    }
+
+    /**
+     * 변경된 일정(마지막 실행 시각 포함)을 파일에 저장. 실행할 때마다 쓰지 않고 모아서 쓴다.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.flush-interval-ms:10000}")
+    public void flush() {
+        // 팔로워가 쓰면 리더의 최신 실행 시각을 덮어쓴다
+        if (!coordinator.isLeader() || !dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            AtomicFiles.write(file, JsonUtil.MAPPER.writeValueAsBytes(getSchedules()));
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.error("수신자 일정 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 휠 스레드에서 nextRunAfter가 실패하면 일정이 조용히 멈추므로 등록/로드 시점에 확인한다.
+     */
+    private static void validate(RecipientSchedule schedule) {
+        try {
+            ZoneId.of(schedule.getZoneId());
+        } catch (DateTimeException | NullPointerException e) {
+            throw new IllegalArgumentException("잘못된 시간대입니다: " + schedule.getZoneId());
+        }
+        if (!isHour(schedule.getQuietStartHour()) || !isHour(schedule.getQuietEndHour())) {
+            throw new IllegalArgumentException("방해 금지 시각은 0~23 사이여야 합니다: "
+                + schedule.getQuietStartHour() + " ~ " + schedule.getQuietEndHour());
+        }
+        if (schedule.getIntervalMinutes() < 1) {
+            throw new IllegalArgumentException("전송 주기는 1분 이상이어야 합니다: " + schedule.getIntervalMinutes());
+        }
+    }
+
+    private static boolean isHour(int hour) {
+        return hour >= 0 && hour < 24;
+    }
+
+    private void requireLeader() {
+        if (!coordinator.isLeader()) {
+            throw new IllegalStateException("일정 변경은 리더 노드에서만 가능합니다. (현재 노드: " + coordinator.getNodeId() + ")");
+        }
+    }
+
+    private boolean cancel(String id) {
+        Entry previous = entries.remove(id);
+        if (previous != null && previous.timeout != null) {
+            previous.timeout.cancel();
+        }
+        return previous != null;
+    }
+
+    private void arm(Entry entry) {
+        entries.put(entry.schedule.getId(), entry);
+        entry.timeout = newTimeout(entry);
+    }
+
+    /**
+     * 실행을 마친 일정의 다음 실행을 건다.
+     * 그 사이 교체/삭제되었으면 다시 걸지 않는다. (같은 키의 cancel/register와 원자적으로 판단)
+     */
+    private void rearm(Entry entry) {
+        entries.computeIfPresent(entry.schedule.getId(), (id, current) -> {
+            if (current == entry) {
+                entry.timeout = newTimeout(entry);
+            }
+            return current;
+        });
+    }
+
+    private Timeout newTimeout(Entry entry) {
+        long delay = Math.max(0, entry.schedule.getNextRunAt() - System.currentTimeMillis());
+        return wheel.newTimeout(timeout -> fire(entry), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 휠 스레드에서 호출: 작업은 Executor에 넘기고 다음 실행을 바로 건다.
+     * 리더가 아니면 실행만 건너뛰고 주기는 그대로 진행한다. (리더가 되면 reload로 파일 기준으로 다시 맞춘다)
+     */
+    private void fire(Entry entry) {
+        // 그 사이 교체/삭제된 일정이면 무시
+        if (entries.get(entry.schedule.getId()) != entry) {
+            return;
+        }
+        RecipientSchedule schedule = entry.schedule;
+        long plannedAt = schedule.getNextRunAt();
+        long now = System.currentTimeMillis();
+        if (!coordinator.isLeader()) {
+            meterRegistry.counter("scheduler.fired", "result", "follower").increment();
+            entry.schedule = schedule.withRun(schedule.getLastRunAt(), schedule.nextRunAfter(Math.max(now, plannedAt)));
+            rearm(entry);
+            return;
+        }
+        meterRegistry.timer("scheduler.fire.lag").record(Math.max(0, now - plannedAt), TimeUnit.MILLISECONDS);
+
+        try {
+            scheduleExecutor.execute(() -> run(schedule, plannedAt));
+            meterRegistry.counter("scheduler.fired", "result", "dispatched").increment();
+        } catch (TaskRejectedException e) {
+            meterRegistry.counter("scheduler.fired", "result", "rejected").increment();
+            logger.warn("일정 실행 대기열이 가득 차서 이번 주기를 건너뜁니다: {}", schedule.getId());
+        }
+
+        entry.schedule = schedule.withRun(now, schedule.nextRunAfter(Math.max(now, plannedAt)));
+        dirty.set(true);
+        rearm(entry);
+    }
+
+    /**
+     * 수신자 현지 시각에 맞는 테마로 작업을 등록 (AI 호출과 전송은 작업 큐가 처리)
+     */
+    private void run(RecipientSchedule schedule, long plannedAt) {
+        try {
+            ThemePrompt theme = themePromptService.getThemeByTime(schedule.localHour(plannedAt));
+            AiMode mode = theme.isRequiresWebSearch() ? AiMode.AGENT : AiMode.PLAIN;
+            jobQueue.enqueue(theme.getTheme(), theme.getPrompt(), mode, schedule.getChannels());
+        } catch (Exception e) {
+            logger.error("수신자 일정 실행 실패: {} ({})", schedule.getId(), e.getMessage(), e);
+        }
+    }
+
+    private List<RecipientSchedule> readFile() {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            return JsonUtil.MAPPER.readValue(file.toFile(), SCHEDULES_TYPE);
+        } catch (IOException e) {
+            logger.warn("수신자 일정 파일을 읽지 못했습니다: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static final class Entry {
+        // 공개된 뒤에는 고치지 않는 사본 (휠 스레드만 교체)
+        private volatile RecipientSchedule schedule;
+        private volatile Timeout timeout;
+
+        private Entry(RecipientSchedule schedule) {
+            this.schedule = schedule;
+        }
+    }
+}
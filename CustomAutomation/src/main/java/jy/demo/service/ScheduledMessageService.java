@@ -1,94 +1,136 @@
 package jy.demo.service;
 
-import jy.demo.api.DalaiClient;
+import io.micrometer.core.instrument.Timer;
+import jy.demo.api.AiMode;
+import jy.demo.api.AiPriority;
+import jy.demo.api.ModelRouter;
+import jy.demo.dto.AiMessageJob;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
 import jy.demo.dto.ThemePrompt;
+import jy.demo.util.AiResponseParser;
+import jy.demo.util.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ScheduledMessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(ScheduledMessageService.class);
 
+    // 정기 메시지 전송 시간대 (9시 ~ 20시)
+    private static final int SEND_START_HOUR = 9;
+    private static final int SEND_END_HOUR = 20;
+
+    // 정기 메시지는 클러스터에서 한 노드만 실행
+    private static final String HOURLY_LOCK = "hourly-message";
+    private static final Duration HOURLY_LOCK_AT_MOST = Duration.ofMinutes(50);
+    private static final Duration HOURLY_LOCK_AT_LEAST = Duration.ofMinutes(5);
+
     private final ThemePromptService themePromptService;
-    private final DalaiClient dalaiClient;
-    private final KakaoMsgServiceImpl kakaoMsgService;
-    private final SlackMsgService slackMsgService;
+    private final ModelRouter modelRouter;
+    private final DeliveryFanoutService deliveryFanoutService;
+    private final AiMessageJobQueue jobQueue;
+    private final ContentPreGenerator preGenerator;
+    private final ClusterCoordinator coordinator;
+    private final PipelineMetrics metrics;
 
     public ScheduledMessageService(
             ThemePromptService themePromptService,
-            DalaiClient dalaiClient,
-            KakaoMsgServiceImpl kakaoMsgService,
-            SlackMsgService slackMsgService) {
+            ModelRouter modelRouter,
+            DeliveryFanoutService deliveryFanoutService,
+            AiMessageJobQueue jobQueue,
+            ContentPreGenerator preGenerator,
+            ClusterCoordinator coordinator,
+            PipelineMetrics metrics) {
         this.themePromptService = themePromptService;
-        this.dalaiClient = dalaiClient;
-        this.kakaoMsgService = kakaoMsgService;
-        this.slackMsgService = slackMsgService;
+        this.modelRouter = modelRouter;
+        this.deliveryFanoutService = deliveryFanoutService;
+        this.jobQueue = jobQueue;
+        this.preGenerator = preGenerator;
+        this.coordinator = coordinator;
+        this.metrics = metrics;
+    }
+
+    public static boolean isSendHour(int hour) {
+        return hour >= SEND_START_HOUR && hour <= SEND_END_HOUR;
     }
 
     /**
      * 1시간마다 AI 응답을 전송
      * cron: "0 0 * * * *" = 매시 정각
+     *
+     * 미리 생성된 콘텐츠(ContentPreGenerator)가 있으면 전송만 하고,
+     * 아직 생성 중이면 완료되는 즉시 전송하며, 없거나 생성에 실패했으면 이 자리에서 생성한다.
+     * 여러 인스턴스를 띄워도 리더 노드 하나만 실행한다.
      */
     @Scheduled(cron = "0 0 * * * *")
     public void sendHourlyAIMessage() {
-        int hour = LocalDateTime.now().getHour(); // 0~23
+        coordinator.runExclusively(HOURLY_LOCK, HOURLY_LOCK_AT_MOST, HOURLY_LOCK_AT_LEAST, this::dispatchHourly);
+    }
+
+    private void dispatchHourly() {
+        LocalDateTime slot = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
 
         // 9 <= hour <= 20 일 때만 전송
-        if (!(hour >= 9 && hour <= 20)) {
+        if (!isSendHour(slot.getHour())) {
             return;
         }
-        try {
-            logger.info("=== 정기 메시지 전송 시작 ===");
+        logger.info("=== 정기 메시지 작업 등록 ===");
 
+        CompletableFuture<AiMessageJob> ready = preGenerator.take(slot);
+        if (ready == null) {
+            logger.info("미리 생성된 콘텐츠가 없어 바로 생성합니다.");
+            enqueueInline();
+            return;
+        }
+        if (!ready.isDone()) {
+            logger.warn("미리 생성 중인 콘텐츠가 아직 준비되지 않았습니다. 완료되면 바로 전송합니다.");
+        }
+        ready.whenComplete((job, error) -> {
+            if (error != null) {
+                logger.warn("미리 생성 실패로 바로 생성합니다: {}", error.getMessage());
+                enqueueInline();
+                return;
+            }
+            try {
+                jobQueue.enqueue(job);
+                logger.info("미리 생성된 정기 메시지 전송 등록: {} [{}]", job.getId(), job.getTitle());
+            } catch (Exception e) {
+                logger.error("정기 메시지 작업 등록 실패: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 시간대에 맞는 테마를 골라 생성부터 전송까지 작업 큐에 등록
+     */
+    private void enqueueInline() {
+        try {
             // 1. 시간대에 맞는 테마 선택
+            Timer.Sample themeSample = metrics.start();
             ThemePrompt theme = themePromptService.getThemeByTime();
+            metrics.recordThemeSelection(themeSample);
             logger.info("선택된 테마: {}", theme.getTheme());
             logger.info("웹 검색 필요 여부: {}", theme.isRequiresWebSearch());
 
-            // 2. AI에게 프롬프트 전송 (웹 검색 자동 활성화)
-            logger.info("AI 응답 요청 중...");
-            logger.debug("프롬프트: {}", theme.getPrompt());
-
-            long startTime = System.currentTimeMillis();
-            String rawResponse;
-
-            if (theme.isRequiresWebSearch()) {
-                logger.info("🤖 자율 에이전트 모드로 AI 호출");
-                rawResponse = dalaiClient.sendPromptWithSearchAgent(theme.getPrompt(), true, true);
-            } else {
-                rawResponse = dalaiClient.sendPrompt(theme.getPrompt());
-            }
-
-            long endTime = System.currentTimeMillis();
-
-            logger.info("AI 응답 수신 완료 (소요시간: {}ms)", endTime - startTime);
-            logger.debug("AI 원본 응답: {}", rawResponse);
-
-            // AI 응답 파싱
-            String aiResponse = parseAIResponse(rawResponse);
-            logger.info("AI 파싱 응답: {}", aiResponse);
-
-            // 3. 메시지 포맷팅
-            String message = String.format("[%s]\n%s", theme.getTheme(), aiResponse);
-
-            // 4. Slack 전송
-            logger.info("Slack 메시지 전송 중...");
-            String slackResult = slackMsgService.sendRichMessage(theme.getTheme(), aiResponse);
-            logger.info("Slack 전송 결과: {}", slackResult);
-
-            // 5. 카카오톡 전송 (옵션)
-            logger.info("카카오톡 메시지 전송 중...");
-            String kakaoResult = kakaoMsgService.sendMessage(message);
-            logger.info("카카오톡 전송 결과: {}", kakaoResult);
-
-            logger.info("=== 정기 메시지 전송 완료 ===");
+            // 2. 작업 큐에 등록 (AI 호출 및 등록된 모든 채널 전송은 워커가 처리)
+            AiMode mode = theme.isRequiresWebSearch() ? AiMode.AGENT : AiMode.PLAIN;
+            AiMessageJob job = jobQueue.enqueue(theme.getTheme(), theme.getPrompt(), mode, List.of());
+            logger.info("정기 메시지 작업 등록 완료: {}", job.getId());
 
         } catch (Exception e) {
-            logger.error("정기 메시지 전송 실패: {}", e.getMessage(), e);
+            logger.error("정기 메시지 작업 등록 실패: {}", e.getMessage(), e);
         }
     }
 
@@ -111,9 +153,9 @@ public class ScheduledMessageService {
 
             if (theme.isRequiresWebSearch()) {
                 logger.info("🤖 자율 에이전트 모드로 AI 호출");
-                rawResponse = dalaiClient.sendPromptWithSearchAgent(theme.getPrompt(), true, true);
+                rawResponse = modelRouter.generate(theme.getPrompt(), AiMode.AGENT, AiPriority.SCHEDULED).join();
             } else {
-                rawResponse = dalaiClient.sendPrompt(theme.getPrompt());
+                rawResponse = modelRouter.generate(theme.getPrompt(), AiMode.PLAIN, AiPriority.SCHEDULED).join();
             }
 
             long endTime = System.currentTimeMillis();
@@ -122,76 +164,33 @@ public class ScheduledMessageService {
             logger.debug("AI 원본 응답: {}", rawResponse);
 
             // AI 응답 파싱
-            String aiResponse = parseAIResponse(rawResponse);
+            String aiResponse = AiResponseParser.parse(rawResponse);
             logger.info("AI 파싱 응답: {}", aiResponse);
 
-            String message = String.format("[테스트-%s]\n%s", theme.getTheme(), aiResponse);
-
-            // Slack 전송
-            String slackResult = slackMsgService.sendRichMessage("테스트 - " + theme.getTheme(), aiResponse);
-            logger.info("Slack 테스트 전송 결과: {}", slackResult);
-
-            // 카카오톡 전송
-            String kakaoResult = kakaoMsgService.sendMessage(message);
-            logger.info("카카오톡 테스트 전송 결과: {}", kakaoResult);
+            // 등록된 모든 채널로 동시 전송
+            Map<String, DeliveryResult> results = deliveryFanoutService.dispatch(new Message("테스트 - " + theme.getTheme(), aiResponse));
+            logger.info("테스트 전송 결과: {}", results.values());
 
         } catch (Exception e) {
             logger.error("테스트 메시지 전송 실패: {}", e.getMessage(), e);
         }
     }
 
-    /**
-     * AI 응답 파싱: "answer : " 프리픽스 제거 및 정제
-     */
-    private String parseAIResponse(String rawResponse) {
-        if (rawResponse == null || rawResponse.trim().isEmpty()) {
-            return "AI 응답을 받지 못했습니다.";
-        }
-
-        // "answer : " 프리픽스 제거
-        String cleaned = rawResponse.trim();
-        if (cleaned.startsWith("answer :") || cleaned.startsWith("answer:")) {
-            cleaned = cleaned.replaceFirst("^answer\\s*:\\s*", "");
-        }
-
-        // <end> 태그 제거
-        cleaned = cleaned.replaceAll("<end>.*$", "").trim();
-
-        // 빈 응답 체크
-        if (cleaned.isEmpty()) {
-            return "AI가 유효한 응답을 생성하지 못했습니다.";
-        }
-
-        return cleaned;
-    }
-
     /**
      * 수동 실행용 메서드 - 항상 자율 에이전트 사용
+     * 작업 큐에 등록만 하고 바로 반환한다. 처리 상태는 작업 ID로 조회한다.
      */
-    public String sendManualMessage(String customPrompt) {
-        try {
-            logger.info("🤖 수동 메시지 전송 시작 (자율 에이전트 모드)");
-            logger.debug("커스텀 프롬프트: {}", customPrompt);
-
-            long startTime = System.currentTimeMillis();
-            // 수동 실행은 항상 자율 에이전트 사용
-            String rawResponse = dalaiClient.sendPromptWithSearchAgent(customPrompt, true, true);
-            long endTime = System.currentTimeMillis();
-
-            logger.info("AI 응답 수신 완료 (소요시간: {}ms)", endTime - startTime);
-            logger.debug("AI 원본 응답: {}", rawResponse);
-
-            // AI 응답 파싱
-            String aiResponse = parseAIResponse(rawResponse);
-            logger.info("AI 파싱 응답: {}", aiResponse);
-
-            String message = String.format("[수동 실행]\n%s", aiResponse);
-
-            return kakaoMsgService.sendMessage(message);
+    public AiMessageJob sendManualMessage(String customPrompt) {
+        logger.info("🤖 수동 메시지 작업 등록 (자율 에이전트 모드)");
+        logger.debug("커스텀 프롬프트: {}", customPrompt);
+
+        // 수동 실행은 항상 자율 에이전트 사용, 카카오톡으로만 전송 (Dalai 대기열에서는 정기 전송 다음 순서)
+        AiMessageJob job = AiMessageJob.create("수동 실행", customPrompt, AiMode.AGENT, List.of(KakaoMsgServiceImpl.CHANNEL_NAME));
+        job.setPriority(AiPriority.MANUAL);
+        return jobQueue.enqueue(job);
+    }
 
-        } catch (Exception e) {
-            logger.error("수동 메시지 전송 실패: {}", e.getMessage(), e);
-            return "메시지 전송 실패: " + e.getMessage();
-        }
+    public Optional<AiMessageJob> findJob(String jobId) {
+        return jobQueue.find(jobId);
     }
 }
@@ -1,50 +1,129 @@
 package jy.demo.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import jy.demo.api.WebClientImpl;
+import jy.demo.dto.ChannelCapability;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import jy.demo.util.JsonUtil;
+import jy.demo.util.RetryClassifier;
+import jy.demo.util.UpstreamGuard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Service
-public class SlackMsgService {
+public class SlackMsgService implements MessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(SlackMsgService.class);
 
+    public static final String CHANNEL_NAME = "slack";
+
+    // Slack Block Kit 제한: header 150자, section 3000자
+    private static final int HEADER_MAX_LENGTH = 150;
+    private static final ChannelCapability CAPABILITY = new ChannelCapability(true, 3000);
+    private static final ChannelCapability HEADER_CAPABILITY = new ChannelCapability(false, HEADER_MAX_LENGTH);
+
     @Value("${slack.webhook.url}")
     private String webhookUrl;
 
-    private final RestTemplate restTemplate;
+    private final WebClientImpl apiClient;
+    private final ChannelRateLimiter rateLimiter;
+    private final UpstreamGuard upstreamGuard;
+    // 응답 타임아웃 (연결 타임아웃은 공유 클라이언트의 http.client.connect-timeout-ms)
+    private final Duration readTimeout;
+
+    public SlackMsgService(
+            WebClientImpl apiClient,
+            ChannelRateLimiter rateLimiter,
+            UpstreamGuard upstreamGuard,
+            @Value("${slack.read-timeout-ms:5000}") long readTimeoutMs) {
+        this.apiClient = apiClient;
+        this.rateLimiter = rateLimiter;
+        this.upstreamGuard = upstreamGuard;
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+    }
+
+    @Override
+    public String getChannelName() {
+        return CHANNEL_NAME;
+    }
+
+    @Override
+    public ChannelCapability getCapability() {
+        return CAPABILITY;
+    }
 
-    public SlackMsgService() {
-        this.restTemplate = new RestTemplate();
+    @Override
+    public boolean isAvailable() {
+        return isWebhookConfigured();
     }
 
     /**
-     * Slack에 간단한 텍스트 메시지 전송
+     * 제목이 있으면 Rich 메시지(Blocks), 없으면 일반 텍스트 메시지로 전송
+     * 전송 한도 대기와 응답 대기 모두 스레드를 점유하지 않는다.
      */
-    public String sendMessage(String message) {
-        try {
-            logger.info("Slack 메시지 전송 시작");
-            logger.debug("메시지 내용: {}", message);
+    @Override
+    public CompletableFuture<DeliveryResult> deliver(Message message) {
+        return deliverMono(message).toFuture();
+    }
 
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("text", message);
+    public Mono<DeliveryResult> deliverMono(Message message) {
+        if (message.hasTitle()) {
+            return deliverMono(() -> buildRichPayload(HEADER_CAPABILITY.fit(message.getTitle()), CAPABILITY.fit(message.getBody())),
+                "Rich 메시지 전송에 성공했습니다.");
+        }
+        return deliverMono(() -> buildTextPayload(CAPABILITY.fit(message.getBody())), "메시지 전송에 성공했습니다.");
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * 여러 메시지를 header / section 블록이 반복되는 Blocks 페이로드 하나로 전송
+     */
+    @Override
+    public CompletableFuture<DeliveryResult> deliverDigest(List<Message> messages) {
+        return deliverMono(() -> buildDigestPayload(messages),
+            "다이제스트 메시지 전송에 성공했습니다. (" + messages.size() + "건)").toFuture();
+    }
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
+    private Mono<DeliveryResult> deliverMono(Supplier<byte[]> payload, String successDetail) {
+        long startTime = System.currentTimeMillis();
+        return Mono.fromFuture(() -> rateLimiter.acquire(CHANNEL_NAME))
+            .then(Mono.defer(() -> post(payload.get())))
+            .then(Mono.fromSupplier(() -> success(successDetail, startTime)))
+            .onErrorResume(e -> {
+                logger.error("Slack 메시지 전송 실패: {}", e.getMessage());
+                return Mono.just(failed(e.getMessage(), startTime, RetryClassifier.isRetryable(e)));
+            });
+    }
 
-            restTemplate.postForObject(webhookUrl, request, String.class);
+    /**
+     * @param retryable 시간 초과/5xx/429처럼 다시 보내면 성공할 수 있는 실패인지
+     */
+    private DeliveryResult failed(String reason, long startTime, boolean retryable) {
+        return new DeliveryResult(CHANNEL_NAME, DeliveryResult.Status.FAILED,
+            "메시지 전송에 실패했습니다: " + reason, System.currentTimeMillis() - startTime, retryable);
+    }
 
-            logger.info("Slack 메시지 전송 성공");
+    private DeliveryResult success(String detail, long startTime) {
+        return new DeliveryResult(CHANNEL_NAME, DeliveryResult.Status.SUCCESS, detail, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Slack에 간단한 텍스트 메시지 전송
+     */
+    @Override
+    public String sendMessage(String message) {
+        try {
+            rateLimiter.acquireAndWait(CHANNEL_NAME);
+            post(buildTextPayload(message)).block();
             return "메시지 전송에 성공했습니다.";
 
         } catch (Exception e) {
@@ -58,45 +137,95 @@ public class SlackMsgService {
      */
     public String sendRichMessage(String theme, String content) {
         try {
-            logger.info("Slack Rich 메시지 전송 시작");
-            logger.debug("테마: {}, 내용: {}", theme, content);
-
-            Map<String, Object> payload = new HashMap<>();
+            rateLimiter.acquireAndWait(CHANNEL_NAME);
+            post(buildRichPayload(theme, content)).block();
+            return "Rich 메시지 전송에 성공했습니다.";
 
-            // Blocks를 사용한 Rich Formatting
-            Map<String, Object> headerBlock = new HashMap<>();
-            headerBlock.put("type", "header");
-            Map<String, String> headerText = new HashMap<>();
-            headerText.put("type", "plain_text");
-            headerText.put("text", theme);
-            headerBlock.put("text", headerText);
+        } catch (Exception e) {
+            logger.error("Slack Rich 메시지 전송 실패: {}", e.getMessage(), e);
+            return "Rich 메시지 전송에 실패했습니다: " + e.getMessage();
+        }
+    }
 
-            Map<String, Object> contentBlock = new HashMap<>();
-            contentBlock.put("type", "section");
-            Map<String, String> contentText = new HashMap<>();
-            contentText.put("type", "mrkdwn");
-            contentText.put("text",  content);
-            contentBlock.put("text", contentText);
+    /**
+     * 공유 WebClient 연결 풀로 전송 (429면 Retry-After 후 한 번 재시도)
+     */
+    private Mono<String> post(byte[] payload) {
+        return rateLimiter.executeMono(CHANNEL_NAME,
+            () -> upstreamGuard.mono(UpstreamGuard.SLACK, apiClient.postJsonMono(webhookUrl, payload, readTimeout)));
+    }
 
-            Map<String, Object> dividerBlock = new HashMap<>();
-            dividerBlock.put("type", "divider");
+    static byte[] buildTextPayload(String message) {
+        return JsonUtil.toJsonBytes(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("text", message);
+            generator.writeEndObject();
+        });
+    }
 
-            payload.put("blocks", new Object[]{headerBlock, dividerBlock, contentBlock});
+    /**
+     * header / divider / section 블록으로 구성된 페이로드 생성
+     */
+    static byte[] buildRichPayload(String theme, String content) {
+        return JsonUtil.toJsonBytes(generator -> {
+            generator.writeStartObject();
+            // Blocks를 사용한 Rich Formatting
+            generator.writeArrayFieldStart("blocks");
+            headerBlock(generator, theme);
+            dividerBlock(generator);
+            sectionBlock(generator, content);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * 메시지마다 header(제목이 있을 때) / section 블록을 만들고 메시지 사이에 divider를 넣은 페이로드 생성
+     * 알림 미리보기용 text에는 건수를 넣는다.
+     */
+    static byte[] buildDigestPayload(List<Message> messages) {
+        return JsonUtil.toJsonBytes(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("text", "AI 메시지 " + messages.size() + "건");
+            generator.writeArrayFieldStart("blocks");
+            boolean first = true;
+            for (Message message : messages) {
+                if (!first) {
+                    dividerBlock(generator);
+                }
+                first = false;
+                if (message.hasTitle()) {
+                    headerBlock(generator, HEADER_CAPABILITY.fit(message.getTitle()));
+                }
+                sectionBlock(generator, CAPABILITY.fit(message.getBody()));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
+    private static void headerBlock(JsonGenerator generator, String text) throws IOException {
+        textBlock(generator, "header", "plain_text", text);
+    }
 
-            restTemplate.postForObject(webhookUrl, request, String.class);
+    private static void sectionBlock(JsonGenerator generator, String text) throws IOException {
+        textBlock(generator, "section", "mrkdwn", text);
+    }
 
-            logger.info("Slack Rich 메시지 전송 성공");
-            return "Rich 메시지 전송에 성공했습니다.";
+    private static void textBlock(JsonGenerator generator, String blockType, String textType, String text) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", blockType);
+        generator.writeObjectFieldStart("text");
+        generator.writeStringField("type", textType);
+        generator.writeStringField("text", text);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
 
-        } catch (Exception e) {
-            logger.error("Slack Rich 메시지 전송 실패: {}", e.getMessage(), e);
-            return "Rich 메시지 전송에 실패했습니다: " + e.getMessage();
-        }
+    private static void dividerBlock(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "divider");
+        generator.writeEndObject();
     }
 
     /**
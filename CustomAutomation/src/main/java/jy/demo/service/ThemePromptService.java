@@ -1,27 +1,276 @@
 package jy.demo.service;
 
+import jakarta.annotation.PostConstruct;
+import jy.demo.config.ThemeProperties;
 import jy.demo.dto.ThemePrompt;
+import jy.demo.util.AtomicFiles;
+import jy.demo.util.JsonUtil;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * 테마 레지스트리
+ *
+ * - 조회: 불변 스냅샷(volatile)을 읽기만 하므로 락이 없다. 변경 시에는 새 스냅샷을 만들어 교체한다. (copy-on-write)
+ * - 시간대 선택: 시각(0~23)별로 가중치만큼 테마를 펼쳐 둔 배열에서 ThreadLocalRandom으로 한 번에 고른다. (O(1))
+ *   가중치는 MAX_WEIGHT 이하로 제한해 펼친 배열이 커지지 않게 한다.
+ * - 설정: themes.definitions / themes.slots (없으면 기본 테마와 시간대)
+ * - 저장: 런타임에 추가/교체한 테마와 바꾼 가중치만 themes.file에 원자적으로 저장하고, 시작할 때 설정 위에 다시 적용한다.
+ *   (설정이나 기본 테마를 고치면 런타임에 건드리지 않은 항목에는 그대로 반영됨)
+ *
+ * 기본 시간대별 테마:
+ * - 아침 (6-11시): 오늘의 명언, 건강 라이프, 목표 설정 - 하루를 시작하는 에너지와 방향성
+ * - 낮 (12-17시): 생산성 혁신, 시간 마스터, Tech Insight - 업무 효율성과 전문성
+ * - 저녁 (18-21시): 학습 전략, 커리어 인사이트, 마인드셋 코칭 - 성장과 발전
+ * - 밤 (22-23시): 창의성 개발, 마인드셋 코칭 - 내일을 위한 준비
+ * - 새벽 (0-5시): 마인드셋 코칭, 창의성 개발 - 조용한 시간의 깊은 사고
+ */
 @Service
 public class ThemePromptService {
 
-    private final List<ThemePrompt> themes;
-    private final Random random;
+    private static final Logger logger = LoggerFactory.getLogger(ThemePromptService.class);
 
-    public ThemePromptService() {
-        this.random = new Random();
-        this.themes = new ArrayList<>();
-        initializeThemes();
+    private static final int HOURS = 24;
+    public static final int MAX_WEIGHT = 100;
+
+    private final ThemeProperties properties;
+    private final Path file;
+
+    private volatile Snapshot snapshot;
+    // 런타임 변경분 (themes.file 내용, this로 보호)
+    private StoredThemes overrides = new StoredThemes();
+
+    public ThemePromptService(ThemeProperties properties) {
+        this.properties = properties;
+        this.file = Paths.get(properties.getFile()).toAbsolutePath();
+        this.snapshot = new Snapshot(defaultThemes(), defaultSlots());
+    }
+
+    /**
+     * 설정(없으면 기본값) 위에 저장 파일의 런타임 변경분을 적용
+     */
+    @PostConstruct
+    public synchronized void load() {
+        StoredThemes stored = readFile();
+        if (stored != null) {
+            overrides = stored;
+        }
+        snapshot = build(overrides);
+        logger.info("테마 {}개, 시간대 {}개 로드 (런타임 변경: 테마 {}개, 시간대 {}개)", snapshot.themes.size(), snapshot.slots.size(),
+            overrides.getAddedThemes().size(), overrides.getWeights().size());
+    }
+
+    /**
+     * 랜덤하게 테마 프롬프트를 선택
+     */
+    public ThemePrompt getRandomTheme() {
+        List<ThemePrompt> themes = snapshot.themes;
+        return themes.get(ThreadLocalRandom.current().nextInt(themes.size()));
+    }
+
+    /**
+     * 현재 시간대에 맞는 테마 선택
+     */
+    public ThemePrompt getThemeByTime() {
+        return getThemeByTime(LocalTime.now().getHour());
+    }
+
+    /**
+     * 지정한 시각(0~23시)에 맞는 테마 선택 (다음 시간대 콘텐츠를 미리 생성할 때 사용)
+     * 시간대 가중치가 없는 시각이면 전체 테마 중에서 고른다.
+     */
+    public ThemePrompt getThemeByTime(int hour) {
+        ThemePrompt[] candidates = snapshot.byHour[hour];
+        if (candidates.length == 0) {
+            return getRandomTheme();
+        }
+        return candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+    }
+
+    /**
+     * 모든 테마 목록 조회
+     */
+    public List<ThemePrompt> getAllThemes() {
+        return snapshot.themes;
+    }
+
+    /**
+     * 시간대별 테마 가중치 조회
+     */
+    public Map<String, ThemeProperties.Slot> getSlots() {
+        return snapshot.slots;
+    }
+
+    /**
+     * 커스텀 테마 추가 (같은 이름이면 교체)
+     *
+     * @throws UncheckedIOException 저장 실패 (변경은 반영되지 않음)
+     */
+    public void addTheme(String theme, String prompt) {
+        addTheme(new ThemePrompt(theme, prompt));
+    }
+
+    public synchronized void addTheme(ThemePrompt theme) {
+        StoredThemes updated = overrides.copy();
+        updated.getAddedThemes().removeIf(existing -> existing.getTheme().equals(theme.getTheme()));
+        updated.getAddedThemes().add(theme);
+        replace(updated);
+    }
+
+    /**
+     * 시간대의 테마 가중치 지정 (0이면 시간대에서 제외)
+     *
+     * @throws IllegalArgumentException 가중치가 0~MAX_WEIGHT 범위를 벗어난 경우
+     * @throws IllegalStateException 시간대나 테마가 없는 경우
+     * @throws UncheckedIOException 저장 실패 (변경은 반영되지 않음)
+     */
+    public synchronized void setWeight(String slotName, String theme, int weight) {
+        if (weight < 0 || weight > MAX_WEIGHT) {
+            throw new IllegalArgumentException("가중치는 0~" + MAX_WEIGHT + " 사이여야 합니다: " + weight);
+        }
+        if (!snapshot.slots.containsKey(slotName)) {
+            throw new IllegalStateException("시간대를 찾을 수 없습니다: " + slotName);
+        }
+        if (snapshot.themes.stream().noneMatch(existing -> existing.getTheme().equals(theme))) {
+            throw new IllegalStateException("테마를 찾을 수 없습니다: " + theme);
+        }
+
+        StoredThemes updated = overrides.copy();
+        updated.getWeights().computeIfAbsent(slotName, name -> new LinkedHashMap<>()).put(theme, weight);
+        replace(updated);
     }
 
-    private void initializeThemes() {
-        themes.add(new ThemePrompt(
+    /**
+     * 파일에 먼저 저장하고, 성공했을 때만 스냅샷을 교체한다. (저장에 실패하면 재시작 후 사라질 변경을 반영하지 않음)
+     */
+    private void replace(StoredThemes updated) {
+        Snapshot next = build(updated);
+        try {
+            AtomicFiles.write(file, JsonUtil.MAPPER.writeValueAsBytes(updated));
+        } catch (IOException e) {
+            logger.error("테마 파일 저장 실패: {}", e.getMessage());
+            throw new UncheckedIOException("테마 파일 저장 실패: " + e.getMessage(), e);
+        }
+        overrides = updated;
+        snapshot = next;
+    }
+
+    /**
+     * 설정(없으면 기본값) + 런타임 변경분으로 스냅샷 생성
+     */
+    private Snapshot build(StoredThemes stored) {
+        Map<String, ThemePrompt> themes = new LinkedHashMap<>();
+        (properties.getDefinitions().isEmpty() ? defaultThemes() : properties.getDefinitions())
+            .forEach(theme -> themes.put(theme.getTheme(), theme));
+        stored.getAddedThemes().forEach(theme -> themes.put(theme.getTheme(), theme));
+
+        Map<String, ThemeProperties.Slot> slots =
+            new LinkedHashMap<>(properties.getSlots().isEmpty() ? defaultSlots() : properties.getSlots());
+        stored.getWeights().forEach((slotName, changed) -> {
+            ThemeProperties.Slot slot = slots.get(slotName);
+            if (slot == null) {
+                logger.warn("설정에 없는 시간대의 가중치 변경은 무시합니다: {}", slotName);
+                return;
+            }
+            Map<String, Integer> weights = new LinkedHashMap<>(slot.getWeights());
+            changed.forEach((theme, weight) -> {
+                if (weight > 0) {
+                    weights.put(theme, weight);
+                } else {
+                    weights.remove(theme);
+                }
+            });
+            slots.put(slotName, new ThemeProperties.Slot(slot.getStartHour(), slot.getEndHour(), weights));
+        });
+        return new Snapshot(new ArrayList<>(themes.values()), slots);
+    }
+
+    private StoredThemes readFile() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return JsonUtil.MAPPER.readValue(file.toFile(), StoredThemes.class);
+        } catch (IOException e) {
+            logger.warn("테마 파일을 읽지 못했습니다: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 불변 스냅샷: 테마 목록 + 시각별 가중치 펼침 배열
+     */
+    private static final class Snapshot {
+        private final List<ThemePrompt> themes;
+        private final Map<String, ThemeProperties.Slot> slots;
+        private final ThemePrompt[][] byHour = new ThemePrompt[HOURS][];
+
+        private Snapshot(List<ThemePrompt> themes, Map<String, ThemeProperties.Slot> slots) {
+            this.themes = Collections.unmodifiableList(new ArrayList<>(themes));
+            this.slots = Collections.unmodifiableMap(new LinkedHashMap<>(slots));
+
+            Map<String, ThemePrompt> byName = new LinkedHashMap<>();
+            themes.forEach(theme -> byName.put(theme.getTheme(), theme));
+            for (int hour = 0; hour < HOURS; hour++) {
+                List<ThemePrompt> expanded = new ArrayList<>();
+                for (ThemeProperties.Slot slot : slots.values()) {
+                    if (!slot.contains(hour)) {
+                        continue;
+                    }
+                    slot.getWeights().forEach((name, weight) -> {
+                        ThemePrompt theme = byName.get(name);
+                        // 설정/파일에 적힌 값도 MAX_WEIGHT로 제한
+                        int copies = Math.min(weight, MAX_WEIGHT);
+                        for (int i = 0; theme != null && i < copies; i++) {
+                            expanded.add(theme);
+                        }
+                    });
+                }
+                byHour[hour] = expanded.toArray(new ThemePrompt[0]);
+            }
+        }
+    }
+
+    /**
+     * themes.file 저장 형식 (런타임 변경분만)
+     * - addedThemes: 추가/교체한 테마
+     * - weights: 시간대 -> 테마 -> 바꾼 가중치 (0이면 시간대에서 제외)
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    static class StoredThemes {
+        private List<ThemePrompt> addedThemes = new ArrayList<>();
+        private Map<String, Map<String, Integer>> weights = new LinkedHashMap<>();
+
+        StoredThemes copy() {
+            StoredThemes copy = new StoredThemes();
+            copy.addedThemes = new ArrayList<>(addedThemes);
+            weights.forEach((slot, changed) -> copy.weights.put(slot, new LinkedHashMap<>(changed)));
+            return copy;
+        }
+    }
+
+    private static List<ThemePrompt> defaultThemes() {
+        List<ThemePrompt> defaults = new ArrayList<>();
+        defaults.add(new ThemePrompt(
             "💡 오늘의 명언",
             "당신은 전문 라이프 코치입니다. 오늘 하루를 시작하는 사람들에게 동기부여가 될 수 있는 명언을 하나 선정하고, " +
             "그 명언이 현대 직장인의 삶에 어떤 의미와 적용점이 있는지 구체적으로 설명해주세요. " +
@@ -29,7 +278,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "🏃 건강 라이프",
             "당신은 예방의학 전문가입니다. 바쁜 일상 속에서도 즉시 실천 가능한 건강 관리 팁을 제시해주세요. " +
             "단순한 조언이 아닌, 과학적 근거(연구 결과나 의학적 원리)와 함께 구체적인 실천 방법을 설명하고, " +
@@ -37,7 +286,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "⚡ 생산성 혁신",
             "당신은 생산성 컨설턴트입니다. 현대 지식 근로자들이 업무 효율성을 극대화할 수 있는 검증된 생산성 기법을 소개해주세요. " +
             "단순 팁이 아닌 GTD, Pomodoro, Deep Work 같은 구체적 방법론이나 도구를 언급하고, " +
@@ -45,7 +294,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "🚀 Tech Insight",
             "당신은 기술 트렌드 애널리스트입니다. 최근 IT/개발 분야의 혁신 기술이나 트렌드를 선정하여, " +
             "해당 기술의 핵심 개념, 기존 기술과의 차별점, 산업에 미칠 영향, 그리고 개발자가 주목해야 하는 이유를 " +
@@ -54,7 +303,7 @@ public class ThemePromptService {
             true  // 웹 검색 필요
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "📚 학습 전략",
             "당신은 학습 심리학 전문가입니다. 성인 학습자가 새로운 기술이나 지식을 효과적으로 습득할 수 있는 " +
             "과학적으로 검증된 학습 전략을 제시해주세요. 단순 암기가 아닌 장기 기억과 실무 적용을 위한 방법론을 설명하고, " +
@@ -63,7 +312,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "🧠 마인드셋 코칭",
             "당신은 성장 마인드셋 전문 코치입니다. Carol Dweck의 성장 마인드셋 이론에 기반하여, " +
             "실패와 어려움을 성장의 기회로 전환하는 구체적인 사고 패턴과 자기 대화 방식을 제시해주세요. " +
@@ -72,7 +321,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "⏰ 시간 마스터",
             "당신은 시간 관리 전문가입니다. 파킨슨의 법칙, 파레토 원칙(80/20 법칙), 아이젠하워 매트릭스 등 " +
             "검증된 시간 관리 원칙 중 하나를 선택하여, 그 원리와 실제 적용 방법을 구체적으로 설명해주세요. " +
@@ -81,7 +330,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "🎨 창의성 개발",
             "당신은 창의성 연구 전문가입니다. 뇌과학과 심리학 연구에 기반한 창의적 사고 촉진 방법을 제시해주세요. " +
             "Divergent Thinking, Lateral Thinking, SCAMPER 기법 등 구체적인 창의성 도구를 소개하고, " +
@@ -90,7 +339,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "🎯 목표 설정",
             "당신은 성과 관리 컨설턴트입니다. SMART 목표 설정 프레임워크(Specific, Measurable, Achievable, Relevant, Time-bound)를 " +
             "활용하여, 추상적인 목표를 구체적이고 실행 가능한 액션 플랜으로 전환하는 방법을 단계별로 설명해주세요. " +
@@ -99,7 +348,7 @@ public class ThemePromptService {
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
 
-        themes.add(new ThemePrompt(
+        defaults.add(new ThemePrompt(
             "💼 커리어 인사이트",
             "당신은 커리어 코칭 전문가입니다. 현대 직장인이 커리어 성장을 위해 반드시 개발해야 할 " +
             "핵심 역량(하드 스킬 또는 소프트 스킬)을 한 가지 선정하여, 그 역량의 중요성, 개발 방법, " +
@@ -107,68 +356,24 @@ public class ThemePromptService {
             "실천 가능한 6개월 개발 로드맵을 제시해주세요. 250자 이내. " +
             "마크다운 문법을 사용하지 말고 일반 텍스트로만 작성하세요."
         ));
+        return defaults;
     }
 
-    /**
-     * 랜덤하게 테마 프롬프트를 선택
-     */
-    public ThemePrompt getRandomTheme() {
-        int index = random.nextInt(themes.size());
-        return themes.get(index);
+    private static Map<String, ThemeProperties.Slot> defaultSlots() {
+        Map<String, ThemeProperties.Slot> slots = new LinkedHashMap<>();
+        slots.put("morning", slot(6, 12, "💡 오늘의 명언", "🏃 건강 라이프", "🎯 목표 설정"));
+        slots.put("afternoon", slot(12, 18, "⚡ 생산성 혁신", "⏰ 시간 마스터", "🚀 Tech Insight"));
+        slots.put("evening", slot(18, 22, "📚 학습 전략", "💼 커리어 인사이트", "🧠 마인드셋 코칭"));
+        slots.put("night", slot(22, 24, "🎨 창의성 개발", "🧠 마인드셋 코칭"));
+        slots.put("dawn", slot(0, 6, "🧠 마인드셋 코칭", "🎨 창의성 개발"));
+        return slots;
     }
 
-    /**
-     * 시간대에 따라 적절한 테마 선택
-     *
-     * 시간대별 최적 테마:
-     * - 아침 (6-11시): 오늘의 명언, 건강 라이프, 목표 설정 - 하루를 시작하는 에너지와 방향성
-     * - 낮 (12-17시): 생산성 혁신, 시간 마스터, Tech Insight - 업무 효율성과 전문성
-     * - 저녁 (18-22시): 학습 전략, 커리어 인사이트, 마인드셋 코칭 - 성장과 발전
-     * - 밤 (22-24시): 창의성 개발, 마인드셋 코칭 - 내일을 위한 준비
-     * - 새벽 (0-5시): 마인드셋 코칭, 창의성 개발 - 조용한 시간의 깊은 사고
-     */
-    public ThemePrompt getThemeByTime() {
-        LocalTime now = LocalTime.now();
-        int hour = now.getHour();
-
-        // 아침 (6-11시): 명언(0), 건강(1), 목표설정(8)
-        if (hour >= 6 && hour < 12) {
-            int[] morningThemes = {0, 1, 8};
-            return themes.get(morningThemes[random.nextInt(morningThemes.length)]);
-        }
-        // 낮 (12-17시): 생산성(2), 시간관리(6), Tech Insight(3)
-        else if (hour >= 12 && hour < 18) {
-            int[] afternoonThemes = {2, 6, 3};
-            return themes.get(afternoonThemes[random.nextInt(afternoonThemes.length)]);
-        }
-        // 저녁 (18-21시): 학습전략(4), 커리어(9), 마인드셋(5)
-        else if (hour >= 18 && hour < 22) {
-            int[] eveningThemes = {4, 9, 5};
-            return themes.get(eveningThemes[random.nextInt(eveningThemes.length)]);
-        }
-        // 밤 (22-23시): 창의성(7), 마인드셋(5)
-        else if (hour >= 22 && hour < 24) {
-            int[] nightThemes = {7, 5};
-            return themes.get(nightThemes[random.nextInt(nightThemes.length)]);
+    private static ThemeProperties.Slot slot(int startHour, int endHour, String... themes) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String theme : themes) {
+            weights.put(theme, 1);
         }
-        // 새벽 (0-5시): 마인드셋(5), 창의성(7)
-        else {
-            int[] lateNightThemes = {5, 7};
-            return themes.get(lateNightThemes[random.nextInt(lateNightThemes.length)]);
-        }
-    }
-
-    /**
-     * 모든 테마 목록 조회
-     */
-    public List<ThemePrompt> getAllThemes() {
-        return new ArrayList<>(themes);
-    }
-
-    /**
-     * 커스텀 테마 추가
-     */
-    public void addTheme(String theme, String prompt) {
-        themes.add(new ThemePrompt(theme, prompt));
+        return new ThemeProperties.Slot(startHour, endHour, weights);
     }
 }
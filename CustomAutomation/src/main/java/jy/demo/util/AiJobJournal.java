@@ -0,0 +1,149 @@
+package jy.demo.util;
+
+import jakarta.annotation.PreDestroy;
+import jy.demo.dto.AiMessageJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI 메시지 작업 저널 (append-only 파일)
+ *
+ * 작업 상태가 바뀔 때마다 작업 스냅샷을 JSON 한 줄로 추가한다.
+ * 재시작 시 작업별 마지막 스냅샷을 읽어 끝나지 않은 작업을 복구하고,
+ * 끝난 작업이 쌓이면 남은 작업만으로 파일을 다시 쓴다(compaction).
+ */
+@Component
+public class AiJobJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiJobJournal.class);
+
+    private final Path path;
+    private final boolean fsync;
+    private final int compactThreshold;
+
+    // 끝나지 않은 작업의 마지막 스냅샷 (compaction 시 사용)
+    private final Map<String, AiMessageJob> liveJobs = new LinkedHashMap<>();
+    private FileChannel channel;
+    private int appendedLines;
+
+    public AiJobJournal(
+            @Value("${jobs.journal.path:data/ai-jobs.log}") String path,
+            @Value("${jobs.journal.fsync:true}") boolean fsync,
+            @Value("${jobs.journal.compact-threshold:1000}") int compactThreshold) {
+        this.path = Paths.get(path).toAbsolutePath();
+        this.fsync = fsync;
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * 저널을 읽어 끝나지 않은 작업을 반환하고 파일을 정리한다.
+     * 비정상 종료로 마지막 줄이 잘린 경우 해당 줄은 무시한다.
+     */
+    public synchronized List<AiMessageJob> recover() throws IOException {
+        liveJobs.clear();
+
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    AiMessageJob job = JsonUtil.MAPPER.readValue(line, AiMessageJob.class);
+                    if (job.isFinished()) {
+                        liveJobs.remove(job.getId());
+                    } else {
+                        liveJobs.put(job.getId(), job);
+                    }
+                } catch (IOException e) {
+                    logger.warn("손상된 작업 저널 항목을 건너뜁니다: {}", e.getMessage());
+                }
+            }
+        }
+
+        compact();
+        logger.info("작업 저널 복구 완료: 미완료 작업 {}건 ({})", liveJobs.size(), path);
+        return new ArrayList<>(liveJobs.values());
+    }
+
+    public synchronized void append(AiMessageJob job) {
+        if (job.isFinished()) {
+            liveJobs.remove(job.getId());
+        } else {
+            liveJobs.put(job.getId(), job);
+        }
+
+        try {
+            if (channel == null) {
+                openChannel();
+            }
+            writeLine(channel, job);
+            if (fsync) {
+                channel.force(false);
+            }
+            if (++appendedLines >= compactThreshold) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.error("작업 저널 기록 실패 (jobId={}): {}", job.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 미완료 작업만으로 파일을 원자적으로 다시 쓴다. (AtomicFiles)
+     * 교체 전에 추가용 채널을 닫아야 옛 파일(inode)에 이어 쓰지 않는다.
+     */
+    private void compact() throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (AiMessageJob job : liveJobs.values()) {
+            content.write(JsonUtil.MAPPER.writeValueAsBytes(job));
+            content.write('\n');
+        }
+
+        closeChannel();
+        AtomicFiles.write(path, content.toByteArray());
+        openChannel();
+        appendedLines = 0;
+    }
+
+    private void openChannel() throws IOException {
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void writeLine(FileChannel target, AiMessageJob job) throws IOException {
+        byte[] json = JsonUtil.MAPPER.writeValueAsBytes(job);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1);
+        buffer.put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        closeChannel();
+    }
+}
@@ -0,0 +1,38 @@
+package jy.demo.util;
+
+/**
+ * AI(Dalai) 응답 파싱 유틸
+ */
+public class AiResponseParser {
+
+    public static final String EMPTY_RESPONSE_MSG = "AI 응답을 받지 못했습니다.";
+    public static final String INVALID_RESPONSE_MSG = "AI가 유효한 응답을 생성하지 못했습니다.";
+
+    private AiResponseParser() {
+    }
+
+    /**
+     * AI 응답 파싱: "answer : " 프리픽스 제거 및 정제
+     */
+    public static String parse(String rawResponse) {
+        if (rawResponse == null || rawResponse.trim().isEmpty()) {
+            return EMPTY_RESPONSE_MSG;
+        }
+
+        // "answer : " 프리픽스 제거
+        String cleaned = rawResponse.trim();
+        if (cleaned.startsWith("answer :") || cleaned.startsWith("answer:")) {
+            cleaned = cleaned.replaceFirst("^answer\\s*:\\s*", "");
+        }
+
+        // <end> 태그 제거
+        cleaned = cleaned.replaceAll("<end>.*$", "").trim();
+
+        // 빈 응답 체크
+        if (cleaned.isEmpty()) {
+            return INVALID_RESPONSE_MSG;
+        }
+
+        return cleaned;
+    }
+}
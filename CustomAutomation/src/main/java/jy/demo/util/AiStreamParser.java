@@ -0,0 +1,84 @@
+package jy.demo.util;
+
+/**
+ * 스트리밍으로 들어오는 AI(Dalai) 응답을 조각 단위로 정제
+ * AiResponseParser와 같은 규칙("answer : " 프리픽스, <end> 이후 제거)을 조각이 나뉘어 도착해도 적용한다.
+ * 스레드 안전하지 않으므로 스트림 하나당 인스턴스 하나를 사용한다.
+ */
+public class AiStreamParser {
+
+    private static final String END_TAG = "<end>";
+    // 프리픽스 판단에 필요한 최대 길이 ("answer :" + 공백 여유)
+    private static final int PREFIX_WINDOW = 16;
+
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder content = new StringBuilder();
+    private boolean prefixHandled;
+    private boolean ended;
+
+    /**
+     * 조각을 받아 지금 클라이언트로 보낼 수 있는 텍스트를 반환 (없으면 빈 문자열)
+     */
+    public String accept(String chunk) {
+        if (ended || chunk == null || chunk.isEmpty()) {
+            return "";
+        }
+        pending.append(chunk);
+
+        if (!prefixHandled && !stripPrefix(false)) {
+            return "";
+        }
+
+        int endIndex = pending.indexOf(END_TAG);
+        if (endIndex >= 0) {
+            ended = true;
+            return emit(endIndex);
+        }
+        // "<end" 처럼 태그 일부가 잘려 들어왔을 수 있으므로 태그 길이만큼은 남겨둔다.
+        return emit(Math.max(0, pending.length() - (END_TAG.length() - 1)));
+    }
+
+    /**
+     * 스트림 종료 시 남은 텍스트를 반환
+     */
+    public String finish() {
+        if (ended) {
+            return "";
+        }
+        ended = true;
+        if (!prefixHandled) {
+            stripPrefix(true);
+        }
+        return emit(pending.length());
+    }
+
+    /**
+     * 정제된 전체 응답 (AiResponseParser.parse 결과와 동일한 규칙)
+     */
+    public String getContent() {
+        String cleaned = content.toString().trim();
+        if (cleaned.isEmpty()) {
+            return AiResponseParser.INVALID_RESPONSE_MSG;
+        }
+        return cleaned;
+    }
+
+    private boolean stripPrefix(boolean force) {
+        String head = pending.toString().stripLeading();
+        if (!force && head.length() < PREFIX_WINDOW && "answer :".startsWith(head.replaceAll("\\s+", " ").trim())) {
+            return false;
+        }
+        String stripped = head.replaceFirst("^answer\\s*:\\s*", "");
+        pending.setLength(0);
+        pending.append(stripped);
+        prefixHandled = true;
+        return true;
+    }
+
+    private String emit(int length) {
+        String text = pending.substring(0, length);
+        pending.delete(0, length);
+        content.append(text);
+        return text;
+    }
+}
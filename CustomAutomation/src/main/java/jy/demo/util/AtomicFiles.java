@@ -0,0 +1,49 @@
+package jy.demo.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 파일 원자적 저장
+ * 쓰는 도중 종료돼도 기존 파일은 그대로 남는다.
+ */
+public class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * 같은 디렉터리의 임시 파일에 기록하고 fsync 후 원자적으로 교체
+     */
+    public static void write(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(target.getParent());
+    }
+
+    /**
+     * rename 결과(디렉터리 엔트리)까지 디스크에 반영 (지원하지 않는 OS에서는 무시)
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows 등에서는 디렉터리를 열 수 없다
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package jy.demo.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * 파일 잠금 (같은 호스트에서 여러 프로세스를 띄울 때)
+ *
+ * 잠금마다 <dir>/<name>.lock 파일에 "owner\n만료시각(ms)"를 기록한다.
+ * 읽고 쓰는 동안에만 OS 파일 잠금(FileChannel.lock)을 잡으므로 프로세스가 죽어도 파일 잠금은 남지 않고,
+ * 기록된 만료 시각이 지나면 다른 프로세스가 잡을 수 있다.
+ */
+public class FileSchedulerLock implements SchedulerLock {
+
+    private final Path directory;
+
+    public FileSchedulerLock(Path directory) {
+        this.directory = directory.toAbsolutePath();
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(String name, String owner, Instant until) {
+        return update(name, (currentOwner, currentUntil) ->
+            currentOwner == null || currentUntil <= System.currentTimeMillis() || currentOwner.equals(owner),
+            owner, until);
+    }
+
+    @Override
+    public synchronized void release(String name, String owner, Instant until) {
+        update(name, (currentOwner, currentUntil) -> owner.equals(currentOwner), owner, until);
+    }
+
+    private boolean update(String name, Condition condition, String owner, Instant until) {
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(name + ".lock");
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 1024));
+                channel.read(buffer, 0);
+                String[] content = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).split("\n");
+
+                String currentOwner = content.length == 2 ? content[0] : null;
+                long currentUntil = content.length == 2 ? Long.parseLong(content[1].trim()) : 0;
+                if (!condition.test(currentOwner, currentUntil)) {
+                    return false;
+                }
+
+                byte[] updated = (owner + "\n" + until.toEpochMilli()).getBytes(StandardCharsets.UTF_8);
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(updated), 0);
+                channel.force(true);
+                return true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("잠금 파일 처리 실패: " + name, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean test(String currentOwner, long currentUntil);
+    }
+}
@@ -0,0 +1,89 @@
+package jy.demo.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 지연 시간 기울기로 동시 호출 한도를 조정 (TCP Vegas / gradient 방식)
+ *
+ * - 최근 지연(rtt)이 평소 지연(장기 EWMA)보다 tolerance배 이상 길어지면 서버에 대기열이 쌓인 것으로 보고 한도를 줄인다.
+ * - 지연이 평소 수준이면 한도에 sqrt(limit)만큼 여유를 더해 조금씩 늘린다.
+ * - 시간 초과/5xx 같은 과부하 신호는 backoffRatio만큼 바로 줄인다.
+ * - 한도의 절반도 쓰지 않는 동안은 서버 상태를 알 수 없으므로 한도를 바꾸지 않는다.
+ * - 평소 지연은 category(예: AI 모드)별로 따로 잰다. 웹 검색/에이전트처럼 원래 오래 걸리는 요청이
+ *   과부하로 오인되지 않도록.
+ */
+public class GradientLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final double longRttAlpha;
+    private final Map<String, Double> longRtts = new HashMap<>();
+
+    private double limit;
+
+    /**
+     * @param longWindow 평소 지연 EWMA에 반영할 표본 수 (클수록 천천히 따라감)
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit,
+            double smoothing, double tolerance, double backoffRatio, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.longRttAlpha = 2.0 / (longWindow + 1);
+        this.limit = clamp(initialLimit);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * 정상 응답 표본
+     *
+     * @param inFlight 요청을 시작할 때 진행 중이던 호출 수 (자신 포함)
+     */
+    public synchronized void onSample(String category, long rttNanos, int inFlight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        double longRtt = longRtts.merge(category, (double) rttNanos,
+            (previous, sample) -> previous + longRttAlpha * (sample - previous));
+
+        // 지연이 평소의 절반 이하로 떨어지면 평소 지연도 빨리 내린다. (서버가 회복된 뒤 한도가 계속 눌려 있지 않도록)
+        if (longRtt / rttNanos > 2) {
+            longRtts.put(category, longRtt * 0.95);
+        }
+
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    /**
+     * 과부하 신호 (시간 초과, 5xx 등)
+     */
+    public synchronized void onDropped() {
+        limit = clamp(limit * backoffRatio);
+    }
+
+    /**
+     * 가장 느린 category의 평소 지연 (표본이 없으면 0)
+     */
+    public synchronized long getMaxLongRttNanos() {
+        return longRtts.values().stream().mapToLong(Double::longValue).max().orElse(0);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,59 @@
+package jy.demo.util;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * DB 잠금 (여러 호스트에서 인스턴스를 띄울 때, H2 / PostgreSQL)
+ *
+ * scheduler_lock 테이블의 행 하나가 잠금 하나이다. 조건부 UPDATE(만료됐거나 내 잠금일 때만)로 잡고,
+ * 행이 없으면 INSERT한다. 동시에 INSERT하면 기본키 충돌로 한쪽만 성공한다.
+ * 만료 판단은 각 노드의 시계를 쓰므로 노드 간 시계 차이는 lease 시간보다 충분히 작아야 한다.
+ */
+public class JdbcSchedulerLock implements SchedulerLock {
+
+    private static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS scheduler_lock ("
+            + " name VARCHAR(64) NOT NULL PRIMARY KEY,"
+            + " lock_until TIMESTAMP NOT NULL,"
+            + " locked_at TIMESTAMP NOT NULL,"
+            + " locked_by VARCHAR(255) NOT NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcSchedulerLock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public boolean tryAcquire(String name, String owner, Instant until) {
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp lockUntil = Timestamp.from(until);
+
+        int updated = jdbcTemplate.update(
+            "UPDATE scheduler_lock SET lock_until = ?, locked_at = ?, locked_by = ?"
+                + " WHERE name = ? AND (lock_until <= ? OR locked_by = ?)",
+            lockUntil, now, owner, name, now, owner);
+        if (updated > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(
+                "INSERT INTO scheduler_lock (name, lock_until, locked_at, locked_by) VALUES (?, ?, ?, ?)",
+                name, lockUntil, now, owner) > 0;
+        } catch (DuplicateKeyException e) {
+            // 다른 노드가 잡고 있음
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String name, String owner, Instant until) {
+        jdbcTemplate.update("UPDATE scheduler_lock SET lock_until = ? WHERE name = ? AND locked_by = ?",
+            Timestamp.from(until), name, owner);
+    }
+}
@@ -1,79 +1,297 @@
 package jy.demo.util;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
-import com.google.gson.FieldNamingPolicy;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import jy.demo.dto.JsonConvertible;
+import jy.demo.dto.KakaoListMsgDto;
+import jy.demo.dto.KakaoMsgDto;
 
+/**
+ * JSON 직렬화/역직렬화 유틸 (Jackson 단일 라이브러리)
+ *
+ * - 직렬화: DTO 필드를 스네이크 케이스로 바로 기록 (null 필드 제외)
+ * - form 본문: DTO -> Map -> JSON 문자열 -> Map 왕복 없이 한 번에 url-encoded 문자열로 기록
+ * - 응답 읽기: 스트리밍 파서로 필요한 필드까지만 읽고 나머지는 건너뛴다
+ */
 @Component
 public class JsonUtil {
-    static Gson gson = new GsonBuilder()
-            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-            .create();
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            // getter 유무와 상관없이 필드 기준으로 직렬화 (JsonConvertible 규약)
+            .setVisibility(PropertyAccessor.ALL, Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, Visibility.ANY)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
 
     public static String toJson(JsonConvertible dto) {
-        return gson.toJson(dto);
+        return write(dto);
     }
 
     public static String toJson(Map<String, Object> map) {
-        return gson.toJson(map);
+        return write(map);
+    }
+
+    /**
+     * UTF-8 바이트로 바로 직렬화 (중간 String 생성 없음)
+     * Jackson이 스레드별 버퍼(BufferRecycler)를 재사용하므로 호출마다 큰 버퍼를 새로 할당하지 않는다.
+     */
+    public static byte[] toJsonBytes(Object value) {
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 중간 Map/트리 없이 JsonGenerator로 직접 UTF-8 바이트를 기록 (페이로드 구조가 고정된 경우)
+     */
+    public static byte[] toJsonBytes(JsonWriter writer) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder()) {
+            try (JsonGenerator generator = MAPPER.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+                writer.write(generator);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
     }
 
     /**
      * JsonConvertible 객체를 JSON 문자열로 변환한 후 URL 인코딩을 수행하는 메서드입니다.
-     * 
-     * 1. 입력받은 dto 객체를 gson을 사용하여 JSON 문자열로 변환합니다.
-     * 2. 변환된 JSON 문자열을 UTF-8 인코딩으로 URL 인코딩합니다.
-     * 3. URL에서 안전하게 전송할 수 있는 형식의 문자열을 반환합니다.
-     * 
+     *
      * @param dto JSON으로 변환 가능한 객체
      * @return URL 인코딩된 JSON 문자열
-     * @throws RuntimeException UTF-8 인코딩이 지원되지 않을 경우 발생 (실제로는 거의 발생하지 않음)
      */
     public static String toEncodedUrl(JsonConvertible dto) {
-        return toEncodedUrl(gson.toJson(dto));
+        return toEncodedUrl(write(dto));
     }
 
     public static String toEncodedUrl(String json) {
-        try {
-            return URLEncoder.encode(json, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            // TODO 사용자 예외 클래스 정의하기
-            throw new RuntimeException(e);
-        }
+        return URLEncoder.encode(json, StandardCharsets.UTF_8);
     }
 
     public static Map<String, Object> toMap(String json) {
-        return gson.fromJson(json, new TypeToken<Map<String, Object>>() {}.getType());
+        try {
+            return MAPPER.readValue(json, MAP_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     public static Map<String, Object> toMap(JsonConvertible dto) {
-        String json = gson.toJson(dto);
-        return toMap(json);
+        return MAPPER.convertValue(dto, MAP_TYPE);
+    }
+
+    public static <T> T fromJson(String json, Class<T> type) {
+        try {
+            return MAPPER.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 객체를 application/x-www-form-urlencoded 본문으로 기록
+     * 최상위 필드는 key=value로, 중첩 객체/배열은 JSON 문자열 값으로 기록한다. (null 필드 제외)
+     * 직렬화 결과를 TokenBuffer에 담아 토큰 단위로 바로 form 문자열을 만든다.
+     */
+    public static String toFormBody(Object value) {
+        try (TokenBuffer buffer = new TokenBuffer(MAPPER, false)) {
+            MAPPER.writeValue(buffer, value);
+            try (JsonParser parser = buffer.asParser()) {
+                return writeForm(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * JSON 객체 문자열을 form 본문으로 변환 (Map 변환 없이 토큰 단위 처리)
+     */
+    public static String toFormBody(String json) {
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            return writeForm(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 최상위 필드 중 지정한 필드의 값만 읽는다. 찾는 필드를 모두 읽으면 나머지 문서는 파싱하지 않는다.
+     * 숫자는 원본 표기 그대로 반환된다. (예: result_code -> "0")
+     */
+    public static Map<String, String> readFields(String json, String... names) {
+        List<String> wanted = Arrays.asList(names);
+        Map<String, String> values = new HashMap<>();
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return values;
+            }
+            while (values.size() < wanted.size() && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (wanted.contains(name) && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                    values.put(name, parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return values;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 경로의 스칼라 값만 읽고 나머지는 건너뛴다. 배열 인덱스는 숫자 문자열로 지정한다.
+     * 예: readPath(reader, "choices", "0", "message", "content")
+     *
+     * @return 값이 없거나 null이면 null
+     */
+    public static String readPath(Reader reader, String... path) {
+        try (JsonParser parser = MAPPER.createParser(reader)) {
+            return readPath(parser, path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String readPath(String json, String... path) {
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            return readPath(parser, path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String readPath(JsonParser parser, String[] path) throws IOException {
+        parser.nextToken();
+        for (String segment : path) {
+            if (!moveTo(parser, segment)) {
+                return null;
+            }
+        }
+        JsonToken token = parser.currentToken();
+        return token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL ? parser.getText() : null;
+    }
+
+    /**
+     * 현재 객체/배열에서 segment에 해당하는 값의 시작 토큰으로 이동
+     */
+    private static boolean moveTo(JsonParser parser, String segment) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if (segment.equals(name)) {
+                    return true;
+                }
+                parser.skipChildren();
+            }
+            return false;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            int index = Integer.parseInt(segment);
+            for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+                if (i == index) {
+                    return true;
+                }
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private static String writeForm(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("form 본문은 JSON 객체여야 합니다.");
+        }
+        StringBuilder form = new StringBuilder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            String value = token.isStructStart() ? copyStructure(parser) : parser.getText();
+            if (form.length() > 0) {
+                form.append('&');
+            }
+            form.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+        return form.toString();
+    }
+
+    private static String copyStructure(JsonParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+
+    private static String write(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     public String createKakaoSendMsgJson(String text) {
-        Map<String, Object> msg = Map.of(
-            "template_object", Map.of(
-            "object_type", "text",
-            "text", text,
-            "link", Map.of(
-                "web_url", "https://developers.kakao.com",
-                "mobile_web_url", "https://developers.kakao.com"
-            ),
-            "button_title", "바로 확인"
-            )
-        );
-
-        return gson.toJson(msg);
-    }   
+        return write(Map.of("template_object", new KakaoMsgDto(text)));
+    }
+
+    /**
+     * 카카오 나에게 보내기 form 본문 (template_object=<JSON>)
+     */
+    public String createKakaoSendMsgForm(String text) {
+        return toFormBody(Map.of("template_object", new KakaoMsgDto(text)));
+    }
+
+    /**
+     * 카카오 나에게 보내기 리스트 템플릿 form 본문
+     */
+    public String createKakaoSendListForm(KakaoListMsgDto list) {
+        return toFormBody(Map.of("template_object", list));
+    }
 
 }
@@ -1,5 +1,7 @@
 package jy.demo.util;
 
+import java.util.Map;
+
 public class KakaoConstants {
     public static final String OAUTH_GRANT_TYPE = "authorization_code";
     public static final String OAUTH_SCOPE = "profile";
@@ -18,7 +20,12 @@ public class KakaoConstants {
     public static final String PARAM_GRANT_TYPE = "grant_type";
     
     public static final String MSG_OBJECT_TYPE = "text";
+    public static final String MSG_LIST_OBJECT_TYPE = "list";
     public static final String MSG_LINK_WEB_URL = "https://developers.kakao.com";
     public static final String MSG_LINK_MOBILE_WEB_URL = "https://developers.kakao.com";
     public static final String MSG_BUTTON_TITLE = "바로 확인";
+    public static final Map<String, String> MSG_LINK = Map.of(
+        "web_url", MSG_LINK_WEB_URL,
+        "mobile_web_url", MSG_LINK_MOBILE_WEB_URL
+    );
 } 
\ No newline at end of file
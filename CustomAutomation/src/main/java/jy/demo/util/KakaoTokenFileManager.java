@@ -1,47 +1,86 @@
 package jy.demo.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jy.demo.dto.KakaoTokenDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+/**
+ * 카카오 토큰 파일 저장소
+ *
+ * - 저장: 임시 파일에 기록 + fsync 후 원자적 rename (쓰는 도중 종료돼도 기존 파일은 그대로)
+ * - 조회: 파싱한 토큰을 메모리에 보관하고 파일은 다시 읽지 않는다
+ * - 외부 변경: WatchService로 토큰 파일을 감시해 갱신 스크립트가 쓴 토큰을 바로 반영하고 리스너에 알린다
+ * - 이력: 최근 history-size개의 버전을 <파일명>.history에 보관하고 rollback으로 되돌린다
+ *
+ * 파일은 한 줄짜리 JSON으로 저장한다. (scripts/kakao-token-refresh.sh 가 grep으로 읽음)
+ * 키 이름은 KakaoTokenDto의 @JsonProperty로 고정되어 있고, 값이 없는 필드는 기록하지 않는다. (JsonUtil.MAPPER)
+ */
 @Component
 public class KakaoTokenFileManager {
     private static final Logger logger = LoggerFactory.getLogger(KakaoTokenFileManager.class);
-    private static final String TOKEN_FILE_PATH = "kakao-tokens.json";
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
-    /**
-     * 토큰 파일에서 토큰을 로드합니다.
-     */
-    public KakaoTokenDto loadToken() {
-        File tokenFile = new File(TOKEN_FILE_PATH);
+    private static final TypeReference<List<KakaoTokenDto>> HISTORY_TYPE = new TypeReference<>() {};
 
-        if (!tokenFile.exists()) {
-            logger.info("카카오 토큰 파일이 존재하지 않습니다: {}", TOKEN_FILE_PATH);
-            return null;
-        }
+    private final Path path;
+    private final Path historyPath;
+    private final int historySize;
 
-        try {
-            KakaoTokenDto token = objectMapper.readValue(tokenFile, KakaoTokenDto.class);
+    // 마지막으로 읽거나 쓴 토큰 (없으면 null)
+    private volatile KakaoTokenDto cached;
+    // 최신 버전이 마지막
+    private final List<KakaoTokenDto> history = new ArrayList<>();
+    private final List<Consumer<KakaoTokenDto>> listeners = new CopyOnWriteArrayList<>();
+    private WatchService watchService;
 
-            if (token != null && token.getAccessToken() != null && !token.getAccessToken().isEmpty()) {
-                logger.info("카카오 토큰을 파일에서 로드했습니다.");
-                return token;
-            } else {
-                logger.warn("카카오 토큰 파일이 비어있거나 유효하지 않습니다.");
-                return null;
-            }
-        } catch (IOException e) {
-            logger.error("카카오 토큰 파일 읽기 실패: {}", e.getMessage());
-            return null;
+    public KakaoTokenFileManager(
+            @Value("${kakao.token.file:kakao-tokens.json}") String path,
+            @Value("${kakao.token.history-size:5}") int historySize) {
+        this.path = Paths.get(path).toAbsolutePath();
+        this.historyPath = this.path.resolveSibling(this.path.getFileName() + ".history");
+        this.historySize = historySize;
+    }
+
+    @PostConstruct
+    public void init() {
+        synchronized (this) {
+            loadHistory();
+            cached = readTokenFile();
         }
+        startWatcher();
+    }
+
+    /**
+     * 메모리에 보관 중인 토큰을 반환합니다. (파일을 다시 읽지 않음)
+     */
+    public KakaoTokenDto loadToken() {
+        KakaoTokenDto token = cached;
+        if (token == null) {
+            logger.info("카카오 토큰이 없습니다: {}", path);
+        }
+        return token;
     }
 
     /**
@@ -51,18 +90,21 @@ public class KakaoTokenFileManager {
         KakaoTokenDto token = new KakaoTokenDto();
         token.setAccessToken(accessToken);
         token.setRefreshToken(refreshToken);
-        token.setUpdatedAt(java.time.Instant.now().toString());
+        token.setUpdatedAt(Instant.now().toString());
 
         return saveToken(token);
     }
 
     /**
-     * 토큰 객체를 파일에 저장합니다.
+     * 토큰 객체를 새 버전으로 파일에 저장합니다.
      */
-    public boolean saveToken(KakaoTokenDto token) {
+    public synchronized boolean saveToken(KakaoTokenDto token) {
+        token.setVersion(nextVersion());
         try {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(TOKEN_FILE_PATH), token);
-            logger.info("카카오 토큰을 파일에 저장했습니다: {}", TOKEN_FILE_PATH);
+            AtomicFiles.write(path, JsonUtil.MAPPER.writeValueAsBytes(token));
+            cached = token;
+            record(token);
+            logger.info("카카오 토큰을 파일에 저장했습니다: {} (version={})", path, token.getVersion());
             return true;
         } catch (IOException e) {
             logger.error("카카오 토큰 파일 저장 실패: {}", e.getMessage());
@@ -70,19 +112,69 @@ public class KakaoTokenFileManager {
         }
     }
 
+    /**
+     * 저장된 토큰 버전 목록 (최신 버전이 마지막)
+     */
+    public synchronized List<KakaoTokenDto> getHistory() {
+        return List.copyOf(history);
+    }
+
+    /**
+     * 지정한 버전의 토큰을 새 버전으로 다시 저장하고 리스너에 알립니다.
+     */
+    public boolean rollback(long version) {
+        KakaoTokenDto restored;
+        synchronized (this) {
+            KakaoTokenDto target = history.stream()
+                .filter(token -> Objects.equals(token.getVersion(), version))
+                .findFirst()
+                .orElse(null);
+            if (target == null) {
+                logger.warn("롤백할 카카오 토큰 버전이 없습니다: {}", version);
+                return false;
+            }
+            restored = copy(target);
+            if (!saveToken(restored)) {
+                return false;
+            }
+        }
+        logger.info("카카오 토큰을 version={} 으로 롤백했습니다.", version);
+        notifyListeners(restored);
+        return true;
+    }
+
+    /**
+     * 직전 버전으로 롤백합니다.
+     */
+    public boolean rollback() {
+        Long previous;
+        synchronized (this) {
+            previous = history.size() < 2 ? null : history.get(history.size() - 2).getVersion();
+        }
+        return previous != null && rollback(previous);
+    }
+
+    /**
+     * 외부 변경(갱신 스크립트) 또는 롤백으로 토큰이 바뀌면 호출됩니다.
+     */
+    public void addListener(Consumer<KakaoTokenDto> listener) {
+        listeners.add(listener);
+    }
+
     /**
      * 토큰 파일이 존재하는지 확인합니다.
      */
     public boolean tokenFileExists() {
-        return Files.exists(Paths.get(TOKEN_FILE_PATH));
+        return Files.exists(path);
     }
 
     /**
-     * 토큰 파일을 삭제합니다.
+     * 토큰 파일을 삭제합니다. (이력은 유지)
      */
-    public boolean deleteToken() {
+    public synchronized boolean deleteToken() {
         try {
-            Files.deleteIfExists(Paths.get(TOKEN_FILE_PATH));
+            Files.deleteIfExists(path);
+            cached = null;
             logger.info("카카오 토큰 파일을 삭제했습니다.");
             return true;
         } catch (IOException e) {
@@ -90,4 +182,138 @@ public class KakaoTokenFileManager {
             return false;
         }
     }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private KakaoTokenDto readTokenFile() {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            KakaoTokenDto token = JsonUtil.MAPPER.readValue(path.toFile(), KakaoTokenDto.class);
+            if (token == null || token.getAccessToken() == null || token.getAccessToken().isEmpty()) {
+                logger.warn("카카오 토큰 파일이 비어있거나 유효하지 않습니다.");
+                return null;
+            }
+            return token;
+        } catch (IOException e) {
+            // 외부 스크립트가 쓰는 도중일 수 있다. 다음 변경 이벤트에서 다시 읽는다.
+            logger.warn("카카오 토큰 파일 읽기 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 토큰 파일 변경 감시 (폴링 없이 디렉터리 이벤트 대기)
+     */
+    private void startWatcher() {
+        try {
+            Files.createDirectories(path.getParent());
+            watchService = FileSystems.getDefault().newWatchService();
+            path.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.warn("카카오 토큰 파일 감시를 시작하지 못했습니다: {}", e.getMessage());
+            return;
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("kakao-token-watch-");
+        threadFactory.setDaemon(true);
+        threadFactory.newThread(this::watch).start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (path.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    onFileChanged();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 종료
+        }
+    }
+
+    private void onFileChanged() {
+        KakaoTokenDto changed;
+        synchronized (this) {
+            KakaoTokenDto token = readTokenFile();
+            KakaoTokenDto current = cached;
+            // 직접 저장한 파일이거나 같은 토큰이면 무시
+            if (token == null || (current != null && Objects.equals(token.getAccessToken(), current.getAccessToken()))) {
+                return;
+            }
+            token.setVersion(nextVersion());
+            cached = token;
+            record(token);
+            changed = token;
+        }
+        logger.info("외부에서 변경된 카카오 토큰을 반영했습니다. (version={})", changed.getVersion());
+        notifyListeners(changed);
+    }
+
+    private void notifyListeners(KakaoTokenDto token) {
+        for (Consumer<KakaoTokenDto> listener : listeners) {
+            try {
+                listener.accept(token);
+            } catch (Exception e) {
+                logger.error("카카오 토큰 변경 리스너 실패: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private long nextVersion() {
+        return history.isEmpty() ? 1 : history.get(history.size() - 1).getVersion() + 1;
+    }
+
+    private void record(KakaoTokenDto token) {
+        history.add(copy(token));
+        while (history.size() > historySize) {
+            history.remove(0);
+        }
+        try {
+            AtomicFiles.write(historyPath, JsonUtil.MAPPER.writeValueAsBytes(history));
+        } catch (IOException e) {
+            logger.warn("카카오 토큰 이력 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private void loadHistory() {
+        if (!Files.exists(historyPath)) {
+            return;
+        }
+        try {
+            history.addAll(JsonUtil.MAPPER.readValue(historyPath.toFile(), HISTORY_TYPE));
+        } catch (IOException e) {
+            logger.warn("카카오 토큰 이력 파일을 읽지 못했습니다: {}", e.getMessage());
+        }
+    }
+
+    private static KakaoTokenDto copy(KakaoTokenDto source) {
+        KakaoTokenDto copy = new KakaoTokenDto();
+        copy.setAccessToken(source.getAccessToken());
+        copy.setRefreshToken(source.getRefreshToken());
+        copy.setExpiresIn(source.getExpiresIn());
+        copy.setRefreshTokenExpiresIn(source.getRefreshTokenExpiresIn());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
 }
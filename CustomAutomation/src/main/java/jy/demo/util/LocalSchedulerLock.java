@@ -0,0 +1,38 @@
+package jy.demo.util;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프로세스 내 잠금 (인스턴스를 하나만 띄울 때)
+ */
+public class LocalSchedulerLock implements SchedulerLock {
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryAcquire(String name, String owner, Instant until) {
+        Instant now = Instant.now();
+        Lease acquired = leases.compute(name, (key, current) ->
+            current == null || !current.until.isAfter(now) || current.owner.equals(owner)
+                ? new Lease(owner, until)
+                : current);
+        return acquired.owner.equals(owner);
+    }
+
+    @Override
+    public void release(String name, String owner, Instant until) {
+        leases.computeIfPresent(name, (key, current) -> current.owner.equals(owner) ? new Lease(owner, until) : current);
+    }
+
+    private static final class Lease {
+        private final String owner;
+        private final Instant until;
+
+        private Lease(String owner, Instant until) {
+            this.owner = owner;
+            this.until = until;
+        }
+    }
+}
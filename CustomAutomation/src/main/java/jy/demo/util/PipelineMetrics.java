@@ -0,0 +1,95 @@
+package jy.demo.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jy.demo.api.AiMode;
+import jy.demo.dto.DeliveryResult;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 프롬프트 -> AI 응답 -> 파싱 -> 채널 전송 파이프라인 메트릭 (/actuator/prometheus)
+ *
+ * - pipeline.theme.selection: 테마 선택 소요시간
+ * - pipeline.ai.call{mode, outcome}: Dalai 호출 소요시간 (캐시 적중 제외)
+ * - pipeline.parse: 응답 파싱 소요시간
+ * - pipeline.delivery{channel, status}: 채널별 전송 소요시간
+ * - pipeline.delivery.result{channel, status}: 채널별 성공/실패/타임아웃 횟수
+ * - pipeline.theme.delivery{theme, channel, status}: 테마별 전송 결과 횟수
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_TIMEOUT = "timeout";
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void recordThemeSelection(Timer.Sample sample) {
+        sample.stop(Timer.builder("pipeline.theme.selection")
+            .description("테마 선택 소요시간")
+            .register(registry));
+    }
+
+    public void recordAiCall(Timer.Sample sample, AiMode mode, String outcome) {
+        sample.stop(Timer.builder("pipeline.ai.call")
+            .description("Dalai 호출 소요시간")
+            .tag("mode", mode.name())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+
+    public void recordParse(Timer.Sample sample) {
+        sample.stop(Timer.builder("pipeline.parse")
+            .description("AI 응답 파싱 소요시간")
+            .register(registry));
+    }
+
+    public void recordDelivery(DeliveryResult result) {
+        Timer.builder("pipeline.delivery")
+            .description("채널별 메시지 전송 소요시간")
+            .tag("channel", result.getChannel())
+            .tag("status", result.getStatus().name())
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(result.getElapsedMs(), TimeUnit.MILLISECONDS);
+        registry.counter("pipeline.delivery.result",
+            "channel", result.getChannel(),
+            "status", result.getStatus().name()).increment();
+    }
+
+    public void recordThemeDelivery(String theme, DeliveryResult result) {
+        registry.counter("pipeline.theme.delivery",
+            "theme", theme == null ? "none" : theme,
+            "channel", result.getChannel(),
+            "status", result.getStatus().name()).increment();
+    }
+
+    /**
+     * 예외를 outcome 태그 값으로 변환
+     */
+    public static String outcomeOf(Throwable error) {
+        if (error == null) {
+            return OUTCOME_SUCCESS;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return OUTCOME_TIMEOUT;
+            }
+        }
+        return OUTCOME_ERROR;
+    }
+}
@@ -0,0 +1,67 @@
+package jy.demo.util;
+
+/**
+ * 재시도 예산
+ *
+ * 재시도는 잔액이 1 이상일 때만 허용하고 1씩 차감한다.
+ * 잔액은 호출마다 ratio만큼, 그리고 시간이 지나면 분당 refillPerMinute만큼 채워진다. (최대 maxBalance)
+ * 장애 시 모든 요청이 재시도되어 부하가 몇 배로 불어나는 것(retry storm)을 막는다.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxBalance;
+    private final double refillPerNano;
+
+    private double balance;
+    private long lastRefill;
+
+    public RetryBudget(double ratio, int maxBalance, double refillPerMinute) {
+        this.ratio = ratio;
+        this.maxBalance = maxBalance;
+        this.refillPerNano = refillPerMinute / 60_000_000_000d;
+        this.balance = maxBalance;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * 첫 시도마다 호출
+     */
+    public synchronized void deposit() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    public synchronized boolean hasBalance() {
+        refill();
+        return balance >= 1;
+    }
+
+    /**
+     * 재시도가 확정된 뒤 1회분 차감 (hasBalance 확인과 동시에 들어온 재시도로 잠시 1 미만이 될 수 있음, 0 아래로는 내려가지 않음)
+     */
+    public synchronized void withdraw() {
+        refill();
+        balance = Math.max(0, balance - 1);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    public synchronized double getBalance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        balance = Math.min(maxBalance, balance + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
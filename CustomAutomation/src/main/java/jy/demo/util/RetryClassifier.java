@@ -0,0 +1,71 @@
+package jy.demo.util;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jy.demo.api.DalaiOverloadedException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 재시도 가능 여부 판정
+ *
+ * - 재시도: 타임아웃, 연결 오류(I/O), 5xx, 429, 벌크헤드 포화, Dalai 대기열 포화
+ * - 재시도 안 함: 4xx(잘못된 요청, 토큰 만료 등), 서킷 OPEN, 그 외 예외
+ */
+public class RetryClassifier {
+
+    private RetryClassifier() {
+    }
+
+    public static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            Boolean decided = classify(cause);
+            if (decided != null) {
+                return decided;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 판단할 수 없으면 null (원인 예외를 계속 확인)
+     */
+    private static Boolean classify(Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            return false;
+        }
+        if (error instanceof BulkheadFullException
+                || error instanceof DalaiOverloadedException
+                || error instanceof TimeoutException
+                || error instanceof IOException
+                || error instanceof ResourceAccessException
+                || error instanceof WebClientRequestException
+                || error instanceof RetryableException) {
+            return true;
+        }
+        if (error instanceof WebClientResponseException webClientError) {
+            return isRetryableStatus(webClientError.getStatusCode().value());
+        }
+        if (error instanceof RestClientResponseException restError) {
+            return isRetryableStatus(restError.getStatusCode().value());
+        }
+        if (error instanceof FeignException feignError && feignError.status() > 0) {
+            return isRetryableStatus(feignError.status());
+        }
+        return null;
+    }
+
+    public static boolean isRetryableStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,87 @@
+package jy.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * 최근 N건의 응답 시간/성공 여부 (링 버퍼)
+ * N이 작으므로 백분위는 조회할 때 정렬해서 계산한다.
+ * maxAgeMs보다 오래된 표본은 조회에서 빠진다. (트래픽이 끊긴 백엔드의 옛 실패가 영원히 남지 않도록)
+ * 시간은 System.currentTimeMillis() 기준 값을 받는다.
+ */
+public class RollingStats {
+
+    private final long[] latencies;
+    private final boolean[] failures;
+    private final long[] recordedAt;
+    private final long maxAgeMs;
+    private int next;
+    private int count;
+
+    /**
+     * @param maxAgeMs 표본 유효 시간 (0 이하면 만료 없음)
+     */
+    public RollingStats(int window, long maxAgeMs) {
+        this.latencies = new long[Math.max(1, window)];
+        this.failures = new boolean[latencies.length];
+        this.recordedAt = new long[latencies.length];
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    public synchronized void record(long latencyMs, boolean failed, long nowMs) {
+        latencies[next] = latencyMs;
+        failures[next] = failed;
+        recordedAt[next] = nowMs;
+        next = (next + 1) % latencies.length;
+        count = Math.min(count + 1, latencies.length);
+    }
+
+    public synchronized int count(long nowMs) {
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLive(i, nowMs)) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    public synchronized double errorRate(long nowMs) {
+        int live = 0;
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLive(i, nowMs)) {
+                live++;
+                if (failures[i]) {
+                    failed++;
+                }
+            }
+        }
+        return live == 0 ? 0 : (double) failed / live;
+    }
+
+    /**
+     * 응답 시간 백분위 (표본이 없으면 0)
+     * 실패한 호출도 실패까지 걸린 시간으로 넣는다. (시간 초과로 실패한 백엔드가 빠르게 보이지 않도록)
+     *
+     * @param percentile 0~1 (예: 0.9)
+     */
+    public synchronized long latencyPercentile(double percentile, long nowMs) {
+        long[] live = new long[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLive(i, nowMs)) {
+                live[size++] = latencies[i];
+            }
+        }
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(live, 0, size);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return live[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    private boolean isLive(int index, long nowMs) {
+        return maxAgeMs <= 0 || nowMs - recordedAt[index] <= maxAgeMs;
+    }
+}
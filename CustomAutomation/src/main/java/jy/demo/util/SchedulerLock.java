@@ -0,0 +1,24 @@
+package jy.demo.util;
+
+import java.time.Instant;
+
+/**
+ * 이름 단위 잠금(lease) 저장소
+ * 잠금은 만료 시각(until)까지 유효하며, 잡은 노드가 죽어도 만료 시각이 지나면 다른 노드가 잡을 수 있다.
+ *
+ * 구현: LocalSchedulerLock(단일 인스턴스), FileSchedulerLock(한 호스트의 여러 프로세스), JdbcSchedulerLock(여러 호스트)
+ */
+public interface SchedulerLock {
+
+    /**
+     * 잠금이 없거나, 만료됐거나, 이미 owner가 잡고 있으면 until까지 owner로 잡는다.
+     *
+     * @return 잡았으면 true
+     */
+    boolean tryAcquire(String name, String owner, Instant until);
+
+    /**
+     * owner가 잡고 있는 잠금의 만료 시각을 until로 바꾼다. (바로 풀려면 현재 시각)
+     */
+    void release(String name, String owner, Instant until);
+}
@@ -0,0 +1,101 @@
+package jy.demo.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키의 요청이 진행 중이면 새로 호출하지 않고 먼저 시작한 호출의 결과를 함께 받는다. (single-flight)
+ *
+ * - 진행 중인 호출만 공유한다. 완료되면 바로 표에서 빠지므로 결과 보관은 캐시(AiResponseCache)가 담당한다.
+ * - 실패도 그 시점에 기다리던 호출자 모두에게 전달된다. 다음 요청은 새로 호출한다.
+ * - 호출자마다 복사한 future를 돌려주므로 한 호출자가 취소하거나 시간 초과로 포기해도 다른 호출자에게 영향이 없다.
+ *
+ * 메트릭: singleflight.calls{name, result=leader|joined}, singleflight.inflight{name}
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCounter;
+    private final Counter joinedCounter;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaderCounter = meterRegistry.counter("singleflight.calls", "name", name, "result", "leader");
+        this.joinedCounter = meterRegistry.counter("singleflight.calls", "name", name, "result", "joined");
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+            .description("진행 중인 고유 요청 수")
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 비동기 호출: 진행 중인 같은 키가 있으면 그 결과를, 없으면 loader를 호출한다.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joinedCounter.increment();
+            return existing.copy();
+        }
+
+        leaderCounter.increment();
+        try {
+            loader.get().whenComplete((value, error) -> land(key, flight, value, error));
+        } catch (RuntimeException e) {
+            land(key, flight, null, e);
+        }
+        return flight.copy();
+    }
+
+    /**
+     * 동기 호출: 처음 온 스레드가 직접 호출하고, 같은 키로 온 다른 스레드는 그 결과를 기다린다.
+     */
+    public V call(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joinedCounter.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        leaderCounter.increment();
+        V value = null;
+        Throwable error = null;
+        try {
+            value = loader.get();
+            return value;
+        } catch (RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            land(key, flight, value, error);
+        }
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * 표에서 먼저 빼고 완료시킨다. (완료 후 들어온 요청이 끝난 호출에 붙지 않도록)
+     */
+    private void land(K key, CompletableFuture<V> flight, V value, Throwable error) {
+        inFlight.remove(key, flight);
+        if (error != null) {
+            flight.completeExceptionally(error);
+        } else {
+            flight.complete(value);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package jy.demo.util;
+
+import java.time.LocalDate;
+
+/**
+ * 토큰 버킷 (예약 방식)
+ *
+ * 토큰이 없으면 실패하는 대신 음수로 예약하고, 예약한 토큰이 채워질 때까지의 대기시간을 돌려준다.
+ * 호출자는 그 시간만큼 기다렸다가 보내면 되므로 순서대로 허용량만큼씩 나간다.
+ * 시간은 System.nanoTime() 기준 값을 받는다.
+ */
+public class TokenBucket {
+
+    public static final long REJECTED = -1;
+
+    private final double capacity;
+    private final double nanosPerToken;
+    private final long dailyQuota;
+
+    private double tokens;
+    // 이 시각부터 토큰이 다시 채워진다 (Retry-After 동안은 미래 시각)
+    private long refillFrom;
+    private LocalDate day;
+    private long usedToday;
+
+    public TokenBucket(int capacity, double refillPerSecond, long dailyQuota, long nowNanos) {
+        this.capacity = capacity;
+        this.nanosPerToken = 1_000_000_000d / refillPerSecond;
+        this.dailyQuota = dailyQuota;
+        this.tokens = capacity;
+        this.refillFrom = nowNanos;
+    }
+
+    /**
+     * 토큰 한 개를 예약하고 보내기 전까지 기다려야 하는 시간(ns)을 반환
+     *
+     * @return 일일 쿼터를 다 썼거나 대기시간이 maxWaitNanos를 넘으면 REJECTED (예약하지 않음)
+     */
+    public synchronized long reserve(long nowNanos, LocalDate today, long maxWaitNanos) {
+        rollDay(today);
+        if (dailyQuota > 0 && usedToday >= dailyQuota) {
+            return REJECTED;
+        }
+        refill(nowNanos);
+
+        long wait = waitNanos(nowNanos, tokens - 1);
+        if (wait > maxWaitNanos) {
+            return REJECTED;
+        }
+        tokens -= 1;
+        usedToday++;
+        return wait;
+    }
+
+    /**
+     * Retry-After: untilNanos까지 토큰을 채우지 않는다.
+     * 이미 예약된 대기열은 유지하고, 새 요청은 untilNanos 이후로 밀린다.
+     */
+    public synchronized void pauseUntil(long nowNanos, long untilNanos) {
+        refill(nowNanos);
+        tokens = Math.min(tokens, 1);
+        refillFrom = Math.max(refillFrom, untilNanos);
+    }
+
+    public synchronized double available(long nowNanos) {
+        refill(nowNanos);
+        return Math.max(0, nowNanos < refillFrom ? 0 : tokens);
+    }
+
+    /**
+     * 오늘 남은 쿼터 (쿼터가 없으면 -1)
+     */
+    public synchronized long remainingToday(LocalDate today) {
+        if (dailyQuota <= 0) {
+            return -1;
+        }
+        rollDay(today);
+        return dailyQuota - usedToday;
+    }
+
+    private void refill(long nowNanos) {
+        if (nowNanos > refillFrom) {
+            tokens = Math.min(capacity, tokens + (nowNanos - refillFrom) / nanosPerToken);
+            refillFrom = nowNanos;
+        }
+    }
+
+    private long waitNanos(long nowNanos, double tokensAfter) {
+        long paused = Math.max(0, refillFrom - nowNanos);
+        return paused + (tokensAfter < 0 ? (long) Math.ceil(-tokensAfter * nanosPerToken) : 0);
+    }
+
+    private void rollDay(LocalDate today) {
+        if (!today.equals(day)) {
+            day = today;
+            usedToday = 0;
+        }
+    }
+}
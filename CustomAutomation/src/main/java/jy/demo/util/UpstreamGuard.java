@@ -0,0 +1,314 @@
+package jy.demo.util;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jy.demo.api.ClientAbortedException;
+import jy.demo.config.ResilienceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 외부 서비스(dalai, openai, kakao, slack)별 서킷 브레이커 + 벌크헤드 + 재시도
+ *
+ * - 실패가 몰리면 서킷이 열려 open-wait-ms 동안 호출 없이 바로 CallNotPermittedException으로 실패한다.
+ *   slow-call-ms보다 오래 걸린 호출이 slow-call-rate-threshold(%) 이상이어도 연다. (서버가 멈추기 직전 느려지는 경우)
+ * - 서킷이 벌크헤드 바깥에 있으므로 서킷이 열려 있으면 벌크헤드 자리를 차지하지 않는다.
+ * - 동시 호출이 max-concurrent를 넘으면 BulkheadFullException으로 바로 거절한다.
+ * - 4xx 응답(잘못된 요청, 토큰 만료, 429 등)은 서비스 장애가 아니므로 실패율에 넣지 않는다.
+ * - 재시도는 RetryClassifier가 재시도 가능하다고 판정하고 재시도 예산이 남아 있을 때만
+ *   지수 백오프 + jitter 간격으로 수행한다. 예산은 실제로 재시도할 때(onRetry)만 차감한다.
+ * - 호출자의 제한 시간(deadline)이 있으면 백오프 뒤에 남는 시간이 없을 때 재시도하지 않는다.
+ *
+ * 메트릭: resilience4j.circuitbreaker.state / calls / not.permitted.calls,
+ *        resilience4j.bulkhead.available.concurrent.calls, upstream.bulkhead.rejected,
+ *        resilience4j.retry.calls, upstream.retry.budget.exhausted, upstream.retry.deadline.skipped
+ */
+@Component
+public class UpstreamGuard {
+
+    public static final String DALAI = "dalai";
+    public static final String OPENAI = "openai";
+    public static final String KAKAO = "kakao";
+    public static final String SLACK = "slack";
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamGuard.class);
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final RetryRegistry retryRegistry;
+    private final Map<String, RetryPolicy> retryPolicies = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        this.bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        this.retryRegistry = RetryRegistry.ofDefaults();
+        this.meterRegistry = meterRegistry;
+
+        properties.getUpstreams().forEach((name, upstream) -> {
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name, CircuitBreakerConfig.custom()
+                .failureRateThreshold(upstream.getFailureRateThreshold())
+                .slidingWindowSize(upstream.getSlidingWindowSize())
+                .minimumNumberOfCalls(upstream.getMinimumCalls())
+                .waitDurationInOpenState(Duration.ofMillis(upstream.getOpenWaitMs()))
+                .permittedNumberOfCallsInHalfOpenState(upstream.getHalfOpenCalls())
+                .slowCallDurationThreshold(Duration.ofMillis(upstream.getSlowCallMs()))
+                .slowCallRateThreshold(upstream.getSlowCallRateThreshold())
+                .recordException(UpstreamGuard::isUpstreamFailure)
+                // 벌크헤드 포화는 이 인스턴스 안의 거절, 클라이언트 연결 종료는 호출자 쪽 사정이라 서버 장애가 아님
+                .ignoreExceptions(BulkheadFullException.class, ClientAbortedException.class)
+                .build());
+            circuitBreaker.getEventPublisher().onStateTransition(event ->
+                logger.warn("{} 서킷 상태 변경: {}", name, event.getStateTransition()));
+
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(upstream.getMaxConcurrent())
+                .maxWaitDuration(Duration.ofMillis(upstream.getMaxWaitMs()))
+                .build());
+            bulkhead.getEventPublisher().onCallRejected(event ->
+                meterRegistry.counter("upstream.bulkhead.rejected", "name", name).increment());
+
+            RetryPolicy policy = new RetryPolicy(
+                Math.max(1, upstream.getRetryMaxAttempts()),
+                IntervalFunction.ofExponentialRandomBackoff(upstream.getRetryInitialBackoffMs(),
+                    upstream.getRetryMultiplier(), upstream.getRetryJitter(), upstream.getRetryMaxBackoffMs()),
+                upstream.getRetryMaxBackoffMs(),
+                new RetryBudget(upstream.getRetryBudgetRatio(), upstream.getRetryBudgetMax(),
+                    upstream.getRetryBudgetRefillPerMinute()));
+            retryPolicies.put(name, policy);
+            // 마지막 시도의 실패에도 판정은 호출되므로 여기서는 잔액만 확인하고, 차감은 실제 재시도 직전(onRetry)에 한다.
+            Retry retry = retryRegistry.retry(name, RetryConfig.custom()
+                .maxAttempts(policy.maxAttempts)
+                .intervalFunction(policy.backoff)
+                .retryOnException(error -> !(error instanceof DeadlineReachedException)
+                    && RetryClassifier.isRetryable(error) && hasRetryBudget(name))
+                .build());
+            retry.getEventPublisher().onRetry(event -> policy.budget.withdraw());
+        });
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * 서킷 브레이커 -> 벌크헤드 순서로 감싸서 호출
+     * 서킷이 열려 있으면 벌크헤드 자리를 차지하지 않고 바로 실패한다.
+     */
+    public <T> T call(String upstream, Supplier<T> supplier) {
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead(upstream), supplier);
+        return CircuitBreaker.decorateSupplier(circuitBreaker(upstream), guarded).get();
+    }
+
+    /**
+     * 재시도 -> 서킷 브레이커 -> 벌크헤드 순서로 감싸서 호출
+     * 재시도 대기 중에는 호출 스레드가 기다린다. (AI 호출 전용 Executor에서 사용)
+     */
+    public <T> T callWithRetry(String upstream, Supplier<T> supplier) {
+        return callWithRetry(upstream, null, supplier);
+    }
+
+    /**
+     * timeout 안에서만 재시도 (호출자가 이미 포기한 뒤에 재시도하지 않도록)
+     * 실패 직후 남은 시간이 최대 백오프 이하이면 재시도하지 않고 그 실패를 그대로 던진다.
+     *
+     * @param timeout 첫 시도부터의 제한 시간 (null이면 제한 없음)
+     */
+    public <T> T callWithRetry(String upstream, Duration timeout, Supplier<T> supplier) {
+        RetryPolicy policy = retryPolicies.get(upstream);
+        if (policy == null) {
+            return call(upstream, supplier);
+        }
+        policy.budget.deposit();
+        long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        Supplier<T> attempt = () -> {
+            try {
+                return call(upstream, supplier);
+            } catch (RuntimeException e) {
+                if (timeout != null && deadline - System.nanoTime() <= TimeUnit.MILLISECONDS.toNanos(policy.maxBackoffMs)) {
+                    meterRegistry.counter("upstream.retry.deadline.skipped", "name", upstream).increment();
+                    throw new DeadlineReachedException(e);
+                }
+                throw e;
+            }
+        };
+        try {
+            return Retry.decorateSupplier(retryRegistry.retry(upstream), attempt).get();
+        } catch (DeadlineReachedException e) {
+            throw e.error;
+        }
+    }
+
+    /**
+     * 최초 시도를 포함한 최대 시도 횟수 (설정이 없으면 1)
+     */
+    public int maxAttempts(String name) {
+        RetryPolicy policy = retryPolicies.get(name);
+        return policy != null ? policy.maxAttempts : 1;
+    }
+
+    /**
+     * attempt번째 시도가 실패한 뒤 기다릴 시간 (지수 백오프 + jitter)
+     */
+    public long retryDelayMs(String name, int attempt) {
+        RetryPolicy policy = retryPolicies.get(name);
+        return policy != null ? policy.backoff.apply(attempt) : 0;
+    }
+
+    /**
+     * 첫 시도마다 호출해 재시도 예산을 적립
+     */
+    public void recordAttempt(String name) {
+        RetryPolicy policy = retryPolicies.get(name);
+        if (policy != null) {
+            policy.budget.deposit();
+        }
+    }
+
+    /**
+     * 재시도 예산이 1회분 이상 남았는지 (차감하지 않음)
+     */
+    private boolean hasRetryBudget(String name) {
+        RetryPolicy policy = retryPolicies.get(name);
+        if (policy == null) {
+            return false;
+        }
+        if (!policy.budget.hasBalance()) {
+            meterRegistry.counter("upstream.retry.budget.exhausted", "name", name).increment();
+            logger.warn("{} 재시도 예산 소진: 재시도하지 않습니다.", name);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 재시도 예산에서 1회분을 차감. 예산이 없으면 false
+     */
+    public boolean tryRetry(String name) {
+        RetryPolicy policy = retryPolicies.get(name);
+        if (policy == null) {
+            return false;
+        }
+        if (!policy.budget.tryWithdraw()) {
+            meterRegistry.counter("upstream.retry.budget.exhausted", "name", name).increment();
+            logger.warn("{} 재시도 예산 소진: 재시도하지 않습니다.", name);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 스트리밍 응답용 (구독 시점에 허가를 받고, 스트림이 끝나면 반환)
+     */
+    public <T> Flux<T> stream(String upstream, Flux<T> flux) {
+        return flux
+            .transformDeferred(BulkheadOperator.of(bulkhead(upstream)))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker(upstream)));
+    }
+
+    /**
+     * 논블로킹 단건 호출용 (벌크헤드 허가를 기다리지 않고 가득 차면 바로 BulkheadFullException)
+     */
+    public <T> Mono<T> mono(String upstream, Mono<T> mono) {
+        return mono
+            .transformDeferred(BulkheadOperator.of(bulkhead(upstream)))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker(upstream)));
+    }
+
+    public CircuitBreaker circuitBreaker(String upstream) {
+        return circuitBreakerRegistry.circuitBreaker(upstream);
+    }
+
+    public Bulkhead bulkhead(String upstream) {
+        return bulkheadRegistry.bulkhead(upstream);
+    }
+
+    /**
+     * 외부 서비스별 서킷 상태 요약
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(circuitBreaker -> {
+            CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+            Bulkhead.Metrics bulkheadMetrics = bulkhead(circuitBreaker.getName()).getMetrics();
+            Map<String, Object> upstream = new LinkedHashMap<>();
+            upstream.put("state", circuitBreaker.getState().name());
+            upstream.put("failureRate", metrics.getFailureRate());
+            upstream.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+            upstream.put("availableConcurrentCalls", bulkheadMetrics.getAvailableConcurrentCalls());
+            RetryPolicy policy = retryPolicies.get(circuitBreaker.getName());
+            if (policy != null) {
+                upstream.put("retryBudget", policy.budget.getBalance());
+            }
+            status.put(circuitBreaker.getName(), upstream);
+        });
+        return status;
+    }
+
+    private static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof FeignException.FeignClientException) {
+            return false;
+        }
+        if (error instanceof WebClientResponseException webClientError) {
+            return !webClientError.getStatusCode().is4xxClientError();
+        }
+        if (error instanceof RestClientResponseException restError) {
+            return !restError.getStatusCode().is4xxClientError();
+        }
+        return true;
+    }
+
+    private static final class RetryPolicy {
+        private final int maxAttempts;
+        private final IntervalFunction backoff;
+        private final long maxBackoffMs;
+        private final RetryBudget budget;
+
+        private RetryPolicy(int maxAttempts, IntervalFunction backoff, long maxBackoffMs, RetryBudget budget) {
+            this.maxAttempts = maxAttempts;
+            this.backoff = backoff;
+            this.maxBackoffMs = maxBackoffMs;
+            this.budget = budget;
+        }
+    }
+
+    /**
+     * 제한 시간 안에 재시도할 수 없음을 재시도 판정에 알리기 위한 포장 (밖으로는 원래 예외를 던진다)
+     */
+    private static final class DeadlineReachedException extends RuntimeException {
+        private final RuntimeException error;
+
+        private DeadlineReachedException(RuntimeException error) {
+            super(error.getMessage(), error, false, false);
+            this.error = error;
+        }
+    }
+}
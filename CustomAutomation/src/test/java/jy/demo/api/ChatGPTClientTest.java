@@ -0,0 +1,145 @@
+package jy.demo.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.config.ResilienceProperties;
+import jy.demo.util.UpstreamGuard;
+
+class ChatGPTClientTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicReference<String> authorization = new AtomicReference<>();
+
+	private HttpServer server;
+	private ChatGPTClient client;
+	// 테스트마다 응답할 상태 코드와 본문
+	private volatile int status = 200;
+	private volatile String body = "";
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/v1/chat/completions", this::handle);
+		server.start();
+
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.getUpstreams().values().forEach(upstream -> {
+			upstream.setRetryInitialBackoffMs(10);
+			upstream.setRetryJitter(0);
+		});
+		client = new ChatGPTClient(meterRegistry, new UpstreamGuard(properties, meterRegistry),
+			4, 4, 1000, 5000, 10000, 60000, 30000);
+		ReflectionTestUtils.setField(client, "apiKey", "test-key");
+		ReflectionTestUtils.setField(client, "apiUrl",
+			"http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions");
+		ReflectionTestUtils.setField(client, "model", "gpt-test");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		client.close();
+		server.stop(0);
+	}
+
+	@Test
+	void 응답에서_content만_읽는다() {
+		body = "{\"id\":\"x\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"안녕하세요\"}}],"
+			+ "\"usage\":{\"total_tokens\":3}}";
+
+		assertEquals("안녕하세요", client.sendRequest("hi", "system"));
+		assertEquals("Bearer test-key", authorization.get());
+		assertEquals(1, timerCount("false", "success"));
+	}
+
+	@Test
+	void 상태_코드_4xx는_상태_코드와_함께_실패하고_재시도하지_않는다() {
+		status = 400;
+		body = "{\"error\":\"bad request\"}";
+
+		RestClientResponseException error = assertThrows(RestClientResponseException.class,
+			() -> client.sendRequest("hi", "system"));
+
+		assertEquals(400, error.getStatusCode().value());
+		assertTrue(error.getMessage().contains("bad request"), error.getMessage());
+		assertEquals(1, requests.get());
+		assertEquals(1, timerCount("false", "400"));
+	}
+
+	@Test
+	void 상태_코드_5xx는_최대_시도_횟수까지_재시도한다() {
+		status = 503;
+
+		RestClientResponseException error = assertThrows(RestClientResponseException.class,
+			() -> client.sendRequest("hi", "system"));
+
+		assertEquals(503, error.getStatusCode().value());
+		assertEquals(3, requests.get());
+	}
+
+	@Test
+	void 스트리밍_토큰을_도착한_순서대로_전달한다() {
+		body = "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}\n\n"
+			+ "data: {\"choices\":[{\"delta\":{\"content\":\"안녕\"}}]}\n\n"
+			+ "data: {\"choices\":[{\"delta\":{\"content\":\"하세요\"}}]}\n\n"
+			+ "data: [DONE]\n\n";
+		List<String> tokens = new ArrayList<>();
+
+		assertEquals("안녕하세요", client.streamRequest("hi", "system", tokens::add));
+		assertEquals(List.of("안녕", "하세요"), tokens);
+		assertEquals(1, timerCount("true", "success"));
+	}
+
+	@Test
+	void 클라이언트가_끊은_스트림은_감싸지_않고_그대로_전달한다() {
+		body = "data: {\"choices\":[{\"delta\":{\"content\":\"안녕\"}}]}\n\n"
+			+ "data: [DONE]\n\n";
+		ClientAbortedException aborted = new ClientAbortedException(new IOException("Broken pipe"));
+
+		ClientAbortedException thrown = assertThrows(ClientAbortedException.class,
+			() -> client.streamRequest("hi", "system", token -> {
+				throw aborted;
+			}));
+
+		assertSame(aborted, thrown);
+		assertEquals(1, timerCount("true", "client_aborted"));
+	}
+
+	private long timerCount(String stream, String outcome) {
+		return meterRegistry.get("openai.request").tag("stream", stream).tag("outcome", outcome).timer().count();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+		exchange.getRequestBody().readAllBytes();
+		byte[] response = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+	}
+}
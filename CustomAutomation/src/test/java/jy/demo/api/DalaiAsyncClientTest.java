@@ -0,0 +1,165 @@
+package jy.demo.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.config.ResilienceProperties;
+import jy.demo.service.AiResponseCache;
+import jy.demo.util.PipelineMetrics;
+import jy.demo.util.UpstreamGuard;
+
+class DalaiAsyncClientTest {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final DalaiClient dalaiClient = mock(DalaiClient.class);
+	private final AiResponseCache responseCache = mock(AiResponseCache.class);
+	private final List<Throwable> notified = Collections.synchronizedList(new ArrayList<>());
+
+	private DalaiAsyncClient client;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		// 캐시에 없다고 보고 loader를 그대로 호출
+		when(responseCache.ttlFor(any(AiMode.class))).thenReturn(Duration.ofMinutes(10));
+		when(responseCache.getOrLoadAsync(anyString(), any(), any()))
+			.thenAnswer(invocation -> ((Supplier<CompletableFuture<String>>) invocation.getArgument(2)).get());
+
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.getUpstreams().values().forEach(upstream -> {
+			upstream.setRetryInitialBackoffMs(10);
+			upstream.setRetryJitter(0);
+		});
+		DalaiGateway gateway = new DalaiGateway(executor, meterRegistry, 4, 1, 8,
+			0.2, 1.5, 0.9, 100, 32, 30000);
+		client = new DalaiAsyncClient(dalaiClient, gateway, responseCache, new PipelineMetrics(meterRegistry),
+			new UpstreamGuard(properties, meterRegistry), meterRegistry, 190000);
+		client.addCallListener((latencyMs, error) -> notified.add(error));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void 모드에_맞는_Dalai_API를_호출한다() throws Exception {
+		when(dalaiClient.sendPrompt("q")).thenReturn("plain");
+		when(dalaiClient.sendPromptWithSearch("q", true)).thenReturn("search");
+		when(dalaiClient.sendPromptWithSearchAgent("q", true, true)).thenReturn("agent");
+
+		assertEquals("plain", client.request("q", AiMode.PLAIN).get(5, TimeUnit.SECONDS));
+		assertEquals("search", client.request("q", AiMode.SEARCH).get(5, TimeUnit.SECONDS));
+		assertEquals("agent", client.request("q", AiMode.AGENT).get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void 재시도할_수_있는_오류는_다시_시도하고_리스너에는_한_번만_알린다() throws Exception {
+		when(dalaiClient.sendPrompt("q"))
+			.thenThrow(new ResourceAccessException("connection reset"))
+			.thenReturn("ok");
+
+		assertEquals("ok", client.request("q", AiMode.PLAIN).get(5, TimeUnit.SECONDS));
+
+		verify(dalaiClient, times(2)).sendPrompt("q");
+		assertEquals(1, notified.size());
+		assertNull(notified.get(0));
+		assertEquals(1, meterRegistry.get("pipeline.ai.call").tag("outcome", PipelineMetrics.OUTCOME_SUCCESS).timer().count());
+	}
+
+	@Test
+	void 최대_시도_횟수까지만_재시도한다() {
+		ResourceAccessException error = new ResourceAccessException("connection reset");
+		when(dalaiClient.sendPrompt("q")).thenThrow(error);
+
+		ExecutionException thrown = assertThrows(ExecutionException.class,
+			() -> client.request("q", AiMode.PLAIN).get(5, TimeUnit.SECONDS));
+
+		assertSame(error, thrown.getCause());
+		verify(dalaiClient, times(3)).sendPrompt("q");
+		assertEquals(1, notified.size());
+		assertSame(error, notified.get(0));
+	}
+
+	@Test
+	void 재시도할_수_없는_오류는_바로_실패한다() {
+		when(dalaiClient.sendPrompt("q")).thenThrow(new IllegalArgumentException("bad prompt"));
+
+		ExecutionException thrown = assertThrows(ExecutionException.class,
+			() -> client.request("q", AiMode.PLAIN).get(5, TimeUnit.SECONDS));
+
+		assertInstanceOf(IllegalArgumentException.class, thrown.getCause());
+		verify(dalaiClient, times(1)).sendPrompt("q");
+		assertEquals(1, meterRegistry.get("pipeline.ai.call").tag("outcome", PipelineMetrics.OUTCOME_ERROR).timer().count());
+	}
+
+	@Test
+	void 대기열_포화는_재시도하지_않고_호출자에게_알린다() {
+		when(dalaiClient.sendPrompt("q")).thenThrow(new DalaiOverloadedException("busy", Duration.ofSeconds(5)));
+
+		ExecutionException thrown = assertThrows(ExecutionException.class,
+			() -> client.request("q", AiMode.PLAIN).get(5, TimeUnit.SECONDS));
+
+		DalaiOverloadedException overloaded = assertInstanceOf(DalaiOverloadedException.class, thrown.getCause());
+		assertEquals(Duration.ofSeconds(5), overloaded.getRetryAfter());
+		verify(dalaiClient, times(1)).sendPrompt("q");
+	}
+
+	@Test
+	void 진행_중인_같은_요청은_한_번만_호출한다() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(dalaiClient.sendPrompt("q")).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return "shared";
+		});
+
+		CompletableFuture<String> first = client.request("q", AiMode.PLAIN);
+		CompletableFuture<String> second = client.request("q", AiMode.PLAIN);
+		release.countDown();
+
+		assertEquals("shared", first.get(5, TimeUnit.SECONDS));
+		assertEquals("shared", second.get(5, TimeUnit.SECONDS));
+		verify(dalaiClient, times(1)).sendPrompt("q");
+		assertEquals(1, notified.size());
+	}
+
+	@Test
+	void 캐시에_있으면_Dalai를_호출하지_않는다() throws Exception {
+		when(responseCache.getOrLoadAsync(anyString(), any(), any()))
+			.thenReturn(CompletableFuture.completedFuture("cached"));
+
+		assertEquals("cached", client.request("q", AiMode.PLAIN).get(5, TimeUnit.SECONDS));
+
+		verify(dalaiClient, never()).sendPrompt(anyString());
+		assertEquals(0, notified.size());
+	}
+}
@@ -0,0 +1,183 @@
+package jy.demo.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+class DalaiGatewayTest {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void 한도_안이면_바로_실행한다() throws Exception {
+		DalaiGateway gateway = gateway(2, 8, 32);
+
+		assertEquals("ok", gateway.submit(AiPriority.ADHOC, "PLAIN", () -> "ok").get(5, TimeUnit.SECONDS));
+		assertEquals(0, gateway.status().get("inFlight"));
+	}
+
+	@Test
+	void 대기열은_높은_우선순위부터_꺼낸다() throws Exception {
+		DalaiGateway gateway = gateway(1, 1, 32);
+		CompletableFuture<String> blocker = gateway.submit(AiPriority.ADHOC, "PLAIN", this::block);
+		List<AiPriority> order = Collections.synchronizedList(new ArrayList<>());
+
+		List<CompletableFuture<String>> queued = new ArrayList<>();
+		for (AiPriority priority : new AiPriority[] {AiPriority.ADHOC, AiPriority.MANUAL, AiPriority.SCHEDULED}) {
+			queued.add(gateway.submit(priority, "PLAIN", () -> {
+				order.add(priority);
+				return priority.name();
+			}));
+		}
+		release.countDown();
+		blocker.get(5, TimeUnit.SECONDS);
+		CompletableFuture.allOf(queued.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+		assertEquals(List.of(AiPriority.SCHEDULED, AiPriority.MANUAL, AiPriority.ADHOC), order);
+	}
+
+	@Test
+	void 대기열이_차면_낮은_우선순위의_최근_요청을_밀어낸다() throws Exception {
+		DalaiGateway gateway = gateway(1, 1, 2);
+		gateway.submit(AiPriority.ADHOC, "PLAIN", this::block);
+		CompletableFuture<String> oldest = gateway.submit(AiPriority.ADHOC, "PLAIN", () -> "oldest");
+		CompletableFuture<String> latest = gateway.submit(AiPriority.ADHOC, "PLAIN", () -> "latest");
+
+		CompletableFuture<String> scheduled = gateway.submit(AiPriority.SCHEDULED, "PLAIN", () -> "scheduled");
+
+		assertOverloaded(latest);
+		assertFalse(oldest.isDone());
+		release.countDown();
+		assertEquals("scheduled", scheduled.get(5, TimeUnit.SECONDS));
+		assertEquals("oldest", oldest.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void 밀어낼_요청이_없으면_바로_거절한다() throws Exception {
+		DalaiGateway gateway = gateway(1, 1, 1);
+		gateway.submit(AiPriority.ADHOC, "PLAIN", this::block);
+		gateway.submit(AiPriority.SCHEDULED, "PLAIN", () -> "queued");
+
+		DalaiOverloadedException rejected = assertOverloaded(gateway.submit(AiPriority.ADHOC, "PLAIN", () -> "rejected"));
+
+		assertTrue(rejected.getRetryAfter().toMillis() >= 1000);
+	}
+
+	@Test
+	void 시간_초과는_한도를_줄이고_로컬_거절은_줄이지_않는다() {
+		DalaiGateway gateway = gateway(4, 8, 32);
+
+		assertThrows(ExecutionException.class, () -> gateway.submit(AiPriority.ADHOC, "PLAIN", () -> {
+			throw BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("dalai"));
+		}).get(5, TimeUnit.SECONDS));
+		assertEquals(4, gateway.status().get("limit"));
+
+		assertThrows(ExecutionException.class, () -> gateway.submit(AiPriority.ADHOC, "PLAIN", () -> {
+			throw new IllegalStateException("read timeout", new TimeoutException());
+		}).get(5, TimeUnit.SECONDS));
+		assertEquals(3, gateway.status().get("limit"));
+	}
+
+	@Test
+	void 스트림은_끝날_때까지_자리를_차지한다() throws Exception {
+		DalaiGateway gateway = gateway(1, 1, 32);
+		Disposable stream = gateway.stream(AiPriority.ADHOC, "PLAIN_STREAM", Flux::<String>never).subscribe();
+		assertEquals(1, gateway.status().get("inFlight"));
+
+		CompletableFuture<String> next = gateway.submit(AiPriority.ADHOC, "PLAIN", () -> "next");
+		assertEquals(1, queued(gateway, AiPriority.ADHOC));
+
+		stream.dispose();
+		assertEquals("next", next.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void 대기_중인_스트림을_취소하면_대기열에서_빠진다() throws Exception {
+		DalaiGateway gateway = gateway(1, 1, 32);
+		CompletableFuture<String> blocker = gateway.submit(AiPriority.ADHOC, "PLAIN", this::block);
+		Disposable stream = gateway.stream(AiPriority.ADHOC, "PLAIN_STREAM", () -> Flux.just("chunk")).subscribe();
+		assertEquals(1, queued(gateway, AiPriority.ADHOC));
+
+		stream.dispose();
+
+		assertEquals(0, queued(gateway, AiPriority.ADHOC));
+		release.countDown();
+		blocker.get(5, TimeUnit.SECONDS);
+		assertEquals(0, gateway.status().get("inFlight"));
+	}
+
+	@Test
+	void 대기_중인_요청을_취소하면_대기열에서_빠지고_실행하지_않는다() throws Exception {
+		DalaiGateway gateway = gateway(1, 1, 32);
+		CompletableFuture<String> blocker = gateway.submit(AiPriority.ADHOC, "PLAIN", this::block);
+		CountDownLatch called = new CountDownLatch(1);
+		CompletableFuture<String> waiting = gateway.submit(AiPriority.ADHOC, "PLAIN", () -> {
+			called.countDown();
+			return "cancelled";
+		});
+		assertEquals(1, queued(gateway, AiPriority.ADHOC));
+
+		waiting.cancel(false);
+
+		assertEquals(0, queued(gateway, AiPriority.ADHOC));
+		release.countDown();
+		blocker.get(5, TimeUnit.SECONDS);
+		assertEquals("next", gateway.submit(AiPriority.ADHOC, "PLAIN", () -> "next").get(5, TimeUnit.SECONDS));
+		assertEquals(1, called.getCount());
+		assertEquals(0, gateway.status().get("inFlight"));
+	}
+
+	private DalaiGateway gateway(int initialLimit, int maxLimit, int maxQueue) {
+		return new DalaiGateway(executor, new SimpleMeterRegistry(), initialLimit, 1, maxLimit,
+			0.2, 1.5, 0.9, 100, maxQueue, 30000);
+	}
+
+	private String block() {
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "blocker";
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int queued(DalaiGateway gateway, AiPriority priority) {
+		return ((Map<String, Integer>) gateway.status().get("queued")).get(priority.name());
+	}
+
+	private static DalaiOverloadedException assertOverloaded(CompletableFuture<?> future) {
+		ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+		return assertInstanceOf(DalaiOverloadedException.class, error.getCause());
+	}
+}
@@ -0,0 +1,227 @@
+package jy.demo.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.config.ModelRouterProperties;
+import jy.demo.config.ResilienceProperties;
+import jy.demo.service.AiResponseCache;
+import jy.demo.util.UpstreamGuard;
+
+class ModelRouterTest {
+
+	private final DalaiAsyncClient dalaiClient = mock(DalaiAsyncClient.class);
+	private final ChatGPTClient chatGPTClient = mock(ChatGPTClient.class);
+	private final AiResponseCache responseCache = mock(AiResponseCache.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final UpstreamGuard upstreamGuard = new UpstreamGuard(new ResilienceProperties(), meterRegistry);
+	private final ModelRouterProperties properties = new ModelRouterProperties();
+
+	private ModelRouter router;
+	private BiConsumer<Long, Throwable> dalaiListener;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(chatGPTClient.isConfigured()).thenReturn(true);
+		when(chatGPTClient.getModel()).thenReturn("gpt");
+		when(chatGPTClient.sendRequest(anyString(), anyString())).thenReturn("from openai");
+		// 캐시에 없다고 보고 loader를 그대로 호출
+		when(responseCache.getOrLoadAsync(anyString(), any(), any()))
+			.thenAnswer(invocation -> ((Supplier<CompletableFuture<String>>) invocation.getArgument(2)).get());
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (router != null) {
+			router.close();
+		}
+	}
+
+	@Test
+	void 기본_정책은_로컬_우선() {
+		createRouter();
+
+		assertEquals(List.of(ModelRouter.DALAI, ModelRouter.OPENAI), router.route());
+	}
+
+	@Test
+	void 설정되지_않은_OpenAI는_후보에서_뺀다() {
+		when(chatGPTClient.isConfigured()).thenReturn(false);
+		createRouter();
+
+		assertEquals(List.of(ModelRouter.DALAI), router.route());
+	}
+
+	@Test
+	void 오류율이_높은_백엔드는_뒤로_미룬다() {
+		createRouter();
+
+		failDalai(properties.getMinSamples());
+
+		assertEquals(List.of(ModelRouter.OPENAI, ModelRouter.DALAI), router.route());
+	}
+
+	@Test
+	void 최근_호출이_모두_실패한_백엔드는_가장_느린_것으로_본다() {
+		properties.setPolicy(RoutingPolicy.FASTEST);
+		createRouter();
+
+		// 최소 표본 수보다 적어 오류율로는 뒤로 밀리지 않는 경우
+		dalaiListener.accept(5L, new IllegalStateException("connection refused"));
+
+		assertEquals(List.of(ModelRouter.OPENAI, ModelRouter.DALAI), router.route());
+
+		properties.setPolicy(RoutingPolicy.CHEAPEST_WITHIN_SLO);
+		assertEquals(List.of(ModelRouter.OPENAI, ModelRouter.DALAI), router.route());
+	}
+
+	@Test
+	void 서킷이_열린_백엔드는_뒤로_미룬다() {
+		createRouter();
+
+		upstreamGuard.circuitBreaker(UpstreamGuard.DALAI).transitionToOpenState();
+
+		assertEquals(List.of(ModelRouter.OPENAI, ModelRouter.DALAI), router.route());
+	}
+
+	@Test
+	void 뒤로_밀린_백엔드도_표본이_만료되면_다시_앞으로_온다() throws Exception {
+		properties.setSampleTtlMs(50);
+		createRouter();
+		failDalai(properties.getMinSamples());
+		assertEquals(ModelRouter.OPENAI, router.route().get(0));
+
+		Thread.sleep(100);
+
+		assertEquals(List.of(ModelRouter.DALAI, ModelRouter.OPENAI), router.route());
+	}
+
+	@Test
+	void 첫_백엔드가_실패하면_다음_백엔드로_대체한다() throws Exception {
+		when(dalaiClient.request(anyString(), any(), any(), any()))
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("dalai down")));
+		createRouter();
+
+		String response = router.generate("hello", AiMode.PLAIN, AiPriority.ADHOC, Duration.ZERO).get(5, TimeUnit.SECONDS);
+
+		assertEquals("from openai", response);
+		assertEquals(1.0, meterRegistry.counter("ai.router.fallback").count());
+	}
+
+	@Test
+	void 헤징_시간_안에_답이_없으면_다음_백엔드를_함께_호출한다() throws Exception {
+		properties.setHedgeDelayMs(50);
+		when(dalaiClient.request(anyString(), any(), any(), any())).thenReturn(new CompletableFuture<>());
+		createRouter();
+
+		String response = router.generate("hello", AiMode.PLAIN, AiPriority.ADHOC, Duration.ZERO).get(5, TimeUnit.SECONDS);
+
+		assertEquals("from openai", response);
+		verify(chatGPTClient).sendRequest(anyString(), anyString());
+	}
+
+	@Test
+	void 첫_백엔드가_먼저_답하면_헤징하지_않는다() throws Exception {
+		properties.setHedgeDelayMs(50);
+		when(dalaiClient.request(anyString(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture("from dalai"));
+		createRouter();
+
+		String response = router.generate("hello", AiMode.PLAIN, AiPriority.ADHOC, Duration.ZERO).get(5, TimeUnit.SECONDS);
+		Thread.sleep(100);
+
+		assertEquals("from dalai", response);
+		verify(chatGPTClient, never()).sendRequest(anyString(), anyString());
+	}
+
+	@Test
+	void 모든_백엔드가_실패하면_마지막_오류로_실패한다() {
+		IllegalStateException openAiError = new IllegalStateException("openai down");
+		when(dalaiClient.request(anyString(), any(), any(), any()))
+			.thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+		when(chatGPTClient.sendRequest(anyString(), anyString())).thenThrow(openAiError);
+		createRouter();
+
+		CompletableFuture<String> response = router.generate("hello", AiMode.PLAIN, AiPriority.ADHOC, Duration.ZERO);
+
+		assertEquals("openai down", response.handle((value, error) -> rootCause(error).getMessage()).join());
+	}
+
+	@Test
+	void Dalai_표본은_라우터가_아니라_실제_호출마다_한_번_기록한다() throws Exception {
+		// 같은 요청에 합류한 호출자들은 같은 결과를 받지만 DalaiAsyncClient 리스너는 한 번만 불린다
+		when(dalaiClient.request(anyString(), any(), any(), any()))
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("dalai down")));
+		createRouter();
+
+		for (int i = 0; i < 3; i++) {
+			router.generate("hello", AiMode.PLAIN, AiPriority.ADHOC, Duration.ZERO).get(5, TimeUnit.SECONDS);
+		}
+		assertEquals(0, samples(ModelRouter.DALAI));
+
+		dalaiListener.accept(1000L, new IllegalStateException("dalai down"));
+		assertEquals(1, samples(ModelRouter.DALAI));
+		// OpenAI는 실제로 호출된 횟수만큼
+		assertEquals(3, samples(ModelRouter.OPENAI));
+	}
+
+	@Test
+	void 캐시_적중은_OpenAI_표본으로_기록하지_않는다() throws Exception {
+		properties.getBackends().get(ModelRouter.DALAI).setEnabled(false);
+		doReturn(CompletableFuture.completedFuture("cached")).when(responseCache).getOrLoadAsync(anyString(), any(), any());
+		createRouter();
+
+		assertEquals("cached", router.generate("hello", AiMode.PLAIN, AiPriority.ADHOC, Duration.ZERO).get(5, TimeUnit.SECONDS));
+
+		assertEquals(0, samples(ModelRouter.OPENAI));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void createRouter() {
+		router = new ModelRouter(dalaiClient, chatGPTClient, responseCache, upstreamGuard, Runnable::run, properties,
+			meterRegistry);
+		ArgumentCaptor<BiConsumer<Long, Throwable>> listener = ArgumentCaptor.forClass(BiConsumer.class);
+		verify(dalaiClient).addCallListener(listener.capture());
+		dalaiListener = listener.getValue();
+	}
+
+	private void failDalai(int times) {
+		for (int i = 0; i < times; i++) {
+			dalaiListener.accept(1000L, new IllegalStateException("dalai down"));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private int samples(String backend) {
+		return (int) ((Map<String, Object>) router.status().get(backend)).get("samples");
+	}
+
+	private static Throwable rootCause(Throwable error) {
+		Throwable cause = error;
+		while (cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause;
+	}
+}
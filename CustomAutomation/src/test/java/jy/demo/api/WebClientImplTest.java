@@ -0,0 +1,37 @@
+package jy.demo.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jy.demo.util.JsonUtil;
+
+class WebClientImplTest {
+
+	private final JsonUtil jsonUtil = new JsonUtil();
+
+	@Test
+	void 문자열_헤더는_그대로_중첩_객체는_JSON으로_바꾼다() {
+		Map<String, Object> nested = new LinkedHashMap<>();
+		nested.put("a", "b");
+		Map<String, Object> headers = new LinkedHashMap<>();
+		headers.put(ApiClient.CONTENT_TYPE, ApiClient.APP_TYPE_URL_ENCODED);
+		headers.put("X-Nested", nested);
+		headers.put("X-Number", 1);
+
+		Map<String, String> converted = WebClientImpl.toStringMap(headers);
+
+		assertEquals(Map.of(ApiClient.CONTENT_TYPE, ApiClient.APP_TYPE_URL_ENCODED, "X-Nested", "{\"a\":\"b\"}"), converted);
+	}
+
+	@Test
+	void JSON_본문을_거친_form과_DTO에서_바로_쓴_form이_같다() {
+		// WebClientImplBenchmark의 두 경로(jsonToFormBody, createKakaoSendMsgForm)가 같은 요청을 만드는지 확인
+		String text = "오늘의 테크 인사이트: " + "가".repeat(150) + " & = ?";
+
+		assertEquals(jsonUtil.createKakaoSendMsgForm(text), JsonUtil.toFormBody(jsonUtil.createKakaoSendMsgJson(text)));
+	}
+}
@@ -0,0 +1,34 @@
+package jy.demo.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ChannelCapabilityTest {
+
+	@Test
+	void 한도_이내면_그대로_둔다() {
+		ChannelCapability capability = new ChannelCapability(false, 10);
+
+		assertEquals("0123456789", capability.fit("0123456789"));
+		assertNull(capability.fit(null));
+	}
+
+	@Test
+	void 한도를_넘으면_말줄임표를_포함해_한도에_맞춘다() {
+		ChannelCapability capability = new ChannelCapability(false, 10);
+
+		String fitted = capability.fit("0123456789A");
+
+		assertEquals("0123456...", fitted);
+		assertEquals(10, fitted.length());
+	}
+
+	@Test
+	void 제목이_있으면_일반_텍스트에_제목을_붙인다() {
+		assertEquals("[제목]\n본문", new Message("제목", "본문").toPlainText());
+		assertEquals("본문", new Message("본문").toPlainText());
+		assertEquals("본문", new Message("", "본문").toPlainText());
+	}
+}
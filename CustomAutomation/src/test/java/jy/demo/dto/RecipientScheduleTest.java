@@ -0,0 +1,148 @@
+package jy.demo.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import jy.demo.util.JsonUtil;
+
+class RecipientScheduleTest {
+
+	private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+	private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+	@Test
+	void 자정을_넘기는_방해_금지_시간() {
+		RecipientSchedule schedule = schedule(60, 21, 9, SEOUL);
+
+		assertTrue(schedule.isQuiet(21));
+		assertTrue(schedule.isQuiet(0));
+		assertTrue(schedule.isQuiet(8));
+		assertFalse(schedule.isQuiet(9));
+		assertFalse(schedule.isQuiet(20));
+	}
+
+	@Test
+	void 같은_날_안의_방해_금지_시간() {
+		RecipientSchedule schedule = schedule(60, 1, 5, SEOUL);
+
+		assertFalse(schedule.isQuiet(0));
+		assertTrue(schedule.isQuiet(1));
+		assertTrue(schedule.isQuiet(4));
+		assertFalse(schedule.isQuiet(5));
+	}
+
+	@Test
+	void 시작과_끝이_같으면_방해_금지_시간이_없다() {
+		RecipientSchedule schedule = schedule(60, 9, 9, SEOUL);
+
+		for (int hour = 0; hour < 24; hour++) {
+			assertFalse(schedule.isQuiet(hour));
+		}
+	}
+
+	@Test
+	void 주기를_더하고_분_단위로_맞춘다() {
+		RecipientSchedule schedule = schedule(60, 21, 9, SEOUL);
+		ZonedDateTime from = ZonedDateTime.of(2026, 10, 18, 10, 0, 30, 0, SEOUL);
+
+		assertEquals(at(2026, 10, 18, 11, 0, SEOUL), schedule.nextRunAfter(millis(from)));
+	}
+
+	@Test
+	void 방해_금지_시간에_걸리면_다음_날_해제_시각으로_미룬다() {
+		RecipientSchedule schedule = schedule(60, 21, 9, SEOUL);
+		ZonedDateTime from = ZonedDateTime.of(2026, 10, 18, 20, 30, 0, 0, SEOUL);
+
+		assertEquals(at(2026, 10, 19, 9, 0, SEOUL), schedule.nextRunAfter(millis(from)));
+	}
+
+	@Test
+	void 자정_이후_방해_금지_시간이면_같은_날_해제_시각으로_미룬다() {
+		RecipientSchedule schedule = schedule(60, 21, 9, SEOUL);
+		ZonedDateTime from = ZonedDateTime.of(2026, 10, 19, 2, 0, 0, 0, SEOUL);
+
+		assertEquals(at(2026, 10, 19, 9, 0, SEOUL), schedule.nextRunAfter(millis(from)));
+	}
+
+	@Test
+	void 서머타임_시작일에도_현지_해제_시각에_보낸다() {
+		// 2026-03-08 02:00 -> 03:00 (하루가 23시간)
+		RecipientSchedule schedule = schedule(60, 0, 6, NEW_YORK);
+		ZonedDateTime from = ZonedDateTime.of(2026, 3, 7, 23, 30, 0, 0, NEW_YORK);
+
+		assertEquals(at(2026, 3, 8, 6, 0, NEW_YORK), schedule.nextRunAfter(millis(from)));
+	}
+
+	@Test
+	void 서머타임_종료일에도_현지_해제_시각에_보낸다() {
+		// 2026-11-01 02:00 -> 01:00 (하루가 25시간)
+		RecipientSchedule schedule = schedule(60, 0, 6, NEW_YORK);
+		ZonedDateTime from = ZonedDateTime.of(2026, 10, 31, 23, 30, 0, 0, NEW_YORK);
+
+		long next = schedule.nextRunAfter(millis(from));
+
+		assertEquals(at(2026, 11, 1, 6, 0, NEW_YORK), next);
+		assertFalse(schedule.isQuiet(schedule.localHour(next)));
+	}
+
+	@Test
+	void 실행_시각을_바꾼_사본은_원본을_고치지_않는다() {
+		RecipientSchedule original = schedule(30, 21, 9, SEOUL);
+		original.setId("r1");
+		original.setChannels(new ArrayList<>(List.of("slack")));
+		original.setNextRunAt(1000);
+
+		RecipientSchedule next = original.withRun(1000, 2000);
+		next.getChannels().add("kakao");
+
+		assertEquals(0, original.getLastRunAt());
+		assertEquals(1000, original.getNextRunAt());
+		assertEquals(List.of("slack"), original.getChannels());
+		assertEquals(1000, next.getLastRunAt());
+		assertEquals(2000, next.getNextRunAt());
+		assertEquals(30, next.getIntervalMinutes());
+	}
+
+	@Test
+	void 이전_형식의_일정_파일도_읽는다() throws Exception {
+		String legacy = "[{\"id\":\"r1\",\"channels\":[\"slack\"],\"intervalMinutes\":30,\"quietStartHour\":22,"
+			+ "\"quietEndHour\":7,\"zoneId\":\"America/New_York\",\"enabled\":true,\"nextRunAt\":2000,\"lastRunAt\":1000}]";
+
+		RecipientSchedule schedule = JsonUtil.MAPPER.readValue(legacy, new TypeReference<List<RecipientSchedule>>() {}).get(0);
+
+		assertEquals(30, schedule.getIntervalMinutes());
+		assertEquals(22, schedule.getQuietStartHour());
+		assertEquals(7, schedule.getQuietEndHour());
+		assertEquals(NEW_YORK.getId(), schedule.getZoneId());
+		assertEquals(2000, schedule.getNextRunAt());
+		assertEquals(1000, schedule.getLastRunAt());
+		assertEquals(schedule, JsonUtil.MAPPER.readValue(JsonUtil.MAPPER.writeValueAsBytes(schedule), RecipientSchedule.class));
+	}
+
+	private static RecipientSchedule schedule(int intervalMinutes, int quietStartHour, int quietEndHour, ZoneId zone) {
+		RecipientSchedule schedule = new RecipientSchedule();
+		schedule.setIntervalMinutes(intervalMinutes);
+		schedule.setQuietStartHour(quietStartHour);
+		schedule.setQuietEndHour(quietEndHour);
+		schedule.setZoneId(zone.getId());
+		return schedule;
+	}
+
+	private static long at(int year, int month, int day, int hour, int minute, ZoneId zone) {
+		return millis(ZonedDateTime.of(year, month, day, hour, minute, 0, 0, zone));
+	}
+
+	private static long millis(ZonedDateTime time) {
+		return time.toInstant().toEpochMilli();
+	}
+}
@@ -0,0 +1,144 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.api.AiMode;
+import jy.demo.config.AiCacheProperties;
+
+class AiResponseCacheTest {
+
+	@TempDir
+	Path dir;
+
+	private final AiCacheProperties properties = new AiCacheProperties();
+
+	@Test
+	void 키는_프롬프트_모드_모델을_구분한다() {
+		String key = AiResponseCache.key("prompt", AiMode.PLAIN, "dalai");
+
+		assertEquals(key, AiResponseCache.key("prompt", AiMode.PLAIN, "dalai"));
+		assertNotEquals(key, AiResponseCache.key("prompt", AiMode.SEARCH, "dalai"));
+		assertNotEquals(key, AiResponseCache.key("prompt", AiMode.PLAIN, "gpt"));
+		assertNotEquals(key, AiResponseCache.key("other", AiMode.PLAIN, "dalai"));
+	}
+
+	@Test
+	void 테마_TTL이_없으면_모드별_기본값을_쓴다() {
+		properties.getThemeTtlMinutes().put("명언", 360L);
+		AiResponseCache cache = create();
+
+		assertEquals(Duration.ofMinutes(360), cache.ttlFor("명언", AiMode.SEARCH));
+		assertEquals(Duration.ofMinutes(60), cache.ttlFor("날씨", AiMode.PLAIN));
+		assertEquals(Duration.ofMinutes(15), cache.ttlFor(null, AiMode.AGENT));
+	}
+
+	@Test
+	void TTL이_지나면_만료되고_적중으로_집계하지_않는다() throws InterruptedException {
+		AiResponseCache cache = create();
+		cache.put("key", "value", Duration.ofMillis(50));
+		assertEquals("value", cache.get("key"));
+
+		Thread.sleep(100);
+
+		assertNull(cache.get("key"));
+		assertEquals(1, cache.stats().hitCount());
+		assertEquals(1, cache.stats().missCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void 빈_값이나_TTL_0은_저장하지_않는다() {
+		AiResponseCache cache = create();
+		cache.put("blank", " ", Duration.ofMinutes(1));
+		cache.put("zero", "value", Duration.ZERO);
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void 꺼져_있으면_저장도_조회도_하지_않는다() {
+		properties.setEnabled(false);
+		AiResponseCache cache = create();
+		cache.put("key", "value", Duration.ofMinutes(1));
+
+		assertNull(cache.get("key"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void 캐시에_없을_때만_loader를_호출한다() throws Exception {
+		AiResponseCache cache = create();
+		AtomicInteger loads = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			CompletableFuture<String> value = cache.getOrLoadAsync("key", Duration.ofMinutes(1), () -> {
+				loads.incrementAndGet();
+				return CompletableFuture.completedFuture("loaded");
+			});
+			assertEquals("loaded", value.get());
+		}
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void 스냅샷으로_만료되지_않은_항목만_복원한다() throws InterruptedException {
+		enableSnapshot();
+		AiResponseCache cache = create();
+		cache.put("kept", "value", Duration.ofMinutes(10));
+		cache.put("expired", "value", Duration.ofMillis(20));
+		Thread.sleep(50);
+		cache.destroy();
+
+		AiResponseCache restored = create();
+
+		assertEquals("value", restored.get("kept"));
+		assertNull(restored.get("expired"));
+		assertEquals(1, restored.size());
+	}
+
+	@Test
+	void 스냅샷은_스네이크_케이스로_쓰고_이전_형식도_읽는다() throws IOException {
+		enableSnapshot();
+		long expiresAt = System.currentTimeMillis() + 600_000;
+		Files.writeString(snapshotPath(),
+			"[{\"key\":\"legacy\",\"value\":\"old\",\"expiresAt\":" + expiresAt + "}]", StandardCharsets.UTF_8);
+
+		AiResponseCache cache = create();
+		assertEquals("old", cache.get("legacy"));
+
+		cache.destroy();
+		String written = Files.readString(snapshotPath(), StandardCharsets.UTF_8);
+		assertTrue(written.contains("\"expires_at\":" + expiresAt), written);
+	}
+
+	private void enableSnapshot() {
+		properties.getSnapshot().setEnabled(true);
+		properties.getSnapshot().setPath(snapshotPath().toString());
+	}
+
+	private Path snapshotPath() {
+		return dir.resolve("ai-cache.json");
+	}
+
+	private AiResponseCache create() {
+		AiResponseCache cache = new AiResponseCache(properties, new SimpleMeterRegistry());
+		cache.init();
+		return cache;
+	}
+}
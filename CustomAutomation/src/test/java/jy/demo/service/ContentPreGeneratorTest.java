@@ -0,0 +1,143 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.api.AiMode;
+import jy.demo.dto.AiMessageJob;
+import jy.demo.dto.ThemePrompt;
+
+class ContentPreGeneratorTest {
+
+	private final ThemePromptService themePromptService = mock(ThemePromptService.class);
+	private final AiMessageJobProcessor processor = mock(AiMessageJobProcessor.class);
+	private final ClusterCoordinator coordinator = mock(ClusterCoordinator.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final LocalDateTime nextSlot = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+	@BeforeEach
+	void setUp() {
+		when(themePromptService.getThemeByTime(anyInt())).thenReturn(new ThemePrompt("명언", "오늘의 명언", false));
+		when(processor.generateAsync(any())).thenReturn(CompletableFuture.completedFuture("생성된 본문"));
+	}
+
+	@Test
+	void 같은_슬롯은_한_번만_생성한다() throws Exception {
+		ContentPreGenerator generator = create(2);
+
+		CompletableFuture<AiMessageJob> first = generator.prepare(nextSlot);
+		CompletableFuture<AiMessageJob> second = generator.prepare(nextSlot);
+
+		assertSame(first, second);
+		AiMessageJob job = first.get(5, TimeUnit.SECONDS);
+		assertEquals("명언", job.getTitle());
+		assertEquals("생성된 본문", job.getContent());
+		assertEquals(AiMode.PLAIN, job.getMode());
+		verify(processor, times(1)).generateAsync(any());
+	}
+
+	@Test
+	void 웹_검색이_필요한_테마는_에이전트_모드로_생성한다() {
+		when(themePromptService.getThemeByTime(anyInt())).thenReturn(new ThemePrompt("뉴스", "오늘의 뉴스", true));
+		ContentPreGenerator generator = create(2);
+
+		generator.prepare(nextSlot);
+
+		ArgumentCaptor<AiMessageJob> job = ArgumentCaptor.forClass(AiMessageJob.class);
+		verify(processor).generateAsync(job.capture());
+		assertEquals(AiMode.AGENT, job.getValue().getMode());
+		verify(themePromptService).getThemeByTime(nextSlot.getHour());
+	}
+
+	@Test
+	void 꺼낸_슬롯은_버퍼에서_빠지고_결과별로_집계한다() {
+		ContentPreGenerator generator = create(2);
+		generator.prepare(nextSlot);
+
+		CompletableFuture<AiMessageJob> ready = generator.take(nextSlot);
+
+		assertEquals("생성된 본문", ready.join().getContent());
+		assertNull(generator.take(nextSlot));
+		assertEquals(1, slotCount("ready"));
+		assertEquals(1, slotCount("missing"));
+		assertEquals(0, meterRegistry.get("pregen.buffer.size").gauge().value(), 1e-9);
+	}
+
+	@Test
+	void 생성_중이거나_실패한_슬롯도_구분해서_집계한다() {
+		ContentPreGenerator generator = create(4);
+		CompletableFuture<String> running = new CompletableFuture<>();
+		when(processor.generateAsync(any()))
+			.thenReturn(running)
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+		generator.prepare(nextSlot);
+		generator.prepare(nextSlot.plusHours(1));
+
+		CompletableFuture<AiMessageJob> pending = generator.take(nextSlot);
+		generator.take(nextSlot.plusHours(1));
+
+		assertEquals(1, slotCount("pending"));
+		assertEquals(1, slotCount("failed"));
+		running.complete("늦게 도착한 본문");
+		assertEquals("늦게 도착한 본문", pending.join().getContent());
+	}
+
+	@Test
+	void 버퍼가_가득_차면_가장_먼_슬롯을_버린다() {
+		ContentPreGenerator generator = create(2);
+		generator.prepare(nextSlot);
+		generator.prepare(nextSlot.plusHours(1));
+
+		generator.prepare(nextSlot.plusHours(2));
+
+		assertNull(generator.take(nextSlot.plusHours(1)));
+		assertEquals("생성된 본문", generator.take(nextSlot).join().getContent());
+		assertEquals("생성된 본문", generator.take(nextSlot.plusHours(2)).join().getContent());
+	}
+
+	@Test
+	void 지난_슬롯은_다음_생성_때_버린다() {
+		ContentPreGenerator generator = create(4);
+		LocalDateTime past = nextSlot.minusHours(3);
+		generator.prepare(past);
+
+		generator.prepare(nextSlot);
+
+		assertNull(generator.take(past));
+	}
+
+	@Test
+	void 꺼져_있으면_미리_생성하지_않는다() {
+		ContentPreGenerator generator = new ContentPreGenerator(themePromptService, processor, meterRegistry, coordinator, false, 2);
+
+		generator.prepareNextSlot();
+
+		verifyNoInteractions(coordinator, processor);
+	}
+
+	private ContentPreGenerator create(int bufferSize) {
+		return new ContentPreGenerator(themePromptService, processor, meterRegistry, coordinator, true, bufferSize);
+	}
+
+	private double slotCount(String result) {
+		return meterRegistry.get("pregen.slot").tag("result", result).counter().count();
+	}
+}
@@ -0,0 +1,146 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.config.ResilienceProperties;
+import jy.demo.dto.ChannelCapability;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import jy.demo.util.PipelineMetrics;
+import jy.demo.util.UpstreamGuard;
+
+class DeliveryFanoutServiceTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void 채널이_돌려준_실패는_FAILED로_기록한다() throws Exception {
+		StubChannel slack = new StubChannel(UpstreamGuard.SLACK,
+			() -> result(UpstreamGuard.SLACK, DeliveryResult.Status.FAILED, false));
+		DeliveryFanoutService service = service(1000, slack);
+
+		DeliveryResult result = service.deliverAsync(UpstreamGuard.SLACK, new Message("hello")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, result.getStatus());
+		assertEquals(1, slack.calls.get());
+		assertEquals(1.0, deliveries(UpstreamGuard.SLACK, DeliveryResult.Status.FAILED));
+		assertEquals(0.0, deliveries(UpstreamGuard.SLACK, DeliveryResult.Status.SUCCESS));
+	}
+
+	@Test
+	void 재시도할_만한_실패는_같은_채널로만_다시_보낸다() throws Exception {
+		StubChannel slack = new StubChannel(UpstreamGuard.SLACK,
+			() -> result(UpstreamGuard.SLACK, DeliveryResult.Status.FAILED, true),
+			() -> result(UpstreamGuard.SLACK, DeliveryResult.Status.SUCCESS, false));
+		StubChannel kakao = new StubChannel(UpstreamGuard.KAKAO,
+			() -> result(UpstreamGuard.KAKAO, DeliveryResult.Status.SUCCESS, false));
+		DeliveryFanoutService service = service(1000, slack, kakao);
+
+		Map<String, DeliveryResult> results = service.dispatchAsync(new Message("hello")).get(5, TimeUnit.SECONDS);
+
+		assertTrue(results.get(UpstreamGuard.SLACK).isSuccess());
+		assertTrue(results.get(UpstreamGuard.KAKAO).isSuccess());
+		assertEquals(2, slack.calls.get());
+		assertEquals(1, kakao.calls.get());
+	}
+
+	@Test
+	void 시간_초과는_TIMEOUT으로_기록하고_재시도하지_않는다() throws Exception {
+		StubChannel slack = new StubChannel(UpstreamGuard.SLACK, CompletableFuture::new);
+		DeliveryFanoutService service = service(50, slack);
+
+		DeliveryResult result = service.deliverAsync(UpstreamGuard.SLACK, new Message("hello")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.TIMEOUT, result.getStatus());
+		assertFalse(result.isRetryable());
+		assertEquals(1, slack.calls.get());
+	}
+
+	@Test
+	void 예외로_끝난_전송은_FAILED로_바꾼다() throws Exception {
+		StubChannel slack = new StubChannel(UpstreamGuard.SLACK,
+			() -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+		DeliveryFanoutService service = service(1000, slack);
+
+		DeliveryResult result = service.deliverAsync(UpstreamGuard.SLACK, new Message("hello")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, result.getStatus());
+		assertEquals("boom", result.getDetail());
+	}
+
+	@Test
+	void 등록되지_않은_채널은_보내지_않고_실패로_끝낸다() throws Exception {
+		DeliveryFanoutService service = service(1000);
+
+		DeliveryResult result = service.deliverAsync("unknown", new Message("hello")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, result.getStatus());
+	}
+
+	private DeliveryFanoutService service(long timeoutMs, MessageService... channels) {
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.getUpstreams().values().forEach(upstream -> {
+			upstream.setRetryInitialBackoffMs(10);
+			upstream.setRetryJitter(0);
+		});
+		DeliveryFanoutService service = new DeliveryFanoutService(new MessageChannelRegistry(List.of(channels)),
+			new PipelineMetrics(meterRegistry), new UpstreamGuard(properties, meterRegistry));
+		ReflectionTestUtils.setField(service, "timeoutMs", timeoutMs);
+		return service;
+	}
+
+	private double deliveries(String channel, DeliveryResult.Status status) {
+		return meterRegistry.counter("pipeline.delivery.result", "channel", channel, "status", status.name()).count();
+	}
+
+	private static CompletableFuture<DeliveryResult> result(String channel, DeliveryResult.Status status, boolean retryable) {
+		return CompletableFuture.completedFuture(new DeliveryResult(channel, status, status.name(), 1, retryable));
+	}
+
+	/**
+	 * 호출마다 준비한 응답을 차례로 돌려주는 채널 (마지막 응답은 계속 반복)
+	 */
+	private static final class StubChannel implements MessageService {
+		private final String name;
+		private final Queue<Supplier<CompletableFuture<DeliveryResult>>> responses = new ArrayDeque<>();
+		private final AtomicInteger calls = new AtomicInteger();
+
+		@SafeVarargs
+		private StubChannel(String name, Supplier<CompletableFuture<DeliveryResult>>... responses) {
+			this.name = name;
+			this.responses.addAll(List.of(responses));
+		}
+
+		@Override
+		public String getChannelName() {
+			return name;
+		}
+
+		@Override
+		public ChannelCapability getCapability() {
+			return new ChannelCapability(false, Integer.MAX_VALUE);
+		}
+
+		@Override
+		public synchronized CompletableFuture<DeliveryResult> deliver(Message message) {
+			calls.incrementAndGet();
+			Supplier<CompletableFuture<DeliveryResult>> response = responses.size() > 1 ? responses.poll() : responses.peek();
+			return response.get();
+		}
+	}
+}
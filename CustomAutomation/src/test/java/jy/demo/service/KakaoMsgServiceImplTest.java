@@ -0,0 +1,191 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.api.WebClientImpl;
+import jy.demo.config.RateLimitProperties;
+import jy.demo.config.ResilienceProperties;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import jy.demo.util.JsonUtil;
+import jy.demo.util.UpstreamGuard;
+import reactor.core.publisher.Mono;
+
+class KakaoMsgServiceImplTest {
+
+	private static final String SUCCESS = "{\"result_code\":0}";
+
+	private final WebClientImpl apiClient = mock(WebClientImpl.class);
+	private final KakaoTokenManager tokenManager = mock(KakaoTokenManager.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ChannelRateLimiter rateLimiter = new ChannelRateLimiter(new RateLimitProperties(), meterRegistry);
+
+	@AfterEach
+	void tearDown() {
+		rateLimiter.close();
+	}
+
+	@Test
+	void 텍스트_템플릿으로_전송한다() throws Exception {
+		when(tokenManager.getAccessToken()).thenReturn("access");
+		when(apiClient.postFormMono(anyString(), anyString(), anyMap())).thenReturn(Mono.just(SUCCESS));
+		KakaoMsgServiceImpl service = create(200, "");
+
+		DeliveryResult result = service.deliver(new Message("제목", "본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.SUCCESS, result.getStatus());
+		Map<String, Object> template = sentTemplate(0);
+		assertEquals("text", template.get("object_type"));
+		assertEquals("[제목]\n본문", template.get("text"));
+		assertEquals("Bearer access", sentHeaders(0).get("Authorization"));
+	}
+
+	@Test
+	void 최대_길이를_넘는_본문은_잘라서_보낸다() throws Exception {
+		when(tokenManager.getAccessToken()).thenReturn("access");
+		when(apiClient.postFormMono(anyString(), anyString(), anyMap())).thenReturn(Mono.just(SUCCESS));
+		KakaoMsgServiceImpl service = create(20, "");
+
+		service.deliver(new Message("가".repeat(50))).get(5, TimeUnit.SECONDS);
+
+		String text = (String) sentTemplate(0).get("text");
+		assertEquals(20, text.length());
+		assertTrue(text.endsWith("..."), text);
+	}
+
+	@Test
+	void 카카오_오류_코드는_재시도하지_않는_실패로_본다() throws Exception {
+		when(tokenManager.getAccessToken()).thenReturn("access");
+		when(apiClient.postFormMono(anyString(), anyString(), anyMap()))
+			.thenReturn(Mono.just("{\"result_code\":-402,\"msg\":\"insufficient scopes\"}"));
+		KakaoMsgServiceImpl service = create(200, "");
+
+		DeliveryResult result = service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, result.getStatus());
+		assertTrue(result.getDetail().contains("insufficient scopes"), result.getDetail());
+		assertFalse(result.isRetryable());
+	}
+
+	@Test
+	void 토큰이_없으면_보내지_않는다() throws Exception {
+		KakaoMsgServiceImpl service = create(200, "");
+
+		DeliveryResult result = service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, result.getStatus());
+		assertTrue(result.getDetail().contains("액세스 토큰이 없습니다"), result.getDetail());
+		verify(apiClient, never()).postFormMono(anyString(), anyString(), anyMap());
+	}
+
+	@Test
+	void 토큰이_거부되면_한_번_갱신하고_다시_보낸다() throws Exception {
+		when(tokenManager.getAccessToken()).thenReturn("expired");
+		when(tokenManager.refreshAfterRejection("expired")).thenReturn("refreshed");
+		when(apiClient.postFormMono(anyString(), anyString(), anyMap()))
+			.thenReturn(Mono.error(error(401)))
+			.thenReturn(Mono.just(SUCCESS));
+		KakaoMsgServiceImpl service = create(200, "");
+
+		DeliveryResult result = service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.SUCCESS, result.getStatus());
+		assertEquals("Bearer expired", sentHeaders(0).get("Authorization"));
+		assertEquals("Bearer refreshed", sentHeaders(1).get("Authorization"));
+	}
+
+	@Test
+	void 서버_오류는_재시도할_수_있는_실패로_본다() throws Exception {
+		when(tokenManager.getAccessToken()).thenReturn("access");
+		when(apiClient.postFormMono(anyString(), anyString(), anyMap())).thenReturn(Mono.error(error(503)));
+		KakaoMsgServiceImpl service = create(200, "");
+
+		DeliveryResult result = service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, result.getStatus());
+		assertTrue(result.isRetryable());
+	}
+
+	@Test
+	void 항목_이미지가_없으면_묶어서_보내지_않는다() throws Exception {
+		KakaoMsgServiceImpl service = create(200, "");
+
+		assertEquals(1, service.getMaxDigestMessages());
+		DeliveryResult result = service.deliverDigest(List.of(new Message("a"), new Message("b"))).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, result.getStatus());
+		verify(apiClient, never()).postFormMono(anyString(), anyString(), anyMap());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void 묶음은_리스트_템플릿_하나로_보낸다() throws Exception {
+		when(tokenManager.getAccessToken()).thenReturn("access");
+		when(apiClient.postFormMono(anyString(), anyString(), anyMap())).thenReturn(Mono.just(SUCCESS));
+		KakaoMsgServiceImpl service = create(200, "https://example.com/item.png");
+
+		assertEquals(3, service.getMaxDigestMessages());
+		DeliveryResult result = service.deliverDigest(List.of(
+			new Message("첫 제목", "첫 본문"), new Message("둘째 본문"))).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.SUCCESS, result.getStatus());
+		verify(apiClient, times(1)).postFormMono(anyString(), anyString(), anyMap());
+		Map<String, Object> template = sentTemplate(0);
+		assertEquals("list", template.get("object_type"));
+		List<Map<String, Object>> contents = (List<Map<String, Object>>) template.get("contents");
+		assertEquals(2, contents.size());
+		assertEquals("첫 제목", contents.get(0).get("title"));
+		assertEquals("둘째 본문", contents.get(1).get("title"));
+		assertEquals("https://example.com/item.png", contents.get(1).get("image_url"));
+	}
+
+	private KakaoMsgServiceImpl create(int maxLength, String listImageUrl) {
+		UpstreamGuard upstreamGuard = new UpstreamGuard(new ResilienceProperties(), meterRegistry);
+		return new KakaoMsgServiceImpl(apiClient, new JsonUtil(), tokenManager, rateLimiter, upstreamGuard,
+			maxLength, listImageUrl);
+	}
+
+	private Map<String, Object> sentTemplate(int index) {
+		ArgumentCaptor<String> form = ArgumentCaptor.forClass(String.class);
+		verify(apiClient, atLeastOnce()).postFormMono(anyString(), form.capture(), anyMap());
+		String body = form.getAllValues().get(index);
+		assertTrue(body.startsWith("template_object="), body);
+		return JsonUtil.toMap(URLDecoder.decode(body.substring("template_object=".length()), StandardCharsets.UTF_8));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, String> sentHeaders(int index) {
+		ArgumentCaptor<Map<String, String>> headers = ArgumentCaptor.forClass(Map.class);
+		verify(apiClient, atLeastOnce()).postFormMono(eq("https://kapi.kakao.com/v2/api/talk/memo/default/send"),
+			anyString(), headers.capture());
+		return headers.getAllValues().get(index);
+	}
+
+	private static WebClientResponseException error(int status) {
+		return WebClientResponseException.create(status, "error", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,189 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import jy.demo.api.WebClientImpl;
+import jy.demo.dto.JsonConvertible;
+import jy.demo.dto.KakaoTokenDto;
+import jy.demo.util.KakaoTokenFileManager;
+
+class KakaoTokenManagerTest {
+
+	private static final String REFRESHED = "{\"access_token\":\"new-access\",\"expires_in\":21599}";
+
+	private final WebClientImpl apiClient = mock(WebClientImpl.class);
+	private final KakaoTokenFileManager fileManager = mock(KakaoTokenFileManager.class);
+	private final ClusterCoordinator coordinator = mock(ClusterCoordinator.class);
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@BeforeEach
+	void setUp() {
+		when(coordinator.isLeader()).thenReturn(true);
+		when(coordinator.getNodeId()).thenReturn("node-2");
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void 저장된_토큰이_없으면_null() {
+		KakaoTokenManager manager = create(5000);
+
+		assertNull(manager.getAccessToken());
+		assertFalse(manager.hasToken());
+	}
+
+	@Test
+	void 만료되지_않은_토큰은_갱신하지_않는다() {
+		when(fileManager.loadToken()).thenReturn(token("access", Instant.now()));
+		KakaoTokenManager manager = create(5000);
+
+		assertEquals("access", manager.getAccessToken());
+		verify(apiClient, never()).post(anyString(), any(JsonConvertible.class), any());
+	}
+
+	@Test
+	void 만료된_토큰은_갱신하고_refresh_token이_없으면_기존_값을_유지한다() {
+		when(fileManager.loadToken()).thenReturn(token("old-access", Instant.now().minus(Duration.ofHours(7))));
+		when(apiClient.post(anyString(), any(JsonConvertible.class), any())).thenReturn(REFRESHED);
+		KakaoTokenManager manager = create(5000);
+
+		assertEquals("new-access", manager.getAccessToken());
+
+		ArgumentCaptor<KakaoTokenDto> saved = ArgumentCaptor.forClass(KakaoTokenDto.class);
+		verify(fileManager).saveToken(saved.capture());
+		assertEquals("new-access", saved.getValue().getAccessToken());
+		assertEquals("refresh", saved.getValue().getRefreshToken());
+		assertEquals(21599L, saved.getValue().getExpiresIn());
+	}
+
+	@Test
+	void 동시에_만료된_토큰을_만나도_갱신_요청은_한_번만_보낸다() throws Exception {
+		when(fileManager.loadToken()).thenReturn(token("old-access", Instant.now().minus(Duration.ofHours(7))));
+		when(apiClient.post(anyString(), any(JsonConvertible.class), any())).thenAnswer(invocation -> {
+			Thread.sleep(200);
+			return REFRESHED;
+		});
+		KakaoTokenManager manager = create(5000);
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(manager::getAccessToken));
+		}
+
+		for (Future<String> result : results) {
+			assertEquals("new-access", result.get(5, TimeUnit.SECONDS));
+		}
+		verify(apiClient, times(1)).post(anyString(), any(JsonConvertible.class), any());
+	}
+
+	@Test
+	void 거부된_토큰이_이미_교체됐으면_다시_갱신하지_않는다() {
+		when(fileManager.loadToken()).thenReturn(token("access", Instant.now()));
+		KakaoTokenManager manager = create(5000);
+
+		assertEquals("access", manager.refreshAfterRejection("older-access"));
+		verify(apiClient, never()).post(anyString(), any(JsonConvertible.class), any());
+	}
+
+	@Test
+	void 거부된_토큰은_만료_전이라도_갱신한다() {
+		when(fileManager.loadToken()).thenReturn(token("access", Instant.now()));
+		when(apiClient.post(anyString(), any(JsonConvertible.class), any())).thenReturn(REFRESHED);
+		KakaoTokenManager manager = create(5000);
+
+		assertEquals("new-access", manager.refreshAfterRejection("access"));
+		assertEquals("new-access", manager.getAccessToken());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void 리더가_아니면_파일로_들어오는_새_토큰을_기다린다() throws Exception {
+		when(coordinator.isLeader()).thenReturn(false);
+		when(fileManager.loadToken()).thenReturn(token("old-access", Instant.now().minus(Duration.ofHours(7))));
+		KakaoTokenManager manager = create(5000);
+		ArgumentCaptor<Consumer<KakaoTokenDto>> listener = ArgumentCaptor.forClass(Consumer.class);
+		verify(fileManager).addListener(listener.capture());
+
+		Future<String> waiting = executor.submit(manager::getAccessToken);
+		Thread.sleep(300);
+		listener.getValue().accept(token("leader-access", Instant.now()));
+
+		assertEquals("leader-access", waiting.get(5, TimeUnit.SECONDS));
+		verify(apiClient, never()).post(anyString(), any(JsonConvertible.class), any());
+	}
+
+	@Test
+	void 리더의_갱신이_오지_않으면_재시도_가능한_오류로_실패한다() {
+		when(coordinator.isLeader()).thenReturn(false);
+		when(fileManager.loadToken()).thenReturn(token("old-access", Instant.now().minus(Duration.ofHours(7))));
+		KakaoTokenManager manager = create(100);
+
+		IllegalStateException error = assertThrows(IllegalStateException.class, manager::getAccessToken);
+
+		assertInstanceOf(TimeoutException.class, error.getCause());
+	}
+
+	@Test
+	void 사전_갱신은_만료가_가까운_리더만_한다() {
+		when(fileManager.loadToken()).thenReturn(token("access", Instant.now().minus(Duration.ofHours(6)).plusSeconds(60)));
+		when(apiClient.post(anyString(), any(JsonConvertible.class), any())).thenReturn(REFRESHED);
+		KakaoTokenManager manager = create(5000);
+
+		when(coordinator.isLeader()).thenReturn(false);
+		manager.refreshIfExpiring();
+		verify(apiClient, never()).post(anyString(), any(JsonConvertible.class), any());
+
+		when(coordinator.isLeader()).thenReturn(true);
+		manager.refreshIfExpiring();
+		assertEquals("new-access", manager.getAccessToken());
+		verify(apiClient, times(1)).post(anyString(), any(JsonConvertible.class), any());
+	}
+
+	private KakaoTokenManager create(long followerWaitMs) {
+		KakaoTokenManager manager = new KakaoTokenManager(apiClient, fileManager, coordinator, "client-id", 600000, followerWaitMs);
+		manager.load();
+		return manager;
+	}
+
+	/**
+	 * 6시간(21600초) 유효한 토큰
+	 */
+	private static KakaoTokenDto token(String accessToken, Instant updatedAt) {
+		KakaoTokenDto token = new KakaoTokenDto();
+		token.setAccessToken(accessToken);
+		token.setRefreshToken("refresh");
+		token.setExpiresIn(21600L);
+		token.setUpdatedAt(updatedAt.toString());
+		return token;
+	}
+}
@@ -0,0 +1,82 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import jy.demo.dto.ChannelCapability;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+
+class MessageChannelRegistryTest {
+
+	@Test
+	void 등록한_순서대로_채널을_조회한다() {
+		RecordingChannel slack = new RecordingChannel("slack");
+		RecordingChannel kakao = new RecordingChannel("kakao");
+
+		MessageChannelRegistry registry = new MessageChannelRegistry(List.of(slack, kakao));
+
+		assertEquals(List.of("slack", "kakao"), registry.getChannelNames());
+		assertSame(kakao, registry.getChannel("kakao"));
+		assertNull(registry.getChannel("email"));
+	}
+
+	@Test
+	void 같은_이름으로_등록하면_교체한다() {
+		MessageChannelRegistry registry = new MessageChannelRegistry(List.of(new RecordingChannel("slack")));
+		RecordingChannel replacement = new RecordingChannel("slack");
+
+		registry.register(replacement);
+
+		assertEquals(List.of("slack"), registry.getChannelNames());
+		assertSame(replacement, registry.getChannel("slack"));
+	}
+
+	@Test
+	void 기본_다이제스트는_메시지를_이어_붙여_한_번에_보낸다() {
+		RecordingChannel channel = new RecordingChannel("webhook");
+
+		channel.deliverDigest(List.of(new Message("첫째", "본문1"), new Message("본문2"))).join();
+
+		assertEquals(1, channel.sent.size());
+		assertEquals("[첫째]\n본문1\n\n본문2", channel.sent.get(0).toPlainText());
+	}
+
+	@Test
+	void 기본_sendMessage는_전송_결과의_상세를_돌려준다() {
+		assertEquals("sent: hello", new RecordingChannel("webhook").sendMessage("hello"));
+	}
+
+	private static final class RecordingChannel implements MessageService {
+		private final String name;
+		private final List<Message> sent = new ArrayList<>();
+
+		private RecordingChannel(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String getChannelName() {
+			return name;
+		}
+
+		@Override
+		public ChannelCapability getCapability() {
+			return new ChannelCapability(false, 1000);
+		}
+
+		@Override
+		public CompletableFuture<DeliveryResult> deliver(Message message) {
+			sent.add(message);
+			return CompletableFuture.completedFuture(
+				new DeliveryResult(name, DeliveryResult.Status.SUCCESS, "sent: " + message.getBody(), 0));
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.config.DigestProperties;
+import jy.demo.dto.ChannelCapability;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+
+class MessageDigestServiceTest {
+
+	private static final String DIGEST = "slack";
+	private static final String DIRECT = "webhook";
+
+	private final StubFanout fanout = new StubFanout();
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private MessageDigestService service;
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+		if (service != null) {
+			service.close();
+		}
+	}
+
+	@Test
+	void 동시에_담아도_묶음은_최대_건수를_넘지_않는다() throws Exception {
+		service = service(3600000, 3);
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<CompletableFuture<Map<String, DeliveryResult>>>> submitted = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			Message message = new Message("message " + i);
+			submitted.add(executor.submit(() -> {
+				start.await();
+				return service.dispatchAsync(message, List.of(DIGEST));
+			}));
+		}
+		start.countDown();
+		for (Future<CompletableFuture<Map<String, DeliveryResult>>> future : submitted) {
+			assertTrue(future.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS).get(DIGEST).isSuccess());
+		}
+
+		assertEquals(10, fanout.batches.size());
+		fanout.batches.forEach(batch -> assertEquals(3, batch.size()));
+	}
+
+	@Test
+	void 시간이_지나면_모인_만큼만_보낸다() throws Exception {
+		service = service(200, 10);
+
+		CompletableFuture<Map<String, DeliveryResult>> first = service.dispatchAsync(new Message("a"), List.of(DIGEST));
+		CompletableFuture<Map<String, DeliveryResult>> second = service.dispatchAsync(new Message("b"), List.of(DIGEST));
+		assertFalse(first.isDone());
+
+		assertTrue(first.get(5, TimeUnit.SECONDS).get(DIGEST).isSuccess());
+		assertTrue(second.get(5, TimeUnit.SECONDS).get(DIGEST).isSuccess());
+		assertEquals(1, fanout.batches.size());
+		assertEquals(2, fanout.batches.get(0).size());
+	}
+
+	@Test
+	void 메시지별_결과는_묶음_전송_결과로_완료된다() throws Exception {
+		DeliveryResult failed = new DeliveryResult(DIGEST, DeliveryResult.Status.FAILED, "boom", 1);
+		fanout.digestResult = failed;
+		service = service(3600000, 2);
+
+		CompletableFuture<Map<String, DeliveryResult>> first = service.dispatchAsync(new Message("a"), List.of(DIGEST, DIRECT));
+		assertFalse(first.isDone());
+		CompletableFuture<Map<String, DeliveryResult>> second = service.dispatchAsync(new Message("b"), List.of(DIGEST));
+
+		assertSame(failed, first.get(5, TimeUnit.SECONDS).get(DIGEST));
+		assertSame(failed, second.get(5, TimeUnit.SECONDS).get(DIGEST));
+		// 다이제스트 설정이 없는 채널은 바로 전송
+		assertTrue(first.get().get(DIRECT).isSuccess());
+		assertEquals(List.of(List.of(DIRECT)), fanout.immediate);
+	}
+
+	@Test
+	void 종료할_때_모아둔_메시지를_보낸다() throws Exception {
+		service = service(3600000, 10);
+		CompletableFuture<Map<String, DeliveryResult>> first = service.dispatchAsync(new Message("a"), List.of(DIGEST));
+		CompletableFuture<Map<String, DeliveryResult>> second = service.dispatchAsync(new Message("b"), List.of(DIGEST));
+
+		service.close();
+		service = null;
+
+		assertTrue(first.isDone());
+		assertTrue(second.get().get(DIGEST).isSuccess());
+		assertEquals(1, fanout.batches.size());
+		assertEquals(2, fanout.batches.get(0).size());
+	}
+
+	private MessageDigestService service(long windowMs, int maxMessages) {
+		DigestProperties properties = new DigestProperties();
+		properties.setEnabled(true);
+		properties.setChannels(new LinkedHashMap<>(Map.of(DIGEST, new DigestProperties.Policy(windowMs, maxMessages))));
+		MessageChannelRegistry registry = new MessageChannelRegistry(List.of(new StubChannel(DIGEST), new StubChannel(DIRECT)));
+		return new MessageDigestService(properties, fanout, registry, new SimpleMeterRegistry());
+	}
+
+	/**
+	 * 전송 대신 묶음을 기록하는 DeliveryFanoutService
+	 */
+	private static final class StubFanout extends DeliveryFanoutService {
+		private final List<List<Message>> batches = Collections.synchronizedList(new ArrayList<>());
+		private final List<List<String>> immediate = Collections.synchronizedList(new ArrayList<>());
+		private volatile DeliveryResult digestResult;
+
+		private StubFanout() {
+			super(null, null, null);
+		}
+
+		@Override
+		public CompletableFuture<DeliveryResult> deliverDigestAsync(String channelName, List<Message> messages) {
+			batches.add(List.copyOf(messages));
+			DeliveryResult result = digestResult;
+			return CompletableFuture.completedFuture(result != null ? result
+				: new DeliveryResult(channelName, DeliveryResult.Status.SUCCESS, messages.size() + "건", 1));
+		}
+
+		@Override
+		public CompletableFuture<Map<String, DeliveryResult>> dispatchAsync(Message message, Collection<String> channelNames) {
+			immediate.add(List.copyOf(channelNames));
+			Map<String, DeliveryResult> results = new LinkedHashMap<>();
+			channelNames.forEach(name -> results.put(name, new DeliveryResult(name, DeliveryResult.Status.SUCCESS, "ok", 1)));
+			return CompletableFuture.completedFuture(results);
+		}
+	}
+
+	private static final class StubChannel implements MessageService {
+		private final String name;
+
+		private StubChannel(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String getChannelName() {
+			return name;
+		}
+
+		@Override
+		public ChannelCapability getCapability() {
+			return new ChannelCapability(true, Integer.MAX_VALUE);
+		}
+
+		@Override
+		public CompletableFuture<DeliveryResult> deliver(Message message) {
+			return CompletableFuture.completedFuture(new DeliveryResult(name, DeliveryResult.Status.SUCCESS, "ok", 1));
+		}
+	}
+}
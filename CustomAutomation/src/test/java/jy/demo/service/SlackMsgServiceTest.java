@@ -0,0 +1,159 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.api.WebClientImpl;
+import jy.demo.config.RateLimitProperties;
+import jy.demo.config.ResilienceProperties;
+import jy.demo.dto.DeliveryResult;
+import jy.demo.dto.Message;
+import jy.demo.util.JsonUtil;
+import jy.demo.util.UpstreamGuard;
+import reactor.core.publisher.Mono;
+
+class SlackMsgServiceTest {
+
+	private static final String WEBHOOK_URL = "https://hooks.slack.com/services/T000/B000/secret";
+
+	private final WebClientImpl apiClient = mock(WebClientImpl.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private ChannelRateLimiter rateLimiter;
+	private SlackMsgService service;
+
+	@BeforeEach
+	void setUp() {
+		// 전송 한도 대기 없이 확인 (429 처리는 채널 설정이 없어도 동작)
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.getChannels().clear();
+		rateLimiter = new ChannelRateLimiter(properties, meterRegistry);
+		service = new SlackMsgService(apiClient, rateLimiter,
+			new UpstreamGuard(new ResilienceProperties(), meterRegistry), 5000);
+		ReflectionTestUtils.setField(service, "webhookUrl", WEBHOOK_URL);
+		when(apiClient.postJsonMono(anyString(), any(), any())).thenReturn(Mono.just("ok"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		rateLimiter.close();
+	}
+
+	@Test
+	void 제목이_있으면_블록으로_보낸다() throws Exception {
+		DeliveryResult result = service.deliver(new Message("🚀 Tech Insight", "*본문*")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.SUCCESS, result.getStatus());
+		List<Map<String, Object>> blocks = blocks(sentPayload());
+		assertEquals(List.of("header", "divider", "section"), blocks.stream().map(block -> block.get("type")).toList());
+		assertEquals(Map.of("type", "plain_text", "text", "🚀 Tech Insight"), blocks.get(0).get("text"));
+		assertEquals(Map.of("type", "mrkdwn", "text", "*본문*"), blocks.get(2).get("text"));
+	}
+
+	@Test
+	void 제목이_없으면_텍스트로_보낸다() throws Exception {
+		service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(Map.of("text", "본문"), sentPayload());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void 블록_길이_제한에_맞춰_자른다() throws Exception {
+		service.deliver(new Message("가".repeat(200), "나".repeat(4000))).get(5, TimeUnit.SECONDS);
+
+		List<Map<String, Object>> blocks = blocks(sentPayload());
+		assertEquals(150, ((Map<String, String>) blocks.get(0).get("text")).get("text").length());
+		assertEquals(3000, ((Map<String, String>) blocks.get(2).get("text")).get("text").length());
+	}
+
+	@Test
+	void 묶음은_메시지마다_블록을_만들고_사이에_구분선을_넣는다() throws Exception {
+		DeliveryResult result = service.deliverDigest(List.of(new Message("제목", "첫 본문"), new Message("둘째 본문")))
+			.get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.SUCCESS, result.getStatus());
+		Map<String, Object> payload = sentPayload();
+		assertEquals("AI 메시지 2건", payload.get("text"));
+		assertEquals(List.of("header", "section", "divider", "section"),
+			blocks(payload).stream().map(block -> block.get("type")).toList());
+	}
+
+	@Test
+	void 서버_오류만_재시도할_수_있는_실패로_본다() throws Exception {
+		when(apiClient.postJsonMono(anyString(), any(), any()))
+			.thenReturn(Mono.error(error(503, HttpHeaders.EMPTY)))
+			.thenReturn(Mono.error(error(400, HttpHeaders.EMPTY)));
+
+		DeliveryResult unavailable = service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+		DeliveryResult badRequest = service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.FAILED, unavailable.getStatus());
+		assertTrue(unavailable.isRetryable());
+		assertEquals(DeliveryResult.Status.FAILED, badRequest.getStatus());
+		assertFalse(badRequest.isRetryable());
+	}
+
+	@Test
+	void 요청_한도_초과_응답을_받으면_한_번_다시_보낸다() throws Exception {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "0");
+		when(apiClient.postJsonMono(anyString(), any(), any()))
+			.thenReturn(Mono.error(error(429, headers)))
+			.thenReturn(Mono.just("ok"));
+
+		DeliveryResult result = service.deliver(new Message("본문")).get(5, TimeUnit.SECONDS);
+
+		assertEquals(DeliveryResult.Status.SUCCESS, result.getStatus());
+		verify(apiClient, times(2)).postJsonMono(eq(WEBHOOK_URL), any(), eq(Duration.ofMillis(5000)));
+		assertEquals(1, meterRegistry.get("ratelimit.retry.after").tag("channel", "slack").counter().count(), 1e-9);
+	}
+
+	@Test
+	void 예시_Webhook_URL은_설정되지_않은_것으로_본다() {
+		assertTrue(service.isAvailable());
+
+		ReflectionTestUtils.setField(service, "webhookUrl", "https://hooks.slack.com/services/YOUR/WEBHOOK/URL");
+		assertFalse(service.isAvailable());
+
+		ReflectionTestUtils.setField(service, "webhookUrl", "");
+		assertFalse(service.isAvailable());
+	}
+
+	private Map<String, Object> sentPayload() {
+		ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+		verify(apiClient).postJsonMono(eq(WEBHOOK_URL), payload.capture(), any());
+		return JsonUtil.toMap(new String(payload.getValue(), StandardCharsets.UTF_8));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> blocks(Map<String, Object> payload) {
+		return (List<Map<String, Object>>) payload.get("blocks");
+	}
+
+	private static WebClientResponseException error(int status, HttpHeaders headers) {
+		return WebClientResponseException.create(status, "error", headers, new byte[0], StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,144 @@
+package jy.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jy.demo.config.ThemeProperties;
+import jy.demo.dto.ThemePrompt;
+
+class ThemePromptServiceTest {
+
+	@TempDir
+	Path dir;
+
+	private final ThemeProperties properties = new ThemeProperties();
+
+	@BeforeEach
+	void setUp() {
+		properties.setFile(dir.resolve("themes.json").toString());
+	}
+
+	@Test
+	void 설정이_없으면_기본_테마와_시간대를_쓴다() {
+		ThemePromptService service = create();
+
+		assertEquals(10, service.getAllThemes().size());
+		assertEquals(Set.of("morning", "afternoon", "evening", "night", "dawn"), service.getSlots().keySet());
+		assertEquals(Set.of("💡 오늘의 명언", "🏃 건강 라이프", "🎯 목표 설정"), pickThemes(service, 7));
+	}
+
+	@Test
+	void 설정한_시간대의_테마만_고르고_시간대가_없으면_전체에서_고른다() {
+		configure();
+		ThemePromptService service = create();
+
+		assertEquals(Set.of("A", "B"), pickThemes(service, 9));
+		assertEquals(Set.of("A", "B", "C"), pickThemes(service, 20));
+	}
+
+	@Test
+	void 가중치를_0으로_바꾸면_시간대에서_빠진다() {
+		configure();
+		ThemePromptService service = create();
+
+		service.setWeight("morning", "A", 0);
+
+		assertEquals(Set.of("B"), pickThemes(service, 9));
+		assertFalse(service.getSlots().get("morning").getWeights().containsKey("A"));
+	}
+
+	@Test
+	void 잘못된_가중치_변경은_거절한다() {
+		configure();
+		ThemePromptService service = create();
+
+		assertThrows(IllegalArgumentException.class, () -> service.setWeight("morning", "A", ThemePromptService.MAX_WEIGHT + 1));
+		assertThrows(IllegalArgumentException.class, () -> service.setWeight("morning", "A", -1));
+		assertThrows(IllegalStateException.class, () -> service.setWeight("unknown", "A", 1));
+		assertThrows(IllegalStateException.class, () -> service.setWeight("morning", "unknown", 1));
+	}
+
+	@Test
+	void 런타임_변경분만_저장하고_다시_시작하면_설정_위에_적용한다() {
+		configure();
+		ThemePromptService service = create();
+		service.addTheme(new ThemePrompt("D", "prompt D", true));
+		service.setWeight("morning", "D", 3);
+		service.setWeight("morning", "A", 0);
+
+		ThemePromptService restarted = create();
+
+		assertEquals(List.of("A", "B", "C", "D"), restarted.getAllThemes().stream().map(ThemePrompt::getTheme).toList());
+		assertTrue(restarted.getAllThemes().get(3).isRequiresWebSearch());
+		assertEquals(Map.of("B", 1, "D", 3), restarted.getSlots().get("morning").getWeights());
+		assertEquals(Set.of("B", "D"), pickThemes(restarted, 9));
+	}
+
+	@Test
+	void 같은_이름의_테마를_추가하면_교체한다() {
+		configure();
+		ThemePromptService service = create();
+
+		service.addTheme("A", "new prompt");
+
+		assertEquals(3, service.getAllThemes().size());
+		assertEquals("new prompt", service.getAllThemes().get(0).getPrompt());
+	}
+
+	@Test
+	void 저장에_실패하면_변경을_반영하지_않는다() throws IOException {
+		// 저장 경로가 비어있지 않은 디렉터리면 원자적 교체가 실패한다
+		Path blocked = Files.createDirectories(dir.resolve("blocked"));
+		Files.writeString(blocked.resolve("keep"), "x");
+		properties.setFile(blocked.toString());
+		configure();
+		ThemePromptService service = new ThemePromptService(properties);
+		service.load();
+
+		assertThrows(UncheckedIOException.class, () -> service.addTheme("D", "prompt D"));
+		assertThrows(UncheckedIOException.class, () -> service.setWeight("morning", "A", 0));
+
+		assertEquals(3, service.getAllThemes().size());
+		assertEquals(Set.of("A", "B"), pickThemes(service, 9));
+	}
+
+	private void configure() {
+		properties.setDefinitions(List.of(
+			new ThemePrompt("A", "prompt A"),
+			new ThemePrompt("B", "prompt B"),
+			new ThemePrompt("C", "prompt C")));
+		properties.setSlots(Map.of("morning", new ThemeProperties.Slot(6, 12, Map.of("A", 1, "B", 1))));
+	}
+
+	private ThemePromptService create() {
+		ThemePromptService service = new ThemePromptService(properties);
+		service.load();
+		return service;
+	}
+
+	/**
+	 * 무작위 선택을 충분히 반복해 나올 수 있는 테마 이름을 모은다.
+	 */
+	private static Set<String> pickThemes(ThemePromptService service, int hour) {
+		Set<String> picked = new HashSet<>();
+		for (int i = 0; i < 500; i++) {
+			picked.add(service.getThemeByTime(hour).getTheme());
+		}
+		return picked;
+	}
+}
@@ -0,0 +1,157 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jy.demo.api.AiMode;
+import jy.demo.dto.AiMessageJob;
+
+class AiJobJournalTest {
+
+	@TempDir
+	Path dir;
+
+	private AiJobJournal journal;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	@Test
+	void 끝나지_않은_작업만_마지막_상태로_복구한다() throws IOException {
+		journal = open(1000);
+		AiMessageJob running = job("running");
+		journal.append(running);
+		running.setStatus(AiMessageJob.Status.RUNNING);
+		running.setContent("생성된 본문");
+		running.getDeliveredChannels().add("slack");
+		journal.append(running);
+		AiMessageJob done = job("done");
+		journal.append(done);
+		done.setStatus(AiMessageJob.Status.SUCCEEDED);
+		journal.append(done);
+		journal.close();
+
+		journal = open(1000);
+		List<AiMessageJob> recovered = journal.recover();
+
+		assertEquals(1, recovered.size());
+		AiMessageJob job = recovered.get(0);
+		assertEquals(running.getId(), job.getId());
+		assertEquals(AiMessageJob.Status.RUNNING, job.getStatus());
+		assertEquals("생성된 본문", job.getContent());
+		assertEquals(List.of("slack"), job.getDeliveredChannels());
+	}
+
+	@Test
+	void 잘린_마지막_줄은_건너뛴다() throws IOException {
+		journal = open(1000);
+		AiMessageJob job = job("ok");
+		journal.append(job);
+		journal.close();
+		Files.writeString(journalPath(), "{\"id\":\"broken\",\"sta", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		journal = open(1000);
+		List<AiMessageJob> recovered = journal.recover();
+
+		assertEquals(1, recovered.size());
+		assertEquals(job.getId(), recovered.get(0).getId());
+	}
+
+	@Test
+	void 복구하면_끝난_작업을_지우고_파일을_다시_쓴다() throws IOException {
+		journal = open(1000);
+		for (int i = 0; i < 3; i++) {
+			AiMessageJob done = job("done-" + i);
+			journal.append(done);
+			done.setStatus(AiMessageJob.Status.FAILED);
+			journal.append(done);
+		}
+		AiMessageJob pending = job("pending");
+		journal.append(pending);
+		journal.close();
+		assertEquals(7, lines().size());
+
+		journal = open(1000);
+		journal.recover();
+
+		assertEquals(1, lines().size());
+		assertTrue(lines().get(0).contains(pending.getId()));
+	}
+
+	@Test
+	void 기록이_임계치를_넘으면_정리하고_이후_기록도_이어진다() throws IOException {
+		journal = open(4);
+		journal.recover();
+		AiMessageJob pending = job("pending");
+		journal.append(pending);
+		AiMessageJob done = job("done");
+		journal.append(done);
+		done.setStatus(AiMessageJob.Status.SUCCEEDED);
+		journal.append(done);
+		journal.append(pending);
+
+		// 4번째 기록에서 정리되어 미완료 작업 한 줄만 남는다
+		assertEquals(1, lines().size());
+
+		AiMessageJob next = job("next");
+		journal.append(next);
+		journal.close();
+
+		journal = open(4);
+		List<AiMessageJob> recovered = journal.recover();
+		assertEquals(List.of(pending.getId(), next.getId()), recovered.stream().map(AiMessageJob::getId).toList());
+	}
+
+	@Test
+	void 이전_형식의_카멜_케이스_항목도_전송한_채널을_유지한다() throws IOException {
+		Files.writeString(journalPath(),
+			"{\"id\":\"legacy\",\"prompt\":\"p\",\"mode\":\"PLAIN\",\"status\":\"RUNNING\","
+				+ "\"deliveredChannels\":[\"kakao\"],\"lastError\":\"timeout\",\"createdAt\":1,\"updatedAt\":2}\n",
+			StandardCharsets.UTF_8);
+
+		journal = open(1000);
+		List<AiMessageJob> recovered = journal.recover();
+
+		assertEquals(1, recovered.size());
+		AiMessageJob job = recovered.get(0);
+		assertEquals(List.of("kakao"), job.getDeliveredChannels());
+		assertEquals("timeout", job.getLastError());
+		assertEquals(1, job.getCreatedAt());
+		assertEquals(2, job.getUpdatedAt());
+		// 정리하면서 새 형식으로 다시 기록된다
+		assertTrue(lines().get(0).contains("\"delivered_channels\":[\"kakao\"]"));
+	}
+
+	private AiJobJournal open(int compactThreshold) {
+		return new AiJobJournal(journalPath().toString(), false, compactThreshold);
+	}
+
+	private Path journalPath() {
+		return dir.resolve("ai-jobs.log");
+	}
+
+	private List<String> lines() throws IOException {
+		return Files.readAllLines(journalPath(), StandardCharsets.UTF_8).stream()
+			.filter(line -> !line.isBlank())
+			.toList();
+	}
+
+	private static AiMessageJob job(String title) {
+		return AiMessageJob.create(title, "prompt " + title, AiMode.PLAIN, List.of());
+	}
+}
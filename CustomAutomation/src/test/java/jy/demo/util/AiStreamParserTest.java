@@ -0,0 +1,93 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AiStreamParserTest {
+
+	private static final String RAW = "answer : 오늘의 개발 팁입니다.\n테스트를 먼저 작성하세요.<end>다음 질문 예시";
+
+	@Test
+	void 한_번에_받으면_일괄_파싱과_같다() {
+		assertEquals(AiResponseParser.parse(RAW), stream(RAW));
+	}
+
+	@Test
+	void 프리픽스_중간에서_잘려도_프리픽스를_제거한다() {
+		String streamed = stream("ans", "wer", " ", ":", " 오늘의 개발 팁입니다.<end>");
+
+		assertEquals("오늘의 개발 팁입니다.", streamed);
+	}
+
+	@Test
+	void 종료_태그_중간에서_잘려도_태그를_내보내지_않는다() {
+		AiStreamParser parser = new AiStreamParser();
+		List<String> emitted = new ArrayList<>();
+		for (String chunk : new String[] {"answer : 끝입니다.<", "en", "d>무시할 내용"}) {
+			emitted.add(parser.accept(chunk));
+		}
+		emitted.add(parser.finish());
+
+		String sent = String.join("", emitted);
+		assertFalse(sent.contains("<"));
+		assertEquals("끝입니다.", parser.getContent());
+	}
+
+	@Test
+	void 어디서_나뉘어_도착해도_일괄_파싱과_같다() {
+		String expected = AiResponseParser.parse(RAW);
+		for (int first = 1; first < RAW.length(); first++) {
+			for (int second = first + 1; second < RAW.length(); second++) {
+				String[] chunks = {RAW.substring(0, first), RAW.substring(first, second), RAW.substring(second)};
+				AiStreamParser parser = new AiStreamParser();
+				StringBuilder sent = new StringBuilder();
+				for (String chunk : chunks) {
+					sent.append(parser.accept(chunk));
+				}
+				sent.append(parser.finish());
+
+				String at = "split at " + first + ", " + second;
+				assertEquals(expected, parser.getContent(), at);
+				// 클라이언트로 보낸 조각을 이어 붙인 결과도 같아야 한다
+				assertEquals(expected, sent.toString().trim(), at);
+			}
+		}
+	}
+
+	@Test
+	void 프리픽스가_없는_응답은_그대로_보낸다() {
+		String raw = "프리픽스 없는 응답<end>";
+
+		assertEquals(AiResponseParser.parse(raw), stream("프리픽스 ", "없는 응답<e", "nd>"));
+	}
+
+	@Test
+	void 프리픽스만_있고_스트림이_끝나면_유효하지_않은_응답() {
+		assertEquals(AiResponseParser.INVALID_RESPONSE_MSG, stream("answer", " :"));
+		assertEquals(AiResponseParser.parse("answer :"), stream("answer", " :"));
+	}
+
+	@Test
+	void 종료_태그_이후_조각은_무시한다() {
+		AiStreamParser parser = new AiStreamParser();
+		parser.accept("answer : 본문<end>");
+
+		assertEquals("", parser.accept("뒤에 온 조각"));
+		assertEquals("", parser.finish());
+		assertEquals("본문", parser.getContent());
+	}
+
+	private static String stream(String... chunks) {
+		AiStreamParser parser = new AiStreamParser();
+		for (String chunk : chunks) {
+			parser.accept(chunk);
+		}
+		parser.finish();
+		return parser.getContent();
+	}
+}
@@ -0,0 +1,30 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSchedulerLockTest extends SchedulerLockContractTest {
+
+	@TempDir
+	Path directory;
+
+	@Override
+	protected SchedulerLock createLock() {
+		return new FileSchedulerLock(directory);
+	}
+
+	@Test
+	void 같은_디렉터리를_쓰는_다른_인스턴스와_잠금을_공유한다() {
+		SchedulerLock first = new FileSchedulerLock(directory);
+		SchedulerLock second = new FileSchedulerLock(directory);
+
+		assertTrue(first.tryAcquire("shared", "a", Instant.now().plusSeconds(60)));
+		assertFalse(second.tryAcquire("shared", "b", Instant.now().plusSeconds(60)));
+	}
+}
@@ -0,0 +1,74 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GradientLimitTest {
+
+	private static final long MS = 1_000_000L;
+
+	@Test
+	void 초기_한도는_최소_최대_사이로_맞춘다() {
+		assertEquals(8, new GradientLimit(20, 1, 8, 0.2, 1.5, 0.9, 100).getLimit());
+		assertEquals(2, new GradientLimit(0, 2, 8, 0.2, 1.5, 0.9, 100).getLimit());
+	}
+
+	@Test
+	void 과부하_신호마다_줄이되_최소_한도_아래로는_내려가지_않는다() {
+		GradientLimit limit = new GradientLimit(4, 1, 8, 0.2, 1.5, 0.9, 100);
+
+		limit.onDropped();
+		assertEquals(3, limit.getLimit());
+
+		for (int i = 0; i < 50; i++) {
+			limit.onDropped();
+		}
+		assertEquals(1, limit.getLimit());
+	}
+
+	@Test
+	void 지연이_평소_수준이면_한도를_늘린다() {
+		GradientLimit limit = new GradientLimit(4, 1, 8, 1.0, 1.5, 0.9, 100);
+
+		limit.onSample("PLAIN", 100 * MS, 4);
+
+		// 4 * 1.0 + sqrt(4)
+		assertEquals(6, limit.getLimit());
+	}
+
+	@Test
+	void 지연이_평소보다_길어지면_한도를_줄인다() {
+		GradientLimit limit = new GradientLimit(8, 1, 8, 1.0, 1.0, 0.9, 100);
+		limit.onSample("PLAIN", 100 * MS, 1);
+
+		limit.onSample("PLAIN", 400 * MS, 8);
+
+		assertTrue(limit.getLimit() < 8);
+	}
+
+	@Test
+	void 한도의_절반도_쓰지_않으면_바꾸지_않는다() {
+		GradientLimit limit = new GradientLimit(4, 1, 8, 1.0, 1.5, 0.9, 100);
+
+		limit.onSample("PLAIN", 100 * MS, 1);
+		limit.onSample("PLAIN", 1000 * MS, 1);
+
+		assertEquals(4, limit.getLimit());
+	}
+
+	@Test
+	void 평소_지연은_category별로_잰다() {
+		GradientLimit limit = new GradientLimit(8, 1, 8, 1.0, 1.0, 0.9, 100);
+		limit.onSample("AGENT", 1000 * MS, 1);
+		limit.onSample("PLAIN", 100 * MS, 1);
+
+		// 오래 걸리는 AGENT 표본이 PLAIN의 평소 지연을 끌어올리지 않으므로 AGENT 수준 지연은 과부하로 본다
+		assertEquals(1000 * MS, limit.getMaxLongRttNanos());
+		limit.onSample("AGENT", 1000 * MS, 8);
+		assertEquals(8, limit.getLimit());
+		limit.onSample("PLAIN", 1000 * MS, 8);
+		assertTrue(limit.getLimit() < 8);
+	}
+}
@@ -0,0 +1,32 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class JdbcSchedulerLockTest extends SchedulerLockContractTest {
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	protected SchedulerLock createLock() {
+		// 테스트마다 새 메모리 DB
+		jdbcTemplate = new JdbcTemplate(
+			new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+		return new JdbcSchedulerLock(jdbcTemplate);
+	}
+
+	@Test
+	void 같은_DB를_쓰는_다른_노드와_잠금을_공유한다() {
+		SchedulerLock other = new JdbcSchedulerLock(jdbcTemplate);
+
+		assertTrue(new JdbcSchedulerLock(jdbcTemplate).tryAcquire("shared", "a", Instant.now().plusSeconds(60)));
+		assertFalse(other.tryAcquire("shared", "b", Instant.now().plusSeconds(60)));
+	}
+}
@@ -0,0 +1,94 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jy.demo.dto.KakaoMsgDto;
+
+class JsonUtilTest {
+
+	@Test
+	void DTO는_스네이크_케이스로_직렬화한다() {
+		String json = JsonUtil.toJson(new KakaoMsgDto("안녕"));
+
+		Map<String, Object> map = JsonUtil.toMap(json);
+		assertEquals("text", map.get("object_type"));
+		assertEquals("안녕", map.get("text"));
+		assertEquals("바로 확인", map.get("button_title"));
+		assertEquals(map, JsonUtil.toMap(new KakaoMsgDto("안녕")));
+	}
+
+	@Test
+	void 바이트_직렬화는_문자열_직렬화와_같다() {
+		KakaoMsgDto dto = new KakaoMsgDto("가".repeat(100));
+
+		assertEquals(JsonUtil.toJson(dto), new String(JsonUtil.toJsonBytes(dto), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void JsonGenerator로_직접_기록한다() {
+		byte[] json = JsonUtil.toJsonBytes(generator -> {
+			generator.writeStartObject();
+			generator.writeStringField("text", "한글");
+			generator.writeNumberField("count", 2);
+			generator.writeEndObject();
+		});
+
+		assertEquals("{\"text\":\"한글\",\"count\":2}", new String(json, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void form_본문은_최상위_필드만_풀고_중첩_값은_JSON으로_둔다() {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("name", "a b&c");
+		body.put("skip", null);
+		body.put("nested", Map.of("k", "v"));
+
+		String form = JsonUtil.toFormBody(body);
+
+		assertEquals("name=a+b%26c&nested=%7B%22k%22%3A%22v%22%7D", form);
+		assertEquals(form, JsonUtil.toFormBody("{\"name\":\"a b&c\",\"skip\":null,\"nested\":{\"k\":\"v\"}}"));
+		assertThrows(IllegalArgumentException.class, () -> JsonUtil.toFormBody("[1,2]"));
+	}
+
+	@Test
+	void 카카오_전송_form은_template_object_하나로_보낸다() {
+		String form = new JsonUtil().createKakaoSendMsgForm("안녕");
+
+		assertTrue(form.startsWith("template_object="), form);
+		String template = URLDecoder.decode(form.substring("template_object=".length()), StandardCharsets.UTF_8);
+		assertEquals("안녕", JsonUtil.toMap(template).get("text"));
+	}
+
+	@Test
+	void 지정한_필드만_읽고_숫자는_원본_표기로_반환한다() {
+		Map<String, String> fields = JsonUtil.readFields(
+			"{\"extra\":{\"result_code\":9},\"result_code\":0,\"msg\":null,\"items\":[1,2]}", "result_code", "msg");
+
+		assertEquals("0", fields.get("result_code"));
+		assertFalse(fields.containsKey("msg"));
+		assertTrue(JsonUtil.readFields("[]", "result_code").isEmpty());
+	}
+
+	@Test
+	void 경로의_스칼라_값만_읽는다() {
+		String json = "{\"id\":\"x\",\"choices\":[{\"message\":{\"content\":\"first\"}},{\"message\":{\"content\":\"second\"}}]}";
+
+		assertEquals("first", JsonUtil.readPath(json, "choices", "0", "message", "content"));
+		assertEquals("second", JsonUtil.readPath(new StringReader(json), "choices", "1", "message", "content"));
+		assertNull(JsonUtil.readPath(json, "choices", "2", "message", "content"));
+		assertNull(JsonUtil.readPath(json, "choices", "0", "message"));
+		assertNull(JsonUtil.readPath(json, "missing"));
+	}
+}
@@ -0,0 +1,172 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jy.demo.dto.KakaoTokenDto;
+
+class KakaoTokenFileManagerTest {
+
+	@TempDir
+	Path dir;
+
+	private final List<KakaoTokenFileManager> opened = new CopyOnWriteArrayList<>();
+	private final List<KakaoTokenDto> notified = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (KakaoTokenFileManager manager : opened) {
+			manager.close();
+		}
+	}
+
+	@Test
+	void 저장할_때마다_버전이_올라가고_이력에_남는다() throws Exception {
+		KakaoTokenFileManager manager = open(5);
+
+		assertTrue(manager.saveToken("access-1", "refresh-1"));
+		assertTrue(manager.saveToken("access-2", "refresh-2"));
+
+		assertEquals(2L, manager.loadToken().getVersion());
+		assertEquals(List.of(1L, 2L), versions(manager));
+		String file = Files.readString(tokenFile(), StandardCharsets.UTF_8);
+		assertTrue(file.contains("\"access_token\":\"access-2\""));
+		assertFalse(file.contains("\n"));
+	}
+
+	@Test
+	void 이력은_설정한_개수까지만_보관한다() {
+		KakaoTokenFileManager manager = open(2);
+
+		manager.saveToken("access-1", "refresh-1");
+		manager.saveToken("access-2", "refresh-2");
+		manager.saveToken("access-3", "refresh-3");
+
+		assertEquals(List.of(2L, 3L), versions(manager));
+	}
+
+	@Test
+	void 다시_시작하면_토큰과_이력을_이어서_쓴다() {
+		KakaoTokenFileManager first = open(5);
+		first.saveToken("access-1", "refresh-1");
+		first.saveToken("access-2", "refresh-2");
+		first.close();
+
+		KakaoTokenFileManager restarted = open(5);
+
+		assertEquals("access-2", restarted.loadToken().getAccessToken());
+		assertEquals(List.of(1L, 2L), versions(restarted));
+		restarted.saveToken("access-3", "refresh-3");
+		assertEquals(3L, restarted.loadToken().getVersion());
+	}
+
+	@Test
+	void 롤백하면_옛_토큰을_새_버전으로_저장하고_알린다() {
+		KakaoTokenFileManager manager = open(5);
+		manager.saveToken("access-1", "refresh-1");
+		manager.saveToken("access-2", "refresh-2");
+
+		assertTrue(manager.rollback());
+
+		KakaoTokenDto current = manager.loadToken();
+		assertEquals("access-1", current.getAccessToken());
+		assertEquals("refresh-1", current.getRefreshToken());
+		assertEquals(3L, current.getVersion());
+		assertEquals(List.of(1L, 2L, 3L), versions(manager));
+		assertEquals(1, notified.size());
+		assertEquals("access-1", notified.get(0).getAccessToken());
+	}
+
+	@Test
+	void 없는_버전으로는_롤백하지_않는다() {
+		KakaoTokenFileManager manager = open(5);
+		assertFalse(manager.rollback());
+
+		manager.saveToken("access-1", "refresh-1");
+
+		assertFalse(manager.rollback());
+		assertFalse(manager.rollback(99));
+		assertEquals("access-1", manager.loadToken().getAccessToken());
+		assertTrue(notified.isEmpty());
+	}
+
+	@Test
+	void 직접_저장한_파일은_외부_변경으로_보지_않는다() {
+		KakaoTokenFileManager manager = open(5);
+		manager.saveToken("access-1", "refresh-1");
+
+		ReflectionTestUtils.invokeMethod(manager, "onFileChanged");
+
+		assertEquals(List.of(1L), versions(manager));
+		assertTrue(notified.isEmpty());
+	}
+
+	@Test
+	void 외부에서_바꾼_토큰은_새_버전으로_반영하고_알린다() throws Exception {
+		KakaoTokenFileManager manager = open(5);
+		manager.saveToken("access-1", "refresh-1");
+
+		// 갱신 스크립트처럼 version 없이 기록
+		Files.writeString(tokenFile(), "{\"access_token\": \"external\", \"refresh_token\": \"refresh-2\"}",
+			StandardCharsets.UTF_8);
+		// 감시 스레드가 먼저 반영했으면 같은 토큰이라 무시된다
+		ReflectionTestUtils.invokeMethod(manager, "onFileChanged");
+		awaitNotified(1);
+
+		assertEquals("external", manager.loadToken().getAccessToken());
+		assertEquals(2L, manager.loadToken().getVersion());
+		assertEquals(List.of(1L, 2L), versions(manager));
+		assertEquals(1, notified.size());
+		assertEquals("external", notified.get(0).getAccessToken());
+	}
+
+	@Test
+	void 읽을_수_없는_파일은_무시한다() throws Exception {
+		KakaoTokenFileManager manager = open(5);
+		manager.saveToken("access-1", "refresh-1");
+
+		Files.writeString(tokenFile(), "{\"access_token\": ", StandardCharsets.UTF_8);
+		ReflectionTestUtils.invokeMethod(manager, "onFileChanged");
+
+		assertEquals("access-1", manager.loadToken().getAccessToken());
+		assertTrue(notified.isEmpty());
+	}
+
+	private KakaoTokenFileManager open(int historySize) {
+		KakaoTokenFileManager manager = new KakaoTokenFileManager(tokenFile().toString(), historySize);
+		manager.addListener(notified::add);
+		manager.init();
+		opened.add(manager);
+		return manager;
+	}
+
+	/**
+	 * 감시 스레드가 반영한 경우 알림은 잠금 밖에서 나가므로 잠시 기다린다
+	 */
+	private void awaitNotified(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (notified.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private Path tokenFile() {
+		return dir.resolve("kakao-tokens.json");
+	}
+
+	private static List<Long> versions(KakaoTokenFileManager manager) {
+		return manager.getHistory().stream().map(KakaoTokenDto::getVersion).toList();
+	}
+}
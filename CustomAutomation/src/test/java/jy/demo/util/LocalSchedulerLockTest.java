@@ -0,0 +1,9 @@
+package jy.demo.util;
+
+class LocalSchedulerLockTest extends SchedulerLockContractTest {
+
+	@Override
+	protected SchedulerLock createLock() {
+		return new LocalSchedulerLock();
+	}
+}
@@ -0,0 +1,77 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.api.AiMode;
+import jy.demo.dto.DeliveryResult;
+
+class PipelineMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PipelineMetrics metrics = new PipelineMetrics(registry);
+
+	@Test
+	void 예외를_outcome으로_바꾼다() {
+		assertEquals(PipelineMetrics.OUTCOME_SUCCESS, PipelineMetrics.outcomeOf(null));
+		assertEquals(PipelineMetrics.OUTCOME_TIMEOUT, PipelineMetrics.outcomeOf(new TimeoutException()));
+		assertEquals(PipelineMetrics.OUTCOME_TIMEOUT,
+			PipelineMetrics.outcomeOf(new CompletionException(new IllegalStateException(new SocketTimeoutException()))));
+		assertEquals(PipelineMetrics.OUTCOME_ERROR, PipelineMetrics.outcomeOf(new IllegalStateException("boom")));
+	}
+
+	@Test
+	void AI_호출은_모드와_outcome별로_기록한다() {
+		metrics.recordAiCall(metrics.start(), AiMode.SEARCH, PipelineMetrics.OUTCOME_SUCCESS);
+		metrics.recordAiCall(metrics.start(), AiMode.SEARCH, PipelineMetrics.OUTCOME_SUCCESS);
+		metrics.recordAiCall(metrics.start(), AiMode.PLAIN, PipelineMetrics.OUTCOME_TIMEOUT);
+
+		assertEquals(2, aiCalls("SEARCH", PipelineMetrics.OUTCOME_SUCCESS).count());
+		assertEquals(1, aiCalls("PLAIN", PipelineMetrics.OUTCOME_TIMEOUT).count());
+	}
+
+	@Test
+	void 전송_결과는_채널별_소요시간과_횟수로_기록한다() {
+		metrics.recordDelivery(new DeliveryResult("slack", DeliveryResult.Status.SUCCESS, "ok", 120));
+		metrics.recordDelivery(new DeliveryResult("slack", DeliveryResult.Status.SUCCESS, "ok", 80));
+		metrics.recordDelivery(new DeliveryResult("kakao", DeliveryResult.Status.FAILED, "fail", 30));
+
+		Timer slack = registry.get("pipeline.delivery").tag("channel", "slack").tag("status", "SUCCESS").timer();
+		assertEquals(2, slack.count());
+		assertEquals(200, slack.totalTime(TimeUnit.MILLISECONDS), 1e-9);
+		assertEquals(1, registry.get("pipeline.delivery.result")
+			.tag("channel", "kakao").tag("status", "FAILED").counter().count(), 1e-9);
+	}
+
+	@Test
+	void 테마가_없으면_none으로_기록한다() {
+		metrics.recordThemeDelivery(null, new DeliveryResult("slack", DeliveryResult.Status.TIMEOUT, "timeout", 0));
+		metrics.recordThemeDelivery("명언", new DeliveryResult("slack", DeliveryResult.Status.SUCCESS, "ok", 0));
+
+		assertEquals(1, registry.get("pipeline.theme.delivery")
+			.tag("theme", "none").tag("status", "TIMEOUT").counter().count(), 1e-9);
+		assertEquals(1, registry.get("pipeline.theme.delivery")
+			.tag("theme", "명언").tag("channel", "slack").counter().count(), 1e-9);
+	}
+
+	@Test
+	void 단계별_소요시간을_기록한다() {
+		metrics.recordThemeSelection(metrics.start());
+		metrics.recordParse(metrics.start());
+
+		assertEquals(1, registry.get("pipeline.theme.selection").timer().count());
+		assertEquals(1, registry.get("pipeline.parse").timer().count());
+	}
+
+	private Timer aiCalls(String mode, String outcome) {
+		return registry.get("pipeline.ai.call").tag("mode", mode).tag("outcome", outcome).timer();
+	}
+}
@@ -0,0 +1,59 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+	@Test
+	void 잔액만큼만_재시도를_허용한다() {
+		RetryBudget budget = new RetryBudget(0.5, 2, 0);
+
+		assertTrue(budget.tryWithdraw());
+		assertTrue(budget.tryWithdraw());
+		assertFalse(budget.tryWithdraw());
+		assertFalse(budget.hasBalance());
+	}
+
+	@Test
+	void 첫_시도마다_ratio만큼_적립되고_최대_잔액을_넘지_않는다() {
+		RetryBudget budget = new RetryBudget(0.5, 2, 0);
+		budget.tryWithdraw();
+		budget.tryWithdraw();
+
+		budget.deposit();
+		assertFalse(budget.hasBalance());
+		budget.deposit();
+		assertTrue(budget.hasBalance());
+
+		for (int i = 0; i < 10; i++) {
+			budget.deposit();
+		}
+		assertEquals(2.0, budget.getBalance(), 1e-9);
+	}
+
+	@Test
+	void hasBalance는_차감하지_않는다() {
+		RetryBudget budget = new RetryBudget(0.5, 1, 0);
+
+		assertTrue(budget.hasBalance());
+		assertTrue(budget.hasBalance());
+		assertEquals(1.0, budget.getBalance(), 1e-9);
+	}
+
+	@Test
+	void withdraw는_0_아래로_내려가지_않는다() {
+		RetryBudget budget = new RetryBudget(0.5, 1, 0);
+
+		budget.withdraw();
+		budget.withdraw();
+
+		assertEquals(0.0, budget.getBalance(), 1e-9);
+		budget.deposit();
+		budget.deposit();
+		assertTrue(budget.hasBalance());
+	}
+}
@@ -0,0 +1,65 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import jy.demo.api.DalaiOverloadedException;
+
+class RetryClassifierTest {
+
+	@Test
+	void 시간_초과와_연결_오류는_재시도한다() {
+		assertTrue(RetryClassifier.isRetryable(new TimeoutException()));
+		assertTrue(RetryClassifier.isRetryable(new IOException("connection reset")));
+	}
+
+	@Test
+	void 포화_거절은_재시도하고_서킷_OPEN은_재시도하지_않는다() {
+		assertTrue(RetryClassifier.isRetryable(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("test"))));
+		assertTrue(RetryClassifier.isRetryable(new DalaiOverloadedException("busy", Duration.ofSeconds(1))));
+		assertFalse(RetryClassifier.isRetryable(
+			CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("test"))));
+	}
+
+	@Test
+	void 상태_코드는_5xx와_429만_재시도한다() {
+		assertTrue(RetryClassifier.isRetryable(response(503)));
+		assertTrue(RetryClassifier.isRetryable(response(429)));
+		assertFalse(RetryClassifier.isRetryable(response(400)));
+		assertFalse(RetryClassifier.isRetryable(response(401)));
+
+		assertTrue(RetryClassifier.isRetryableStatus(500));
+		assertFalse(RetryClassifier.isRetryableStatus(404));
+	}
+
+	@Test
+	void 감싼_예외는_원인으로_판정한다() {
+		assertTrue(RetryClassifier.isRetryable(new CompletionException(new TimeoutException())));
+		assertFalse(RetryClassifier.isRetryable(new RuntimeException(response(400))));
+	}
+
+	@Test
+	void 알_수_없는_예외는_재시도하지_않는다() {
+		assertFalse(RetryClassifier.isRetryable(new IllegalStateException("bug")));
+		assertFalse(RetryClassifier.isRetryable(null));
+	}
+
+	private static WebClientResponseException response(int status) {
+		return WebClientResponseException.create(status, "status " + status, HttpHeaders.EMPTY, new byte[0],
+			StandardCharsets.UTF_8);
+	}
+}
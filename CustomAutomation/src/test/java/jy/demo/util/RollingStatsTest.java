@@ -0,0 +1,70 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RollingStatsTest {
+
+	@Test
+	void 표본이_없으면_0() {
+		RollingStats stats = new RollingStats(10, 0);
+
+		assertEquals(0, stats.count(0));
+		assertEquals(0.0, stats.errorRate(0));
+		assertEquals(0, stats.latencyPercentile(0.9, 0));
+	}
+
+	@Test
+	void 오류율과_실패를_포함한_백분위() {
+		RollingStats stats = new RollingStats(10, 0);
+		for (int i = 1; i <= 9; i++) {
+			stats.record(i * 100, false, 0);
+		}
+		stats.record(60000, true, 0);
+
+		assertEquals(10, stats.count(0));
+		assertEquals(0.1, stats.errorRate(0), 1e-9);
+		// 실패한 호출도 걸린 시간으로 백분위에 들어간다
+		assertEquals(900, stats.latencyPercentile(0.9, 0));
+		assertEquals(60000, stats.latencyPercentile(0.95, 0));
+		assertEquals(500, stats.latencyPercentile(0.5, 0));
+	}
+
+	@Test
+	void 창이_차면_가장_오래된_표본을_덮어쓴다() {
+		RollingStats stats = new RollingStats(3, 0);
+		stats.record(100, true, 0);
+		stats.record(100, true, 0);
+		stats.record(100, true, 0);
+
+		stats.record(200, false, 0);
+
+		assertEquals(3, stats.count(0));
+		assertEquals(2.0 / 3, stats.errorRate(0), 1e-9);
+	}
+
+	@Test
+	void 오래된_표본은_조회에서_빠진다() {
+		RollingStats stats = new RollingStats(10, 1000);
+		stats.record(100, true, 0);
+		stats.record(100, true, 500);
+		stats.record(300, false, 900);
+
+		assertEquals(3, stats.count(1000));
+		assertEquals(2, stats.count(1200));
+		assertEquals(0.5, stats.errorRate(1200), 1e-9);
+		assertEquals(0, stats.count(5000));
+		assertEquals(0.0, stats.errorRate(5000));
+		assertEquals(0, stats.latencyPercentile(0.9, 5000));
+	}
+
+	@Test
+	void 실패만_있어도_걸린_시간으로_백분위를_낸다() {
+		RollingStats stats = new RollingStats(10, 0);
+		stats.record(30000, true, 0);
+		stats.record(30000, true, 0);
+
+		assertEquals(30000, stats.latencyPercentile(0.9, 0));
+	}
+}
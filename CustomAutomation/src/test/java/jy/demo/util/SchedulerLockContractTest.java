@@ -0,0 +1,83 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SchedulerLock 구현이 공통으로 지켜야 할 동작 (구현별 테스트가 상속)
+ */
+abstract class SchedulerLockContractTest {
+
+	private static final String NAME = "leader";
+
+	private SchedulerLock lock;
+
+	protected abstract SchedulerLock createLock() throws Exception;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		lock = createLock();
+	}
+
+	@Test
+	void 비어_있는_잠금을_잡는다() {
+		assertTrue(lock.tryAcquire(NAME, "a", later()));
+	}
+
+	@Test
+	void 다른_노드가_잡고_있으면_잡지_못한다() {
+		lock.tryAcquire(NAME, "a", later());
+
+		assertFalse(lock.tryAcquire(NAME, "b", later()));
+	}
+
+	@Test
+	void 같은_노드는_다시_잡아_연장한다() {
+		lock.tryAcquire(NAME, "a", later());
+
+		assertTrue(lock.tryAcquire(NAME, "a", later().plusSeconds(60)));
+		assertFalse(lock.tryAcquire(NAME, "b", later()));
+	}
+
+	@Test
+	void 만료된_잠금은_다른_노드가_잡는다() {
+		lock.tryAcquire(NAME, "a", Instant.now().minusSeconds(1));
+
+		assertTrue(lock.tryAcquire(NAME, "b", later()));
+		assertFalse(lock.tryAcquire(NAME, "a", later()));
+	}
+
+	@Test
+	void 반납하면_바로_다른_노드가_잡는다() {
+		lock.tryAcquire(NAME, "a", later());
+
+		lock.release(NAME, "a", Instant.now().minusMillis(1));
+
+		assertTrue(lock.tryAcquire(NAME, "b", later()));
+	}
+
+	@Test
+	void 다른_노드의_잠금은_반납하지_못한다() {
+		lock.tryAcquire(NAME, "a", later());
+
+		lock.release(NAME, "b", Instant.now().minusMillis(1));
+
+		assertFalse(lock.tryAcquire(NAME, "b", later()));
+	}
+
+	@Test
+	void 이름이_다르면_따로_잡는다() {
+		lock.tryAcquire(NAME, "a", later());
+
+		assertTrue(lock.tryAcquire("digest", "b", later()));
+	}
+
+	private static Instant later() {
+		return Instant.now().plusSeconds(60);
+	}
+}
@@ -0,0 +1,144 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+	private final SingleFlight<String, String> flight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+	@Test
+	void 진행_중인_같은_키는_한_번만_호출한다() {
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+		AtomicInteger calls = new AtomicInteger();
+
+		CompletableFuture<String> leader = flight.execute("k", () -> {
+			calls.incrementAndGet();
+			return upstream;
+		});
+		CompletableFuture<String> joiner = flight.execute("k", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		upstream.complete("value");
+
+		assertEquals("value", leader.join());
+		assertEquals("value", joiner.join());
+		assertEquals(1, calls.get());
+		assertEquals(0, flight.size());
+	}
+
+	@Test
+	void 리더_실패는_기다리던_호출자_모두에게_전달되고_다음_요청은_새로_호출한다() {
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+		IllegalStateException failure = new IllegalStateException("down");
+
+		CompletableFuture<String> leader = flight.execute("k", () -> upstream);
+		CompletableFuture<String> joiner = flight.execute("k", () -> upstream);
+		upstream.completeExceptionally(failure);
+
+		assertSame(failure, assertThrows(ExecutionException.class, leader::get).getCause());
+		assertSame(failure, assertThrows(ExecutionException.class, joiner::get).getCause());
+		assertEquals("retry", flight.execute("k", () -> CompletableFuture.completedFuture("retry")).join());
+	}
+
+	@Test
+	void loader가_바로_던져도_표에서_빠진다() {
+		CompletableFuture<String> result = flight.execute("k", () -> {
+			throw new IllegalArgumentException("bad");
+		});
+
+		assertTrue(result.isCompletedExceptionally());
+		assertEquals(0, flight.size());
+	}
+
+	@Test
+	void 한_호출자가_취소해도_다른_호출자는_결과를_받는다() {
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+
+		CompletableFuture<String> leader = flight.execute("k", () -> upstream);
+		CompletableFuture<String> joiner = flight.execute("k", () -> upstream);
+		joiner.cancel(true);
+		upstream.complete("value");
+
+		assertTrue(joiner.isCancelled());
+		assertEquals("value", leader.join());
+		assertFalse(upstream.isCancelled());
+	}
+
+	@Test
+	void 리더가_취소해도_합류한_호출자는_결과를_받는다() {
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+
+		CompletableFuture<String> leader = flight.execute("k", () -> upstream);
+		CompletableFuture<String> joiner = flight.execute("k", () -> upstream);
+		leader.cancel(true);
+		upstream.complete("value");
+
+		assertEquals("value", joiner.join());
+	}
+
+	@Test
+	void 동기_호출은_먼저_온_스레드만_loader를_실행한다() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> leader = executor.submit(() -> flight.call("k", () -> {
+				calls.incrementAndGet();
+				started.countDown();
+				await(release);
+				return "value";
+			}));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			Future<String> joiner = executor.submit(() -> flight.call("k", () -> {
+				calls.incrementAndGet();
+				return "other";
+			}));
+			// 합류한 스레드가 기다리기 시작할 시간을 준 뒤 리더를 끝낸다
+			Thread.sleep(100);
+			release.countDown();
+
+			assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+			assertEquals("value", joiner.get(5, TimeUnit.SECONDS));
+			assertEquals(1, calls.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void 동기_호출_실패는_원래_예외로_던진다() {
+		IllegalStateException failure = new IllegalStateException("down");
+
+		assertSame(failure, assertThrows(IllegalStateException.class, () -> flight.call("k", () -> {
+			throw failure;
+		})));
+		assertEquals(0, flight.size());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+	private static final long SECOND = 1_000_000_000L;
+	private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+	@Test
+	void 용량만큼은_기다리지_않고_이후는_채워질_때까지_예약한다() {
+		TokenBucket bucket = new TokenBucket(2, 1.0, 0, 0);
+
+		assertEquals(0, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+		assertEquals(0, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+		assertEquals(SECOND, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+		assertEquals(2 * SECOND, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+	}
+
+	@Test
+	void 최대_대기시간을_넘으면_예약하지_않고_거절한다() {
+		TokenBucket bucket = new TokenBucket(1, 1.0, 0, 0);
+		bucket.reserve(0, TODAY, Long.MAX_VALUE);
+
+		assertEquals(TokenBucket.REJECTED, bucket.reserve(0, TODAY, SECOND / 2));
+		// 거절된 요청은 자리를 차지하지 않음
+		assertEquals(SECOND, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+	}
+
+	@Test
+	void 시간이_지나면_용량까지만_채워진다() {
+		TokenBucket bucket = new TokenBucket(2, 1.0, 0, 0);
+		bucket.reserve(0, TODAY, Long.MAX_VALUE);
+		bucket.reserve(0, TODAY, Long.MAX_VALUE);
+
+		assertEquals(1.0, bucket.available(SECOND), 1e-9);
+		assertEquals(2.0, bucket.available(10 * SECOND), 1e-9);
+		assertEquals(0, bucket.reserve(10 * SECOND, TODAY, 0));
+	}
+
+	@Test
+	void 일일_쿼터를_다_쓰면_다음_날까지_거절한다() {
+		TokenBucket bucket = new TokenBucket(10, 1.0, 2, 0);
+
+		assertEquals(0, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+		assertEquals(0, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+		assertEquals(0, bucket.remainingToday(TODAY));
+		assertEquals(TokenBucket.REJECTED, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+
+		assertEquals(0, bucket.reserve(0, TODAY.plusDays(1), Long.MAX_VALUE));
+		assertEquals(1, bucket.remainingToday(TODAY.plusDays(1)));
+	}
+
+	@Test
+	void 쿼터가_없으면_남은_쿼터는_음수() {
+		TokenBucket bucket = new TokenBucket(1, 1.0, 0, 0);
+
+		assertEquals(-1, bucket.remainingToday(TODAY));
+	}
+
+	@Test
+	void Retry_After_동안은_토큰이_있어도_기다린다() {
+		TokenBucket bucket = new TokenBucket(5, 1.0, 0, 0);
+
+		bucket.pauseUntil(0, 3 * SECOND);
+
+		assertEquals(0, bucket.available(SECOND), 1e-9);
+		assertEquals(3 * SECOND, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+		// 멈춘 동안에는 한 개만 남기므로 다음 요청은 채워질 때까지 더 기다린다
+		assertEquals(4 * SECOND, bucket.reserve(0, TODAY, Long.MAX_VALUE));
+	}
+}
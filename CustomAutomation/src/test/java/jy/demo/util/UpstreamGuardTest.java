@@ -0,0 +1,198 @@
+package jy.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jy.demo.api.ClientAbortedException;
+import jy.demo.config.ResilienceProperties;
+
+class UpstreamGuardTest {
+
+	private static final String NAME = UpstreamGuard.SLACK;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ResilienceProperties properties = new ResilienceProperties();
+	private final ResilienceProperties.Upstream upstream = properties.getUpstreams().get(NAME);
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		upstream.setSlidingWindowSize(4);
+		upstream.setMinimumCalls(4);
+		upstream.setRetryInitialBackoffMs(10);
+		upstream.setRetryJitter(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void 실패가_몰리면_서킷이_열리고_호출하지_않는다() {
+		UpstreamGuard guard = create();
+
+		for (int i = 0; i < 4; i++) {
+			assertThrows(IllegalStateException.class, () -> guard.call(NAME, this::fail));
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, guard.circuitBreaker(NAME).getState());
+		assertThrows(CallNotPermittedException.class, () -> guard.call(NAME, this::succeed));
+		assertEquals(4, calls.get());
+	}
+
+	@Test
+	void 상태_코드_4xx_응답과_클라이언트_연결_종료는_실패율에_넣지_않는다() {
+		UpstreamGuard guard = create();
+
+		for (int i = 0; i < 4; i++) {
+			assertThrows(HttpClientErrorException.class, () -> guard.call(NAME, () -> {
+				throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+			}));
+			assertThrows(ClientAbortedException.class, () -> guard.call(NAME, () -> {
+				throw new ClientAbortedException(new IOException("Broken pipe"));
+			}));
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, guard.circuitBreaker(NAME).getState());
+		assertEquals(0, guard.circuitBreaker(NAME).getMetrics().getNumberOfFailedCalls());
+	}
+
+	@Test
+	void 동시_호출_한도를_넘으면_바로_거절하고_서킷에는_넣지_않는다() throws Exception {
+		upstream.setMaxConcurrent(1);
+		UpstreamGuard guard = create();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> holding = executor.submit(() -> guard.call(NAME, () -> {
+			started.countDown();
+			await(release);
+			return "held";
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		for (int i = 0; i < 4; i++) {
+			assertThrows(BulkheadFullException.class, () -> guard.call(NAME, this::succeed));
+		}
+		release.countDown();
+
+		assertEquals("held", holding.get(5, TimeUnit.SECONDS));
+		assertEquals(CircuitBreaker.State.CLOSED, guard.circuitBreaker(NAME).getState());
+		assertEquals(4, meterRegistry.get("upstream.bulkhead.rejected").tag("name", NAME).counter().count(), 1e-9);
+	}
+
+	@Test
+	void 재시도할_수_있는_오류만_다시_시도한다() {
+		UpstreamGuard guard = create();
+
+		assertEquals("ok", guard.callWithRetry(NAME, () -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new ResourceAccessException("connection reset");
+			}
+			return "ok";
+		}));
+		assertEquals(2, calls.get());
+
+		calls.set(0);
+		assertThrows(IllegalArgumentException.class, () -> guard.callWithRetry(NAME, () -> {
+			calls.incrementAndGet();
+			throw new IllegalArgumentException("bad");
+		}));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void 재시도_예산이_없으면_재시도하지_않는다() {
+		upstream.setRetryBudgetMax(1);
+		upstream.setRetryBudgetRatio(0);
+		upstream.setRetryBudgetRefillPerMinute(0);
+		UpstreamGuard guard = create();
+
+		assertThrows(ResourceAccessException.class, () -> guard.callWithRetry(NAME, this::failRetryable));
+		assertEquals(2, calls.get());
+
+		calls.set(0);
+		assertThrows(ResourceAccessException.class, () -> guard.callWithRetry(NAME, this::failRetryable));
+		assertEquals(1, calls.get());
+		assertTrue(meterRegistry.get("upstream.retry.budget.exhausted").tag("name", NAME).counter().count() >= 1);
+		assertFalse(guard.tryRetry(NAME));
+	}
+
+	@Test
+	void 제한_시간_안에_백오프할_수_없으면_원래_예외를_던진다() {
+		UpstreamGuard guard = create();
+		ResourceAccessException error = new ResourceAccessException("timeout");
+
+		ResourceAccessException thrown = assertThrows(ResourceAccessException.class,
+			() -> guard.callWithRetry(NAME, Duration.ofMillis(1), () -> {
+				calls.incrementAndGet();
+				throw error;
+			}));
+
+		assertSame(error, thrown);
+		assertEquals(1, calls.get());
+		assertEquals(1, meterRegistry.get("upstream.retry.deadline.skipped").tag("name", NAME).counter().count(), 1e-9);
+	}
+
+	@Test
+	void 백오프는_시도마다_배수로_늘어난다() {
+		UpstreamGuard guard = create();
+
+		assertEquals(3, guard.maxAttempts(NAME));
+		assertEquals(10, guard.retryDelayMs(NAME, 1));
+		assertEquals(20, guard.retryDelayMs(NAME, 2));
+		assertEquals(40, guard.retryDelayMs(NAME, 3));
+		assertEquals(1, guard.maxAttempts("unknown"));
+	}
+
+	private UpstreamGuard create() {
+		return new UpstreamGuard(properties, meterRegistry);
+	}
+
+	private String succeed() {
+		calls.incrementAndGet();
+		return "ok";
+	}
+
+	private String fail() {
+		calls.incrementAndGet();
+		throw new IllegalStateException("server error");
+	}
+
+	private String failRetryable() {
+		calls.incrementAndGet();
+		throw new ResourceAccessException("connection reset");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}